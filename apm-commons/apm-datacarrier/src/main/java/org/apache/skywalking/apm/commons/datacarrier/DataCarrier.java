@@ -20,7 +20,10 @@ package org.apache.skywalking.apm.commons.datacarrier;
 
 import java.util.Properties;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.RingBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -49,10 +52,19 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy) {
+        this(name, envPrefix, channelSize, bufferSize, strategy, BufferType.DEFAULT);
+    }
+
+    public DataCarrier(String name,
+                       String envPrefix,
+                       int channelSize,
+                       int bufferSize,
+                       BufferStrategy strategy,
+                       BufferType bufferType) {
         this.name = name;
         bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy);
+        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy, bufferType);
     }
 
     public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy) {
@@ -71,6 +83,24 @@ public class DataCarrier<T> {
         return this;
     }
 
+    /**
+     * set the wait strategy of the producers when the buffer is full in {@link BufferStrategy#BLOCKING}. Only works
+     * with {@link BufferType#RING}.
+     *
+     * @return DataCarrier instance for chain
+     */
+    public DataCarrier setWaitStrategy(RingBuffer.WaitStrategy waitStrategy) {
+        this.channels.setWaitStrategy(waitStrategy);
+        return this;
+    }
+
+    /**
+     * @return the number of data abandoned because of the full buffer. Only {@link BufferType#RING} counts it.
+     */
+    public long getDroppedCount() {
+        return this.channels.getDroppedCount();
+    }
+
     /**
      * produce data to buffer, using the given {@link BufferStrategy}.
      *
@@ -123,10 +153,22 @@ public class DataCarrier<T> {
      * @param num      number of consumer threads
      */
     public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle) {
+        return this.consume(consumer, num, consumeCycle, null);
+    }
+
+    /**
+     * set consumeDriver to this Carrier. consumer begin to run when {@link DataCarrier#produce} begin to work.
+     *
+     * @param consumer     single instance of consumer, all consumer threads will all use this instance.
+     * @param num          number of consumer threads
+     * @param consumeCycle sleep time when there is nothing to consume, ignored when the signal exists.
+     * @param signal       wakes up the consumer threads when the data is produced. Null means polling.
+     */
+    public DataCarrier consume(IConsumer<T> consumer, int num, long consumeCycle, ConsumeSignal signal) {
         if (driver != null) {
             driver.close(channels);
         }
-        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle);
+        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, consumeCycle, signal);
         driver.begin(channels);
         return this;
     }
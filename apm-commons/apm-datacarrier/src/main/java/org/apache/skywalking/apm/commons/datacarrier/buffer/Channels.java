@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 
 /**
@@ -29,13 +30,24 @@ public class Channels<T> {
     private IDataPartitioner<T> dataPartitioner;
     private final BufferStrategy strategy;
     private final long size;
+    private volatile ConsumeSignal signal;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.DEFAULT);
+    }
+
+    public Channels(int channelSize,
+                    int bufferSize,
+                    IDataPartitioner<T> partitioner,
+                    BufferStrategy strategy,
+                    BufferType bufferType) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
         bufferChannels = new QueueBuffer[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (BufferType.RING.equals(bufferType)) {
+                bufferChannels[i] = new RingBuffer<>(bufferSize, strategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<>(bufferSize, strategy);
@@ -56,12 +68,24 @@ public class Channels<T> {
         }
         for (; retryCountDown > 0; retryCountDown--) {
             if (bufferChannels[index].save(data)) {
+                ConsumeSignal signal = this.signal;
+                if (signal != null) {
+                    signal.produced();
+                }
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Set the signal to wake up the consumers of this channel, null means the consumers poll the buffers by
+     * themselves.
+     */
+    public void setSignal(ConsumeSignal signal) {
+        this.signal = signal;
+    }
+
     public void setPartitioner(IDataPartitioner<T> dataPartitioner) {
         this.dataPartitioner = dataPartitioner;
     }
@@ -76,6 +100,32 @@ public class Channels<T> {
         }
     }
 
+    /**
+     * override the wait strategy of the producers when the {@link RingBuffer} is full in {@link
+     * BufferStrategy#BLOCKING}. Other buffer types ignore it.
+     */
+    public void setWaitStrategy(RingBuffer.WaitStrategy waitStrategy) {
+        for (QueueBuffer<T> buffer : bufferChannels) {
+            if (buffer instanceof RingBuffer) {
+                ((RingBuffer<T>) buffer).setWaitStrategy(waitStrategy);
+            }
+        }
+    }
+
+    /**
+     * @return the number of data dropped by the {@link RingBuffer}s because of no available space. Always 0 for other
+     * buffer types.
+     */
+    public long getDroppedCount() {
+        long dropped = 0;
+        for (QueueBuffer<T> buffer : bufferChannels) {
+            if (buffer instanceof RingBuffer) {
+                dropped += ((RingBuffer<T>) buffer).getDroppedCount();
+            }
+        }
+        return dropped;
+    }
+
     /**
      * get channelSize
      */
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multiple producers / single consumer bounded ring queue.
+ * <p>
+ * Every slot carries a sequence number, a producer claims a slot by CAS on the tail index, writes the element and then
+ * publishes the slot by moving its sequence forward. The consumer only reads published slots, so no element could be
+ * overridden before it is consumed, and {@link #obtain(List)} only walks the filled part of the ring instead of the
+ * whole array. The head and tail indexes are padded to avoid false sharing between producers and the consumer.
+ * <p>
+ * The capacity is rounded up to the power of 2 of the given buffer size.
+ */
+public class RingBuffer<T> implements QueueBuffer<T> {
+    /**
+     * Indexes of the tail(producer side) and head(consumer side) in the {@link #indexes}, with 15 longs(120 bytes)
+     * padding around them.
+     */
+    private static final int TAIL_OFFSET = 15;
+    private static final int HEAD_OFFSET = 31;
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray indexes;
+    private final int mask;
+    private final LongAdder droppedCounter;
+    private volatile BufferStrategy strategy;
+    private volatile WaitStrategy waitStrategy;
+
+    RingBuffer(int bufferSize, BufferStrategy strategy) {
+        this(bufferSize, strategy, WaitStrategy.PARK);
+    }
+
+    RingBuffer(int bufferSize, BufferStrategy strategy, WaitStrategy waitStrategy) {
+        int capacity = roundToPowerOf2(bufferSize);
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.indexes = new AtomicLongArray(HEAD_OFFSET + 16);
+        this.mask = capacity - 1;
+        this.droppedCounter = new LongAdder();
+        this.strategy = strategy;
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public boolean save(T data) {
+        int idle = 0;
+        while (!offer(data)) {
+            if (strategy == BufferStrategy.IF_POSSIBLE) {
+                droppedCounter.increment();
+                return false;
+            }
+            idle = waitStrategy.idle(idle);
+        }
+        return true;
+    }
+
+    private boolean offer(T data) {
+        long tail = indexes.get(TAIL_OFFSET);
+        while (true) {
+            int slot = (int) tail & mask;
+            long sequence = sequences.get(slot);
+            if (sequence == tail) {
+                if (indexes.compareAndSet(TAIL_OFFSET, tail, tail + 1)) {
+                    elements[slot] = data;
+                    // Publish the slot, the ordered write makes the element visible before the sequence.
+                    sequences.lazySet(slot, tail + 1);
+                    return true;
+                }
+                tail = indexes.get(TAIL_OFFSET);
+            } else if (sequence < tail) {
+                // The slot of the previous round has not been consumed, the ring is full.
+                return false;
+            } else {
+                tail = indexes.get(TAIL_OFFSET);
+            }
+        }
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        this.obtain(consumeList, elements.length);
+    }
+
+    /**
+     * Drain at most {@code maxBatchSize} published elements into the given list. Only the consumer thread could call
+     * this.
+     *
+     * @return the number of drained elements.
+     */
+    public int obtain(List<T> consumeList, int maxBatchSize) {
+        long head = indexes.get(HEAD_OFFSET);
+        int count = 0;
+        while (count < maxBatchSize) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            consumeList.add((T) elements[slot]);
+            elements[slot] = null;
+            // Release the slot to the producers of the next round.
+            sequences.lazySet(slot, head + elements.length);
+            head++;
+            count++;
+        }
+        if (count > 0) {
+            indexes.lazySet(HEAD_OFFSET, head);
+        }
+        return count;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return elements.length;
+    }
+
+    /**
+     * @return the approximate number of elements waiting to be consumed.
+     */
+    public int size() {
+        long size = indexes.get(TAIL_OFFSET) - indexes.get(HEAD_OFFSET);
+        return (int) Math.max(0, Math.min(size, elements.length));
+    }
+
+    /**
+     * @return the exact number of the elements rejected due to the full ring, in {@link BufferStrategy#IF_POSSIBLE}.
+     */
+    public long getDroppedCount() {
+        return droppedCounter.sum();
+    }
+
+    private static int roundToPowerOf2(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        if (value > 1 << 30) {
+            return 1 << 30;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * How the producer waits for a free slot in {@link BufferStrategy#BLOCKING}.
+     */
+    public enum WaitStrategy {
+        /**
+         * Busy spin, then yield. Lowest latency, costs CPU while the ring is full.
+         */
+        SPIN {
+            @Override
+            int idle(int counter) {
+                if (counter > 100) {
+                    Thread.yield();
+                    return counter;
+                }
+                return counter + 1;
+            }
+        },
+        /**
+         * Spin shortly, then park with an exponential backoff up to 1ms.
+         */
+        PARK {
+            @Override
+            int idle(int counter) {
+                if (counter < 100) {
+                    return counter + 1;
+                }
+                if (counter < 200) {
+                    Thread.yield();
+                    return counter + 1;
+                }
+                LockSupport.parkNanos(Math.min(1L << Math.min(counter - 200, 20), 1_000_000L));
+                return Math.min(counter + 1, 220);
+            }
+        };
+
+        abstract int idle(int counter);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.common;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * ConsumeSignal replaces the fixed sleep of the consumer threads, to consume the produced data in batches:
+ * <p>
+ * 1. the producers wake up the consumers only when the number of the produced data reaches the {@code highWaterMark}.
+ * <p>
+ * 2. otherwise the consumers wake up by themselves when the first pending data has waited for {@code maxLatency}, and
+ * park at most {@code maxLatency} when there is nothing to consume.
+ */
+public class ConsumeSignal {
+    private final int highWaterMark;
+    private final long maxLatencyNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger pending;
+    private final List<Thread> consumers;
+    private volatile long firstPendingNanos;
+
+    /**
+     * @param highWaterMark the number of produced data to wake up the consumers immediately.
+     * @param maxLatency    the max time in millis the produced data waits before being consumed.
+     */
+    public ConsumeSignal(int highWaterMark, long maxLatency) {
+        this(highWaterMark, maxLatency, System::nanoTime);
+    }
+
+    ConsumeSignal(int highWaterMark, long maxLatency, LongSupplier nanoClock) {
+        this.highWaterMark = Math.max(1, highWaterMark);
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, maxLatency));
+        this.nanoClock = nanoClock;
+        this.pending = new AtomicInteger(0);
+        this.consumers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Register the consumer thread which should be woken up by this signal.
+     */
+    public void register(Thread consumer) {
+        consumers.add(consumer);
+    }
+
+    /**
+     * Notify the signal one data has been saved into the buffer. Called by the producer threads.
+     */
+    public void produced() {
+        int count = pending.incrementAndGet();
+        if (count == 1) {
+            firstPendingNanos = nanoClock.getAsLong();
+        }
+        if (count == highWaterMark) {
+            wakeup();
+        }
+    }
+
+    /**
+     * Reset the pending count, the consumer is going to drain the buffers. Called by the consumer threads.
+     */
+    public void consumed() {
+        pending.set(0);
+    }
+
+    /**
+     * Park the current consumer thread, until it is woken up at the high water mark, or the max latency of the pending
+     * data elapses, or the idle parking time elapses.
+     */
+    public void await() {
+        long parkNanos = parkNanos();
+        if (parkNanos > 0) {
+            LockSupport.parkNanos(this, parkNanos);
+        }
+    }
+
+    /**
+     * Wake up all registered consumer threads.
+     */
+    public void wakeup() {
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * @return the time the consumer should park for, zero or negative if the pending data should be consumed now.
+     */
+    long parkNanos() {
+        if (pending.get() > 0) {
+            return firstPendingNanos + maxLatencyNanos - nanoClock.getAsLong();
+        }
+        return maxLatencyNanos;
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import org.apache.skywalking.apm.commons.datacarrier.EnvUtil;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 
 /**
  * BulkConsumePool works for consuming data from multiple channels(DataCarrier instances), with multiple {@link
@@ -33,12 +34,22 @@ import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 public class BulkConsumePool implements ConsumerPool {
     private List<MultipleChannelsConsumer> allConsumers;
     private volatile boolean isStarted = false;
+    private final ConsumeSignal signal;
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
+        this(name, size, consumeCycle, null);
+    }
+
+    /**
+     * @param signal shared by all the consumer threads and channels of this pool, to wake up the consumers when the
+     *               data is produced. Null means polling every {@code consumeCycle}.
+     */
+    public BulkConsumePool(String name, int size, long consumeCycle, ConsumeSignal signal) {
+        this.signal = signal;
         size = EnvUtil.getInt(name + "_THREAD", size);
         allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
         for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle, signal);
             multipleChannelsConsumer.setDaemon(true);
             allConsumers.add(multipleChannelsConsumer);
         }
@@ -48,6 +59,7 @@ public class BulkConsumePool implements ConsumerPool {
     public synchronized void add(String name, Channels channels, IConsumer consumer) {
         MultipleChannelsConsumer multipleChannelsConsumer = getLowestPayload();
         multipleChannelsConsumer.addNewTarget(channels, consumer);
+        channels.setSignal(signal);
     }
 
     /**
@@ -99,16 +111,22 @@ public class BulkConsumePool implements ConsumerPool {
         private String name;
         private int size;
         private long consumeCycle;
+        private ConsumeSignal signal;
 
         public Creator(String name, int poolSize, long consumeCycle) {
+            this(name, poolSize, consumeCycle, null);
+        }
+
+        public Creator(String name, int poolSize, long consumeCycle, ConsumeSignal signal) {
             this.name = name;
             this.size = poolSize;
             this.consumeCycle = consumeCycle;
+            this.signal = signal;
         }
 
         @Override
         public ConsumerPool call() {
-            return new BulkConsumePool(name, size, consumeCycle);
+            return new BulkConsumePool(name, size, consumeCycle, signal);
         }
 
         public static int recommendMaxSize() {
@@ -22,6 +22,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.Properties;
 import java.util.concurrent.locks.ReentrantLock;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 
 /**
  * Pool of consumers <p> Created by wusheng on 2016/10/25.
@@ -37,32 +38,59 @@ public class ConsumeDriver<T> implements IDriver {
                          int num,
                          long consumeCycle,
                          Properties properties) {
-        this(channels, num);
+        this(name, channels, consumerClass, num, consumeCycle, properties, null);
+    }
+
+    /**
+     * @param signal wakes up the consumer threads when the data is produced, rather than polling the channels every
+     *               {@code consumeCycle}. Null means polling.
+     */
+    public ConsumeDriver(String name,
+                         Channels<T> channels, Class<? extends IConsumer<T>> consumerClass,
+                         int num,
+                         long consumeCycle,
+                         Properties properties,
+                         ConsumeSignal signal) {
+        this(channels, num, signal);
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
                 "DataCarrier." + name + ".Consumer." + i + ".Thread", getNewConsumerInstance(consumerClass, properties),
-                consumeCycle
+                consumeCycle, signal
             );
             consumerThreads[i].setDaemon(true);
         }
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
-        this(channels, num);
+        this(name, channels, prototype, num, consumeCycle, null);
+    }
+
+    /**
+     * @param signal wakes up the consumer threads when the data is produced, rather than polling the channels every
+     *               {@code consumeCycle}. Null means polling.
+     */
+    public ConsumeDriver(String name,
+                         Channels<T> channels,
+                         IConsumer<T> prototype,
+                         int num,
+                         long consumeCycle,
+                         ConsumeSignal signal) {
+        this(channels, num, signal);
         prototype.init(new Properties());
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
-                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle, signal);
             consumerThreads[i].setDaemon(true);
         }
 
     }
 
-    private ConsumeDriver(Channels<T> channels, int num) {
+    private ConsumeDriver(Channels<T> channels, int num, ConsumeSignal signal) {
         running = false;
         this.channels = channels;
         consumerThreads = new ConsumerThread[num];
         lock = new ReentrantLock();
+        channels.setSignal(signal);
     }
 
     private IConsumer<T> getNewConsumerInstance(Class<? extends IConsumer<T>> consumerClass, Properties properties) {
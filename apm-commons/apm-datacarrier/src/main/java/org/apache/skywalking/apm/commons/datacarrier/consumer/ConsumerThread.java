@@ -22,19 +22,33 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Buffer;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 
 public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
     private long consumeCycle;
+    private ConsumeSignal signal;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, consumeCycle, null);
+    }
+
+    /**
+     * @param signal wakes up this thread when the data is produced, null means sleeping {@code consumeCycle} when
+     *               there is nothing to consume.
+     */
+    ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle, ConsumeSignal signal) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
         this.consumeCycle = consumeCycle;
+        this.signal = signal;
+        if (signal != null) {
+            signal.register(this);
+        }
     }
 
     /**
@@ -51,9 +65,13 @@ public class ConsumerThread<T> extends Thread {
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
             if (!consume(consumeList)) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
+                if (signal != null) {
+                    signal.await();
+                } else {
+                    try {
+                        Thread.sleep(consumeCycle);
+                    } catch (InterruptedException e) {
+                    }
                 }
             }
         }
@@ -66,6 +84,9 @@ public class ConsumerThread<T> extends Thread {
     }
 
     private boolean consume(List<T> consumeList) {
+        if (signal != null) {
+            signal.consumed();
+        }
         for (DataSource dataSource : dataSources) {
             dataSource.obtain(consumeList);
         }
@@ -86,6 +107,9 @@ public class ConsumerThread<T> extends Thread {
 
     void shutdown() {
         running = false;
+        if (signal != null) {
+            signal.wakeup();
+        }
     }
 
     /**
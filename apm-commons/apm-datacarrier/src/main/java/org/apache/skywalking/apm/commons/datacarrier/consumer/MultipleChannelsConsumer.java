@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 
 /**
  * MultipleChannelsConsumer represent a single consumer thread, but support multiple channels with their {@link
@@ -33,11 +34,24 @@ public class MultipleChannelsConsumer extends Thread {
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
     private final long consumeCycle;
+    private final ConsumeSignal signal;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, consumeCycle, null);
+    }
+
+    /**
+     * @param signal wakes up this thread when the data is produced, null means sleeping {@code consumeCycle} when
+     *               there is nothing to consume.
+     */
+    public MultipleChannelsConsumer(String threadName, long consumeCycle, ConsumeSignal signal) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
         this.consumeCycle = consumeCycle;
+        this.signal = signal;
+        if (signal != null) {
+            signal.register(this);
+        }
     }
 
     @Override
@@ -46,6 +60,9 @@ public class MultipleChannelsConsumer extends Thread {
 
         final List consumeList = new ArrayList(2000);
         while (running) {
+            if (signal != null) {
+                signal.consumed();
+            }
             boolean hasData = false;
             for (Group target : consumeTargets) {
                 boolean consume = consume(target, consumeList);
@@ -53,9 +70,13 @@ public class MultipleChannelsConsumer extends Thread {
             }
 
             if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
+                if (signal != null) {
+                    signal.await();
+                } else {
+                    try {
+                        Thread.sleep(consumeCycle);
+                    } catch (InterruptedException e) {
+                    }
                 }
             }
         }
@@ -110,6 +131,9 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        if (signal != null) {
+            signal.wakeup();
+        }
     }
 
     private static class Group {
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RingBufferTest {
+    @Test
+    public void testCapacityRoundUp() {
+        Assert.assertEquals(128, new RingBuffer<SampleData>(100, BufferStrategy.IF_POSSIBLE).getBufferSize());
+        Assert.assertEquals(256, new RingBuffer<SampleData>(256, BufferStrategy.IF_POSSIBLE).getBufferSize());
+    }
+
+    @Test
+    public void testIfPossibleDropAccounting() {
+        RingBuffer<SampleData> buffer = new RingBuffer<>(8, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+        }
+        for (int i = 0; i < 5; i++) {
+            Assert.assertFalse(buffer.save(new SampleData().setIntValue(i)));
+        }
+        Assert.assertEquals(5, buffer.getDroppedCount());
+        Assert.assertEquals(8, buffer.size());
+
+        List<SampleData> result = new ArrayList<>();
+        Assert.assertEquals(3, buffer.obtain(result, 3));
+        Assert.assertEquals(0, result.get(0).getIntValue());
+        Assert.assertEquals(2, result.get(2).getIntValue());
+
+        buffer.obtain(result);
+        Assert.assertEquals(8, result.size());
+        Assert.assertEquals(7, result.get(7).getIntValue());
+        Assert.assertEquals(0, buffer.size());
+
+        Assert.assertTrue(buffer.save(new SampleData().setIntValue(8)));
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final RingBuffer<SampleData> buffer = new RingBuffer<>(64, BufferStrategy.BLOCKING);
+        final int producers = 8;
+        final int perProducer = 10000;
+        final CountDownLatch latch = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.save(new SampleData().setIntValue(i));
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        List<SampleData> result = new ArrayList<>();
+        while (result.size() < producers * perProducer) {
+            if (buffer.obtain(result, 16) == 0) {
+                Thread.yield();
+            }
+        }
+        latch.await();
+        Assert.assertEquals(producers * perProducer, result.size());
+        Assert.assertEquals(0, buffer.getDroppedCount());
+    }
+}
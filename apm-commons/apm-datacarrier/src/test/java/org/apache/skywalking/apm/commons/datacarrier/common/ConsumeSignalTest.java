@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConsumeSignalTest {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final AtomicLong nanos = new AtomicLong(0);
+    private final AtomicInteger wakeups = new AtomicInteger(0);
+    private final ConsumeSignal signal = new ConsumeSignal(3, 20, nanos::get) {
+        @Override
+        public void wakeup() {
+            wakeups.incrementAndGet();
+        }
+    };
+
+    @Test
+    public void testWakeupOnlyAtHighWaterMark() {
+        signal.produced();
+        signal.produced();
+        Assert.assertEquals(0, wakeups.get());
+        signal.produced();
+        Assert.assertEquals(1, wakeups.get());
+        signal.produced();
+        Assert.assertEquals(1, wakeups.get());
+
+        signal.consumed();
+        signal.produced();
+        Assert.assertEquals(1, wakeups.get());
+    }
+
+    @Test
+    public void testParkUntilMaxLatencyOfFirstPendingData() {
+        // Nothing pending, the idle consumer checks again after the max latency.
+        Assert.assertEquals(MAX_LATENCY_NANOS, signal.parkNanos());
+
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(5));
+        signal.produced();
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(10));
+        signal.produced();
+        Assert.assertEquals(TimeUnit.MILLISECONDS.toNanos(15), signal.parkNanos());
+
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(25));
+        Assert.assertEquals(0, signal.parkNanos());
+        Assert.assertEquals(0, wakeups.get());
+
+        signal.consumed();
+        Assert.assertEquals(MAX_LATENCY_NANOS, signal.parkNanos());
+    }
+
+    @Test
+    public void testNotParkAfterMaxLatency() {
+        signal.produced();
+        nanos.set(MAX_LATENCY_NANOS + 1);
+        // Returns at once, or the test hangs on the frozen clock.
+        signal.await();
+        Assert.assertTrue(signal.parkNanos() < 0);
+    }
+}
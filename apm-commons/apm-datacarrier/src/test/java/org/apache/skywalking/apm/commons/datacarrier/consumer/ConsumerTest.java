@@ -22,10 +22,13 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.FieldGetter;
 import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -99,6 +102,48 @@ public class ConsumerTest {
         Assert.assertTrue(IS_OCCUR_ERROR);
     }
 
+    @Test
+    public void testSignalConsumeAtHighWaterMark() throws InterruptedException {
+        final CountDownLatch idle = new CountDownLatch(1);
+        final CountDownLatch consumed = new CountDownLatch(10);
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
+        // The max latency never elapses in the test, only the high water mark wakes up the consumer.
+        carrier.consume(new IConsumer<SampleData>() {
+            @Override
+            public void init(final Properties properties) {
+            }
+
+            @Override
+            public void consume(final List<SampleData> data) {
+                for (int i = 0; i < data.size(); i++) {
+                    consumed.countDown();
+                }
+            }
+
+            @Override
+            public void onError(final List<SampleData> data, final Throwable t) {
+            }
+
+            @Override
+            public void onExit() {
+            }
+
+            @Override
+            public void nothingToConsume() {
+                idle.countDown();
+            }
+        }, 1, 20, new ConsumeSignal(10, TimeUnit.HOURS.toMillis(1)));
+
+        // Produce after the consumer parks, or it may drain a part of the data before parking.
+        Assert.assertTrue(idle.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("data" + i)));
+        }
+        Assert.assertTrue(consumed.await(10, TimeUnit.SECONDS));
+
+        carrier.shutdownConsumers();
+    }
+
     class SampleConsumer2 implements IConsumer<SampleData> {
         public int i = 1;
 
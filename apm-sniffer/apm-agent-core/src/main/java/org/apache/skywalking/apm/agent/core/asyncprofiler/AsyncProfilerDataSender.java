@@ -18,7 +18,6 @@
 
 package org.apache.skywalking.apm.agent.core.asyncprofiler;
 
-import com.google.protobuf.ByteString;
 import io.grpc.Channel;
 import io.grpc.stub.ClientCallStreamObserver;
 import io.grpc.stub.ClientResponseObserver;
@@ -40,9 +39,7 @@ import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfile
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilingStatus;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.AsyncProfiler.DATA_CHUNK_SIZE;
@@ -87,15 +84,32 @@ public class AsyncProfilerDataSender implements BootService, GRPCChannelListener
         this.status = status;
     }
 
+    /**
+     * Upload the JFR file in chunks of {@link Config.AsyncProfiler#DATA_CHUNK_SIZE}, which are memory-mapped rather than
+     * read into the heap, see {@link MappedJFRFileStream}.
+     * <p>
+     * The chunks are read in the gRPC callbacks, so the file stream is closed by the callbacks finishing the call, or
+     * after the whole file is sent, rather than by this method, which only waits for the call to finish.
+     */
     public void sendData(AsyncProfilerTask task, File dumpFile) throws IOException, InterruptedException {
         if (status != GRPCChannelStatus.CONNECTED) {
             return;
         }
 
-        try (FileInputStream fileInputStream = new FileInputStream(dumpFile)) {
-            long fileSize = Files.size(dumpFile.toPath());
-            int size = Math.toIntExact(fileSize);
-            final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        final MappedJFRFileStream fileStream = new MappedJFRFileStream(dumpFile, DATA_CHUNK_SIZE);
+        long fileSize = fileStream.getFileSize();
+        if (fileSize > Integer.MAX_VALUE) {
+            fileStream.close();
+            // The content size in the metadata is int32.
+            LOGGER.warn(
+                "JFR file {} of task {} is not uploaded, its size {} exceeds the max content size of the protocol.",
+                dumpFile.getAbsolutePath(), task.getTaskId(), fileSize
+            );
+            sendError(task, "JFR file size " + fileSize + " exceeds the max content size of the protocol");
+            return;
+        }
+        final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
+        try {
             StreamObserver<AsyncProfilerData> dataStreamObserver = asyncProfilerTaskStub.withDeadlineAfter(
                     GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
             ).collect(new ClientResponseObserver<AsyncProfilerData, AsyncProfilerCollectionResponse>() {
@@ -104,32 +118,24 @@ public class AsyncProfilerDataSender implements BootService, GRPCChannelListener
                 @Override
                 public void beforeStart(ClientCallStreamObserver<AsyncProfilerData> requestStream) {
                     this.requestStream = requestStream;
+                    fileStream.bind(requestStream);
                 }
 
                 @Override
                 public void onNext(AsyncProfilerCollectionResponse value) {
                     if (AsyncProfilingStatus.TERMINATED_BY_OVERSIZE.equals(value.getType())) {
                         LOGGER.warn("JFR is too large to be received by the oap server");
+                        fileStream.close();
+                        requestStream.onCompleted();
                     } else {
-                        byte[] buf = new byte[DATA_CHUNK_SIZE];
-                        try {
-                            int bytesRead;
-                            while ((bytesRead = fileInputStream.read(buf)) != -1) {
-                                AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder()
-                                        .setContent(ByteString.copyFrom(buf, 0, bytesRead))
-                                        .build();
-                                requestStream.onNext(asyncProfilerData);
-                            }
-                        } catch (IOException e) {
-                            LOGGER.error("Failed to read JFR file and failed to upload to oap", e);
-                        }
+                        // The stream is completed by the file stream, after the whole file is sent.
+                        fileStream.start();
                     }
-
-                    requestStream.onCompleted();
                 }
 
                 @Override
                 public void onError(Throwable t) {
+                    fileStream.close();
                     status.finished();
                     LOGGER.error(t, "Send async profiler task data to collector fail with a grpc internal exception.");
                     ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(t);
@@ -137,6 +143,7 @@ public class AsyncProfilerDataSender implements BootService, GRPCChannelListener
 
                 @Override
                 public void onCompleted() {
+                    fileStream.close();
                     status.finished();
                 }
             });
@@ -144,14 +151,18 @@ public class AsyncProfilerDataSender implements BootService, GRPCChannelListener
                     .setService(Config.Agent.SERVICE_NAME)
                     .setServiceInstance(Config.Agent.INSTANCE_NAME)
                     .setType(AsyncProfilingStatus.PROFILING_SUCCESS)
-                    .setContentSize(size)
+                    .setContentSize((int) fileSize)
                     .setTaskId(task.getTaskId())
                     .build();
             AsyncProfilerData asyncProfilerData = AsyncProfilerData.newBuilder().setMetaData(metaData).build();
             dataStreamObserver.onNext(asyncProfilerData);
-
-            status.wait4Finish();
+        } catch (RuntimeException e) {
+            // The call failed to start, no callback is going to close the file stream.
+            fileStream.close();
+            throw e;
         }
+
+        status.wait4Finish();
     }
 
     public void sendError(AsyncProfilerTask task, String errorMessage) {
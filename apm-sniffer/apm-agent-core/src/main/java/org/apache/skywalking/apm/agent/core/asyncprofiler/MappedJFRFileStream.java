@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.asyncprofiler;
+
+import com.google.protobuf.UnsafeByteOperations;
+import io.grpc.stub.ClientCallStreamObserver;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerData;
+
+/**
+ * Stream the JFR file to the request stream without copying it into the heap. The file is memory-mapped region by
+ * region, and every chunk is a slice of the mapped region wrapped by {@link UnsafeByteOperations#unsafeWrap}.
+ * <p>
+ * The chunks are only sent while the request stream {@link ClientCallStreamObserver#isReady() is ready}, otherwise the
+ * upload pauses, and resumes from the current position at the next on-ready callback. The position and the regions are
+ * long-based, so the file is not limited to 2GB as a single mapped buffer is.
+ */
+class MappedJFRFileStream implements Closeable {
+    /**
+     * The size of the mapped region, a multiple of the chunk size.
+     */
+    private static final long REGION_SIZE = 64L * Config.AsyncProfiler.DATA_CHUNK_SIZE;
+
+    private final FileChannel fileChannel;
+    private final long fileSize;
+    private final int chunkSize;
+    private ClientCallStreamObserver<AsyncProfilerData> requestStream;
+    private MappedByteBuffer region;
+    private long regionPosition;
+    private long position;
+    private boolean started;
+    private boolean closed;
+
+    MappedJFRFileStream(File file, int chunkSize) throws IOException {
+        this.fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.fileSize = fileChannel.size();
+        this.chunkSize = chunkSize;
+    }
+
+    long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Bind the request stream, and register the on-ready handler to resume the paused upload.
+     */
+    void bind(ClientCallStreamObserver<AsyncProfilerData> requestStream) {
+        this.requestStream = requestStream;
+        requestStream.setOnReadyHandler(this::drain);
+    }
+
+    /**
+     * Start to send the content, the request stream is completed after the whole file is sent.
+     */
+    void start() {
+        synchronized (this) {
+            started = true;
+        }
+        drain();
+    }
+
+    /**
+     * Send the chunks from the current position, until the request stream is not ready or the file ends.
+     */
+    synchronized void drain() {
+        if (!started || closed) {
+            return;
+        }
+        try {
+            while (position < fileSize && requestStream.isReady()) {
+                requestStream.onNext(AsyncProfilerData.newBuilder().setContent(
+                    UnsafeByteOperations.unsafeWrap(nextChunk())).build());
+            }
+        } catch (IOException e) {
+            close();
+            requestStream.onError(e);
+            return;
+        }
+        if (position >= fileSize) {
+            close();
+            requestStream.onCompleted();
+        }
+    }
+
+    private ByteBuffer nextChunk() throws IOException {
+        if (region == null || position >= regionPosition + region.capacity()) {
+            regionPosition = position;
+            region = fileChannel.map(
+                FileChannel.MapMode.READ_ONLY, regionPosition, Math.min(REGION_SIZE, fileSize - regionPosition));
+        }
+        int offset = (int) (position - regionPosition);
+        int length = (int) Math.min(chunkSize, region.capacity() - offset);
+        ByteBuffer chunk = region.duplicate();
+        chunk.position(offset);
+        chunk.limit(offset + length);
+        position += length;
+        return chunk.slice();
+    }
+
+    /**
+     * Close the file channel. The mapped regions stay valid until they are collected, so the sent chunks are safe.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        region = null;
+        try {
+            fileChannel.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
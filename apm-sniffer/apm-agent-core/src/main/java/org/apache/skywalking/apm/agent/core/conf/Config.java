@@ -25,6 +25,7 @@ import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
 import org.apache.skywalking.apm.agent.core.logging.core.LogOutput;
 import org.apache.skywalking.apm.agent.core.logging.core.ResolverType;
 import org.apache.skywalking.apm.agent.core.logging.core.WriterFactory;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.util.Length;
 
 /**
@@ -109,6 +110,12 @@ public class Config {
          */
         public static boolean IS_OPEN_DEBUGGING_CLASS = false;
 
+        /**
+         * The directory to persist the enhanced class files in, a later start reuses them rather than enhancing those
+         * classes again. The relative path is resolved against the agent package path. Empty means disabled.
+         */
+        public static String TRANSFORM_CACHE_DIR = "";
+
         /**
          * The identifier of the instance
          */
@@ -174,6 +181,27 @@ public class Config {
          * Enable the agent kernel services and instrumentation.
          */
         public static boolean ENABLE = true;
+
+        /**
+         * If true, every finished span is encoded into the bytes of its {@link TraceSegment} when it is archived, then
+         * the reporter only concatenates the pre-encoded bytes, rather than transforming the whole segment in the
+         * single reporting thread.
+         */
+        public static boolean PRE_ENCODE_SEGMENT = false;
+
+        /**
+         * The max number of the reported segments and spans of each type kept for reusing by the new tracing
+         * contexts. Zero or negative means the recycling is off. Segments including async spans are never recycled,
+         * neither are the segments notified to any listener not being a {@link
+         * org.apache.skywalking.apm.agent.core.context.RecyclingAwareListener}.
+         */
+        public static int TRACING_OBJECT_POOL_SIZE = 0;
+
+        /**
+         * If true, the trace and segment ids are generated as 128-bit binary values, without the thread id. Their
+         * strings and Base64 forms are only materialized when they are reported, propagated or read.
+         */
+        public static boolean BINARY_ID = false;
     }
 
     public static class OsInfo {
@@ -217,6 +245,19 @@ public class Config {
          * If true, skywalking agent will enable periodically resolving DNS to update receiver service addresses.
          */
         public static boolean IS_RESOLVE_DNS_PERIODICALLY = false;
+        /**
+         * If true, the segments, logs and meters are reported through long-lived and flow-controlled gRPC streams,
+         * rather than a new stream per batch waiting for the response.
+         */
+        public static boolean GRPC_STREAM_MODE = false;
+        /**
+         * The max bytes sent to a not ready stream, before waiting for the stream to be ready, in the stream mode.
+         */
+        public static long GRPC_STREAM_MAX_IN_FLIGHT_BYTES = 4 * 1024 * 1024;
+        /**
+         * The period in seconds to complete the long-lived stream and open a new one, in the stream mode.
+         */
+        public static long GRPC_STREAM_ROTATE_PERIOD = 60;
     }
 
     public static class Profile {
@@ -279,6 +320,36 @@ public class Config {
         public static final int DATA_CHUNK_SIZE = 1024 * 1024;
     }
 
+    public static class TailSampling {
+        /**
+         * If true, all traces are traced, and the finished segments are held in the agent until the sampling decision
+         * of their trace is made. The slow, error and force sampled segments are always reported, the others are
+         * sampled by {@link Agent#SAMPLE_N_PER_3_SECS} when the decision window elapses.
+         */
+        public static boolean ENABLE = false;
+
+        /**
+         * The time window(millisecond) the finished segments wait for the sampling decision of their trace.
+         */
+        public static long DECISION_WINDOW = 5000;
+
+        /**
+         * The max heap size(bytes) of the held segments. The oldest unsampled traces are decided and evicted before
+         * exceeding it.
+         */
+        public static long HEAP_BUDGET = 16 * 1024 * 1024;
+
+        /**
+         * The trace is sampled if any segment takes longer than this threshold(millisecond).
+         */
+        public static long SLOW_THRESHOLD = 1000;
+
+        /**
+         * The trace is sampled if any span has the http status code tag not less than this value. 0 means off.
+         */
+        public static int MIN_HTTP_STATUS_CODE = 500;
+    }
+
     public static class Meter {
         /**
          * If true, skywalking agent will enable sending meters. Otherwise disable meter report.
@@ -294,6 +365,62 @@ public class Config {
          * Max size of the meter count, using {@link org.apache.skywalking.apm.agent.core.meter.MeterId} as identity
          */
         public static Integer MAX_METER_SIZE = 500;
+
+        /**
+         * Max size of the meters with the same name, which limits the cardinality of the tags of every meter name.
+         */
+        public static int MAX_METER_SIZE_PER_NAME = 500;
+
+        /**
+         * The time in seconds, the meters recording nothing longer than it are evicted to make room for the new
+         * meters, once the meter pool or the meters of the same name reach the max size.
+         */
+        public static int IDLE_METER_TIMEOUT = 300;
+
+        /**
+         * If true, the call count, time cost and allocated bytes of the interceptors are accounted per plugin, per
+         * interceptor and per intercept point, reported as meters and dumped into the agent log on demand.
+         */
+        public static boolean INTERCEPTOR_OVERHEAD_ACTIVE = false;
+
+        /**
+         * Account 1 of every N invocations of the interceptors, the reported values are scaled by N. 1 means accounting
+         * all invocations.
+         */
+        public static int INTERCEPTOR_OVERHEAD_SAMPLE_INTERVAL = 16;
+
+        /**
+         * If true, the bytes allocated by the interceptors are also accounted, when the JVM supports measuring the
+         * allocated memory of the threads.
+         */
+        public static boolean INTERCEPTOR_OVERHEAD_ALLOCATION = false;
+
+        /**
+         * The max number of the intercept points reported as their own meters. The overheads of the others are still
+         * reported in the meters per interceptor and per plugin, and dumped into the agent log.
+         */
+        public static int INTERCEPTOR_OVERHEAD_MAX_INTERCEPT_POINTS = 20;
+
+        /**
+         * If true, only the meters changed since the last report are reported, besides the full reports of every
+         * meter type at its own interval, which keep the backend in sync.
+         */
+        public static boolean REPORT_CHANGED_ONLY = false;
+
+        /**
+         * The interval in seconds of reporting all counters, in the changed-only mode.
+         */
+        public static int COUNTER_FULL_REPORT_INTERVAL = 60;
+
+        /**
+         * The interval in seconds of reporting all gauges, in the changed-only mode.
+         */
+        public static int GAUGE_FULL_REPORT_INTERVAL = 60;
+
+        /**
+         * The interval in seconds of reporting all histograms, in the changed-only mode.
+         */
+        public static int HISTOGRAM_FULL_REPORT_INTERVAL = 60;
     }
 
     public static class Jvm {
@@ -318,6 +445,30 @@ public class Config {
         public static int CHANNEL_SIZE = 5;
 
         public static int BUFFER_SIZE = 300;
+
+        /**
+         * The buffer implementation of the trace segment and log reporters. {@link BufferType#RING} is a lock-free ring
+         * queue, which fits better with high throughput and many producer threads.
+         */
+        public static BufferType TYPE = BufferType.DEFAULT;
+
+        /**
+         * If true, the consumer threads of the trace segment and log reporters consume the buffered data in batches. The
+         * producers wake them up once the buffered data reaches {@link #HIGH_WATER_MARK}, otherwise they wake up by
+         * themselves once the first buffered data has waited {@link #MAX_LATENCY}. Otherwise, the consumer threads poll
+         * the buffers every 20ms.
+         */
+        public static boolean SIGNAL_CONSUME = false;
+
+        /**
+         * The number of the buffered data to wake up the consumer immediately, in the signal consume mode.
+         */
+        public static int HIGH_WATER_MARK = 128;
+
+        /**
+         * The max time(ms) the buffered data waits before being consumed, in the signal consume mode.
+         */
+        public static long MAX_LATENCY = 20;
     }
 
     public static class Logging {
@@ -356,6 +507,24 @@ public class Config {
          */
         public static LogOutput OUTPUT = LogOutput.FILE;
 
+        /**
+         * The size in bytes of the buffer holding the logs to write, in the {@link LogOutput#ASYNC_FILE} output. The
+         * logs which could not fit in the buffer are dropped and counted.
+         */
+        public static int ASYNC_BUFFER_SIZE = 1024 * 1024;
+
+        /**
+         * The buffered logs are written into the file once their size in bytes reaches it, in the {@link
+         * LogOutput#ASYNC_FILE} output.
+         */
+        public static int ASYNC_FLUSH_SIZE = 64 * 1024;
+
+        /**
+         * The max interval in milliseconds of writing the buffered logs into the file, in the {@link
+         * LogOutput#ASYNC_FILE} output.
+         */
+        public static long ASYNC_FLUSH_INTERVAL = 1000;
+
         /**
          * The log resolver type. Default is PATTERN which will create PatternLogResolver later.
          */
@@ -403,6 +572,26 @@ public class Config {
          * Mount the folders of the plugins. The folder path is relative to agent.jar.
          */
         public static List<String> MOUNT = Arrays.asList("plugins", "activations");
+
+        /**
+         * The parallelism to parse the plugin files and instantiate the plugin defines at startup. 0 or 1 means
+         * loading them serially.
+         */
+        public static int BOOTSTRAP_PARALLELISM = 0;
+
+        /**
+         * If true, the interceptors of the instance methods and constructors are loaded at the first invocation of the
+         * enhanced methods, rather than when the classes are enhanced. The plugins could also enable this for their
+         * rarely used intercept points, through {@code AbstractClassEnhancePluginDefine#isLazyInterceptorLoading()}.
+         */
+        public static boolean LAZY_INTERCEPTOR_LOADING = false;
+
+        /**
+         * The max number of the type descriptions cached by the agent, shared by all class loaders. The common super
+         * types are described once for each class loader, rather than once for each matched class. 0 means no shared
+         * cache, then only the witness classes are cached for each class loader.
+         */
+        public static int TYPE_DESCRIPTION_CACHE_SIZE = 16384;
     }
 
     public static class Correlation {
@@ -30,6 +30,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Enumeration;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -192,6 +194,20 @@ public class SnifferConfigInitializer {
         return IS_INIT_COMPLETED;
     }
 
+    /**
+     * @return the effective settings merged from the config file, the system properties and the agent options, sorted
+     * by the keys. The plugin configs are initialized from them too. Empty before the core config is initialized.
+     */
+    public static SortedMap<String, String> getAgentSettings() {
+        final SortedMap<String, String> settings = new TreeMap<>();
+        if (AGENT_SETTINGS != null) {
+            for (String key : AGENT_SETTINGS.stringPropertyNames()) {
+                settings.put(key, AGENT_SETTINGS.getProperty(key));
+            }
+        }
+        return settings;
+    }
+
     /**
      * Override the config by system properties. The property key must start with `skywalking`, the result should be as
      * same as in `agent.config`
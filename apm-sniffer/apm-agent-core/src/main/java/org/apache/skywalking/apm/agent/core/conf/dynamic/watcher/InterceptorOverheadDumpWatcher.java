@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.conf.dynamic.watcher;
+
+import org.apache.skywalking.apm.agent.core.conf.dynamic.AgentConfigChangeWatcher;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * Dump the overhead of the interceptors into the agent log, every time the watched config is changed to a new value,
+ * such as the current time.
+ */
+public class InterceptorOverheadDumpWatcher extends AgentConfigChangeWatcher {
+    private volatile String value = "";
+
+    public InterceptorOverheadDumpWatcher(final String propertyKey) {
+        super(propertyKey);
+    }
+
+    @Override
+    public void notify(final ConfigChangeEvent value) {
+        if (EventType.DELETE.equals(value.getEventType())) {
+            this.value = "";
+            return;
+        }
+        String newValue = value.getNewValue();
+        if (newValue == null || newValue.isEmpty() || newValue.equals(this.value)) {
+            return;
+        }
+        this.value = newValue;
+        AgentSo11y.dumpInterceptorOverhead();
+    }
+
+    @Override
+    public String value() {
+        return value;
+    }
+}
@@ -144,4 +144,10 @@ public interface AbstractTracerContext {
      */
     AbstractTracerContext forceIgnoring();
 
+    /**
+     * @return the {@link org.apache.skywalking.apm.agent.core.plugin.PluginSwitch#version()} when this trace started,
+     * the plugins deactivated later keep intercepting in this trace.
+     */
+    long getPluginSwitchVersion();
+
 }
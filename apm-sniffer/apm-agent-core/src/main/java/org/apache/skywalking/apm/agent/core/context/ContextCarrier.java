@@ -59,6 +59,11 @@ public class ContextCarrier implements Serializable {
      */
     @Getter
     private String addressUsedAtClient;
+    /**
+     * The cached Base64 forms of {@link #traceId} and {@link #traceSegmentId}, could be null.
+     */
+    private String encodedTraceId;
+    private String encodedTraceSegmentId;
     /**
      * The extension context contains the optional context to enhance the analysis in some certain scenarios.
      */
@@ -116,8 +121,8 @@ public class ContextCarrier implements Serializable {
             return StringUtil.join(
                 '-',
                 "1",
-                Base64.encode(this.getTraceId()),
-                Base64.encode(this.getTraceSegmentId()),
+                encodedTraceId != null ? encodedTraceId : Base64.encode(this.getTraceId()),
+                encodedTraceSegmentId != null ? encodedTraceSegmentId : Base64.encode(this.getTraceSegmentId()),
                 this.getSpanId() + "",
                 Base64.encode(this.getParentService()),
                 Base64.encode(this.getParentServiceInstance()),
@@ -143,7 +148,9 @@ public class ContextCarrier implements Serializable {
                 try {
                     // parts[0] is sample flag, always trace if header exists.
                     this.traceId = Base64.decode2UTFString(parts[1]);
+                    this.encodedTraceId = parts[1];
                     this.traceSegmentId = Base64.decode2UTFString(parts[2]);
+                    this.encodedTraceSegmentId = parts[2];
                     this.spanId = Integer.parseInt(parts[3]);
                     this.parentService = Base64.decode2UTFString(parts[4]);
                     this.parentServiceInstance = Base64.decode2UTFString(parts[5]);
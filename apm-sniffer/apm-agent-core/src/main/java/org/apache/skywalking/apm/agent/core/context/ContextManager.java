@@ -233,6 +233,15 @@ public class ContextManager implements BootService {
 
     }
 
+    /**
+     * @return the plugin switch version when the trace of the current thread started, or {@link Long#MAX_VALUE} if no
+     * trace is active.
+     */
+    public static long getPluginSwitchVersion() {
+        AbstractTracerContext context = get();
+        return context == null ? Long.MAX_VALUE : context.getPluginSwitchVersion();
+    }
+
     public static boolean isActive() {
         return get() != null;
     }
@@ -247,6 +256,16 @@ public class ContextManager implements BootService {
         return runtimeContext;
     }
 
+    /**
+     * Force the tail sampling to report the current trace, including its downstream segments.
+     */
+    public static void forceSampled() {
+        final AbstractTracerContext tracerContext = get();
+        if (tracerContext instanceof TracingContext) {
+            ((TracingContext) tracerContext).forceSampled();
+        }
+    }
+
     public static CorrelationContext getCorrelationContext() {
         final AbstractTracerContext tracerContext = get();
         if (tracerContext == null) {
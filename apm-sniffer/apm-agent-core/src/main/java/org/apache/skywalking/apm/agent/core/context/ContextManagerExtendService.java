@@ -92,7 +92,7 @@ public class ContextManagerExtendService implements BootService, GRPCChannelList
             context = new IgnoredTracerContext();
         } else {
             SamplingService samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
-            if (forceSampling || samplingService.trySampling(operationName)) {
+            if (forceSampling || Config.TailSampling.ENABLE || samplingService.trySampling(operationName)) {
                 AgentSo11y.measureTracingContextCreation(forceSampling, false);
                 context = new TracingContext(operationName, spanLimitWatcher);
             } else {
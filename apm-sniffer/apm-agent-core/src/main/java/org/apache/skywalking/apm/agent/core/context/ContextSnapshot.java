@@ -37,6 +37,11 @@ public class ContextSnapshot {
     private ExtensionContext extensionContext;
     private ProfileStatusContext profileStatusContext;
 
+    /**
+     * The plugin switch version when the trace started, see {@link AbstractTracerContext#getPluginSwitchVersion()}.
+     */
+    private long pluginSwitchVersion = Long.MAX_VALUE;
+
     ContextSnapshot(String traceSegmentId,
                     int spanId,
                     DistributedTraceId primaryTraceId,
@@ -61,6 +66,10 @@ public class ContextSnapshot {
         return correlationContext;
     }
 
+    void setPluginSwitchVersion(long pluginSwitchVersion) {
+        this.pluginSwitchVersion = pluginSwitchVersion;
+    }
+
     public boolean isValid() {
         return traceSegmentId != null && spanId > -1 && traceId != null;
     }
@@ -47,6 +47,12 @@ public class ExtensionContext {
      */
     private boolean skipAnalysis;
 
+    /**
+     * Force sampled. If true means the trace has been force sampled by the upstream, the tail sampling reports all
+     * segments generated in this context. Serialized as the optional third field only when it is true.
+     */
+    private boolean forceSampled;
+
     /**
      * The sending timestamp of the exit span.
      */
@@ -63,6 +69,9 @@ public class ExtensionContext {
         String res = skipAnalysis ? "1" : "0";
         res += SEPARATOR;
         res += Objects.isNull(sendingTimestamp) ? PLACEHOLDER : sendingTimestamp;
+        if (forceSampled) {
+            res += SEPARATOR + "1";
+        }
         return res;
     }
 
@@ -92,6 +101,19 @@ public class ExtensionContext {
                 }
             }
         }
+
+        this.forceSampled = extensionParts.length > 2 && Objects.equals(extensionParts[2], "1");
+    }
+
+    /**
+     * Force the tail sampling to report the trace, in this process and the downstream ones.
+     */
+    void forceSampled() {
+        this.forceSampled = true;
+    }
+
+    boolean isForceSampled() {
+        return forceSampled;
     }
 
     /**
@@ -99,6 +121,7 @@ public class ExtensionContext {
      */
     void inject(ContextCarrier carrier) {
         carrier.getExtensionContext().skipAnalysis = this.skipAnalysis;
+        carrier.getExtensionContext().forceSampled = this.forceSampled;
     }
 
     /**
@@ -106,6 +129,7 @@ public class ExtensionContext {
      */
     void extract(ContextCarrier carrier) {
         this.skipAnalysis = carrier.getExtensionContext().skipAnalysis;
+        this.forceSampled = carrier.getExtensionContext().forceSampled;
     }
 
     /**
@@ -131,6 +155,7 @@ public class ExtensionContext {
     public ExtensionContext clone() {
         final ExtensionContext context = new ExtensionContext();
         context.skipAnalysis = this.skipAnalysis;
+        context.forceSampled = this.forceSampled;
         context.sendingTimestamp = this.sendingTimestamp;
         return context;
     }
@@ -141,6 +166,7 @@ public class ExtensionContext {
      */
     void continued(ContextSnapshot snapshot) {
         this.skipAnalysis = snapshot.getExtensionContext().skipAnalysis;
+        this.forceSampled = snapshot.getExtensionContext().forceSampled;
         this.sendingTimestamp = snapshot.getExtensionContext().sendingTimestamp;
     }
 
@@ -151,11 +177,11 @@ public class ExtensionContext {
         if (o == null || getClass() != o.getClass())
             return false;
         ExtensionContext that = (ExtensionContext) o;
-        return skipAnalysis == that.skipAnalysis && Objects.equals(this.sendingTimestamp, that.sendingTimestamp);
+        return skipAnalysis == that.skipAnalysis && forceSampled == that.forceSampled && Objects.equals(this.sendingTimestamp, that.sendingTimestamp);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(skipAnalysis, sendingTimestamp);
+        return Objects.hash(skipAnalysis, forceSampled, sendingTimestamp);
     }
 }
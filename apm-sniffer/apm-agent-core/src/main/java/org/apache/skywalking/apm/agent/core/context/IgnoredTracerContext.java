@@ -22,6 +22,7 @@ import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
 import org.apache.skywalking.apm.agent.core.profile.ProfileStatusContext;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 
@@ -41,18 +42,22 @@ public class IgnoredTracerContext implements AbstractTracerContext {
 
     private int stackDepth;
 
+    private long pluginSwitchVersion;
+
     public IgnoredTracerContext() {
-        this.stackDepth = 0;
-        this.correlationContext = new CorrelationContext();
-        this.extensionContext = new ExtensionContext();
-        this.profileStatusContext = ProfileStatusContext.createWithNone();
+        this(0);
     }
 
     public IgnoredTracerContext(int stackDepth) {
+        this(stackDepth, PluginSwitch.version());
+    }
+
+    IgnoredTracerContext(int stackDepth, long pluginSwitchVersion) {
         this.stackDepth = stackDepth;
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
         this.profileStatusContext = ProfileStatusContext.createWithNone();
+        this.pluginSwitchVersion = pluginSwitchVersion;
     }
 
     @Override
@@ -67,12 +72,16 @@ public class IgnoredTracerContext implements AbstractTracerContext {
 
     @Override
     public ContextSnapshot capture() {
-        return new ContextSnapshot(null, -1, null, null, correlationContext, extensionContext, profileStatusContext);
+        ContextSnapshot snapshot = new ContextSnapshot(
+            null, -1, null, null, correlationContext, extensionContext, profileStatusContext);
+        snapshot.setPluginSwitchVersion(pluginSwitchVersion);
+        return snapshot;
     }
 
     @Override
     public void continued(ContextSnapshot snapshot) {
         this.correlationContext.continued(snapshot);
+        this.pluginSwitchVersion = Math.min(pluginSwitchVersion, snapshot.getPluginSwitchVersion());
     }
 
     @Override
@@ -148,6 +157,11 @@ public class IgnoredTracerContext implements AbstractTracerContext {
         return this;
     }
 
+    @Override
+    public long getPluginSwitchVersion() {
+        return pluginSwitchVersion;
+    }
+
     public static class ListenerManager {
         private static List<IgnoreTracerContextListener> LISTENERS = new LinkedList<>();
 
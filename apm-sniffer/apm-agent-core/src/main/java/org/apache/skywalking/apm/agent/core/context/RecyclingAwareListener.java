@@ -0,0 +1,31 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TracingObjectRecycler;
+
+/**
+ * The {@link TracingContextListener} following the segment ownership of {@link TracingObjectRecycler}. It reads the
+ * segment only inside {@link #afterFinished(TraceSegment)}, or {@link TracingObjectRecycler#retain(TraceSegment)}s it
+ * there and {@link TracingObjectRecycler#recycle(TraceSegment)}s it when it is done. The finished segments are recycled
+ * only when all listeners are recycling aware.
+ */
+public interface RecyclingAwareListener extends TracingContextListener {
+}
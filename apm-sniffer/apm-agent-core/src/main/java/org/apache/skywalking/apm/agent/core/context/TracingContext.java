@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
@@ -39,8 +40,10 @@ import org.apache.skywalking.apm.agent.core.context.trace.NoopExitSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegmentRef;
+import org.apache.skywalking.apm.agent.core.context.trace.TracingObjectRecycler;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
 import org.apache.skywalking.apm.agent.core.profile.ProfileStatusContext;
 import org.apache.skywalking.apm.agent.core.profile.ProfileTaskExecutionService;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
@@ -74,11 +77,17 @@ public class TracingContext implements AbstractTracerContext {
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#getLast()} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * The max initial capacity of {@link #activeSpanStack} and the span list of {@link #segment}, they grow when more
+     * spans are created.
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<>();
+    private static final int MAX_INITIAL_SPAN_CAPACITY = 16;
+
+    /**
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link ArrayList} is the in-memory
+     * storage-structure, the top element is the last one, so {@link #pop()}, {@link #push(AbstractSpan)} and {@link
+     * #peek()} don't allocate or walk through any node.
+     */
+    private final ArrayList<AbstractSpan> activeSpanStack;
 
     /**
      * @since 8.10.0 replace the removed "firstSpan"(before 8.10.0) reference. see {@link PrimaryEndpoint} for more details.
@@ -116,11 +125,19 @@ public class TracingContext implements AbstractTracerContext {
     //CDS watcher
     private final SpanLimitWatcher spanLimitWatcher;
 
+    /**
+     * The plugin switch version when this trace started in this or the parent thread.
+     */
+    private volatile long pluginSwitchVersion;
+
     /**
      * Initialize all fields with default value.
      */
     TracingContext(String firstOPName, SpanLimitWatcher spanLimitWatcher) {
-        this.segment = new TraceSegment();
+        final int initialSpanCapacity = Math.max(
+            0, Math.min(spanLimitWatcher.getSpanLimit(), MAX_INITIAL_SPAN_CAPACITY));
+        this.segment = TracingObjectRecycler.newSegment(initialSpanCapacity);
+        this.activeSpanStack = new ArrayList<>(initialSpanCapacity);
         this.spanIdGenerator = 0;
         isRunningInAsyncMode = false;
         createTime = System.currentTimeMillis();
@@ -130,12 +147,12 @@ public class TracingContext implements AbstractTracerContext {
         if (PROFILE_TASK_EXECUTION_SERVICE == null) {
             PROFILE_TASK_EXECUTION_SERVICE = ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class);
         }
-        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(
-            this, segment.getTraceSegmentId(), firstOPName);
+        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(this, firstOPName);
 
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
         this.spanLimitWatcher = spanLimitWatcher;
+        this.pluginSwitchVersion = PluginSwitch.version();
     }
 
     /**
@@ -170,8 +187,11 @@ public class TracingContext implements AbstractTracerContext {
             throw new IllegalStateException("Exit span doesn't include meaningful peer information.");
         }
 
-        carrier.setTraceId(getReadablePrimaryTraceId());
+        DistributedTraceId primaryTraceId = getPrimaryTraceId();
+        carrier.setTraceId(primaryTraceId.getId());
+        carrier.setEncodedTraceId(primaryTraceId.getEncodedId());
         carrier.setTraceSegmentId(this.segment.getTraceSegmentId());
+        carrier.setEncodedTraceSegmentId(this.segment.getEncodedTraceSegmentId());
         carrier.setSpanId(exitSpan.getSpanId());
         carrier.setParentService(Config.Agent.SERVICE_NAME);
         carrier.setParentServiceInstance(Config.Agent.INSTANCE_NAME);
@@ -201,6 +221,14 @@ public class TracingContext implements AbstractTracerContext {
         carrier.extractCorrelationTo(this);
     }
 
+    /**
+     * Force the tail sampling to report this trace. The flag is propagated to the downstream segments, in the other
+     * threads and processes, so they are reported too.
+     */
+    public void forceSampled() {
+        this.extensionContext.forceSampled();
+    }
+
     /**
      * Capture the snapshot of current context.
      *
@@ -217,6 +245,7 @@ public class TracingContext implements AbstractTracerContext {
             this.extensionContext,
             this.profileStatus
         );
+        snapshot.setPluginSwitchVersion(pluginSwitchVersion);
 
         return snapshot;
     }
@@ -237,8 +266,9 @@ public class TracingContext implements AbstractTracerContext {
             this.extensionContext.continued(snapshot);
             this.extensionContext.handle(this.activeSpan());
             if (this.profileStatus.continued(snapshot)) {
-                PROFILE_TASK_EXECUTION_SERVICE.continueProfiling(this, this.segment.getTraceSegmentId());
+                PROFILE_TASK_EXECUTION_SERVICE.continueProfiling(this);
             }
+            this.pluginSwitchVersion = Math.min(pluginSwitchVersion, snapshot.getPluginSwitchVersion());
         }
     }
 
@@ -290,7 +320,7 @@ public class TracingContext implements AbstractTracerContext {
             entrySpan = parentSpan;
             return entrySpan.start();
         } else {
-            entrySpan = new EntrySpan(
+            entrySpan = TracingObjectRecycler.newEntrySpan(
                 spanIdGenerator++, parentSpanId,
                 operationName, owner
             );
@@ -313,7 +343,8 @@ public class TracingContext implements AbstractTracerContext {
         }
         AbstractSpan parentSpan = peek();
         final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
-        AbstractTracingSpan span = new LocalSpan(spanIdGenerator++, parentSpanId, operationName, this);
+        AbstractTracingSpan span = TracingObjectRecycler.newLocalSpan(
+            spanIdGenerator++, parentSpanId, operationName, this);
         span.start();
         return push(span);
     }
@@ -343,7 +374,8 @@ public class TracingContext implements AbstractTracerContext {
             // Since 8.10.0
             remotePeer = StringUtil.isEmpty(CLUSTER) ? remotePeer : CLUSTER + "/" + remotePeer;
             final int parentSpanId = parentSpan == null ? -1 : parentSpan.getSpanId();
-            exitSpan = new ExitSpan(spanIdGenerator++, parentSpanId, operationName, remotePeer, owner);
+            exitSpan = TracingObjectRecycler.newExitSpan(
+                spanIdGenerator++, parentSpanId, operationName, remotePeer, owner);
             push(exitSpan);
         }
         exitSpan.start();
@@ -425,7 +457,12 @@ public class TracingContext implements AbstractTracerContext {
         for (AbstractSpan span: activeSpanStack) {
             span.forceIgnoring();
         }
-        return new IgnoredTracerContext(activeSpanStack.size());
+        return new IgnoredTracerContext(activeSpanStack.size(), pluginSwitchVersion);
+    }
+
+    @Override
+    public long getPluginSwitchVersion() {
+        return pluginSwitchVersion;
     }
 
     /**
@@ -440,7 +477,7 @@ public class TracingContext implements AbstractTracerContext {
             return;
         }
 
-        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, segment.getTraceSegmentId(), operationName);
+        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, operationName);
     }
 
     /**
@@ -466,6 +503,9 @@ public class TracingContext implements AbstractTracerContext {
                     AgentSo11y.measureLeakedTracingContext(false);
                 }
                 AgentSo11y.measureTracingContextCompletion(false);
+                if (extensionContext.isForceSampled()) {
+                    segment.forceSampled();
+                }
                 TraceSegment finishedSegment = segment.finish(limitMechanismWorking);
                 TracingContext.ListenerManager.notifyFinish(finishedSegment);
                 running = false;
@@ -483,6 +523,17 @@ public class TracingContext implements AbstractTracerContext {
      */
     public static class ListenerManager {
         private static List<TracingContextListener> LISTENERS = new LinkedList<>();
+        /**
+         * The holder defers the notification of the finished segments, such as the tail sampling buffer. The held
+         * segments are notified to the {@link #LISTENERS} by {@link #notifyListeners(TraceSegment)} when they are
+         * released.
+         */
+        private static volatile TracingContextListener SEGMENT_HOLDER;
+        /**
+         * All {@link #LISTENERS} are {@link RecyclingAwareListener}s, so the notified segment could be recycled after
+         * they released it.
+         */
+        private static volatile boolean RECYCLING_AWARE = true;
 
         /**
          * Add the given {@link TracingContextListener} to {@link #LISTENERS} list.
@@ -491,6 +542,7 @@ public class TracingContext implements AbstractTracerContext {
          */
         public static synchronized void add(TracingContextListener listener) {
             LISTENERS.add(listener);
+            RECYCLING_AWARE = isRecyclingAware();
         }
 
         /**
@@ -501,8 +553,32 @@ public class TracingContext implements AbstractTracerContext {
          * @param finishedSegment the segment that has finished
          */
         static void notifyFinish(TraceSegment finishedSegment) {
-            for (TracingContextListener listener : LISTENERS) {
-                listener.afterFinished(finishedSegment);
+            final TracingContextListener holder = SEGMENT_HOLDER;
+            if (holder != null) {
+                holder.afterFinished(finishedSegment);
+                return;
+            }
+            notifyListeners(finishedSegment);
+        }
+
+        /**
+         * Notify all {@link #LISTENERS} about the given finished {@link TraceSegment}, bypassing the segment holder.
+         *
+         * @param finishedSegment the segment that has finished
+         */
+        public static void notifyListeners(TraceSegment finishedSegment) {
+            // The notification holds a reference until all listeners returned, and keeps it for good when any listener
+            // could keep the segment without retaining it.
+            final boolean recyclingAware = RECYCLING_AWARE;
+            TracingObjectRecycler.retain(finishedSegment);
+            try {
+                for (TracingContextListener listener : LISTENERS) {
+                    listener.afterFinished(finishedSegment);
+                }
+            } finally {
+                if (recyclingAware) {
+                    TracingObjectRecycler.recycle(finishedSegment);
+                }
             }
         }
 
@@ -511,6 +587,23 @@ public class TracingContext implements AbstractTracerContext {
          */
         public static synchronized void remove(TracingContextListener listener) {
             LISTENERS.remove(listener);
+            RECYCLING_AWARE = isRecyclingAware();
+        }
+
+        private static boolean isRecyclingAware() {
+            for (TracingContextListener listener : LISTENERS) {
+                if (!(listener instanceof RecyclingAwareListener)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Set the holder deferring the notification of the finished segments, null to remove it.
+         */
+        public static void setSegmentHolder(TracingContextListener holder) {
+            SEGMENT_HOLDER = holder;
         }
 
     }
@@ -540,7 +633,7 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        return activeSpanStack.remove(activeSpanStack.size() - 1);
     }
 
     /**
@@ -554,7 +647,7 @@ public class TracingContext implements AbstractTracerContext {
         } else {
             primaryEndpoint.set(span);
         }
-        activeSpanStack.addLast(span);
+        activeSpanStack.add(span);
         this.extensionContext.handle(span);
         return span;
     }
@@ -566,7 +659,7 @@ public class TracingContext implements AbstractTracerContext {
         if (activeSpanStack.isEmpty()) {
             return null;
         }
-        return activeSpanStack.getLast();
+        return activeSpanStack.get(activeSpanStack.size() - 1);
     }
 
     private boolean isLimitMechanismWorking() {
@@ -18,10 +18,8 @@
 
 package org.apache.skywalking.apm.agent.core.context.ids;
 
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import lombok.ToString;
+import java.util.Objects;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
 
 /**
  * The <code>DistributedTraceId</code> presents a distributed call chain.
@@ -32,12 +30,70 @@ import lombok.ToString;
  * executions, are using the same <code>DistributedTraceId</code> even in different JVM.
  * <p>
  * The <code>DistributedTraceId</code> contains only one string, and can NOT be reset, creating a new instance is the
- * only option.
+ * only option. The id could be generated as a 128-bit binary value, then the string and its Base64 form are only
+ * materialized when they are required.
  */
-@RequiredArgsConstructor
-@ToString
-@EqualsAndHashCode
 public abstract class DistributedTraceId {
-    @Getter
-    private final String id;
+    private String id;
+    private final long idHigh;
+    private final long idLow;
+    private String encodedId;
+
+    public DistributedTraceId(String id) {
+        this(id, 0L, 0L);
+    }
+
+    /**
+     * @param id     the string id, null means the id is the binary one of {@code idHigh} and {@code idLow}.
+     * @param idHigh the high 64 bits of the binary id.
+     * @param idLow  the low 64 bits of the binary id.
+     */
+    protected DistributedTraceId(String id, long idHigh, long idLow) {
+        this.id = id;
+        this.idHigh = idHigh;
+        this.idLow = idLow;
+    }
+
+    public String getId() {
+        String id = this.id;
+        if (id == null) {
+            // Racy but idempotent initialization, the same as String#hashCode.
+            id = GlobalIdGenerator.toString(idHigh, idLow);
+            this.id = id;
+        }
+        return id;
+    }
+
+    /**
+     * @return the Base64 form of the id, cached for propagating in the headers.
+     */
+    public String getEncodedId() {
+        String encodedId = this.encodedId;
+        if (encodedId == null) {
+            encodedId = Base64.encode(getId());
+            this.encodedId = encodedId;
+        }
+        return encodedId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DistributedTraceId)) {
+            return false;
+        }
+        return Objects.equals(getId(), ((DistributedTraceId) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "DistributedTraceId(id=" + getId() + ")";
+    }
 }
@@ -19,14 +19,30 @@
 package org.apache.skywalking.apm.agent.core.context.ids;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.apache.skywalking.apm.util.StringUtil;
 
 public final class GlobalIdGenerator {
-    private static final String PROCESS_ID = UUID.randomUUID().toString().replaceAll("-", "");
+    private static final UUID PROCESS_UUID = UUID.randomUUID();
+    private static final String PROCESS_ID = PROCESS_UUID.toString().replaceAll("-", "");
     private static final ThreadLocal<IDContext> THREAD_ID_SEQUENCE = ThreadLocal.withInitial(
         () -> new IDContext(System.currentTimeMillis(), (short) 0));
 
+    /**
+     * The high 64 bits of all binary ids generated in this process.
+     */
+    private static final long BINARY_ID_HIGH =
+        PROCESS_UUID.getMostSignificantBits() ^ PROCESS_UUID.getLeastSignificantBits();
+    private static final int SEQUENCE_STRIPES = 16;
+    /**
+     * The sequences of the low 64 bits of binary ids, striped to reduce the contention, with 15 longs padding between
+     * the stripes.
+     */
+    private static final AtomicLongArray BINARY_ID_SEQUENCES = new AtomicLongArray((SEQUENCE_STRIPES + 1) << 4);
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     private GlobalIdGenerator() {
     }
 
@@ -51,6 +67,40 @@ public final class GlobalIdGenerator {
         );
     }
 
+    /**
+     * @return the high 64 bits of the binary id, which is fixed in this process.
+     */
+    public static long binaryIdHigh() {
+        return BINARY_ID_HIGH;
+    }
+
+    /**
+     * Generate the low 64 bits of a new binary id, combined by a striped sequence and the stripe index in the lowest 4
+     * bits. The stripe is picked randomly rather than by the thread id, which is not a good uniqueness source for the
+     * virtual threads, and no thread local state is allocated.
+     *
+     * @return the low 64 bits of the binary id, unique in this process.
+     */
+    public static long generateBinaryIdLow() {
+        int stripe = ThreadLocalRandom.current().nextInt(SEQUENCE_STRIPES);
+        long sequence = BINARY_ID_SEQUENCES.incrementAndGet((stripe + 1) << 4);
+        return sequence << 4 | stripe;
+    }
+
+    /**
+     * @return the binary id as 32 lowercase hex chars.
+     */
+    public static String toString(long high, long low) {
+        char[] chars = new char[32];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX_DIGITS[(int) (high & 0xF)];
+            chars[i + 16] = HEX_DIGITS[(int) (low & 0xF)];
+            high >>>= 4;
+            low >>>= 4;
+        }
+        return new String(chars);
+    }
+
     private static class IDContext {
         private long lastTimestamp;
         private short threadSeq;
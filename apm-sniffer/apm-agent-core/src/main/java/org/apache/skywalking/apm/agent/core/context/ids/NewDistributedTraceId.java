@@ -18,11 +18,21 @@
 
 package org.apache.skywalking.apm.agent.core.context.ids;
 
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
 /**
  * The <code>NewDistributedTraceId</code> is a {@link DistributedTraceId} with a new generated id.
  */
 public class NewDistributedTraceId extends DistributedTraceId {
     public NewDistributedTraceId() {
-        super(GlobalIdGenerator.generate());
+        this(Config.Agent.BINARY_ID);
+    }
+
+    private NewDistributedTraceId(boolean binaryId) {
+        super(
+            binaryId ? null : GlobalIdGenerator.generate(),
+            GlobalIdGenerator.binaryIdHigh(),
+            binaryId ? GlobalIdGenerator.generateBinaryIdLow() : 0L
+        );
     }
 }
@@ -33,6 +33,8 @@ import org.apache.skywalking.apm.agent.core.context.tag.Tags;
 import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
 import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
 import org.apache.skywalking.apm.agent.core.context.util.ThrowableTransformer;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
 import org.apache.skywalking.apm.network.trace.component.Component;
@@ -42,6 +44,8 @@ import org.apache.skywalking.apm.network.trace.component.Component;
  * distributed trace.
  */
 public abstract class AbstractTracingSpan implements AbstractSpan {
+    private static final ILog LOGGER = LogManager.getLogger(AbstractTracingSpan.class);
+
     /**
      * Span id starts from 0.
      */
@@ -66,7 +70,7 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      * The context to which the span belongs.
      * This should not be called when {@link #ignored} is true.
      */
-    protected final TracingContext owner;
+    protected TracingContext owner;
 
     /**
      * The start time of this Span.
@@ -105,6 +109,12 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     protected boolean ignored;
 
+    /**
+     * The span has been returned to the {@link TracingObjectRecycler} with its segment. The mutations are ignored and
+     * the transformation is rejected, until the span is reused by a new context.
+     */
+    protected volatile boolean recycled;
+
     protected AbstractTracingSpan(int spanId, int parentSpanId, String operationName, TracingContext owner) {
         this.operationName = operationName;
         this.spanId = spanId;
@@ -112,6 +122,42 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         this.owner = owner;
     }
 
+    /**
+     * Reset all states of the recycled span, make it work as a new created one.
+     */
+    void reinit(int spanId, int parentSpanId, String operationName, TracingContext owner) {
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.operationName = operationName;
+        this.owner = owner;
+        if (tags != null) {
+            tags.clear();
+        }
+        this.layer = null;
+        this.isInAsyncMode = false;
+        this.isAsyncStopped = false;
+        this.startTime = 0;
+        this.endTime = 0;
+        this.errorOccurred = false;
+        this.componentId = 0;
+        this.logs = null;
+        this.refs = null;
+        this.skipAnalysis = false;
+        this.ignored = false;
+        this.recycled = false;
+    }
+
+    /**
+     * @return true if the span has been recycled, which means it is used after its segment finished.
+     */
+    protected boolean checkRecycled() {
+        if (recycled) {
+            LOGGER.warn("Span[{}] is used after it has been recycled, the operation is ignored.", operationName);
+            return true;
+        }
+        return false;
+    }
+
     /**
      * Set a key:value tag on the Span.
      * <p>
@@ -126,6 +172,9 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
 
     @Override
     public AbstractTracingSpan tag(AbstractTag<?> tag, String value) {
+        if (checkRecycled()) {
+            return this;
+        }
         if (tags == null) {
             tags = new ArrayList<>(8);
         }
@@ -169,6 +218,9 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan log(Throwable t) {
+        if (checkRecycled()) {
+            return this;
+        }
         if (logs == null) {
             logs = new LinkedList<>();
         }
@@ -193,6 +245,9 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
      */
     @Override
     public AbstractTracingSpan log(long timestampMicroseconds, Map<String, ?> fields) {
+        if (checkRecycled()) {
+            return this;
+        }
         if (logs == null) {
             logs = new LinkedList<>();
         }
@@ -238,6 +293,56 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
         return operationName;
     }
 
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public boolean isErrorOccurred() {
+        return errorOccurred;
+    }
+
+    /**
+     * @return the value of the tag with the given key, or null if the tag doesn't exist.
+     */
+    public String getTagValue(String key) {
+        if (tags != null) {
+            for (TagValuePair tag : tags) {
+                if (tag.getKey().key().equals(key)) {
+                    return tag.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the estimated heap size of this span in bytes, which is dominated by the strings of the tags and logs.
+     */
+    public int estimatedSize() {
+        int size = 256 + stringSize(operationName);
+        if (tags != null) {
+            for (TagValuePair tag : tags) {
+                size += 32 + stringSize(tag.getValue());
+            }
+        }
+        if (logs != null) {
+            for (LogDataEntity log : logs) {
+                for (KeyValuePair pair : log.getLogs()) {
+                    size += 48 + stringSize(pair.getKey()) + stringSize(pair.getValue());
+                }
+            }
+        }
+        return size;
+    }
+
+    private static int stringSize(String value) {
+        return value == null ? 0 : 40 + value.length() * 2;
+    }
+
     @Override
     public AbstractTracingSpan setLayer(SpanLayer layer) {
         this.layer = layer;
@@ -262,6 +367,9 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
     }
 
     public SpanObject.Builder transform() {
+        if (recycled) {
+            throw new IllegalStateException("Span[" + operationName + "] has been recycled.");
+        }
         SpanObject.Builder spanBuilder = SpanObject.newBuilder();
 
         spanBuilder.setSpanId(this.spanId);
@@ -333,6 +441,9 @@ public abstract class AbstractTracingSpan implements AbstractSpan {
 
     @Override
     public AbstractSpan asyncFinish() {
+        if (checkRecycled()) {
+            return this;
+        }
         if (!isInAsyncMode) {
             throw new RuntimeException("Span is not in async mode, please use '#prepareForAsync' to active.");
         }
@@ -41,6 +41,12 @@ public class EntrySpan extends StackBasedTracingSpan {
         this.currentMaxDepth = 0;
     }
 
+    @Override
+    void reinit(int spanId, int parentSpanId, String operationName, TracingContext owner) {
+        super.reinit(spanId, parentSpanId, operationName, owner);
+        this.currentMaxDepth = 0;
+    }
+
     /**
      * Set the {@link #startTime}, when the first start, which means the first service provided.
      */
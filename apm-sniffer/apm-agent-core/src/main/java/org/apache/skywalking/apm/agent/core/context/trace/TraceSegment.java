@@ -18,13 +18,19 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
-import java.util.LinkedList;
+import com.google.protobuf.CodedOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
 import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
 import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
 
 /**
  * {@link TraceSegment} is a segment or fragment of the distributed trace. See https://github.com/opentracing/specification/blob/master/specification.md#the-opentracing-data-model
@@ -32,10 +38,18 @@ import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
  * by multi {@link TraceSegment}s, because the distributed trace crosses multi-processes, multi-threads. <p>
  */
 public class TraceSegment {
+    private static final int DEFAULT_SPAN_CAPACITY = 8;
+    private static final AtomicIntegerFieldUpdater<TraceSegment> REFERENCES_UPDATER =
+        AtomicIntegerFieldUpdater.newUpdater(TraceSegment.class, "references");
+
     /**
-     * The id of this trace segment. Every segment has its unique-global-id.
+     * The id of this trace segment. Every segment has its unique-global-id. In {@link Config.Agent#BINARY_ID} mode, it
+     * is materialized from {@link #segmentIdHigh} and {@link #segmentIdLow} when it is required.
      */
     private String traceSegmentId;
+    private long segmentIdHigh;
+    private long segmentIdLow;
+    private String encodedTraceSegmentId;
 
     /**
      * The refs of parent trace segments, except the primary one. For most RPC call, {@link #ref} contains only one
@@ -48,7 +62,7 @@ public class TraceSegment {
 
     /**
      * The spans belong to this trace segment. They all have finished. All active spans are hold and controlled by
-     * "skywalking-api" module.
+     * "skywalking-api" module. The array-backed list keeps its capacity when the segment is recycled.
      */
     private List<AbstractTracingSpan> spans;
 
@@ -63,16 +77,147 @@ public class TraceSegment {
 
     private boolean isSizeLimited = false;
 
-    private final long createTime;
+    /**
+     * True if the trace is force sampled in this segment or its upstream, see {@link
+     * org.apache.skywalking.apm.agent.core.context.TracingContext#forceSampled()}.
+     */
+    private boolean forceSampled = false;
+
+    private long createTime;
+
+    /**
+     * The archived spans encoded as the repeated `spans` field of {@link SegmentObject}, only when {@link
+     * Config.Agent#PRE_ENCODE_SEGMENT} is true. The spans in async mode could be changed until the async finish, they
+     * are encoded when this segment finishes.
+     */
+    private byte[] encodedSpans;
+    private int encodedSpansSize;
+    private List<AbstractTracingSpan> asyncSpans;
+    private boolean preEncoding;
+
+    /**
+     * Any archived span has been in async mode. The spans in async mode could be referred by other threads after the
+     * segment finished, so the segment is never recycled.
+     */
+    private boolean hasAsyncSpan;
+
+    /**
+     * The segment has been returned to the {@link TracingObjectRecycler}.
+     */
+    private volatile boolean recycled;
+
+    /**
+     * The number of the holders which keep this segment after it finished, see {@link
+     * TracingObjectRecycler#retain(TraceSegment)}. The segment is recycled only after all of them released it.
+     */
+    private volatile int references;
 
     /**
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
-        this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<>();
+        this(DEFAULT_SPAN_CAPACITY);
+    }
+
+    /**
+     * @param initialSpanCapacity the initial capacity of the span list, it grows when more spans are archived.
+     */
+    public TraceSegment(int initialSpanCapacity) {
+        generateId();
+        this.spans = new ArrayList<>(initialSpanCapacity);
         this.relatedGlobalTraceId = new NewDistributedTraceId();
         this.createTime = System.currentTimeMillis();
+        this.preEncoding = Config.Agent.PRE_ENCODE_SEGMENT;
+    }
+
+    /**
+     * Reset all states of the recycled segment, make it work as a new created one.
+     */
+    void reinit() {
+        generateId();
+        this.ref = null;
+        this.spans.clear();
+        this.relatedGlobalTraceId = new NewDistributedTraceId();
+        this.ignore = false;
+        this.isSizeLimited = false;
+        this.forceSampled = false;
+        this.createTime = System.currentTimeMillis();
+        this.encodedSpansSize = 0;
+        this.asyncSpans = null;
+        this.preEncoding = Config.Agent.PRE_ENCODE_SEGMENT;
+        this.hasAsyncSpan = false;
+        this.references = 0;
+        this.recycled = false;
+    }
+
+    private void generateId() {
+        if (Config.Agent.BINARY_ID) {
+            this.traceSegmentId = null;
+            this.segmentIdHigh = GlobalIdGenerator.binaryIdHigh();
+            this.segmentIdLow = GlobalIdGenerator.generateBinaryIdLow();
+        } else {
+            this.traceSegmentId = GlobalIdGenerator.generate();
+        }
+        this.encodedTraceSegmentId = null;
+    }
+
+    /**
+     * Mark this segment and its spans recycled.
+     *
+     * @return false if this segment could not be recycled, as it has been recycled or includes async spans.
+     */
+    boolean markRecycled() {
+        if (recycled || hasAsyncSpan) {
+            return false;
+        }
+        recycled = true;
+        for (AbstractTracingSpan span : spans) {
+            span.recycled = true;
+        }
+        return true;
+    }
+
+    void retain() {
+        REFERENCES_UPDATER.incrementAndGet(this);
+    }
+
+    /**
+     * Release a reference of this segment.
+     *
+     * @return true if no holder keeps this segment any more.
+     */
+    boolean release() {
+        while (true) {
+            final int current = references;
+            if (current <= 0) {
+                return true;
+            }
+            if (REFERENCES_UPDATER.compareAndSet(this, current, current - 1)) {
+                return current == 1;
+            }
+        }
+    }
+
+    boolean isRecycled() {
+        return recycled;
+    }
+
+    /**
+     * @return the estimated heap size of this segment in bytes, including the spans and the pre-encoded bytes.
+     */
+    public int estimatedSize() {
+        int size = 512 + (encodedSpans == null ? 0 : encodedSpans.length);
+        for (AbstractTracingSpan span : spans) {
+            size += span.estimatedSize();
+        }
+        return size;
+    }
+
+    /**
+     * @return the archived spans, which should be read only.
+     */
+    public List<AbstractTracingSpan> getSpans() {
+        return spans;
     }
 
     /**
@@ -100,7 +245,23 @@ public class TraceSegment {
      * TraceSegment} to archive it.
      */
     public void archive(AbstractTracingSpan finishedSpan) {
+        if (recycled) {
+            throw new IllegalStateException("Segment[" + getTraceSegmentId() + "] has been recycled.");
+        }
         spans.add(finishedSpan);
+        if (finishedSpan.isInAsyncMode) {
+            hasAsyncSpan = true;
+        }
+        if (preEncoding) {
+            if (finishedSpan.isInAsyncMode) {
+                if (asyncSpans == null) {
+                    asyncSpans = new ArrayList<>(4);
+                }
+                asyncSpans.add(finishedSpan);
+            } else {
+                encodeSpan(finishedSpan);
+            }
+        }
     }
 
     /**
@@ -108,11 +269,54 @@ public class TraceSegment {
      */
     public TraceSegment finish(boolean isSizeLimited) {
         this.isSizeLimited = isSizeLimited;
+        if (preEncoding && asyncSpans != null) {
+            for (AbstractTracingSpan asyncSpan : asyncSpans) {
+                encodeSpan(asyncSpan);
+            }
+            asyncSpans = null;
+        }
         return this;
     }
 
+    private void encodeSpan(AbstractTracingSpan span) {
+        SpanObject spanObject = span.transform().build();
+        int size = CodedOutputStream.computeMessageSize(SegmentObject.SPANS_FIELD_NUMBER, spanObject);
+        if (encodedSpans == null) {
+            encodedSpans = new byte[Math.max(size, 512)];
+        } else if (encodedSpans.length - encodedSpansSize < size) {
+            encodedSpans = Arrays.copyOf(encodedSpans, Math.max(encodedSpans.length * 2, encodedSpansSize + size));
+        }
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(encodedSpans, encodedSpansSize, size);
+            output.writeMessage(SegmentObject.SPANS_FIELD_NUMBER, spanObject);
+            encodedSpansSize += size;
+        } catch (IOException e) {
+            // Fall back to transform the whole segment in reporting.
+            preEncoding = false;
+            encodedSpans = null;
+            encodedSpansSize = 0;
+        }
+    }
+
     public String getTraceSegmentId() {
-        return traceSegmentId;
+        String id = this.traceSegmentId;
+        if (id == null) {
+            id = GlobalIdGenerator.toString(segmentIdHigh, segmentIdLow);
+            this.traceSegmentId = id;
+        }
+        return id;
+    }
+
+    /**
+     * @return the Base64 form of the segment id, cached for propagating in the headers.
+     */
+    public String getEncodedTraceSegmentId() {
+        String encodedId = this.encodedTraceSegmentId;
+        if (encodedId == null) {
+            encodedId = Base64.encode(getTraceSegmentId());
+            this.encodedTraceSegmentId = encodedId;
+        }
+        return encodedId;
     }
 
     /**
@@ -130,6 +334,14 @@ public class TraceSegment {
         return this.spans != null && this.spans.size() == 1;
     }
 
+    public void forceSampled() {
+        this.forceSampled = true;
+    }
+
+    public boolean isForceSampled() {
+        return forceSampled;
+    }
+
     public boolean isIgnore() {
         return ignore;
     }
@@ -144,12 +356,15 @@ public class TraceSegment {
      * @return the segment as GRPC service parameter
      */
     public SegmentObject transform() {
+        if (recycled) {
+            throw new IllegalStateException("Segment[" + getTraceSegmentId() + "] has been recycled.");
+        }
         SegmentObject.Builder traceSegmentBuilder = SegmentObject.newBuilder();
         traceSegmentBuilder.setTraceId(getRelatedGlobalTrace().getId());
         /*
          * Trace Segment
          */
-        traceSegmentBuilder.setTraceSegmentId(this.traceSegmentId);
+        traceSegmentBuilder.setTraceSegmentId(getTraceSegmentId());
         // Don't serialize TraceSegmentReference
 
         // SpanObject
@@ -163,9 +378,66 @@ public class TraceSegment {
         return traceSegmentBuilder.build();
     }
 
+    /**
+     * Serialize the segment as the bytes of {@link SegmentObject}. If the spans have been pre-encoded, this method only
+     * concatenates them with the segment fields, otherwise, it works like {@link #transform()}.
+     *
+     * @return the serialized {@link SegmentObject}
+     */
+    public byte[] encode() {
+        if (recycled) {
+            throw new IllegalStateException("Segment[" + getTraceSegmentId() + "] has been recycled.");
+        }
+        if (!preEncoding) {
+            return transform().toByteArray();
+        }
+        final String traceId = getRelatedGlobalTrace().getId();
+        final String service = Config.Agent.SERVICE_NAME;
+        final String serviceInstance = Config.Agent.INSTANCE_NAME;
+        final String traceSegmentId = getTraceSegmentId();
+
+        int size = encodedSpansSize;
+        size += stringSize(SegmentObject.TRACEID_FIELD_NUMBER, traceId);
+        size += stringSize(SegmentObject.TRACESEGMENTID_FIELD_NUMBER, traceSegmentId);
+        size += stringSize(SegmentObject.SERVICE_FIELD_NUMBER, service);
+        size += stringSize(SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, serviceInstance);
+        if (isSizeLimited) {
+            size += CodedOutputStream.computeBoolSize(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, true);
+        }
+
+        byte[] result = new byte[size];
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(result);
+            writeString(output, SegmentObject.TRACEID_FIELD_NUMBER, traceId);
+            writeString(output, SegmentObject.TRACESEGMENTID_FIELD_NUMBER, traceSegmentId);
+            if (encodedSpansSize > 0) {
+                output.writeRawBytes(encodedSpans, 0, encodedSpansSize);
+            }
+            writeString(output, SegmentObject.SERVICE_FIELD_NUMBER, service);
+            writeString(output, SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, serviceInstance);
+            if (isSizeLimited) {
+                output.writeBool(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, true);
+            }
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            return transform().toByteArray();
+        }
+        return result;
+    }
+
+    private static int stringSize(int fieldNumber, String value) {
+        return value == null || value.isEmpty() ? 0 : CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+
+    private static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
     @Override
     public String toString() {
-        return "TraceSegment{" + "traceSegmentId='" + traceSegmentId + '\'' + ", ref=" + ref + ", spans=" + spans + "}";
+        return "TraceSegment{" + "traceSegmentId='" + getTraceSegmentId() + '\'' + ", ref=" + ref + ", spans=" + spans + "}";
     }
 
     public long createTime() {
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.RecyclingAwareListener;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.util.ObjectPool;
+
+/**
+ * TracingObjectRecycler reuses the {@link TraceSegment}s and their spans after they are reported, to reduce the
+ * allocation of the tracing hot path. It works only when {@link Config.Agent#TRACING_OBJECT_POOL_SIZE} is positive.
+ * <p>
+ * A finished segment is shared by all {@link org.apache.skywalking.apm.agent.core.context.TracingContextListener}s, so
+ * it is owned by reference counting. The listener keeping the segment after its notification, such as the reporter
+ * queueing it, {@link #retain(TraceSegment)}s it and {@link #recycle(TraceSegment)}s it when it is done. The
+ * notification holds a reference itself until all listeners return, and never releases it when any listener is not a
+ * {@link RecyclingAwareListener}, as that listener could keep the segment without the reference.
+ * <p>
+ * A recycled segment or span rejects the transformation and ignores the mutations with a warning, until it is reused by
+ * a new tracing context. The segment including any async span is never recycled, as the async span could be referred
+ * by other threads after the segment finished.
+ */
+public final class TracingObjectRecycler {
+    private static final ILog LOGGER = LogManager.getLogger(TracingObjectRecycler.class);
+
+    private static volatile Pools POOLS;
+
+    private TracingObjectRecycler() {
+    }
+
+    /**
+     * @param initialSpanCapacity the initial capacity of the span list of the new created segment. The recycled segment
+     *                            keeps the capacity of its last use.
+     */
+    public static TraceSegment newSegment(int initialSpanCapacity) {
+        Pools pools = pools();
+        TraceSegment segment = pools == null ? null : pools.segments.acquire();
+        if (segment == null) {
+            return new TraceSegment(initialSpanCapacity);
+        }
+        segment.reinit();
+        return segment;
+    }
+
+    public static EntrySpan newEntrySpan(int spanId, int parentSpanId, String operationName, TracingContext owner) {
+        Pools pools = pools();
+        EntrySpan span = pools == null ? null : pools.entrySpans.acquire();
+        if (span == null) {
+            return new EntrySpan(spanId, parentSpanId, operationName, owner);
+        }
+        span.reinit(spanId, parentSpanId, operationName, owner);
+        return span;
+    }
+
+    public static LocalSpan newLocalSpan(int spanId, int parentSpanId, String operationName, TracingContext owner) {
+        Pools pools = pools();
+        LocalSpan span = pools == null ? null : pools.localSpans.acquire();
+        if (span == null) {
+            return new LocalSpan(spanId, parentSpanId, operationName, owner);
+        }
+        span.reinit(spanId, parentSpanId, operationName, owner);
+        return span;
+    }
+
+    public static ExitSpan newExitSpan(int spanId, int parentSpanId, String operationName, String peer,
+                                       TracingContext owner) {
+        Pools pools = pools();
+        ExitSpan span = pools == null ? null : pools.exitSpans.acquire();
+        if (span == null) {
+            return new ExitSpan(spanId, parentSpanId, operationName, peer, owner);
+        }
+        span.reinit(spanId, parentSpanId, operationName, owner);
+        span.setPeer(peer);
+        return span;
+    }
+
+    /**
+     * Keep the segment from recycling, until it is released by {@link #recycle(TraceSegment)}.
+     */
+    public static void retain(TraceSegment segment) {
+        if (pools() == null) {
+            return;
+        }
+        segment.retain();
+    }
+
+    /**
+     * Release a reference of the segment, and return the segment and its spans to the pools when no one else retains
+     * it. The caller must not use the segment after this.
+     */
+    public static void recycle(TraceSegment segment) {
+        Pools pools = pools();
+        if (pools == null) {
+            return;
+        }
+        if (!segment.release()) {
+            return;
+        }
+        if (segment.isRecycled()) {
+            LOGGER.warn("Segment[{}] has been recycled repeatedly.", segment.getTraceSegmentId());
+            return;
+        }
+        if (!segment.markRecycled()) {
+            return;
+        }
+        for (AbstractTracingSpan span : segment.getSpans()) {
+            Class<?> spanClass = span.getClass();
+            if (spanClass == EntrySpan.class) {
+                pools.entrySpans.release((EntrySpan) span);
+            } else if (spanClass == LocalSpan.class) {
+                pools.localSpans.release((LocalSpan) span);
+            } else if (spanClass == ExitSpan.class) {
+                pools.exitSpans.release((ExitSpan) span);
+            }
+        }
+        pools.segments.release(segment);
+    }
+
+    private static Pools pools() {
+        int size = Config.Agent.TRACING_OBJECT_POOL_SIZE;
+        if (size <= 0) {
+            return null;
+        }
+        Pools pools = POOLS;
+        if (pools == null || pools.size != size) {
+            pools = new Pools(size);
+            POOLS = pools;
+        }
+        return pools;
+    }
+
+    private static class Pools {
+        private final int size;
+        private final ObjectPool<TraceSegment> segments;
+        private final ObjectPool<EntrySpan> entrySpans;
+        private final ObjectPool<LocalSpan> localSpans;
+        private final ObjectPool<ExitSpan> exitSpans;
+
+        private Pools(int size) {
+            this.size = size;
+            this.segments = new ObjectPool<>(size);
+            this.entrySpans = new ObjectPool<>(size);
+            this.localSpans = new ObjectPool<>(size);
+            this.exitSpans = new ObjectPool<>(size);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The <code>AsyncFileWriter</code> buffers the logs in a pre-allocated byte ring, and writes them into the file in
+ * batches through a {@link FileChannel}, once the size of the buffered logs reaches {@link
+ * Config.Logging#ASYNC_FLUSH_SIZE}, or every {@link Config.Logging#ASYNC_FLUSH_INTERVAL}.
+ * <p>
+ * The logging threads encode the logs as UTF-8 into their own reusable buffers, and never wait for the file. The logs
+ * which could not fit in the ring are dropped and counted exactly, and the count is written into the file. The file
+ * rolls over like {@link FileWriter}, after the batch exceeding {@link Config.Logging#MAX_FILE_SIZE} is written.
+ * <p>
+ * The failures of the flusher thread are reported to {@link System#err}, and it keeps flushing the later logs. The
+ * buffered logs are flushed once more by a shutdown hook, the logs written after it are lost.
+ */
+public class AsyncFileWriter implements IWriter {
+    private static final byte[] LINE_SEPARATOR = Constants.LINE_SEPARATOR.getBytes(StandardCharsets.UTF_8);
+    /**
+     * The encode buffers larger than it are not reused, to bound the memory held by the logging threads.
+     */
+    private static final int MAX_REUSED_ENCODE_BUFFER_SIZE = 8 * 1024;
+
+    private static AsyncFileWriter INSTANCE;
+    private static final Object CREATE_LOCK = new Object();
+
+    private final byte[] ring;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushCondition = lock.newCondition();
+    /**
+     * The positions of the first buffered byte and the next byte to write in the ring, they only increase. The bytes
+     * between them are owned by the flusher thread. Guarded by the lock.
+     */
+    private long head;
+    private long tail;
+    private final AtomicLong droppedLines = new AtomicLong();
+    private final ThreadLocal<byte[]> encodeBuffers = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[256];
+        }
+    };
+
+    /**
+     * Guarded by the monitor of the writer, as the logs are flushed by the flusher thread and the shutdown hook.
+     */
+    private FileChannel fileChannel;
+    private long fileSize;
+    private long writtenDroppedLines;
+
+    public static AsyncFileWriter get() {
+        if (INSTANCE == null) {
+            synchronized (CREATE_LOCK) {
+                if (INSTANCE == null) {
+                    AsyncFileWriter writer = new AsyncFileWriter(
+                        Config.Logging.ASYNC_BUFFER_SIZE, Config.Logging.ASYNC_FLUSH_SIZE,
+                        Config.Logging.ASYNC_FLUSH_INTERVAL
+                    );
+                    writer.start();
+                    Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            writer.flush();
+                        }
+                    }, "SkywalkingAgent-LogFileWriter-Shutdown"));
+                    INSTANCE = writer;
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * @param bufferSize    the size in bytes of the ring.
+     * @param flushSize     the size in bytes of the buffered logs to write them immediately.
+     * @param flushInterval the max interval in milliseconds of writing the buffered logs.
+     */
+    AsyncFileWriter(int bufferSize, int flushSize, long flushInterval) {
+        this.ring = new byte[Math.max(bufferSize, 1024)];
+        this.flushSize = Math.max(1, Math.min(flushSize, ring.length / 2));
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushInterval));
+    }
+
+    /**
+     * Start the flusher thread, which writes the buffered logs once they are enough, or the flush interval elapses.
+     */
+    void start() {
+        Thread logFlusherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        awaitFlush();
+                        flush();
+                    } catch (Throwable t) {
+                        t.printStackTrace();
+                    }
+                }
+            }
+        }, "SkywalkingAgent-LogFileWriter");
+        logFlusherThread.setDaemon(true);
+        logFlusherThread.start();
+    }
+
+    /**
+     * Write log to the ring, or drop it if the ring is full.
+     *
+     * @param message to log
+     */
+    @Override
+    public void write(String message) {
+        byte[] buffer = encodeBuffers.get();
+        // UTF-8 takes at most 3 bytes for every char
+        final int maxLength = message.length() * 3 + LINE_SEPARATOR.length;
+        if (buffer.length < maxLength) {
+            buffer = new byte[maxLength];
+            if (maxLength <= MAX_REUSED_ENCODE_BUFFER_SIZE) {
+                encodeBuffers.set(buffer);
+            }
+        }
+        int length = encodeUtf8(message, buffer);
+        System.arraycopy(LINE_SEPARATOR, 0, buffer, length, LINE_SEPARATOR.length);
+        length += LINE_SEPARATOR.length;
+
+        lock.lock();
+        try {
+            final long buffered = tail - head;
+            if (buffered + length > ring.length) {
+                droppedLines.incrementAndGet();
+                return;
+            }
+            final int offset = (int) (tail % ring.length);
+            final int firstPart = Math.min(length, ring.length - offset);
+            System.arraycopy(buffer, 0, ring, offset, firstPart);
+            System.arraycopy(buffer, firstPart, ring, 0, length - firstPart);
+            tail += length;
+            if (buffered < flushSize && buffered + length >= flushSize) {
+                flushCondition.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of the logs dropped due to the full ring.
+     */
+    public long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    /**
+     * Wait until the size of the buffered logs reaches the flush size, or the flush interval elapses.
+     */
+    private void awaitFlush() {
+        lock.lock();
+        try {
+            if (tail - head < flushSize) {
+                flushCondition.awaitNanos(flushIntervalNanos);
+            }
+        } catch (InterruptedException e) {
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write the buffered logs into the file. The logs are discarded if they fail to be written.
+     */
+    synchronized void flush() {
+        final long from;
+        final long to;
+        lock.lock();
+        try {
+            from = head;
+            to = tail;
+        } finally {
+            lock.unlock();
+        }
+        final long dropped = droppedLines.get();
+        if (from == to && dropped == writtenDroppedLines) {
+            return;
+        }
+
+        try {
+            // The logs are discarded if the file is not available, the same as FileWriter.
+            if (prepareFileChannel()) {
+                try {
+                    if (dropped != writtenDroppedLines) {
+                        writeFully(ByteBuffer.wrap((dropped - writtenDroppedLines
+                            + " log lines have been dropped, because the log buffer is full."
+                            + Constants.LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8)));
+                        writtenDroppedLines = dropped;
+                    }
+                    final int offset = (int) (from % ring.length);
+                    final int length = (int) (to - from);
+                    final int firstPart = Math.min(length, ring.length - offset);
+                    writeFully(ByteBuffer.wrap(ring, offset, firstPart));
+                    writeFully(ByteBuffer.wrap(ring, 0, length - firstPart));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                } finally {
+                    switchFile();
+                }
+            }
+        } finally {
+            lock.lock();
+            try {
+                head = to;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            fileSize += fileChannel.write(buffer);
+        }
+    }
+
+    private void switchFile() {
+        if (fileSize > Config.Logging.MAX_FILE_SIZE) {
+            try {
+                fileChannel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            fileChannel = null;
+            FileWriter.rollOver();
+        }
+    }
+
+    /**
+     * @return true if the channel is prepared ready.
+     */
+    private boolean prepareFileChannel() {
+        if (fileChannel != null) {
+            return true;
+        }
+        File logFilePath = new File(Config.Logging.DIR);
+        if (!logFilePath.exists()) {
+            logFilePath.mkdirs();
+        } else if (!logFilePath.isDirectory()) {
+            System.err.println("Log dir(" + Config.Logging.DIR + ") is not a directory.");
+        }
+        try {
+            fileChannel = new FileOutputStream(new File(logFilePath, Config.Logging.FILE_NAME), true).getChannel();
+            fileSize = fileChannel.size();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return fileChannel != null;
+    }
+
+    /**
+     * Encode the message as UTF-8, the same as {@link String#getBytes(java.nio.charset.Charset)}, which replaces the
+     * malformed surrogates with '?'.
+     *
+     * @param buffer to hold the encoded bytes, at least 3 bytes for every char of the message.
+     * @return the number of the encoded bytes.
+     */
+    static int encodeUtf8(String message, byte[] buffer) {
+        int length = 0;
+        for (int i = 0, n = message.length(); i < n; i++) {
+            final char c = message.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[length++] = (byte) (0xC0 | c >> 6);
+                buffer[length++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                buffer[length++] = (byte) (0xE0 | c >> 12);
+                buffer[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[length++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(message.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, message.charAt(++i));
+                buffer[length++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[length++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[length++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[length++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                buffer[length++] = '?';
+            }
+        }
+        return length;
+    }
+}
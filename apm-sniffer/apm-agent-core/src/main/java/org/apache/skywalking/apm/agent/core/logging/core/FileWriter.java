@@ -46,7 +46,6 @@ public class FileWriter implements IWriter {
     private FileOutputStream fileOutputStream;
     private ArrayBlockingQueue logBuffer;
     private volatile int fileSize;
-    private Pattern filenamePattern = Pattern.compile(Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}");
 
     public static FileWriter get() {
         if (INSTANCE == null) {
@@ -133,14 +132,6 @@ public class FileWriter implements IWriter {
                     return null;
                 }
             });
-            forceExecute(new Callable() {
-                @Override
-                public Object call() throws Exception {
-                    new File(Config.Logging.DIR, Config.Logging.FILE_NAME).renameTo(new File(Config.Logging.DIR, Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss")
-                        .format(new Date())));
-                    return null;
-                }
-            });
             forceExecute(new Callable() {
                 @Override
                 public Object call() throws Exception {
@@ -148,10 +139,26 @@ public class FileWriter implements IWriter {
                     return null;
                 }
             });
+            rollOver();
+        }
+    }
 
-            if (Config.Logging.MAX_HISTORY_FILES > 0) {
-                deleteExpiredFiles();
+    /**
+     * Rename the closed log file as a history file, and delete the expired history files. Shared by {@link
+     * AsyncFileWriter}.
+     */
+    static void rollOver() {
+        forceExecute(new Callable() {
+            @Override
+            public Object call() throws Exception {
+                new File(Config.Logging.DIR, Config.Logging.FILE_NAME).renameTo(new File(Config.Logging.DIR, Config.Logging.FILE_NAME + new SimpleDateFormat(".yyyy_MM_dd_HH_mm_ss")
+                    .format(new Date())));
+                return null;
             }
+        });
+
+        if (Config.Logging.MAX_HISTORY_FILES > 0) {
+            deleteExpiredFiles();
         }
     }
 
@@ -160,7 +167,8 @@ public class FileWriter implements IWriter {
      *
      * @return history log file name array
      */
-    private String[] getHistoryFilePath() {
+    private static String[] getHistoryFilePath() {
+        final Pattern filenamePattern = Pattern.compile(Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}");
         File path = new File(Config.Logging.DIR);
         String[] pathArr = path.list(new FilenameFilter() {
             @Override
@@ -175,7 +183,7 @@ public class FileWriter implements IWriter {
     /**
      * delete expired log files
      */
-    private void deleteExpiredFiles() {
+    private static void deleteExpiredFiles() {
         String[] historyFileArr = getHistoryFilePath();
         if (historyFileArr != null && historyFileArr.length > Config.Logging.MAX_HISTORY_FILES) {
 
@@ -193,7 +201,7 @@ public class FileWriter implements IWriter {
         }
     }
 
-    private void forceExecute(Callable callable) {
+    private static void forceExecute(Callable callable) {
         try {
             callable.call();
         } catch (Exception e) {
@@ -33,6 +33,7 @@ public class WriterFactory {
 
         switch (Config.Logging.OUTPUT) {
             case FILE:
+            case ASYNC_FILE:
                 if (WRITER != null) {
                     return WRITER;
                 }
@@ -46,7 +47,7 @@ public class WriterFactory {
                             e.printStackTrace();
                         }
                     }
-                    WRITER = FileWriter.get();
+                    WRITER = Config.Logging.OUTPUT == LogOutput.ASYNC_FILE ? AsyncFileWriter.get() : FileWriter.get();
                 } else {
                     return SystemOutWriter.INSTANCE;
                 }
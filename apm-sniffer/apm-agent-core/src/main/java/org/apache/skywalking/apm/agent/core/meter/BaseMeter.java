@@ -30,6 +30,18 @@ import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
 public abstract class BaseMeter {
     protected final MeterId meterId;
 
+    /**
+     * The last activity of the meter and the time it changed, checked by the {@link MeterService} in every report
+     * round to find the idle meters. Guarded by the {@link MeterService}.
+     */
+    double lastActivity = Double.NaN;
+    long lastActiveTime;
+
+    /**
+     * The service which has evicted this meter as an idle one, null if the meter is registered.
+     */
+    private volatile MeterService evictedBy;
+
     public BaseMeter(MeterId meterId) {
         this.meterId = meterId;
     }
@@ -59,6 +71,42 @@ public abstract class BaseMeter {
      */
     public abstract MeterData.Builder transform();
 
+    /**
+     * Transform the meter to gRPC message bean, only if the value has changed since the last transforming.
+     * @param force transform even if the value has not changed
+     * @return null if not changed, or dont need to transform
+     */
+    public MeterData.Builder transformIfChanged(boolean force) {
+        return transform();
+    }
+
+    /**
+     * @return a value changing whenever the meter records, or NaN if the meter is never idle, such as the gauges whose
+     * values are pulled from the suppliers.
+     */
+    double activity() {
+        return Double.NaN;
+    }
+
+    void evict(MeterService service) {
+        this.evictedBy = service;
+    }
+
+    void revived() {
+        this.evictedBy = null;
+    }
+
+    /**
+     * Register the meter again if it has been evicted as an idle meter, should be called when the meter records. The
+     * meter stays evicted, and is retried in the next recording, until the {@link MeterService} accepts it.
+     */
+    protected void reviveIfEvicted() {
+        final MeterService service = evictedBy;
+        if (service != null) {
+            service.revive(this);
+        }
+    }
+
     /**
      * Transform all tags to gRPC message
      */
@@ -22,7 +22,7 @@ import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterSingleValue;
 
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.DoubleAdder;
 
 /**
@@ -32,7 +32,10 @@ public class Counter extends BaseMeter {
 
     protected final DoubleAdder count;
     protected final CounterMode mode;
-    private final AtomicReference<Double> previous = new AtomicReference();
+    /**
+     * The raw long bits of the last reported value, NaN means not reported yet.
+     */
+    private final AtomicLong previous = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
 
     public Counter(MeterId meterId, CounterMode mode) {
         super(meterId);
@@ -42,6 +45,7 @@ public class Counter extends BaseMeter {
 
     public void increment(double count) {
         this.count.add(count);
+        reviveIfEvicted();
     }
 
     public double get() {
@@ -50,14 +54,31 @@ public class Counter extends BaseMeter {
 
     @Override
     public MeterData.Builder transform() {
-        // using rate mode or increase
+        return transform(get());
+    }
+
+    @Override
+    double activity() {
+        return get();
+    }
+
+    @Override
+    public MeterData.Builder transformIfChanged(boolean force) {
         final double currentValue = get();
+        if (!force && currentValue == Double.longBitsToDouble(previous.get())) {
+            return null;
+        }
+        return transform(currentValue);
+    }
+
+    private MeterData.Builder transform(double currentValue) {
+        // using rate mode or increase
+        final double previousValue = Double.longBitsToDouble(
+            previous.getAndSet(Double.doubleToRawLongBits(currentValue)));
         double count;
         if (Objects.equals(mode, CounterMode.RATE)) {
-            final Double previousValue = previous.getAndSet(currentValue);
-
             // calculate the add count
-            if (previousValue == null) {
+            if (Double.isNaN(previousValue)) {
                 count = currentValue;
             } else {
                 count = currentValue - previousValue;
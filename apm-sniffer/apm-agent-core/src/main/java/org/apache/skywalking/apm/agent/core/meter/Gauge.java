@@ -31,6 +31,7 @@ import java.util.function.Supplier;
 public class Gauge extends BaseMeter {
     private static final ILog LOGGER = LogManager.getLogger(Gauge.class);
     protected Supplier<Double> getter;
+    private volatile double lastReportedValue = Double.NaN;
 
     public Gauge(MeterId meterId, Supplier<Double> getter) {
         super(meterId);
@@ -47,6 +48,11 @@ public class Gauge extends BaseMeter {
 
     @Override
     public MeterData.Builder transform() {
+        return transformIfChanged(true);
+    }
+
+    @Override
+    public MeterData.Builder transformIfChanged(boolean force) {
         double count;
         try {
             count = get();
@@ -54,6 +60,10 @@ public class Gauge extends BaseMeter {
             LOGGER.warn(e, "Cannot get the count in meter:{}", meterId.getName());
             return null;
         }
+        if (!force && count == lastReportedValue) {
+            return null;
+        }
+        lastReportedValue = count;
 
         final MeterData.Builder builder = MeterData.newBuilder();
         builder.setSingleValue(MeterSingleValue.newBuilder()
@@ -19,10 +19,10 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
@@ -32,17 +32,33 @@ import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
  * Histogram represents the distribution of data. It includes the buckets representing continuous ranges of values, with
  * the num of collected values in every specific range. The ranges could start from any value(default 0) to positive
  * infinitive. They can be set through the constructor and immutable after that.
+ * <p>
+ * The striped histogram counts every bucket by a {@link LongAdder} rather than an {@link AtomicLong}, which costs more
+ * memory, but doesn't contend when many threads add values into the same buckets.
  */
 public class Histogram extends BaseMeter {
     protected final Bucket[] buckets;
+    /**
+     * The total count of the buckets at the last transforming.
+     */
+    private volatile long lastReportedCount = -1;
 
     /**
      * @param meterId as the unique id of this meter instance
      * @param steps presents the minimal value of every step
      */
     public Histogram(MeterId meterId, List<Double> steps) {
+        this(meterId, steps, false);
+    }
+
+    /**
+     * @param meterId as the unique id of this meter instance
+     * @param steps presents the minimal value of every step
+     * @param striped counts the buckets by {@link LongAdder}s if true
+     */
+    protected Histogram(MeterId meterId, List<Double> steps, boolean striped) {
         super(meterId);
-        this.buckets = initBuckets(steps);
+        this.buckets = initBuckets(steps, striped);
     }
 
     /**
@@ -55,12 +71,13 @@ public class Histogram extends BaseMeter {
         }
 
         bucket.increment(1L);
+        reviveIfEvicted();
     }
 
     /**
      * Using binary search the bucket
      */
-    private Bucket findBucket(double value) {
+    protected Bucket findBucket(double value) {
         int low = 0;
         int high = buckets.length - 1;
 
@@ -80,28 +97,59 @@ public class Histogram extends BaseMeter {
         return low < buckets.length && low >= 0 ? buckets[low] : null;
     }
 
-    private Bucket[] initBuckets(List<Double> steps) {
-        return steps.stream().map(Bucket::new).toArray(Bucket[]::new);
+    private Bucket[] initBuckets(List<Double> steps, boolean striped) {
+        Bucket[] initialized = new Bucket[steps.size()];
+        for (int i = 0; i < initialized.length; i++) {
+            initialized[i] = striped ? new StripedBucket(steps.get(i)) : new Bucket(steps.get(i));
+        }
+        return initialized;
     }
 
     @Override
     public MeterData.Builder transform() {
-        final MeterData.Builder builder = MeterData.newBuilder();
+        final MeterHistogram.Builder histogramBuilder = MeterHistogram.newBuilder()
+                                                                      .setName(getName())
+                                                                      .addAllLabels(transformTags());
+        long totalCount = 0;
+        for (Bucket bucket : buckets) {
+            final MeterBucketValue value = bucket.transform();
+            totalCount += value.getCount();
+            histogramBuilder.addValues(value);
+        }
+        lastReportedCount = totalCount;
+        return MeterData.newBuilder().setHistogram(histogramBuilder.build());
+    }
 
-        // get all values
-        List<MeterBucketValue> values = Arrays.stream(buckets)
-                                              .map(Histogram.Bucket::transform).collect(Collectors.toList());
+    /**
+     * The counts of the buckets never decrease, so the histogram has not changed if the total count is the same.
+     */
+    @Override
+    public MeterData.Builder transformIfChanged(boolean force) {
+        if (!force && getTotalCount() == lastReportedCount) {
+            return null;
+        }
+        return transform();
+    }
 
-        return builder.setHistogram(MeterHistogram.newBuilder()
-                                                  .setName(getName())
-                                                  .addAllLabels(transformTags())
-                                                  .addAllValues(values)
-                                                  .build());
+    @Override
+    double activity() {
+        return getTotalCount();
+    }
+
+    private long getTotalCount() {
+        long totalCount = 0;
+        for (Bucket bucket : buckets) {
+            totalCount += bucket.getCount();
+        }
+        return totalCount;
     }
 
     public static class Builder extends AbstractBuilder<Builder, Histogram> {
         private double minValue = 0;
         private List<Double> steps;
+        private boolean striped = false;
+        private double maxValue = 0;
+        private int subBucketCount = 0;
 
         /**
          * Build a new meter build, meter name is required
@@ -126,6 +174,27 @@ public class Histogram extends BaseMeter {
             return this;
         }
 
+        /**
+         * Count the buckets by {@link LongAdder}s, for the histograms recorded by many threads concurrently.
+         */
+        public Builder striped() {
+            this.striped = true;
+            return this;
+        }
+
+        /**
+         * Use the log-linear bucket layout instead of the steps, see {@link LogLinearHistogram}.
+         *
+         * @param maxValue       the last bucket starts from the first linear bucket not less than it.
+         * @param subBucketCount the number of the linear buckets of every power of 2 range, rounded up to the power of
+         *                       2.
+         */
+        public Builder logLinear(double maxValue, int subBucketCount) {
+            this.maxValue = maxValue;
+            this.subBucketCount = subBucketCount;
+            return this;
+        }
+
         @Override
         protected MeterType getType() {
             return MeterType.HISTOGRAM;
@@ -133,6 +202,9 @@ public class Histogram extends BaseMeter {
 
         @Override
         protected Histogram create(MeterId meterId) {
+            if (subBucketCount > 0) {
+                return new LogLinearHistogram(meterId, minValue, maxValue, subBucketCount, striped);
+            }
             if (steps == null || steps.isEmpty()) {
                 throw new IllegalArgumentException("Missing steps setting");
             }
@@ -148,7 +220,7 @@ public class Histogram extends BaseMeter {
                 steps.add(0, minValue);
             }
 
-            return new Histogram(meterId, steps);
+            return new Histogram(meterId, steps, striped);
         }
     }
 
@@ -167,10 +239,14 @@ public class Histogram extends BaseMeter {
             this.count.addAndGet(count);
         }
 
+        public long getCount() {
+            return count.get();
+        }
+
         public MeterBucketValue transform() {
             return MeterBucketValue.newBuilder()
                                    .setBucket(bucket)
-                                   .setCount(count.get())
+                                   .setCount(getCount())
                                    .build();
         }
 
@@ -189,4 +265,25 @@ public class Histogram extends BaseMeter {
             return Objects.hash(bucket);
         }
     }
+
+    /**
+     * Histogram bucket counted by a {@link LongAdder}
+     */
+    protected static class StripedBucket extends Bucket {
+        private final LongAdder adder = new LongAdder();
+
+        public StripedBucket(double bucket) {
+            super(bucket);
+        }
+
+        @Override
+        public void increment(long count) {
+            adder.add(count);
+        }
+
+        @Override
+        public long getCount() {
+            return adder.sum();
+        }
+    }
 }
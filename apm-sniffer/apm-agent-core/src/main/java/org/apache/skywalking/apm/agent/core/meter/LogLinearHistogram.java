@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The histogram with the log-linear buckets, like the HDR histogram. Every power of 2 range, such as [4, 8), is divided
+ * into the same number of the linear buckets, so the relative error of the percentiles is bounded by {@code 1 /
+ * subBucketCount} for all values, while the number of the buckets only grows with the log of the max value.
+ * <p>
+ * The first bucket starts from the min value, and the last bucket starts from the first linear bucket not less than
+ * the max value, it counts all the larger values. The bucket of a value is calculated from the exponent and the mantissa of it, rather than a binary search.
+ */
+public class LogLinearHistogram extends Histogram {
+    /**
+     * The limit of the buckets, the layout is too fine grained beyond it.
+     */
+    private static final int MAX_BUCKET_COUNT = 4096;
+
+    private final double minValue;
+    private final int minExponent;
+    private final int subBucketBits;
+    /**
+     * The index of the bucket of every linear bucket from 2^minExponent, -1 means the linear bucket is smaller than the
+     * min value.
+     */
+    private final int[] bucketIndexes;
+
+    /**
+     * @param meterId        as the unique id of this meter instance
+     * @param minValue       the min value of the first bucket, the smaller values are ignored.
+     * @param maxValue       the last bucket starts from the first linear bucket not less than it.
+     * @param subBucketCount the number of the linear buckets of every power of 2 range, rounded up to the power of 2.
+     * @param striped        counts the buckets by {@link java.util.concurrent.atomic.LongAdder}s if true
+     */
+    public LogLinearHistogram(MeterId meterId, double minValue, double maxValue, int subBucketCount, boolean striped) {
+        this(meterId, minValue, layout(minValue, maxValue, subBucketCount), striped);
+    }
+
+    private LogLinearHistogram(MeterId meterId, double minValue, Layout layout, boolean striped) {
+        super(meterId, layout.steps, striped);
+        this.minValue = minValue;
+        this.minExponent = layout.minExponent;
+        this.subBucketBits = layout.subBucketBits;
+        this.bucketIndexes = new int[(layout.maxExponent - minExponent + 1) << subBucketBits];
+        int bucketIndex = -1;
+        for (int i = 0; i < bucketIndexes.length; i++) {
+            double linearBucket = linearBucket(minExponent + (i >> subBucketBits), i & ((1 << subBucketBits) - 1));
+            while (bucketIndex + 1 < buckets.length && buckets[bucketIndex + 1].bucket <= linearBucket) {
+                bucketIndex++;
+            }
+            bucketIndexes[i] = bucketIndex;
+        }
+    }
+
+    @Override
+    protected Bucket findBucket(double value) {
+        if (!(value >= minValue)) {
+            return null;
+        }
+        int exponent = Math.getExponent(value);
+        if (exponent < minExponent) {
+            return buckets[0];
+        }
+        int subBucket = (int) ((Math.scalb(value, -exponent) - 1) * (1 << subBucketBits));
+        int linearIndex = ((exponent - minExponent) << subBucketBits) + subBucket;
+        if (linearIndex >= bucketIndexes.length || linearIndex < 0) {
+            return buckets[buckets.length - 1];
+        }
+        // The min value could be in the middle of a linear bucket, which has no step of its own.
+        return buckets[Math.max(bucketIndexes[linearIndex], 0)];
+    }
+
+    private static Layout layout(double minValue, double maxValue, int subBucketCount) {
+        if (minValue < 0) {
+            throw new IllegalArgumentException("Min value must not be negative");
+        }
+        if (!(maxValue > minValue) || Double.isInfinite(maxValue)) {
+            throw new IllegalArgumentException("Max value must be bigger than min value");
+        }
+        if (subBucketCount <= 0) {
+            throw new IllegalArgumentException("Sub bucket count must be positive");
+        }
+        int subBucketBits = 32 - Integer.numberOfLeadingZeros(Math.min(subBucketCount, 1 << 16) - 1);
+        // Values in [0, 1) share the first bucket, if the min value is 0.
+        int minExponent = minValue > 0 ? Math.getExponent(minValue) : 0;
+        // The last bucket starts from the first linear bucket not less than the max value.
+        int maxExponent = Math.getExponent(maxValue) + 1;
+        if ((long) (maxExponent - minExponent + 1) << subBucketBits > MAX_BUCKET_COUNT) {
+            throw new IllegalArgumentException("Too many buckets between the min and max values");
+        }
+
+        List<Double> steps = new ArrayList<>();
+        steps.add(minValue);
+        for (int exponent = minExponent; exponent <= maxExponent; exponent++) {
+            for (int i = 0; i < 1 << subBucketBits; i++) {
+                double step = linearBucket(exponent, i, subBucketBits);
+                if (step > minValue) {
+                    steps.add(step);
+                    if (step >= maxValue) {
+                        return new Layout(steps, minExponent, exponent, subBucketBits);
+                    }
+                }
+            }
+        }
+        return new Layout(steps, minExponent, maxExponent, subBucketBits);
+    }
+
+    private double linearBucket(int exponent, int subBucket) {
+        return linearBucket(exponent, subBucket, subBucketBits);
+    }
+
+    /**
+     * @return the min value of the linear bucket, which is exact in double, as the sub bucket count is a power of 2.
+     */
+    private static double linearBucket(int exponent, int subBucket, int subBucketBits) {
+        return Math.scalb(1 + (double) subBucket / (1 << subBucketBits), exponent);
+    }
+
+    private static class Layout {
+        private final List<Double> steps;
+        private final int minExponent;
+        private final int maxExponent;
+        private final int subBucketBits;
+
+        private Layout(List<Double> steps, int minExponent, int maxExponent, int subBucketBits) {
+            this.steps = steps;
+            this.minExponent = minExponent;
+            this.maxExponent = maxExponent;
+            this.subBucketBits = subBucketBits;
+        }
+    }
+}
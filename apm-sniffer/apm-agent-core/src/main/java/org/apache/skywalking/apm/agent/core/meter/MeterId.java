@@ -31,11 +31,14 @@ public class MeterId {
 
     private final String name;
     private final MeterType type;
-    private final List<MeterTag> tags;
+    private List<MeterTag> tags;
 
     // Labels are used to report meter to the backend.
     private List<Label> labels;
 
+    // Cached hash code, the tags should not be changed after the meter is registered.
+    private int hash;
+
     public MeterId(String name, MeterType type, List<MeterTag> tags) {
         this.name = name;
         this.type = type;
@@ -67,18 +70,33 @@ public class MeterId {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Share the tags and the labels of the given id, which has the same tags and has been registered. So the meters of
+     * the same tags hold only one copy of them, and the equality of their tags is checked by reference.
+     */
+    void internTags(MeterId registered) {
+        this.labels = registered.transformTags();
+        this.tags = registered.tags;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         MeterId meterId = (MeterId) o;
-        return Objects.equals(name, meterId.name) &&
+        return hashCode() == meterId.hashCode() &&
             type == meterId.type &&
+            Objects.equals(name, meterId.name) &&
             Objects.equals(tags, meterId.tags);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, type, tags);
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(name, type, tags);
+            hash = h;
+        }
+        return h;
     }
 }
@@ -34,6 +34,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
+import org.apache.skywalking.apm.agent.core.remote.GRPCStreamReporter;
 import org.apache.skywalking.apm.agent.core.remote.GRPCStreamServiceStatus;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
@@ -49,7 +50,26 @@ public class MeterSender implements BootService, GRPCChannelListener {
     private static final ILog LOGGER = LogManager.getLogger(MeterSender.class);
 
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    /**
+     * The last time of reporting all meters of every {@link MeterType}, in the changed-only mode.
+     */
+    private final long[] lastFullReportTimes = new long[MeterType.values().length];
     private volatile MeterReportServiceGrpc.MeterReportServiceStub meterReportServiceStub;
+    private long lastLogTime;
+    private long meterUplinkedCounter;
+    private long meterAbandonedCounter;
+
+    /**
+     * The meters are processed by the collector when the stream completes, so every report has its own stream, which
+     * is flow-controlled and completed without waiting for the response.
+     */
+    private final GRPCStreamReporter<MeterData> meterReporter = new GRPCStreamReporter<>(
+        "meters",
+        (deadline, responseObserver) -> meterReportServiceStub
+            .withDeadlineAfter(deadline, TimeUnit.SECONDS)
+            .collect(responseObserver),
+        null
+    );
 
     @Override
     public void prepare() {
@@ -58,11 +78,26 @@ public class MeterSender implements BootService, GRPCChannelListener {
 
     @Override
     public void boot() {
-
+        lastLogTime = System.currentTimeMillis();
     }
 
     public void send(Map<MeterId, BaseMeter> meterMap, MeterService meterService) {
-        if (status == GRPCChannelStatus.CONNECTED) {
+        if (status == GRPCChannelStatus.CONNECTED && Config.Collector.GRPC_STREAM_MODE) {
+            try {
+                transform(meterMap, meterData -> {
+                    if (meterReporter.send(meterData, meterData.getSerializedSize())) {
+                        meterUplinkedCounter++;
+                    } else {
+                        meterAbandonedCounter++;
+                    }
+                });
+            } catch (Throwable e) {
+                LOGGER.error(e, "Report meters to backend fail.");
+            } finally {
+                meterReporter.complete();
+            }
+            printUplinkStatus();
+        } else if (status == GRPCChannelStatus.CONNECTED) {
             StreamObserver<MeterData> reportStreamObserver = null;
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
             try {
@@ -110,12 +145,34 @@ public class MeterSender implements BootService, GRPCChannelListener {
         }
     }
 
+    private void printUplinkStatus() {
+        long currentTimeMillis = System.currentTimeMillis();
+        if (currentTimeMillis - lastLogTime > 30 * 1000) {
+            lastLogTime = currentTimeMillis;
+            if (meterUplinkedCounter > 0) {
+                LOGGER.debug("{} meters have been sent to collector.", meterUplinkedCounter);
+                meterUplinkedCounter = 0;
+            }
+            if (meterAbandonedCounter > 0) {
+                LOGGER.warn(
+                    "{} meters have been abandoned, cause by the stream is not ready or failed.", meterAbandonedCounter);
+                meterAbandonedCounter = 0;
+            }
+        }
+    }
+
     protected void transform(final Map<MeterId, BaseMeter> meterMap,
                              final Consumer<MeterData> consumer) {
+        // the meter types to report all meters in this round, in the changed-only mode
+        final boolean[] fullReports = Config.Meter.REPORT_CHANGED_ONLY
+            ? nextFullReports(System.currentTimeMillis()) : null;
+
         // build and report meters
         boolean hasSendMachineInfo = false;
         for (BaseMeter meter : meterMap.values()) {
-            final MeterData.Builder dataBuilder = meter.transform();
+            final MeterData.Builder dataBuilder = fullReports == null
+                ? meter.transform()
+                : meter.transformIfChanged(fullReports[meter.getId().getType().ordinal()]);
             if (dataBuilder == null) {
                 continue;
             }
@@ -132,6 +189,32 @@ public class MeterSender implements BootService, GRPCChannelListener {
         }
     }
 
+    /**
+     * The changed meters are not reported again, even if they failed to be sent. The full reports resync them.
+     */
+    private boolean[] nextFullReports(long now) {
+        final boolean[] fullReports = new boolean[lastFullReportTimes.length];
+        for (MeterType type : MeterType.values()) {
+            final int i = type.ordinal();
+            if (now - lastFullReportTimes[i] >= TimeUnit.SECONDS.toMillis(fullReportInterval(type))) {
+                fullReports[i] = true;
+                lastFullReportTimes[i] = now;
+            }
+        }
+        return fullReports;
+    }
+
+    private static int fullReportInterval(MeterType type) {
+        switch (type) {
+            case COUNTER:
+                return Config.Meter.COUNTER_FULL_REPORT_INTERVAL;
+            case GAUGE:
+                return Config.Meter.GAUGE_FULL_REPORT_INTERVAL;
+            default:
+                return Config.Meter.HISTOGRAM_FULL_REPORT_INTERVAL;
+        }
+    }
+
     @Override
     public void onComplete() {
 
@@ -18,6 +18,9 @@
 
 package org.apache.skywalking.apm.agent.core.meter;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
@@ -27,13 +30,21 @@ import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.InterceptorOverheadDumpWatcher;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
  * Agent core level service. It provides the register map for all available {@link BaseMeter} instances and schedules
  * the {@link MeterSender}
+ * <p>
+ * The size of the meters is limited by {@link Config.Meter#MAX_METER_SIZE} in total, and by {@link
+ * Config.Meter#MAX_METER_SIZE_PER_NAME} for every meter name. Once a limit is reached, the meter idle for more than
+ * {@link Config.Meter#IDLE_METER_TIMEOUT} the longest is evicted to make room for the new one. The evicted meter is
+ * registered again when it records, or in a later recording if there is no room for it yet.
  */
 @DefaultImplementor
 public class MeterService implements BootService, Runnable {
@@ -41,6 +52,10 @@ public class MeterService implements BootService, Runnable {
 
     // all meters
     private final ConcurrentHashMap<MeterId, BaseMeter> meterMap = new ConcurrentHashMap<>();
+    // the size of the meters of every name, guarded by this
+    private final Map<String, Integer> meterSizes = new HashMap<>();
+    // the registered ids sharing their tags with the new meters of the same tags, guarded by this
+    private final Map<List<MeterTag>, MeterId> sharedTags = new HashMap<>();
 
     // report meters
     private volatile ScheduledFuture<?> reportMeterFuture;
@@ -49,20 +64,115 @@ public class MeterService implements BootService, Runnable {
 
     /**
      * Register the meter
+     *
+     * @return the registered meter of the same id, or the given meter if it is registered or rejected
      */
     public <T extends BaseMeter> T register(T meter) {
         if (meter == null) {
             return null;
         }
-        if (meterMap.size() >= Config.Meter.MAX_METER_SIZE) {
+        // the meter has been registered in most cases, look it up without locking
+        final BaseMeter registered = meterMap.get(meter.getId());
+        if (registered != null) {
+            return (T) registered;
+        }
+        return (T) registerIfAbsent(meter);
+    }
+
+    /**
+     * Register the evicted meter again. The meter is kept evicted, if it is rejected by the limits, or if another meter
+     * of the same id has been registered since it was evicted, so it could be revived when it records next time.
+     */
+    void revive(BaseMeter meter) {
+        final BaseMeter registered = meterMap.get(meter.getId());
+        if (registered != null && registered != meter) {
+            return;
+        }
+        synchronized (this) {
+            registerIfAbsent(meter);
+            if (meterMap.get(meter.getId()) == meter) {
+                meter.revived();
+            }
+        }
+    }
+
+    private synchronized BaseMeter registerIfAbsent(BaseMeter meter) {
+        final MeterId meterId = meter.getId();
+        final BaseMeter registered = meterMap.get(meterId);
+        if (registered != null) {
+            return registered;
+        }
+
+        final long now = System.currentTimeMillis();
+        final int sizeOfName = meterSizes.getOrDefault(meterId.getName(), 0);
+        if (sizeOfName >= Config.Meter.MAX_METER_SIZE_PER_NAME && !evictIdleMeter(meterId.getName(), now)) {
+            LOGGER.warn(
+                "Already out of the meter max size [{}] of the name, will not report. meter name:{}, meter size:{}",
+                Config.Meter.MAX_METER_SIZE_PER_NAME, meter.getName(), sizeOfName);
+            return meter;
+        }
+        if (meterMap.size() >= Config.Meter.MAX_METER_SIZE && !evictIdleMeter(null, now)) {
             LOGGER.warn(
                 "Already out of the meter system max size [{}], will not report. meter name:{}, meter size:{}",
                     Config.Meter.MAX_METER_SIZE, meter.getName(), meterMap.size());
             return meter;
         }
 
-        final BaseMeter data = meterMap.putIfAbsent(meter.getId(), meter);
-        return data == null ? meter : (T) data;
+        final MeterId tagsOwner = sharedTags.putIfAbsent(meterId.getTags(), meterId);
+        if (tagsOwner != null) {
+            meterId.internTags(tagsOwner);
+        }
+        meter.lastActivity = Double.NaN;
+        meter.lastActiveTime = now;
+        meterMap.put(meterId, meter);
+        meterSizes.merge(meterId.getName(), 1, Integer::sum);
+        return meter;
+    }
+
+    /**
+     * Evict the meter idle the longest, if it has been idle for more than {@link Config.Meter#IDLE_METER_TIMEOUT}.
+     *
+     * @param name the name of the meter to evict, null means any name.
+     * @return true if a meter has been evicted.
+     */
+    private boolean evictIdleMeter(String name, long now) {
+        final long idleDeadline = now - TimeUnit.SECONDS.toMillis(Config.Meter.IDLE_METER_TIMEOUT);
+        BaseMeter idlest = null;
+        for (BaseMeter meter : meterMap.values()) {
+            if (meter.lastActiveTime > idleDeadline || name != null && !name.equals(meter.getName())) {
+                continue;
+            }
+            if (idlest == null || meter.lastActiveTime < idlest.lastActiveTime) {
+                idlest = meter;
+            }
+        }
+        if (idlest == null) {
+            return false;
+        }
+
+        final MeterId meterId = idlest.getId();
+        meterMap.remove(meterId);
+        meterSizes.computeIfPresent(meterId.getName(), (key, size) -> size > 1 ? size - 1 : null);
+        sharedTags.remove(meterId.getTags(), meterId);
+        idlest.evict(this);
+        if (LOGGER.isDebugEnable()) {
+            LOGGER.debug("Evicted the idle meter, meter name:{}, labels:{}", meterId.getName(), idlest.transformTags());
+        }
+        return true;
+    }
+
+    /**
+     * Refresh the active time of the meters which have recorded since the last round.
+     */
+    private synchronized void checkActivities(long now) {
+        for (BaseMeter meter : meterMap.values()) {
+            final double activity = meter.activity();
+            // NaN never equals, so the meters without activity are always active
+            if (activity != meter.lastActivity) {
+                meter.lastActivity = activity;
+                meter.lastActiveTime = now;
+            }
+        }
     }
 
     @Override
@@ -79,6 +189,15 @@ public class MeterService implements BootService, Runnable {
                 this,
                 t -> LOGGER.error("Report meters failure.", t)
             ), 0, Config.Meter.REPORT_INTERVAL, TimeUnit.SECONDS);
+            if (Config.Plugin.TYPE_DESCRIPTION_CACHE_SIZE > 0) {
+                AgentSo11y.measureTypeDescriptionCache();
+            }
+        }
+        if (Config.Meter.INTERCEPTOR_OVERHEAD_ACTIVE) {
+            AgentSo11y.measureInterceptorOverhead();
+            ServiceManager.INSTANCE.findService(ConfigurationDiscoveryService.class)
+                                   .registerAgentConfigChangeWatcher(
+                                       new InterceptorOverheadDumpWatcher("meter.interceptor_overhead_dump"));
         }
     }
 
@@ -92,7 +211,11 @@ public class MeterService implements BootService, Runnable {
             reportMeterFuture.cancel(true);
         }
         // clear all of the meter report
-        meterMap.clear();
+        synchronized (this) {
+            meterMap.clear();
+            meterSizes.clear();
+            sharedTags.clear();
+        }
     }
 
     @Override
@@ -100,6 +223,7 @@ public class MeterService implements BootService, Runnable {
         if (meterMap.isEmpty()) {
             return;
         }
+        checkActivities(System.currentTimeMillis());
         sender.send(meterMap, this);
     }
 
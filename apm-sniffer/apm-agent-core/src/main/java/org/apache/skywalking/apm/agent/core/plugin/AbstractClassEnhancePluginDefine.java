@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.agent.core.plugin;
 
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.DynamicType;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
@@ -169,6 +170,18 @@ public abstract class AbstractClassEnhancePluginDefine {
         return false;
     }
 
+    /**
+     * The interceptors of the instance methods and constructors are loaded at their first invocations in the lazy
+     * mode, so the interceptor classes of the never called methods are not loaded. Override this to enable it for the
+     * rarely used intercept points, such as the admin APIs of the clients. The failure of loading the interceptor is
+     * logged and the method runs without the interceptor, rather than leaving the class not enhanced.
+     *
+     * @return true to load the interceptors lazily, {@link Config.Plugin#LAZY_INTERCEPTOR_LOADING} by default.
+     */
+    public boolean isLazyInterceptorLoading() {
+        return Config.Plugin.LAZY_INTERCEPTOR_LOADING;
+    }
+
     /**
      * Constructor methods intercept point. See {@link ConstructorInterceptPoint}
      *
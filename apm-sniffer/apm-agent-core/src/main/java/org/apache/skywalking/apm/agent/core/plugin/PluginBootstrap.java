@@ -20,8 +20,16 @@ package org.apache.skywalking.apm.agent.core.plugin;
 
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
@@ -50,6 +58,7 @@ public class PluginBootstrap {
     public List<AbstractClassEnhancePluginDefine> loadPlugins() throws AgentPackageNotFoundException {
         AgentClassLoader.initDefaultLoader();
 
+        long startTime = System.nanoTime();
         PluginResourcesResolver resolver = new PluginResourcesResolver();
         List<URL> resources = resolver.getResources();
 
@@ -57,34 +66,102 @@ public class PluginBootstrap {
             LOGGER.info("no plugin files (skywalking-plugin.def) found, continue to start application.");
             return new ArrayList<AbstractClassEnhancePluginDefine>();
         }
+        long resolvedTime = System.nanoTime();
 
-        for (URL pluginUrl : resources) {
+        final int parallelism = Config.Plugin.BOOTSTRAP_PARALLELISM;
+        List<AbstractClassEnhancePluginDefine> plugins;
+        long parsedTime;
+        if (parallelism > 1) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism, new BootstrapWorkerThreadFactory(), null, false);
             try {
-                PluginCfg.INSTANCE.load(pluginUrl.openStream());
-            } catch (Throwable t) {
-                LOGGER.error(t, "plugin file [{}] init failure.", pluginUrl);
+                List<List<PluginDefine>> parsed = pool.submit(
+                    () -> resources.parallelStream().map(PluginBootstrap::parse).collect(Collectors.toList())
+                ).get();
+                for (List<PluginDefine> pluginDefines : parsed) {
+                    PluginCfg.INSTANCE.load(pluginDefines);
+                }
+                List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
+                parsedTime = System.nanoTime();
+
+                plugins = pool.submit(
+                    () -> pluginClassList.parallelStream()
+                                         .map(PluginBootstrap::instantiate)
+                                         .filter(Objects::nonNull)
+                                         .collect(Collectors.toList())
+                ).get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new PluginException("Load plugins in parallel failure.", e);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            for (URL pluginUrl : resources) {
+                try {
+                    PluginCfg.INSTANCE.load(pluginUrl.openStream());
+                } catch (Throwable t) {
+                    LOGGER.error(t, "plugin file [{}] init failure.", pluginUrl);
+                }
             }
-        }
 
-        List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
+            List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
+            parsedTime = System.nanoTime();
 
-        List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
-        for (PluginDefine pluginDefine : pluginClassList) {
-            try {
-                LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
-                AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(pluginDefine.getDefineClass(), true, AgentClassLoader
-                    .getDefault()).newInstance();
-                plugin.setPluginName(pluginDefine.getName());
-                plugins.add(plugin);
-            } catch (Throwable t) {
-                LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+            plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
+            for (PluginDefine pluginDefine : pluginClassList) {
+                AbstractClassEnhancePluginDefine plugin = instantiate(pluginDefine);
+                if (plugin != null) {
+                    plugins.add(plugin);
+                }
             }
         }
+        long instantiatedTime = System.nanoTime();
 
         plugins.addAll(DynamicPluginLoader.INSTANCE.load(AgentClassLoader.getDefault()));
 
+        LOGGER.info(
+            "{} plugins loaded from {} plugin files with parallelism {}, resolve files: {}ms, parse: {}ms, "
+                + "instantiate: {}ms, dynamic plugins: {}ms.",
+            plugins.size(), resources.size(), Math.max(parallelism, 1), millis(startTime, resolvedTime),
+            millis(resolvedTime, parsedTime), millis(parsedTime, instantiatedTime),
+            millis(instantiatedTime, System.nanoTime())
+        );
         return plugins;
 
     }
 
+    private static List<PluginDefine> parse(URL pluginUrl) {
+        try {
+            return PluginCfg.parse(pluginUrl.openStream());
+        } catch (Throwable t) {
+            LOGGER.error(t, "plugin file [{}] init failure.", pluginUrl);
+            return Collections.emptyList();
+        }
+    }
+
+    private static AbstractClassEnhancePluginDefine instantiate(PluginDefine pluginDefine) {
+        try {
+            LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
+            AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(
+                pluginDefine.getDefineClass(), true, AgentClassLoader.getDefault()).newInstance();
+            plugin.setPluginName(pluginDefine.getName());
+            return plugin;
+        } catch (Throwable t) {
+            LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+            return null;
+        }
+    }
+
+    private static long millis(long startNanos, long endNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+    }
+
+    private static class BootstrapWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("SkywalkingAgent-PluginBootstrap-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
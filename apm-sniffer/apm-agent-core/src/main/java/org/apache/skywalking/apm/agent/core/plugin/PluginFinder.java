@@ -18,31 +18,33 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import java.security.ProtectionDomain;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import net.bytebuddy.description.NamedElement;
+import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.type.TypeDescription;
-import net.bytebuddy.matcher.ElementMatcher;
-import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import net.bytebuddy.utility.JavaModule;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
 
-import static net.bytebuddy.matcher.ElementMatchers.isInterface;
-import static net.bytebuddy.matcher.ElementMatchers.not;
-
 /**
  * The <code>PluginFinder</code> represents a finder , which assist to find the one from the given {@link
  * AbstractClassEnhancePluginDefine} list.
  */
 public class PluginFinder {
+    private static final ILog LOGGER = LogManager.getLogger(PluginFinder.class);
+
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
     private final List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    private final PluginMatchIndex signatureMatchIndex;
     private static boolean IS_PLUGIN_INIT_COMPLETED = false;
 
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
@@ -69,41 +71,48 @@ public class PluginFinder {
                 bootstrapClassMatchDefine.add(plugin);
             }
         }
+        signatureMatchIndex = new PluginMatchIndex(signatureMatchDefine);
     }
 
-    public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription) {
+    /**
+     * @param classLoader the class loader of the type, null means the bootstrap class loader.
+     */
+    public List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription, ClassLoader classLoader) {
         List<AbstractClassEnhancePluginDefine> matchedPlugins = new LinkedList<AbstractClassEnhancePluginDefine>();
         String typeName = typeDescription.getTypeName();
         if (nameMatchDefine.containsKey(typeName)) {
             matchedPlugins.addAll(nameMatchDefine.get(typeName));
         }
 
-        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
-            IndirectMatch match = (IndirectMatch) pluginDefine.enhanceClass();
-            if (match.isMatch(typeDescription)) {
-                matchedPlugins.add(pluginDefine);
-            }
-        }
+        matchedPlugins.addAll(signatureMatchIndex.find(typeDescription, classLoader));
 
         return matchedPlugins;
     }
 
-    public ElementMatcher<? super TypeDescription> buildMatch() {
-        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+    /**
+     * Build the matcher of all plugins, which is consistent with {@link #find(TypeDescription, ClassLoader)}, as the
+     * classes are only enhanced by the found plugins. The {@link IndirectMatch}es are matched through {@link
+     * PluginMatchIndex}, rather than checking their junctions one by one. The types which can't be resolved are ignored,
+     * like {@link ProtectiveShieldMatcher} does.
+     */
+    public AgentBuilder.RawMatcher buildMatch() {
+        return new AgentBuilder.RawMatcher() {
             @Override
-            public boolean matches(NamedElement target) {
-                return nameMatchDefine.containsKey(target.getActualName());
+            public boolean matches(TypeDescription typeDescription, ClassLoader classLoader, JavaModule module,
+                                   Class<?> classBeingRedefined, ProtectionDomain protectionDomain) {
+                try {
+                    // Filter out all matchers returns to exclude pure interface types.
+                    return !typeDescription.isInterface()
+                        && (nameMatchDefine.containsKey(typeDescription.getActualName())
+                        || !signatureMatchIndex.find(typeDescription, classLoader).isEmpty());
+                } catch (Throwable t) {
+                    if (LOGGER.isDebugEnable()) {
+                        LOGGER.debug(t, "Byte-buddy occurs exception when match type.");
+                    }
+                    return false;
+                }
             }
         };
-        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
-            ClassMatch match = define.enhanceClass();
-            if (match instanceof IndirectMatch) {
-                judge = judge.or(((IndirectMatch) match).buildJunction());
-            }
-        }
-        // Filter out all matchers returns to exclude pure interface types.
-        judge = not(isInterface()).and(judge);
-        return new ProtectiveShieldMatcher(judge);
     }
 
     public List<AbstractClassEnhancePluginDefine> getBootstrapClassMatchDefine() {
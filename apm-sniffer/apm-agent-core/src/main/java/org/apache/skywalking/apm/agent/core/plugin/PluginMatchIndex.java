@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+
+/**
+ * The pre-computed index of the {@link IndirectMatch} plugins, so a class is only checked against the plugins that
+ * could match it, rather than all of them.
+ * <p>
+ * 1. {@link MultiClassNameMatch}, by the class name.
+ * <p>
+ * 2. {@link PrefixMatch}, by a prefix trie of the class name.
+ * <p>
+ * 3. {@link ClassAnnotationMatch}, bucketed by the first required annotation, then verified by the declared
+ * annotations.
+ * <p>
+ * 4. {@link HierarchyMatch}, bucketed by the first required parent type, then verified by the names of all super types,
+ * which are memoized by the super type name, as the super types are shared by many classes. The same name could be
+ * resolved to different types by different class loaders, so the memoized super types are weakly keyed by the class
+ * loaders of the matched classes.
+ * <p>
+ * The other matches are checked one by one. The matched plugins keep the order of the given list.
+ */
+class PluginMatchIndex {
+    /**
+     * The max number of the memoized super types of all class loaders.
+     */
+    private static final int MAX_SUPER_TYPE_CACHE_SIZE = 16384;
+
+    private final List<AbstractClassEnhancePluginDefine> pluginDefines;
+    private final Map<String, List<Integer>> classNameIndex = new HashMap<>();
+    private final PrefixNode prefixTrie = new PrefixNode();
+    private final Map<String, List<Integer>> annotationIndex = new HashMap<>();
+    private final Map<String, List<Integer>> hierarchyIndex = new HashMap<>();
+    private final List<Integer> unindexed = new ArrayList<>();
+    private final ConcurrentHashMap<Object, Map<String, Set<String>>> superTypeCaches = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ClassLoader> collectedClassLoaders = new ReferenceQueue<>();
+    private final AtomicInteger superTypeCacheSize = new AtomicInteger(0);
+
+    PluginMatchIndex(List<AbstractClassEnhancePluginDefine> pluginDefines) {
+        this.pluginDefines = pluginDefines;
+        for (int i = 0; i < pluginDefines.size(); i++) {
+            ClassMatch match = pluginDefines.get(i).enhanceClass();
+            if (match instanceof MultiClassNameMatch) {
+                for (String className : ((MultiClassNameMatch) match).getClassNames()) {
+                    addTo(classNameIndex, className, i);
+                }
+            } else if (match instanceof PrefixMatch) {
+                for (String prefix : ((PrefixMatch) match).getPrefixes()) {
+                    prefixTrie.add(prefix, i);
+                }
+            } else if (match instanceof ClassAnnotationMatch) {
+                addTo(annotationIndex, ((ClassAnnotationMatch) match).getAnnotations()[0], i);
+            } else if (match instanceof HierarchyMatch) {
+                addTo(hierarchyIndex, ((HierarchyMatch) match).getParentTypes()[0], i);
+            } else {
+                unindexed.add(i);
+            }
+        }
+    }
+
+    /**
+     * @param classLoader the class loader of the type, null means the bootstrap class loader.
+     * @return the matched plugins, in the order of the given list.
+     */
+    List<AbstractClassEnhancePluginDefine> find(TypeDescription typeDescription, ClassLoader classLoader) {
+        final BitSet matched = new BitSet(pluginDefines.size());
+
+        final List<Integer> byClassName = classNameIndex.get(typeDescription.getTypeName());
+        if (byClassName != null) {
+            for (Integer index : byClassName) {
+                matched.set(index);
+            }
+        }
+
+        prefixTrie.find(typeDescription.getName(), matched);
+
+        if (!annotationIndex.isEmpty()) {
+            Set<String> annotationNames = null;
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                final List<Integer> candidates = annotationIndex.get(annotation.getAnnotationType().getActualName());
+                if (candidates == null) {
+                    continue;
+                }
+                if (annotationNames == null) {
+                    annotationNames = new HashSet<>();
+                    for (AnnotationDescription declared : typeDescription.getDeclaredAnnotations()) {
+                        annotationNames.add(declared.getAnnotationType().getActualName());
+                    }
+                }
+                for (Integer index : candidates) {
+                    ClassAnnotationMatch match = (ClassAnnotationMatch) pluginDefines.get(index).enhanceClass();
+                    if (containsAll(annotationNames, match.getAnnotations())) {
+                        matched.set(index);
+                    }
+                }
+            }
+        }
+
+        if (!hierarchyIndex.isEmpty()) {
+            final Set<String> superTypeNames = superTypeNames(typeDescription, superTypeCache(classLoader));
+            for (String superTypeName : superTypeNames) {
+                final List<Integer> candidates = hierarchyIndex.get(superTypeName);
+                if (candidates == null) {
+                    continue;
+                }
+                for (Integer index : candidates) {
+                    HierarchyMatch match = (HierarchyMatch) pluginDefines.get(index).enhanceClass();
+                    if (containsAll(superTypeNames, match.getParentTypes())) {
+                        matched.set(index);
+                    }
+                }
+            }
+        }
+
+        for (Integer index : unindexed) {
+            if (((IndirectMatch) pluginDefines.get(index).enhanceClass()).isMatch(typeDescription)) {
+                matched.set(index);
+            }
+        }
+
+        if (matched.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<AbstractClassEnhancePluginDefine> matchedPlugins = new ArrayList<>(matched.cardinality());
+        for (int index = matched.nextSetBit(0); index >= 0; index = matched.nextSetBit(index + 1)) {
+            matchedPlugins.add(pluginDefines.get(index));
+        }
+        return matchedPlugins;
+    }
+
+    /**
+     * @return the names of all super classes and interfaces of the given type, excluding itself.
+     */
+    private Set<String> superTypeNames(TypeDescription typeDescription, Map<String, Set<String>> superTypeCache) {
+        final Set<String> names = new HashSet<>();
+        final TypeDescription.Generic superClass = typeDescription.getSuperClass();
+        if (superClass != null) {
+            addSuperType(superClass.asErasure(), names, superTypeCache);
+        }
+        for (TypeDescription.Generic superInterface : typeDescription.getInterfaces()) {
+            addSuperType(superInterface.asErasure(), names, superTypeCache);
+        }
+        return names;
+    }
+
+    private void addSuperType(TypeDescription superType, Set<String> names, Map<String, Set<String>> superTypeCache) {
+        final String name = superType.getTypeName();
+        if (!names.add(name)) {
+            return;
+        }
+        Set<String> superTypeNames = superTypeCache.get(name);
+        if (superTypeNames == null) {
+            superTypeNames = superTypeNames(superType, superTypeCache);
+            if (superTypeCacheSize.get() < MAX_SUPER_TYPE_CACHE_SIZE && superTypeCache.putIfAbsent(
+                name, superTypeNames) == null) {
+                superTypeCacheSize.incrementAndGet();
+            }
+        }
+        names.addAll(superTypeNames);
+    }
+
+    /**
+     * @param classLoader the class loader of the matched classes, null means the bootstrap class loader.
+     * @return the memoized super types resolved by the given class loader.
+     */
+    private Map<String, Set<String>> superTypeCache(ClassLoader classLoader) {
+        final ClassLoader mappingKey = classLoader == null ? NullClassLoader.INSTANCE : classLoader;
+        Map<String, Set<String>> superTypeCache = superTypeCaches.get(new TypeDescriptionCache.LookupKey(mappingKey));
+        if (superTypeCache != null) {
+            return superTypeCache;
+        }
+        expungeCollectedClassLoaders();
+        final Map<String, Set<String>> newSuperTypeCache = new ConcurrentHashMap<>();
+        superTypeCache = superTypeCaches.putIfAbsent(
+            new TypeDescriptionCache.WeakKey(mappingKey, collectedClassLoaders), newSuperTypeCache);
+        return superTypeCache == null ? newSuperTypeCache : superTypeCache;
+    }
+
+    /**
+     * Drop the memoized super types of the collected class loaders.
+     */
+    private void expungeCollectedClassLoaders() {
+        Reference<? extends ClassLoader> key;
+        while ((key = collectedClassLoaders.poll()) != null) {
+            final Map<String, Set<String>> superTypeCache = superTypeCaches.remove(key);
+            if (superTypeCache != null) {
+                superTypeCacheSize.addAndGet(-superTypeCache.size());
+            }
+        }
+    }
+
+    private static boolean containsAll(Set<String> names, String[] required) {
+        for (String name : required) {
+            if (!names.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addTo(Map<String, List<Integer>> index, String key, int pluginIndex) {
+        index.computeIfAbsent(key, k -> new ArrayList<>(2)).add(pluginIndex);
+    }
+
+    private static class PrefixNode {
+        private final Map<Character, PrefixNode> children = new HashMap<>();
+        private List<Integer> pluginIndexes;
+
+        private void add(String prefix, int pluginIndex) {
+            PrefixNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new PrefixNode());
+            }
+            if (node.pluginIndexes == null) {
+                node.pluginIndexes = new ArrayList<>(2);
+            }
+            node.pluginIndexes.add(pluginIndex);
+        }
+
+        private void find(String name, BitSet matched) {
+            PrefixNode node = this;
+            for (int i = 0; ; i++) {
+                if (node.pluginIndexes != null) {
+                    for (Integer index : node.pluginIndexes) {
+                        matched.set(index);
+                    }
+                }
+                if (i == name.length() || node.children.isEmpty()) {
+                    return;
+                }
+                node = node.children.get(name.charAt(i));
+                if (node == null) {
+                    return;
+                }
+            }
+        }
+    }
+}
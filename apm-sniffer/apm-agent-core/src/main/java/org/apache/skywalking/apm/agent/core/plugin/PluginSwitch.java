@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.context.AbstractTracerContext;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+
+/**
+ * The switch of a plugin at runtime, checked by the interceptor delegates before calling the interceptors. Different
+ * from {@link PluginSelector}, which excludes the plugins at startup, the deactivated plugins keep the enhanced
+ * classes, but their method interceptors are skipped until the plugins are activated again.
+ * <p>
+ * The switch is checked once when an intercepted method is entered, and the after method runs if the before method
+ * ran. As a span could be opened by an interceptor and closed by another one, the traces started before the
+ * deactivation, including their continued contexts in the other threads, keep running the interceptors of the
+ * deactivated plugins until they finish, see {@link AbstractTracerContext#getPluginSwitchVersion()}. The interceptors
+ * called out of any trace, such as the callbacks finishing the async spans without a continued context, are skipped
+ * at once.
+ * <p>
+ * The constructor interceptors are never skipped, they set up the dynamic fields of the enhanced instances, which the
+ * method interceptors rely on after the plugins are activated again.
+ * <p>
+ * The plugin names are case-insensitive, the same as {@code plugin.exclude_plugins}.
+ */
+public class PluginSwitch {
+    private static final Map<String, PluginSwitch> SWITCHES = new ConcurrentHashMap<>();
+
+    private static volatile Set<String> DEACTIVATED_PLUGINS = Collections.emptySet();
+    /**
+     * Increased every time the deactivated plugins change.
+     */
+    private static volatile long VERSION = 0;
+
+    private final String pluginName;
+    private volatile boolean active;
+    /**
+     * The {@link #VERSION} when this plugin was deactivated. The traces started at an earlier version keep running its
+     * interceptors.
+     */
+    private volatile long deactivatedVersion;
+
+    private PluginSwitch(String pluginName, boolean active) {
+        this.pluginName = pluginName;
+        this.active = active;
+    }
+
+    /**
+     * Get the switch of the plugin, which should be held by the interceptor delegate.
+     *
+     * @param pluginName the name defined in skywalking-plugin.def
+     */
+    public static PluginSwitch of(String pluginName) {
+        String name = pluginName == null ? "" : pluginName.toLowerCase();
+        PluginSwitch pluginSwitch = SWITCHES.get(name);
+        if (pluginSwitch != null) {
+            return pluginSwitch;
+        }
+        synchronized (SWITCHES) {
+            // No interceptor of a new created switch has run, so no trace should keep running them.
+            return SWITCHES.computeIfAbsent(name, key -> new PluginSwitch(key, !DEACTIVATED_PLUGINS.contains(key)));
+        }
+    }
+
+    /**
+     * Deactivate the given plugins, and activate all the others.
+     *
+     * @param pluginNames the lower case names of the plugins to deactivate.
+     */
+    public static void deactivate(Set<String> pluginNames) {
+        synchronized (SWITCHES) {
+            final long version = VERSION + 1;
+            VERSION = version;
+            DEACTIVATED_PLUGINS = pluginNames;
+            for (PluginSwitch pluginSwitch : SWITCHES.values()) {
+                boolean active = !pluginNames.contains(pluginSwitch.pluginName);
+                if (pluginSwitch.active && !active) {
+                    pluginSwitch.deactivatedVersion = version;
+                }
+                pluginSwitch.active = active;
+            }
+        }
+    }
+
+    /**
+     * @return the current version of the deactivated plugins, which is recorded by the new traces.
+     */
+    public static long version() {
+        return VERSION;
+    }
+
+    /**
+     * Called when an intercepted method is entered, and the decision is kept until the method exits.
+     *
+     * @return false if the method interceptors of the plugin should be skipped, as the plugin is deactivated before
+     * the trace of the current thread started.
+     */
+    public boolean isActive() {
+        return active || ContextManager.getPluginSwitchVersion() < deactivatedVersion;
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+}
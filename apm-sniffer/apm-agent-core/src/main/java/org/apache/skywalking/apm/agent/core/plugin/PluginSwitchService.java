@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.DeactivatedPluginsWatcher;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * Deactivate and activate the plugins at runtime, through the dynamic configuration {@code
+ * plugin.deactivated_plugins}. See {@link PluginSwitch}.
+ */
+@DefaultImplementor
+public class PluginSwitchService implements BootService {
+    private static final ILog LOGGER = LogManager.getLogger(PluginSwitchService.class);
+
+    private DeactivatedPluginsWatcher deactivatedPluginsWatcher;
+
+    @Override
+    public void prepare() {
+    }
+
+    @Override
+    public void boot() {
+        deactivatedPluginsWatcher = new DeactivatedPluginsWatcher("plugin.deactivated_plugins", this);
+        ServiceManager.INSTANCE.findService(ConfigurationDiscoveryService.class)
+                               .registerAgentConfigChangeWatcher(deactivatedPluginsWatcher);
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    public void handleDeactivatedPluginsChanged() {
+        String deactivatedPlugins = deactivatedPluginsWatcher.getDeactivatedPlugins();
+        Set<String> pluginNames = Collections.emptySet();
+        if (StringUtil.isNotBlank(deactivatedPlugins)) {
+            pluginNames = Arrays.stream(deactivatedPlugins.split(","))
+                                .map(String::trim)
+                                .filter(StringUtil::isNotBlank)
+                                .map(String::toLowerCase)
+                                .collect(Collectors.toSet());
+        }
+        PluginSwitch.deactivate(pluginNames);
+        LOGGER.info("The deactivated plugins are changed to {}.", pluginNames);
+    }
+}
@@ -0,0 +1,585 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.implementation.auxiliary.AuxiliaryType;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
+import org.apache.skywalking.apm.agent.core.jvm.LoadedLibraryCollector;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * The persistent cache of the enhanced class files in {@link Config.Agent#TRANSFORM_CACHE_DIR}, which makes a later
+ * start reuse the enhanced class files rather than matching and enhancing the classes again.
+ * <p>
+ * The cache is partitioned by the fingerprint of the agent version, the effective settings and the loaded plugin
+ * defines, and every entry is keyed by the hash of the original class file. The {@link #lookupTransformer()} is
+ * installed before the byte-buddy transformer and serves the cached class files, the byte-buddy transformer ignores
+ * the served classes, and the {@link #storeTransformer()} installed after it saves the new enhanced class files
+ * asynchronously.
+ * <p>
+ * While the cache is enabled, the interceptor delegates are created by the type initializers of the enhanced classes,
+ * see {@link org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateBinder}, so the enhanced class
+ * files are restorable. The classes with alive loaded type initializers are not cached, as they depend on the objects
+ * bound at runtime. An entry is stale and ignored when the witness classes and methods of its matched plugins
+ * give different results in the current class loader. The generated delegators of {@link
+ * org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost} are cached too, keyed by the template
+ * class file, the plugin name and the interceptor.
+ */
+public enum TransformationCache {
+    INSTANCE;
+
+    private static final ILog LOGGER = LogManager.getLogger(TransformationCache.class);
+    private static final int MAGIC = 0x53574331;
+    private static final String ENTRY_SUFFIX = ".cache";
+    private static final String BOOTSTRAP_DIR = "bootstrap";
+    /**
+     * Hex chars of the hash in the entry file name, the whole hash is checked in the entry.
+     */
+    private static final int HASH_NAME_LENGTH = 32;
+    private static final int MAX_CLASS_NAME_LENGTH = 200;
+    private static final int MAX_PENDING_CLASSES = 16;
+
+    private final ThreadLocal<Map<String, PendingClass>> pendingClasses = ThreadLocal.withInitial(HashMap::new);
+    private final Map<String, byte[]> templateHashes = new ConcurrentHashMap<>();
+    private volatile File cacheDir;
+    private Map<String, AbstractClassEnhancePluginDefine> pluginDefines;
+    private Set<String> cachedClassNames;
+    private volatile AgentBuilder.InjectionStrategy injectionStrategy =
+        AgentBuilder.InjectionStrategy.UsingReflection.INSTANCE;
+    private ExecutorService writer;
+
+    /**
+     * Open the cache directory of the given plugin defines, if {@link Config.Agent#TRANSFORM_CACHE_DIR} is set.
+     */
+    public synchronized void initialize(List<AbstractClassEnhancePluginDefine> defines) {
+        if (StringUtil.isEmpty(Config.Agent.TRANSFORM_CACHE_DIR)) {
+            return;
+        }
+        try {
+            File root = new File(Config.Agent.TRANSFORM_CACHE_DIR);
+            if (!root.isAbsolute()) {
+                root = new File(AgentPackagePath.getPath(), Config.Agent.TRANSFORM_CACHE_DIR);
+            }
+            Map<String, AbstractClassEnhancePluginDefine> defineMap = new HashMap<>(defines.size());
+            for (AbstractClassEnhancePluginDefine define : defines) {
+                defineMap.put(define.getClass().getName(), define);
+            }
+            File dir = new File(root, fingerprint(defines));
+            File bootstrapDir = new File(dir, BOOTSTRAP_DIR);
+            if (!bootstrapDir.isDirectory() && !bootstrapDir.mkdirs()) {
+                LOGGER.warn("Can't create the transformation cache directory {}, the cache is disabled.", bootstrapDir);
+                return;
+            }
+            Set<String> classNames = ConcurrentHashMap.newKeySet();
+            File[] entries = dir.listFiles((d, name) -> name.endsWith(ENTRY_SUFFIX));
+            if (entries != null) {
+                for (File entry : entries) {
+                    String name = entry.getName();
+                    int hashStart = name.length() - ENTRY_SUFFIX.length() - HASH_NAME_LENGTH - 1;
+                    if (hashStart > 0) {
+                        classNames.add(name.substring(0, hashStart));
+                    }
+                }
+            }
+            pluginDefines = defineMap;
+            cachedClassNames = classNames;
+            writer = Executors.newSingleThreadExecutor(new DefaultNamedThreadFactory("TransformationCache"));
+            cacheDir = dir;
+            LOGGER.info("Transformation cache {} opened with {} cached classes.", dir, classNames.size());
+        } catch (AgentPackageNotFoundException | IOException e) {
+            LOGGER.error(e, "Open transformation cache failure, the cache is disabled.");
+        }
+    }
+
+    public boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    /**
+     * Set the strategy to inject the cached auxiliary types, which should be the same as the byte-buddy agent's.
+     */
+    public void setInjectionStrategy(AgentBuilder.InjectionStrategy injectionStrategy) {
+        this.injectionStrategy = injectionStrategy;
+    }
+
+    /**
+     * @return the transformer serving the cached class files, which should be installed before the byte-buddy one.
+     */
+    public ClassFileTransformer lookupTransformer() {
+        return new LookupTransformer();
+    }
+
+    /**
+     * @return the transformer saving the enhanced class files, which should be installed after the byte-buddy one.
+     */
+    public ClassFileTransformer storeTransformer() {
+        return new StoreTransformer();
+    }
+
+    /**
+     * @return true if the class has been served by the cache in the current transformation, so it should be ignored
+     * by the byte-buddy transformer.
+     */
+    public boolean isServed(String typeName) {
+        if (cacheDir == null) {
+            return false;
+        }
+        PendingClass pending = pendingClasses.get().get(typeName);
+        return pending != null && pending.served;
+    }
+
+    /**
+     * Record the matched plugin defines of the class in the current transformation, with the results of their
+     * witnesses.
+     */
+    public void recordDefines(String typeName, ClassLoader classLoader,
+                              List<AbstractClassEnhancePluginDefine> defines) {
+        if (cacheDir == null) {
+            return;
+        }
+        PendingClass pending = pendingClasses.get().get(typeName);
+        if (pending == null || pending.served) {
+            return;
+        }
+        pending.defineNames = new String[defines.size()];
+        pending.activated = new boolean[defines.size()];
+        for (int i = 0; i < defines.size(); i++) {
+            AbstractClassEnhancePluginDefine define = defines.get(i);
+            pending.defineNames[i] = define.getClass().getName();
+            pending.activated[i] = isActivated(define, classLoader);
+        }
+    }
+
+    /**
+     * Record the enhanced type of the current transformation.
+     */
+    public void recordDynamicType(DynamicType dynamicType) {
+        if (cacheDir == null) {
+            return;
+        }
+        PendingClass pending = pendingClasses.get().get(dynamicType.getTypeDescription().getName());
+        if (pending != null && !pending.served) {
+            pending.dynamicType = dynamicType;
+        }
+    }
+
+    /**
+     * @return the cached class file of the bootstrap delegator, or null if absent.
+     */
+    public byte[] findDelegator(String delegatorName, String templateClassName, String pluginName,
+                                String interceptor) {
+        if (cacheDir == null) {
+            return null;
+        }
+        try {
+            byte[] hash = delegatorHash(templateClassName, pluginName, interceptor);
+            File file = delegatorFile(delegatorName, hash);
+            if (!file.isFile()) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() != MAGIC || !Arrays.equals(readBytes(in), hash)) {
+                    return null;
+                }
+                return readBytes(in);
+            }
+        } catch (IOException e) {
+            LOGGER.warn(e, "Read the cached delegator {} failure.", delegatorName);
+            return null;
+        }
+    }
+
+    /**
+     * Save the generated class file of the bootstrap delegator asynchronously.
+     */
+    public void saveDelegator(String delegatorName, String templateClassName, String pluginName, String interceptor,
+                              byte[] classFile) {
+        if (cacheDir == null) {
+            return;
+        }
+        writer.execute(() -> {
+            try {
+                byte[] hash = delegatorHash(templateClassName, pluginName, interceptor);
+                write(delegatorFile(delegatorName, hash), out -> {
+                    out.writeInt(MAGIC);
+                    writeBytes(out, hash);
+                    writeBytes(out, classFile);
+                });
+            } catch (IOException e) {
+                LOGGER.warn(e, "Save the delegator {} into the transformation cache failure.", delegatorName);
+            }
+        });
+    }
+
+    /**
+     * Wait for the submitted entries to be saved.
+     */
+    void awaitSaved() throws InterruptedException, ExecutionException {
+        if (writer != null) {
+            writer.submit(() -> null).get();
+        }
+    }
+
+    /**
+     * Close the cache, only for tests.
+     */
+    synchronized void close() {
+        cacheDir = null;
+        if (writer != null) {
+            writer.shutdown();
+            writer = null;
+        }
+        templateHashes.clear();
+        pendingClasses.remove();
+    }
+
+    private byte[] load(String className, ClassLoader classLoader, ProtectionDomain protectionDomain,
+                        byte[] classfileBuffer) {
+        final byte[] hash = sha256(classfileBuffer);
+        final File file = entryFile(className, hash);
+        if (!file.isFile()) {
+            return null;
+        }
+        final byte[] classFile;
+        final Map<String, byte[]> auxiliaryTypes = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || !Arrays.equals(readBytes(in), hash) || !className.equals(in.readUTF())) {
+                return stale(file, className, "unrecognized entry");
+            }
+            int defineCount = in.readInt();
+            for (int i = 0; i < defineCount; i++) {
+                String defineName = in.readUTF();
+                boolean activated = in.readBoolean();
+                AbstractClassEnhancePluginDefine define = pluginDefines.get(defineName);
+                if (define == null || isActivated(define, classLoader) != activated) {
+                    return stale(file, className, "witness of " + defineName + " changed");
+                }
+            }
+            classFile = readBytes(in);
+            int auxiliaryCount = in.readInt();
+            for (int i = 0; i < auxiliaryCount; i++) {
+                auxiliaryTypes.put(in.readUTF(), readBytes(in));
+            }
+        } catch (IOException e) {
+            return stale(file, className, e.getMessage());
+        }
+        if (!auxiliaryTypes.isEmpty()) {
+            try {
+                injectionStrategy.resolve(classLoader, protectionDomain).injectRaw(auxiliaryTypes);
+            } catch (Throwable t) {
+                LOGGER.warn(t, "Inject the cached auxiliary types of {} failure, enhance it again.", className);
+                return null;
+            }
+        }
+        LoadedLibraryCollector.registerURLClassLoader(classLoader);
+        return classFile;
+    }
+
+    private byte[] stale(File file, String className, String reason) {
+        LOGGER.debug("The cached class {} is stale, {}.", className, reason);
+        file.delete();
+        return null;
+    }
+
+    private void save(String className, byte[] originalClassFile, PendingClass pending) {
+        final DynamicType dynamicType = pending.dynamicType;
+        if (dynamicType.hasAliveLoadedTypeInitializers()) {
+            // Some objects are bound by the initializers at runtime, they can't be restored from the class file.
+            return;
+        }
+        final Map<String, byte[]> auxiliaryTypes = new LinkedHashMap<>();
+        for (Map.Entry<TypeDescription, byte[]> entry : dynamicType.getAuxiliaryTypes().entrySet()) {
+            if (entry.getKey().getDeclaredAnnotations().isAnnotationPresent(AuxiliaryType.SignatureRelevant.class)) {
+                // Injected lazily along with the instrumented type by byte-buddy.
+                return;
+            }
+            auxiliaryTypes.put(entry.getKey().getName(), entry.getValue());
+        }
+        final byte[] classFile = dynamicType.getBytes();
+        writer.execute(() -> {
+            try {
+                byte[] hash = sha256(originalClassFile);
+                write(entryFile(className, hash), out -> {
+                    out.writeInt(MAGIC);
+                    writeBytes(out, hash);
+                    out.writeUTF(className);
+                    out.writeInt(pending.defineNames.length);
+                    for (int i = 0; i < pending.defineNames.length; i++) {
+                        out.writeUTF(pending.defineNames[i]);
+                        out.writeBoolean(pending.activated[i]);
+                    }
+                    writeBytes(out, classFile);
+                    out.writeInt(auxiliaryTypes.size());
+                    for (Map.Entry<String, byte[]> entry : auxiliaryTypes.entrySet()) {
+                        out.writeUTF(entry.getKey());
+                        writeBytes(out, entry.getValue());
+                    }
+                });
+                cachedClassNames.add(className);
+            } catch (IOException e) {
+                LOGGER.warn(e, "Save the class {} into the transformation cache failure.", className);
+            }
+        });
+    }
+
+    private void write(File file, EntryWriter entryWriter) throws IOException {
+        // Write to a temp file then move it, the concurrent starts sharing the directory never read a partial entry.
+        File temp = File.createTempFile("entry", ".tmp", file.getParentFile());
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                entryWriter.write(out);
+            }
+            Files.move(
+                temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    private File entryFile(String className, byte[] hash) {
+        return new File(cacheDir, className + "." + toHex(hash).substring(0, HASH_NAME_LENGTH) + ENTRY_SUFFIX);
+    }
+
+    private File delegatorFile(String delegatorName, byte[] hash) {
+        return new File(
+            new File(cacheDir, BOOTSTRAP_DIR),
+            delegatorName + "." + toHex(hash).substring(0, HASH_NAME_LENGTH) + ENTRY_SUFFIX
+        );
+    }
+
+    private byte[] delegatorHash(String templateClassName, String pluginName, String interceptor) throws IOException {
+        byte[] templateHash = templateHashes.get(templateClassName);
+        if (templateHash == null) {
+            templateHash = sha256(ClassFileLocator.ForClassLoader.of(TransformationCache.class.getClassLoader())
+                                                                 .locate(templateClassName)
+                                                                 .resolve());
+            templateHashes.put(templateClassName, templateHash);
+        }
+        MessageDigest digest = newDigest();
+        digest.update(templateHash);
+        digest.update(pluginName.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(interceptor.getBytes(StandardCharsets.UTF_8));
+        return digest.digest();
+    }
+
+    /**
+     * The fingerprint of the agent version, the configurations baked into the class files, the effective agent and
+     * plugin settings, and the plugin defines, including their class files. Any setting could change the matching or
+     * the enhancement, such as the excluded plugins or the class name patterns of the plugin configs, and the cached
+     * classes are served without matching them again, so a changed setting opens a new cache directory.
+     */
+    private static String fingerprint(List<AbstractClassEnhancePluginDefine> defines) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(String.valueOf(Config.Agent.VERSION).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) (Config.Plugin.LAZY_INTERCEPTOR_LOADING ? 1 : 0));
+        for (Map.Entry<String, String> setting : SnifferConfigInitializer.getAgentSettings().entrySet()) {
+            digest.update((byte) 0);
+            digest.update(setting.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '=');
+            digest.update(setting.getValue().getBytes(StandardCharsets.UTF_8));
+        }
+        for (AbstractClassEnhancePluginDefine define : defines) {
+            Class<?> defineClass = define.getClass();
+            digest.update((byte) 0);
+            digest.update(defineClass.getName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(define.getPluginName()).getBytes(StandardCharsets.UTF_8));
+            String resource = defineClass.getName().replace('.', '/') + ".class";
+            ClassLoader classLoader = defineClass.getClassLoader();
+            try (InputStream in = classLoader == null
+                ? ClassLoader.getSystemResourceAsStream(resource)
+                : classLoader.getResourceAsStream(resource)) {
+                if (in != null) {
+                    digest.update(readFully(in));
+                }
+            }
+        }
+        return toHex(digest.digest()).substring(0, HASH_NAME_LENGTH);
+    }
+
+    private static boolean isActivated(AbstractClassEnhancePluginDefine define, ClassLoader classLoader) {
+        String[] witnessClasses = define.witnessClasses();
+        if (witnessClasses != null) {
+            for (String witnessClass : witnessClasses) {
+                if (!WitnessFinder.INSTANCE.exist(witnessClass, classLoader)) {
+                    return false;
+                }
+            }
+        }
+        List<WitnessMethod> witnessMethods = define.witnessMethods();
+        if (witnessMethods != null) {
+            for (WitnessMethod witnessMethod : witnessMethods) {
+                if (!WitnessFinder.INSTANCE.exist(witnessMethod, classLoader)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        return newDigest().digest(bytes);
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+            out.write(buffer, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private class LookupTransformer implements ClassFileTransformer {
+        @Override
+        public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                                ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+            if (cacheDir == null || className == null || classBeingRedefined != null) {
+                return null;
+            }
+            try {
+                String typeName = className.replace('/', '.');
+                if (typeName.length() > MAX_CLASS_NAME_LENGTH) {
+                    return null;
+                }
+                Map<String, PendingClass> pending = pendingClasses.get();
+                if (pending.size() > MAX_PENDING_CLASSES) {
+                    // Some transformations never reached the store transformer, forget them.
+                    pending.clear();
+                }
+                if (cachedClassNames.contains(typeName)) {
+                    byte[] classFile = load(typeName, loader, protectionDomain, classfileBuffer);
+                    if (classFile != null) {
+                        pending.put(typeName, PendingClass.SERVED);
+                        return classFile;
+                    }
+                }
+                pending.put(typeName, new PendingClass(classfileBuffer));
+            } catch (Throwable t) {
+                LOGGER.error(t, "Look up the transformation cache of class {} failure.", className);
+            }
+            return null;
+        }
+    }
+
+    private class StoreTransformer implements ClassFileTransformer {
+        @Override
+        public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                                ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+            if (cacheDir == null || className == null || classBeingRedefined != null) {
+                return null;
+            }
+            try {
+                String typeName = className.replace('/', '.');
+                PendingClass pending = pendingClasses.get().remove(typeName);
+                if (pending != null && !pending.served && pending.dynamicType != null && pending.defineNames != null) {
+                    save(typeName, pending.originalClassFile, pending);
+                }
+            } catch (Throwable t) {
+                LOGGER.error(t, "Save the transformation cache of class {} failure.", className);
+            }
+            return null;
+        }
+    }
+
+    private static class PendingClass {
+        private static final PendingClass SERVED = new PendingClass(null);
+
+        private final byte[] originalClassFile;
+        private final boolean served;
+        private String[] defineNames;
+        private boolean[] activated;
+        private DynamicType dynamicType;
+
+        private PendingClass(byte[] originalClassFile) {
+            this.originalClassFile = originalClassFile;
+            this.served = originalClassFile == null;
+        }
+    }
+}
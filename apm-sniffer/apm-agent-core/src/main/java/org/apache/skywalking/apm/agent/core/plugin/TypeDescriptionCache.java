@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.pool.TypePool;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * The agent level cache of the {@link TypePool} resolutions, shared by the type matching of the agent builder and the
+ * {@link WitnessFinder}. Matching the hierarchy based plugins describes the super types of every candidate class, so
+ * the common super types, such as {@code javax.servlet.Filter}, are parsed from their class files only once for each
+ * class loader.
+ * <p>
+ * The caches are weakly keyed by the class loaders, and all of them share the budget of {@link
+ * Config.Plugin#TYPE_DESCRIPTION_CACHE_SIZE} resolutions, the resolutions beyond the budget are not cached. The cached
+ * resolutions reference their type pools, so the class file locators of the pools must not reference the class loaders
+ * strongly, otherwise the caches are never collected.
+ * <p>
+ * If the shared budget is disabled, the type matching doesn't use the caches, while the {@link WitnessFinder} still
+ * caches at most {@link #MAX_RESOLUTIONS_PER_CLASS_LOADER} resolutions for each class loader.
+ */
+public enum TypeDescriptionCache {
+    INSTANCE;
+
+    /**
+     * The max number of the cached resolutions of every class loader, if the shared budget is disabled.
+     */
+    static final int MAX_RESOLUTIONS_PER_CLASS_LOADER = 4096;
+
+    private final ConcurrentHashMap<Object, BoundedCacheProvider> cacheProviders = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ClassLoader> collectedClassLoaders = new ReferenceQueue<>();
+    private final Budget budget = new Budget(Config.Plugin.TYPE_DESCRIPTION_CACHE_SIZE);
+
+    /**
+     * @return the pool strategy of the agent builder, which caches the resolutions in this cache.
+     */
+    public AgentBuilder.PoolStrategy poolStrategy() {
+        return new PoolStrategy(this);
+    }
+
+    /**
+     * @param classLoader the class loader to find the class files, null means the bootstrap class loader.
+     * @return the cache of the resolutions of the given class loader.
+     */
+    public TypePool.CacheProvider getCacheProvider(ClassLoader classLoader) {
+        ClassLoader mappingKey = classLoader == null ? NullClassLoader.INSTANCE : classLoader;
+        BoundedCacheProvider cacheProvider = cacheProviders.get(new LookupKey(mappingKey));
+        if (cacheProvider != null) {
+            return cacheProvider;
+        }
+        expungeCollectedClassLoaders();
+        BoundedCacheProvider newCacheProvider = newCacheProvider(budget);
+        cacheProvider = cacheProviders.putIfAbsent(new WeakKey(mappingKey, collectedClassLoaders), newCacheProvider);
+        return cacheProvider == null ? newCacheProvider : cacheProvider;
+    }
+
+    /**
+     * @return the cache sharing the given budget, or having a budget of its own if the shared budget is disabled.
+     */
+    static BoundedCacheProvider newCacheProvider(Budget budget) {
+        return budget.maxSize > 0
+            ? new BoundedCacheProvider(budget)
+            : new BoundedCacheProvider(MAX_RESOLUTIONS_PER_CLASS_LOADER);
+    }
+
+    /**
+     * @return the number of the lookups found in the cache.
+     */
+    public long getHits() {
+        return budget.hits.sum();
+    }
+
+    /**
+     * @return the number of the lookups not found in the cache, which parse the class files then.
+     */
+    public long getMisses() {
+        return budget.misses.sum();
+    }
+
+    /**
+     * @return the number of the cached resolutions of all class loaders.
+     */
+    public int size() {
+        return budget.used.get();
+    }
+
+    /**
+     * @return the number of the class loaders having a cache, including the collected ones not expunged yet.
+     */
+    int classLoaderSize() {
+        return cacheProviders.size();
+    }
+
+    /**
+     * Clear the caches of the collected class loaders, and return their budget.
+     */
+    void expungeCollectedClassLoaders() {
+        Reference<? extends ClassLoader> key;
+        while ((key = collectedClassLoaders.poll()) != null) {
+            BoundedCacheProvider cacheProvider = cacheProviders.remove(key);
+            if (cacheProvider != null) {
+                cacheProvider.clear();
+            }
+        }
+    }
+
+    /**
+     * The pool strategy creating the type pools with the cache of the class loader. The type being transformed is
+     * never served from the cache, see {@link AgentBuilder.PoolStrategy.WithTypePoolCache}.
+     */
+    private static class PoolStrategy extends AgentBuilder.PoolStrategy.WithTypePoolCache {
+        private final TypeDescriptionCache cache;
+
+        private PoolStrategy(TypeDescriptionCache cache) {
+            super(TypePool.Default.ReaderMode.FAST);
+            this.cache = cache;
+        }
+
+        @Override
+        protected TypePool.CacheProvider locate(ClassLoader classLoader) {
+            return cache.getCacheProvider(classLoader);
+        }
+    }
+
+    /**
+     * The number of the resolutions could be cached, shared by the caches of all class loaders.
+     */
+    static final class Budget {
+        private final int maxSize;
+        private final AtomicInteger used = new AtomicInteger(0);
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+
+        Budget(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        boolean acquire() {
+            while (true) {
+                int current = used.get();
+                if (current >= maxSize) {
+                    return false;
+                }
+                if (used.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            used.decrementAndGet();
+        }
+    }
+
+    /**
+     * The key of a class loader in the map, compared by identity.
+     */
+    static class WeakKey extends WeakReference<ClassLoader> {
+        private final int hashCode;
+
+        WeakKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hashCode = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof LookupKey) {
+                return ((LookupKey) obj).classLoader == get();
+            }
+            if (obj instanceof WeakKey) {
+                ClassLoader classLoader = get();
+                return classLoader != null && classLoader == ((WeakKey) obj).get();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The short-lived key to look up the map, without creating a weak reference.
+     */
+    static class LookupKey {
+        private final ClassLoader classLoader;
+
+        LookupKey(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof WeakKey) {
+                return ((WeakKey) obj).get() == classLoader;
+            }
+            return obj instanceof LookupKey && ((LookupKey) obj).classLoader == classLoader;
+        }
+    }
+}
+
+/**
+ * The concurrent cache of the {@link TypePool} resolutions of a class loader, the resolutions beyond the budget are not
+ * cached.
+ */
+final class BoundedCacheProvider implements TypePool.CacheProvider {
+    private final ConcurrentHashMap<String, TypePool.Resolution> cache =
+        new ConcurrentHashMap<String, TypePool.Resolution>();
+    private final TypeDescriptionCache.Budget budget;
+
+    BoundedCacheProvider(int maxSize) {
+        this(new TypeDescriptionCache.Budget(maxSize));
+    }
+
+    BoundedCacheProvider(TypeDescriptionCache.Budget budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public TypePool.Resolution find(String name) {
+        TypePool.Resolution resolution = cache.get(name);
+        if (resolution == null) {
+            budget.misses.increment();
+        } else {
+            budget.hits.increment();
+        }
+        return resolution;
+    }
+
+    @Override
+    public TypePool.Resolution register(String name, TypePool.Resolution resolution) {
+        if (!budget.acquire()) {
+            return resolution;
+        }
+        TypePool.Resolution cached = cache.putIfAbsent(name, resolution);
+        if (cached != null) {
+            budget.release();
+            return cached;
+        }
+        return resolution;
+    }
+
+    @Override
+    public void clear() {
+        for (String name : cache.keySet()) {
+            if (cache.remove(name) != null) {
+                budget.release();
+            }
+        }
+    }
+
+    int size() {
+        return cache.size();
+    }
+}
+
+final class NullClassLoader extends ClassLoader {
+    static NullClassLoader INSTANCE = new NullClassLoader();
+}
@@ -18,20 +18,20 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
- * The <code>WitnessFinder</code> represents a pool of {@link TypePool}s, each {@link TypePool} matches a {@link
- * ClassLoader}, which helps to find the class declaration existed or not.
+ * The <code>WitnessFinder</code> finds the class declaration existed or not, through the {@link TypePool}s of the
+ * {@link ClassLoader}s.
+ * <p>
+ * The resolutions of the witness classes are cached in the {@link TypeDescriptionCache}, shared with the type matching
+ * of the agent builder. The class loaders are weakly referenced by the class file locators, so the cached resolutions
+ * don't keep them alive.
  */
 public enum WitnessFinder {
     INSTANCE;
 
-    private final Map<ClassLoader, TypePool> poolMap = new HashMap<ClassLoader, TypePool>();
-
     /**
      * @param classLoader for finding the witnessClass
      * @return true, if the given witnessClass exists, through the given classLoader.
@@ -48,16 +48,13 @@ public enum WitnessFinder {
      * @return TypePool.Resolution
      */
     private TypePool.Resolution getResolution(String witnessClass, ClassLoader classLoader) {
-        ClassLoader mappingKey = classLoader == null ? NullClassLoader.INSTANCE : classLoader;
-        if (!poolMap.containsKey(mappingKey)) {
-            synchronized (poolMap) {
-                if (!poolMap.containsKey(mappingKey)) {
-                    TypePool classTypePool = classLoader == null ? TypePool.Default.ofBootLoader() : TypePool.Default.of(classLoader);
-                    poolMap.put(mappingKey, classTypePool);
-                }
-            }
-        }
-        TypePool typePool = poolMap.get(mappingKey);
+        TypePool typePool = new TypePool.Default(
+            TypeDescriptionCache.INSTANCE.getCacheProvider(classLoader),
+            classLoader == null
+                ? ClassFileLocator.ForClassLoader.ofBootLoader()
+                : ClassFileLocator.ForClassLoader.WeaklyReferenced.of(classLoader),
+            TypePool.Default.ReaderMode.FAST
+        );
         return typePool.describe(witnessClass);
     }
 
@@ -77,7 +74,3 @@ public enum WitnessFinder {
     }
 
 }
-
-final class NullClassLoader extends ClassLoader {
-    static NullClassLoader INSTANCE = new NullClassLoader();
-}
@@ -40,6 +40,7 @@ import org.apache.skywalking.apm.agent.core.plugin.ByteBuddyCoreClasses;
 import org.apache.skywalking.apm.agent.core.plugin.InstrumentDebuggingClass;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
+import org.apache.skywalking.apm.agent.core.plugin.TransformationCache;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
@@ -119,7 +120,10 @@ public class BootstrapInstrumentBoost {
          */
         ClassInjector.UsingUnsafe.Factory factory = ClassInjector.UsingUnsafe.Factory.resolve(instrumentation);
         factory.make(null, null).injectRaw(classesTypeMap);
-        agentBuilder = agentBuilder.with(new AgentBuilder.InjectionStrategy.UsingUnsafe.OfFactory(factory));
+        AgentBuilder.InjectionStrategy injectionStrategy =
+            new AgentBuilder.InjectionStrategy.UsingUnsafe.OfFactory(factory);
+        TransformationCache.INSTANCE.setInjectionStrategy(injectionStrategy);
+        agentBuilder = agentBuilder.with(injectionStrategy);
 
         return agentBuilder;
     }
@@ -258,6 +262,12 @@ public class BootstrapInstrumentBoost {
     private static void generateDelegator(Map<String, byte[]> classesTypeMap, TypePool typePool,
         String pluginName, String templateClassName, String methodsInterceptor) {
         String internalInterceptorName = internalDelegate(methodsInterceptor);
+        byte[] cachedDelegator = TransformationCache.INSTANCE.findDelegator(
+            internalInterceptorName, templateClassName, pluginName, methodsInterceptor);
+        if (cachedDelegator != null) {
+            classesTypeMap.put(internalInterceptorName, cachedDelegator);
+            return;
+        }
         try {
             TypeDescription templateTypeDescription = typePool.describe(templateClassName).resolve();
 
@@ -271,6 +281,8 @@ public class BootstrapInstrumentBoost {
                                                                   .make();
 
             classesTypeMap.put(internalInterceptorName, interceptorType.getBytes());
+            TransformationCache.INSTANCE.saveDelegator(
+                internalInterceptorName, templateClassName, pluginName, methodsInterceptor, interceptorType.getBytes());
 
             InstrumentDebuggingClass.INSTANCE.log(interceptorType);
         } catch (Exception e) {
@@ -79,6 +79,7 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
             existedMethodsInterceptPoints = true;
         }
         DelegateNamingResolver delegateNamingResolver = new DelegateNamingResolver(typeDescription.getTypeName(), this);
+        DelegateBinder delegateBinder = new DelegateBinder(typeDescription, getPluginName());
 
         /**
          * nothing need to be enhanced in class instance, maybe need enhance static methods.
@@ -123,9 +124,10 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                             .forInternalDelegateClass(constructorInterceptor))));
                 } else {
                     newClassBuilder = newClassBuilder.constructor(constructorInterceptPoint.getConstructorMatcher())
-                            .intercept(SuperMethodCall.INSTANCE.andThen(MethodDelegation.withDefaultConfiguration()
-                                    .to(new ConstructorInter(getPluginName(), constructorInterceptor, classLoader),
-                                            delegateNamingResolver.resolve(constructorInterceptPoint))));
+                            .intercept(SuperMethodCall.INSTANCE.andThen(delegateBinder.bind(
+                                MethodDelegation.withDefaultConfiguration(),
+                                new ConstructorInter(getPluginName(), constructorInterceptor, enhanceOriginClassName, classLoader, isLazyInterceptorLoading()),
+                                constructorInterceptor, delegateNamingResolver.resolve(constructorInterceptPoint))));
                 }
             }
         }
@@ -151,9 +153,10 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                     } else {
                         newClassBuilder = newClassBuilder.method(junction)
-                                                         .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                    .withBinders(Morph.Binder.install(OverrideCallable.class))
-                                                                                    .to(new InstMethodsInterWithOverrideArgs(getPluginName(), interceptor, classLoader), delegateNamingResolver.resolve(instanceMethodsInterceptPoint)));
+                                                         .intercept(delegateBinder.bind(
+                                                             MethodDelegation.withDefaultConfiguration().withBinders(Morph.Binder.install(OverrideCallable.class)),
+                                                             new InstMethodsInterWithOverrideArgs(getPluginName(), interceptor, enhanceOriginClassName, classLoader, isLazyInterceptorLoading()),
+                                                             interceptor, delegateNamingResolver.resolve(instanceMethodsInterceptPoint)));
                     }
                 } else {
                     if (isBootstrapInstrumentation()) {
@@ -162,14 +165,16 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                     } else {
                         newClassBuilder = newClassBuilder.method(junction)
-                                                         .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                    .to(new InstMethodsInter(getPluginName(), interceptor, classLoader), delegateNamingResolver.resolve(instanceMethodsInterceptPoint)));
+                                                         .intercept(delegateBinder.bind(
+                                                             MethodDelegation.withDefaultConfiguration(),
+                                                             new InstMethodsInter(getPluginName(), interceptor, enhanceOriginClassName, classLoader, isLazyInterceptorLoading()),
+                                                             interceptor, delegateNamingResolver.resolve(instanceMethodsInterceptPoint)));
                     }
                 }
             }
         }
 
-        return newClassBuilder;
+        return delegateBinder.install(newClassBuilder);
     }
 
     /**
@@ -188,6 +193,7 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
             return newClassBuilder;
         }
         DelegateNamingResolver delegateNamingResolver = new DelegateNamingResolver(typeDescription.getTypeName(), this);
+        DelegateBinder delegateBinder = new DelegateBinder(typeDescription, getPluginName());
 
         for (StaticMethodsInterceptPoint staticMethodsInterceptPoint : staticMethodsInterceptPoints) {
             String interceptor = staticMethodsInterceptPoint.getMethodsInterceptor();
@@ -203,9 +209,10 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                                                                 .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                 } else {
                     newClassBuilder = newClassBuilder.method(isStatic().and(staticMethodsInterceptPoint.getMethodsMatcher()))
-                                                     .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                .withBinders(Morph.Binder.install(OverrideCallable.class))
-                                                                                .to(new StaticMethodsInterWithOverrideArgs(getPluginName(), interceptor), delegateNamingResolver.resolve(staticMethodsInterceptPoint)));
+                                                     .intercept(delegateBinder.bind(
+                                                         MethodDelegation.withDefaultConfiguration().withBinders(Morph.Binder.install(OverrideCallable.class)),
+                                                         new StaticMethodsInterWithOverrideArgs(getPluginName(), interceptor, enhanceOriginClassName),
+                                                         interceptor, delegateNamingResolver.resolve(staticMethodsInterceptPoint)));
                 }
             } else {
                 if (isBootstrapInstrumentation()) {
@@ -214,14 +221,16 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                                                                 .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                 } else {
                     newClassBuilder = newClassBuilder.method(isStatic().and(staticMethodsInterceptPoint.getMethodsMatcher()))
-                                                     .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                .to(new StaticMethodsInter(getPluginName(), interceptor), delegateNamingResolver.resolve(staticMethodsInterceptPoint)));
+                                                     .intercept(delegateBinder.bind(
+                                                         MethodDelegation.withDefaultConfiguration(),
+                                                         new StaticMethodsInter(getPluginName(), interceptor, enhanceOriginClassName),
+                                                         interceptor, delegateNamingResolver.resolve(staticMethodsInterceptPoint)));
                 }
             }
 
         }
 
-        return newClassBuilder;
+        return delegateBinder.install(newClassBuilder);
     }
 
     /**
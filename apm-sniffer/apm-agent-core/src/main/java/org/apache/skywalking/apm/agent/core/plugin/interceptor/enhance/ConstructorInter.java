@@ -23,9 +23,9 @@ import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.implementation.bind.annotation.This;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
-import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorOverhead;
 
 /**
  * The actual byte-buddy's interceptor to intercept constructor methods. In this class, it provides a bridge between
@@ -37,20 +37,39 @@ public class ConstructorInter {
     private static final String INTERCEPTOR_TYPE = "constructor";
 
     private String pluginName;
+    /**
+     * The overhead of the interceptor, accounted in the sampled invocations.
+     */
+    private InterceptorOverhead overhead;
     /**
      * An {@link InstanceConstructorInterceptor} This name should only stay in {@link String}, the real {@link Class}
      * type will trigger classloader failure. If you want to know more, please check on books about Classloader or
      * Classloader appointment mechanism.
      */
-    private InstanceConstructorInterceptor interceptor;
+    private InterceptorReference<InstanceConstructorInterceptor> interceptor;
 
     /**
      * @param constructorInterceptorClassName class full name.
      */
     public ConstructorInter(String pluginName, String constructorInterceptorClassName, ClassLoader classLoader) throws PluginException {
+        this(pluginName, constructorInterceptorClassName, "", classLoader, false);
+    }
+
+    /**
+     * @param constructorInterceptorClassName class full name.
+     * @param interceptPoint                   the name of the enhanced class, which the overhead is accounted for.
+     * @param lazy                             true to load the interceptor at the first invocation.
+     */
+    public ConstructorInter(String pluginName, String constructorInterceptorClassName, String interceptPoint,
+        ClassLoader classLoader, boolean lazy) throws PluginException {
         this.pluginName = pluginName;
+        this.overhead = AgentSo11y.overheadOf(pluginName, constructorInterceptorClassName, interceptPoint);
+        this.interceptor = new InterceptorReference<>(pluginName, constructorInterceptorClassName, classLoader, INTERCEPTOR_TYPE);
+        if (lazy) {
+            return;
+        }
         try {
-            interceptor = InterceptorInstanceLoader.load(constructorInterceptorClassName, classLoader);
+            interceptor.load();
         } catch (Throwable t) {
             throw new PluginException("Can't create InstanceConstructorInterceptorV2.", t);
         }
@@ -64,8 +83,15 @@ public class ConstructorInter {
      */
     @RuntimeType
     public void intercept(@This Object obj, @AllArguments Object[] allArguments) {
+        InstanceConstructorInterceptor interceptor = this.interceptor.get();
+        if (interceptor == null) {
+            return;
+        }
+        boolean sampled = overhead.sample();
         long interceptorTimeCost = 0L;
+        long interceptorAllocatedBytes = 0L;
         long startTime = System.nanoTime();
+        long startAllocatedBytes = overhead.allocatedBytes(sampled);
         try {
             EnhancedInstance targetObject = (EnhancedInstance) obj;
 
@@ -75,6 +101,10 @@ public class ConstructorInter {
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
         }
         interceptorTimeCost += System.nanoTime() - startTime;
+        interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytes;
         AgentSo11y.durationOfInterceptor(interceptorTimeCost);
+        if (sampled) {
+            overhead.record(interceptorTimeCost, interceptorAllocatedBytes);
+        }
     }
 }
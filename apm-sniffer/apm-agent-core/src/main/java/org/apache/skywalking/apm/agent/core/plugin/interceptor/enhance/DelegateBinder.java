@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.Duplication;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.TypeCreation;
+import net.bytebuddy.implementation.bytecode.constant.ClassConstant;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.implementation.bytecode.constant.NullConstant;
+import net.bytebuddy.implementation.bytecode.constant.TextConstant;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import org.apache.skywalking.apm.agent.core.plugin.TransformationCache;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstMethodsAdviceInstaller;
+
+import static net.bytebuddy.jar.asm.Opcodes.ACC_FINAL;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_PRIVATE;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_PUBLIC;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_STATIC;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+/**
+ * Bind the delegates, such as {@link InstMethodsInter}, of the interceptors to the enhanced class.
+ * <p>
+ * By default, the delegate instances are bound by byte-buddy, which sets them into the enhanced class when it is
+ * loaded. While the {@link TransformationCache} is enabled, every delegate is held by a static field instead, created
+ * in the type initializer from the constants of the plugin name, the interceptor and the enhanced class, like {@link
+ * InstMethodsAdviceInstaller} does. Then the enhanced class file has no live initializer, and can be restored from the
+ * cache. The delegates created in the type initializer always load their interceptors at the first invocation, while
+ * the eager loading and its failure still happen when the class is enhanced.
+ */
+public class DelegateBinder {
+    private static final MethodDescription.InDefinedShape GET_CLASS_LOADER = TypeDescription.ForLoadedType.of(
+        Class.class).getDeclaredMethods().filter(named("getClassLoader").and(takesArguments(0))).getOnly();
+
+    private final TypeDescription instrumentedType;
+    private final String pluginName;
+    private final boolean restorable;
+    /**
+     * The types of the delegates held by the static fields, keyed by the field names.
+     */
+    private final Map<String, Class<?>> delegateTypes = new LinkedHashMap<>();
+    private final Map<String, String> interceptors = new LinkedHashMap<>();
+
+    public DelegateBinder(TypeDescription instrumentedType, String pluginName) {
+        this.instrumentedType = instrumentedType;
+        this.pluginName = pluginName;
+        this.restorable = TransformationCache.INSTANCE.isEnabled();
+    }
+
+    /**
+     * Bind the delegate to the intercepted methods.
+     *
+     * @param delegation  the delegation with the custom binders
+     * @param delegate    the delegate created when the class is enhanced, which loads the interceptor unless in the
+     *                    lazy mode. It is replaced by a new one created in the type initializer if restorable.
+     * @param interceptor the class name of the interceptor
+     * @param fieldName   the name of the field holding the delegate
+     * @return the delegation to the delegate.
+     */
+    public MethodDelegation bind(MethodDelegation.WithCustomProperties delegation, Object delegate, String interceptor,
+                                 String fieldName) {
+        if (!restorable) {
+            return delegation.to(delegate, fieldName);
+        }
+        delegateTypes.put(fieldName, delegate.getClass());
+        interceptors.put(fieldName, interceptor);
+        return delegation.toField(fieldName);
+    }
+
+    /**
+     * Define the static fields of the bound delegates, which must be called after all delegates are bound.
+     */
+    public DynamicType.Builder<?> install(DynamicType.Builder<?> builder) {
+        // The fields of an interface must be public.
+        int modifiers = (instrumentedType.isInterface() ? ACC_PUBLIC : ACC_PRIVATE) | ACC_STATIC | ACC_FINAL;
+        for (Map.Entry<String, Class<?>> entry : delegateTypes.entrySet()) {
+            String fieldName = entry.getKey();
+            TypeDescription delegateType = TypeDescription.ForLoadedType.of(entry.getValue());
+            FieldDescription field = new FieldDescription.Latent(
+                instrumentedType, fieldName, modifiers, delegateType.asGenericType(), Collections.emptyList());
+            builder = builder.defineField(fieldName, delegateType, modifiers)
+                             .initializer(new ByteCodeAppender.Simple(
+                                 newDelegate(entry.getValue(), interceptors.get(fieldName)),
+                                 FieldAccess.forField(field).write()
+                             ));
+        }
+        delegateTypes.clear();
+        interceptors.clear();
+        return builder;
+    }
+
+    /**
+     * Create the delegate by its constructor of (plugin name, interceptor, intercept point, class loader, lazy), or
+     * (plugin name, interceptor, intercept point) for the static methods delegates, which load the interceptors by the
+     * classes at runtime.
+     */
+    private StackManipulation newDelegate(Class<?> delegateType, String interceptor) {
+        Constructor<?> constructor;
+        StackManipulation arguments;
+        try {
+            constructor = delegateType.getConstructor(
+                String.class, String.class, String.class, ClassLoader.class, boolean.class);
+            arguments = new StackManipulation.Compound(
+                ClassConstant.of(instrumentedType),
+                MethodInvocation.invoke(GET_CLASS_LOADER),
+                IntegerConstant.forValue(true)
+            );
+        } catch (NoSuchMethodException e) {
+            try {
+                constructor = delegateType.getConstructor(String.class, String.class, String.class);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalArgumentException("No constructor to create the delegate " + delegateType, ex);
+            }
+            arguments = StackManipulation.Trivial.INSTANCE;
+        }
+        return new StackManipulation.Compound(
+            TypeCreation.of(TypeDescription.ForLoadedType.of(delegateType)),
+            Duplication.SINGLE,
+            pluginName == null ? NullConstant.INSTANCE : new TextConstant(pluginName),
+            new TextConstant(interceptor),
+            new TextConstant(instrumentedType.getTypeName()),
+            arguments,
+            MethodInvocation.invoke(new MethodDescription.ForLoadedConstructor(constructor))
+        );
+    }
+}
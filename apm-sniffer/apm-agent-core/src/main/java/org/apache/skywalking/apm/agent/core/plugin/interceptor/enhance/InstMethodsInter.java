@@ -27,9 +27,10 @@ import net.bytebuddy.implementation.bind.annotation.SuperCall;
 import net.bytebuddy.implementation.bind.annotation.This;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
-import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorOverhead;
 
 /**
  * The actual byte-buddy's interceptor to intercept class instance methods. In this class, it provides a bridge between
@@ -41,20 +42,44 @@ public class InstMethodsInter {
     private static final String INTERCEPTOR_TYPE = "inst";
 
     private String pluginName;
+    /**
+     * The overhead of the interceptor, accounted in the sampled invocations.
+     */
+    private InterceptorOverhead overhead;
+    /**
+     * The interceptor is skipped while the plugin is deactivated at runtime.
+     */
+    private PluginSwitch pluginSwitch;
     /**
      * An {@link InstanceMethodsAroundInterceptor} This name should only stay in {@link String}, the real {@link Class}
      * type will trigger classloader failure. If you want to know more, please check on books about Classloader or
      * Classloader appointment mechanism.
      */
-    private InstanceMethodsAroundInterceptor interceptor;
+    private InterceptorReference<InstanceMethodsAroundInterceptor> interceptor;
 
     /**
      * @param instanceMethodsAroundInterceptorClassName class full name.
      */
     public InstMethodsInter(String pluginName, String instanceMethodsAroundInterceptorClassName, ClassLoader classLoader) {
+        this(pluginName, instanceMethodsAroundInterceptorClassName, "", classLoader, false);
+    }
+
+    /**
+     * @param instanceMethodsAroundInterceptorClassName class full name.
+     * @param interceptPoint                             the name of the enhanced class, which the overhead is accounted for.
+     * @param lazy                                       true to load the interceptor at the first invocation.
+     */
+    public InstMethodsInter(String pluginName, String instanceMethodsAroundInterceptorClassName, String interceptPoint,
+        ClassLoader classLoader, boolean lazy) {
         this.pluginName = pluginName;
+        this.pluginSwitch = PluginSwitch.of(pluginName);
+        this.overhead = AgentSo11y.overheadOf(pluginName, instanceMethodsAroundInterceptorClassName, interceptPoint);
+        this.interceptor = new InterceptorReference<>(pluginName, instanceMethodsAroundInterceptorClassName, classLoader, INTERCEPTOR_TYPE);
+        if (lazy) {
+            return;
+        }
         try {
-            interceptor = InterceptorInstanceLoader.load(instanceMethodsAroundInterceptorClassName, classLoader);
+            interceptor.load();
         } catch (Throwable t) {
             throw new PluginException("Can't create InstanceMethodsAroundInterceptor.", t);
         }
@@ -74,10 +99,20 @@ public class InstMethodsInter {
     @RuntimeType
     public Object intercept(@This Object obj, @AllArguments Object[] allArguments, @SuperCall Callable<?> zuper,
         @Origin Method method) throws Throwable {
+        if (!pluginSwitch.isActive()) {
+            return zuper.call();
+        }
+        InstanceMethodsAroundInterceptor interceptor = this.interceptor.get();
+        if (interceptor == null) {
+            return zuper.call();
+        }
         EnhancedInstance targetObject = (EnhancedInstance) obj;
 
+        boolean sampled = overhead.sample();
         long interceptorTimeCost = 0L;
+        long interceptorAllocatedBytes = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startAllocatedBytesOfMethodBeforeInter = overhead.allocatedBytes(sampled);
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), result);
@@ -86,6 +121,7 @@ public class InstMethodsInter {
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
         }
         interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -96,6 +132,7 @@ public class InstMethodsInter {
             }
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startAllocatedBytesOfMethodHandleExceptionInter = overhead.allocatedBytes(sampled);
             try {
                 interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t);
             } catch (Throwable t2) {
@@ -103,9 +140,11 @@ public class InstMethodsInter {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodHandleExceptionInter;
             throw t;
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
+            long startAllocatedBytesOfMethodAfterInter = overhead.allocatedBytes(sampled);
             try {
                 ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret);
             } catch (Throwable t) {
@@ -113,8 +152,12 @@ public class InstMethodsInter {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodAfterInter;
         }
         AgentSo11y.durationOfInterceptor(interceptorTimeCost);
+        if (sampled) {
+            overhead.record(interceptorTimeCost, interceptorAllocatedBytes);
+        }
 
         return ret;
     }
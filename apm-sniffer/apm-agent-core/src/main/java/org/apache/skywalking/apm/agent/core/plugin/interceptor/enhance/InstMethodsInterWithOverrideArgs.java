@@ -25,10 +25,11 @@ import net.bytebuddy.implementation.bind.annotation.Origin;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.implementation.bind.annotation.This;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
-import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorOverhead;
 
 /**
  * The actual byte-buddy's interceptor to intercept class instance methods. In this class, it provides a bridge between
@@ -40,20 +41,44 @@ public class InstMethodsInterWithOverrideArgs {
     private static final String INTERCEPTOR_TYPE = "inst";
 
     private String pluginName;
+    /**
+     * The overhead of the interceptor, accounted in the sampled invocations.
+     */
+    private InterceptorOverhead overhead;
+    /**
+     * The interceptor is skipped while the plugin is deactivated at runtime.
+     */
+    private PluginSwitch pluginSwitch;
     /**
      * An {@link InstanceMethodsAroundInterceptor} This name should only stay in {@link String}, the real {@link Class}
      * type will trigger classloader failure. If you want to know more, please check on books about Classloader or
      * Classloader appointment mechanism.
      */
-    private InstanceMethodsAroundInterceptor interceptor;
+    private InterceptorReference<InstanceMethodsAroundInterceptor> interceptor;
 
     /**
      * @param instanceMethodsAroundInterceptorClassName class full name.
      */
     public InstMethodsInterWithOverrideArgs(String pluginName, String instanceMethodsAroundInterceptorClassName, ClassLoader classLoader) {
+        this(pluginName, instanceMethodsAroundInterceptorClassName, "", classLoader, false);
+    }
+
+    /**
+     * @param instanceMethodsAroundInterceptorClassName class full name.
+     * @param interceptPoint                             the name of the enhanced class, which the overhead is accounted for.
+     * @param lazy                                       true to load the interceptor at the first invocation.
+     */
+    public InstMethodsInterWithOverrideArgs(String pluginName, String instanceMethodsAroundInterceptorClassName, String interceptPoint,
+        ClassLoader classLoader, boolean lazy) {
         this.pluginName = pluginName;
+        this.pluginSwitch = PluginSwitch.of(pluginName);
+        this.overhead = AgentSo11y.overheadOf(pluginName, instanceMethodsAroundInterceptorClassName, interceptPoint);
+        this.interceptor = new InterceptorReference<>(pluginName, instanceMethodsAroundInterceptorClassName, classLoader, INTERCEPTOR_TYPE);
+        if (lazy) {
+            return;
+        }
         try {
-            interceptor = InterceptorInstanceLoader.load(instanceMethodsAroundInterceptorClassName, classLoader);
+            interceptor.load();
         } catch (Throwable t) {
             throw new PluginException("Can't create InstanceMethodsAroundInterceptor.", t);
         }
@@ -73,10 +98,20 @@ public class InstMethodsInterWithOverrideArgs {
     @RuntimeType
     public Object intercept(@This Object obj, @AllArguments Object[] allArguments, @Origin Method method,
         @Morph OverrideCallable zuper) throws Throwable {
+        if (!pluginSwitch.isActive()) {
+            return zuper.call(allArguments);
+        }
+        InstanceMethodsAroundInterceptor interceptor = this.interceptor.get();
+        if (interceptor == null) {
+            return zuper.call(allArguments);
+        }
         EnhancedInstance targetObject = (EnhancedInstance) obj;
 
+        boolean sampled = overhead.sample();
         long interceptorTimeCost = 0L;
+        long interceptorAllocatedBytes = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startAllocatedBytesOfMethodBeforeInter = overhead.allocatedBytes(sampled);
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), result);
@@ -85,6 +120,7 @@ public class InstMethodsInterWithOverrideArgs {
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
         }
         interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -95,6 +131,7 @@ public class InstMethodsInterWithOverrideArgs {
             }
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startAllocatedBytesOfMethodHandleExceptionInter = overhead.allocatedBytes(sampled);
             try {
                 interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t);
             } catch (Throwable t2) {
@@ -102,9 +139,11 @@ public class InstMethodsInterWithOverrideArgs {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodHandleExceptionInter;
             throw t;
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
+            long startAllocatedBytesOfMethodAfterInter = overhead.allocatedBytes(sampled);
             try {
                 ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret);
             } catch (Throwable t) {
@@ -112,8 +151,12 @@ public class InstMethodsInterWithOverrideArgs {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodAfterInter;
         }
         AgentSo11y.durationOfInterceptor(interceptorTimeCost);
+        if (sampled) {
+            overhead.record(interceptorTimeCost, interceptorAllocatedBytes);
+        }
         return ret;
     }
 }
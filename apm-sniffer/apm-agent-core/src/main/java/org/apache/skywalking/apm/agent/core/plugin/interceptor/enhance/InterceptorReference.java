@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
+import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The interceptor of a delegate, such as {@link InstMethodsInter}, which is loaded when the class is enhanced, or at the
+ * first invocation in the lazy mode. The delegate is only a cheap trampoline before that, no interceptor class is
+ * loaded for the methods never called.
+ *
+ * @param <T> the type of the interceptor
+ */
+public class InterceptorReference<T> {
+    private static final ILog LOGGER = LogManager.getLogger(InterceptorReference.class);
+
+    private final String pluginName;
+    private final String interceptorClassName;
+    private final String interceptorType;
+    private final ClassLoader classLoader;
+    /**
+     * The class loader of the interceptor, held to keep it alive along with the enhanced class.
+     */
+    private volatile AgentClassLoader pluginLoader;
+    private volatile T interceptor;
+    private volatile boolean failed;
+
+    public InterceptorReference(String pluginName, String interceptorClassName, ClassLoader classLoader,
+                                String interceptorType) {
+        this.pluginName = pluginName;
+        this.interceptorClassName = interceptorClassName;
+        this.classLoader = classLoader;
+        this.interceptorType = interceptorType;
+    }
+
+    /**
+     * Load the interceptor now.
+     *
+     * @throws Exception if the interceptor can't be loaded.
+     */
+    public void load() throws Exception {
+        AgentClassLoader pluginLoader = this.pluginLoader;
+        if (pluginLoader == null) {
+            pluginLoader = InterceptorInstanceLoader.getPluginLoader(classLoader);
+            this.pluginLoader = pluginLoader;
+        }
+        interceptor = InterceptorInstanceLoader.loadFrom(interceptorClassName, pluginLoader);
+    }
+
+    /**
+     * @return the interceptor, which is loaded at the first time. Null if it can't be loaded, then the failure is
+     * logged only once.
+     */
+    public T get() {
+        T interceptor = this.interceptor;
+        if (interceptor != null || failed) {
+            return interceptor;
+        }
+        try {
+            load();
+        } catch (Throwable t) {
+            failed = true;
+            LOGGER.error(t, "Can't create interceptor {} of plugin {} lazily.", interceptorClassName, pluginName);
+            AgentSo11y.errorOfPlugin(pluginName, interceptorType);
+        }
+        return this.interceptor;
+    }
+}
@@ -56,4 +56,12 @@ public class MethodInterceptResult {
     public Object _ret() {
         return ret;
     }
+
+    /**
+     * Reset to the initial state, for the reused instances.
+     */
+    protected void reset() {
+        this.isContinue = true;
+        this.ret = null;
+    }
 }
@@ -23,10 +23,13 @@ import net.bytebuddy.implementation.bind.annotation.AllArguments;
 import net.bytebuddy.implementation.bind.annotation.Morph;
 import net.bytebuddy.implementation.bind.annotation.Origin;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
+import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorOverhead;
 
 /**
  * The actual byte-buddy's interceptor to intercept class static methods. In this class, it provides a bridge between
@@ -38,12 +41,28 @@ public class StaticMethodsInterWithOverrideArgs {
     private static final String INTERCEPTOR_TYPE = "static";
 
     private String pluginName;
+    /**
+     * The overhead of the interceptor, accounted in the sampled invocations.
+     */
+    private InterceptorOverhead overhead;
+    /**
+     * The interceptor is skipped while the plugin is deactivated at runtime.
+     */
+    private PluginSwitch pluginSwitch;
     /**
      * A class full name, and instanceof {@link StaticMethodsAroundInterceptor} This name should only stay in {@link
      * String}, the real {@link Class} type will trigger classloader failure. If you want to know more, please check on
      * books about Classloader or Classloader appointment mechanism.
      */
     private String staticMethodsAroundInterceptorClassName;
+    /**
+     * The interceptor loaded at the first invocation, held to keep it alive along with the enhanced class.
+     */
+    private volatile StaticMethodsAroundInterceptor interceptor;
+    /**
+     * The class loader of the interceptor, held to keep it alive along with the enhanced class.
+     */
+    private volatile AgentClassLoader pluginLoader;
 
     /**
      * Set the name of {@link StaticMethodsInterWithOverrideArgs#staticMethodsAroundInterceptorClassName}
@@ -52,7 +71,20 @@ public class StaticMethodsInterWithOverrideArgs {
      * @param staticMethodsAroundInterceptorClassName class full name.
      */
     public StaticMethodsInterWithOverrideArgs(String pluginName, String staticMethodsAroundInterceptorClassName) {
+        this(pluginName, staticMethodsAroundInterceptorClassName, "");
+    }
+
+    /**
+     * Set the name of {@link StaticMethodsInterWithOverrideArgs#staticMethodsAroundInterceptorClassName}
+     *
+     * @param pluginName name of interceptor plugin
+     * @param staticMethodsAroundInterceptorClassName class full name.
+     * @param interceptPoint                          the name of the enhanced class, which the overhead is accounted for.
+     */
+    public StaticMethodsInterWithOverrideArgs(String pluginName, String staticMethodsAroundInterceptorClassName, String interceptPoint) {
         this.pluginName = pluginName;
+        this.pluginSwitch = PluginSwitch.of(pluginName);
+        this.overhead = AgentSo11y.overheadOf(pluginName, staticMethodsAroundInterceptorClassName, interceptPoint);
         this.staticMethodsAroundInterceptorClassName = staticMethodsAroundInterceptorClassName;
     }
 
@@ -70,11 +102,16 @@ public class StaticMethodsInterWithOverrideArgs {
     @RuntimeType
     public Object intercept(@Origin Class<?> clazz, @AllArguments Object[] allArguments, @Origin Method method,
         @Morph OverrideCallable zuper) throws Throwable {
-        StaticMethodsAroundInterceptor interceptor = InterceptorInstanceLoader.load(staticMethodsAroundInterceptorClassName, clazz
-            .getClassLoader());
+        if (!pluginSwitch.isActive()) {
+            return zuper.call(allArguments);
+        }
+        StaticMethodsAroundInterceptor interceptor = getInterceptor(clazz);
 
+        boolean sampled = overhead.sample();
         long interceptorTimeCost = 0L;
+        long interceptorAllocatedBytes = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startAllocatedBytesOfMethodBeforeInter = overhead.allocatedBytes(sampled);
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             interceptor.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), result);
@@ -83,6 +120,7 @@ public class StaticMethodsInterWithOverrideArgs {
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
         }
         interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -93,6 +131,7 @@ public class StaticMethodsInterWithOverrideArgs {
             }
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startAllocatedBytesOfMethodHandleExceptionInter = overhead.allocatedBytes(sampled);
             try {
                 interceptor.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t);
             } catch (Throwable t2) {
@@ -100,9 +139,11 @@ public class StaticMethodsInterWithOverrideArgs {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodHandleExceptionInter;
             throw t;
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
+            long startAllocatedBytesOfMethodAfterInter = overhead.allocatedBytes(sampled);
             try {
                 ret = interceptor.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret);
             } catch (Throwable t) {
@@ -110,9 +151,27 @@ public class StaticMethodsInterWithOverrideArgs {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodAfterInter;
         }
         AgentSo11y.durationOfInterceptor(interceptorTimeCost);
+        if (sampled) {
+            overhead.record(interceptorTimeCost, interceptorAllocatedBytes);
+        }
 
         return ret;
     }
+
+    private StaticMethodsAroundInterceptor getInterceptor(Class<?> clazz) throws Exception {
+        StaticMethodsAroundInterceptor interceptor = this.interceptor;
+        if (interceptor == null) {
+            AgentClassLoader pluginLoader = this.pluginLoader;
+            if (pluginLoader == null) {
+                pluginLoader = InterceptorInstanceLoader.getPluginLoader(clazz.getClassLoader());
+                this.pluginLoader = pluginLoader;
+            }
+            interceptor = InterceptorInstanceLoader.loadFrom(staticMethodsAroundInterceptorClassName, pluginLoader);
+            this.interceptor = interceptor;
+        }
+        return interceptor;
+    }
 }
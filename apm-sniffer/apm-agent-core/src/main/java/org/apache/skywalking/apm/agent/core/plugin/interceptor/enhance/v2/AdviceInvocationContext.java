@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2;
+
+/**
+ * The {@link MethodInvocationContext} of the advice enhanced methods, which is pooled per thread. The nested
+ * invocations take the contexts of their depths, and release them in the reverse order.
+ */
+public class AdviceInvocationContext extends MethodInvocationContext {
+    /**
+     * The contexts of the deeper invocations are not pooled.
+     */
+    private static final int MAX_POOLED_DEPTH = 16;
+
+    private static final ThreadLocal<Frames> FRAMES = ThreadLocal.withInitial(Frames::new);
+
+    private final Frames frames;
+    /**
+     * The pooled depth, or -1 if not pooled.
+     */
+    private final int depth;
+    private Object[] allArguments;
+    private long interceptorTimeCost;
+    private boolean intercepted;
+    private boolean sampled;
+    private long interceptorAllocatedBytes;
+
+    private AdviceInvocationContext(Frames frames, int depth) {
+        this.frames = frames;
+        this.depth = depth;
+    }
+
+    static AdviceInvocationContext acquire() {
+        Frames frames = FRAMES.get();
+        int depth = frames.depth;
+        if (depth >= MAX_POOLED_DEPTH) {
+            return new AdviceInvocationContext(frames, -1);
+        }
+        AdviceInvocationContext context = frames.contexts[depth];
+        if (context == null) {
+            context = new AdviceInvocationContext(frames, depth);
+            frames.contexts[depth] = context;
+        }
+        frames.depth = depth + 1;
+        return context;
+    }
+
+    static void release(AdviceInvocationContext context) {
+        context.reset();
+        if (context.depth >= 0) {
+            // Also drop the deeper contexts, if their releases have been missed.
+            context.frames.depth = context.depth;
+        }
+    }
+
+    /**
+     * @return the arguments passed to the interceptor, which may be changed by the override arguments interceptors.
+     */
+    public Object[] getAllArguments() {
+        return allArguments;
+    }
+
+    void setAllArguments(Object[] allArguments) {
+        this.allArguments = allArguments;
+    }
+
+    long getInterceptorTimeCost() {
+        return interceptorTimeCost;
+    }
+
+    void addInterceptorTimeCost(long timeCost) {
+        this.interceptorTimeCost += timeCost;
+    }
+
+    /**
+     * @return true if the before method of the interceptor has been called in this invocation.
+     */
+    boolean isIntercepted() {
+        return intercepted;
+    }
+
+    void setIntercepted(boolean intercepted) {
+        this.intercepted = intercepted;
+    }
+
+    /**
+     * @return true if the overhead of this invocation is accounted.
+     */
+    boolean isSampled() {
+        return sampled;
+    }
+
+    void setSampled(boolean sampled) {
+        this.sampled = sampled;
+    }
+
+    long getInterceptorAllocatedBytes() {
+        return interceptorAllocatedBytes;
+    }
+
+    void addInterceptorAllocatedBytes(long allocatedBytes) {
+        this.interceptorAllocatedBytes += allocatedBytes;
+    }
+
+    @Override
+    protected void reset() {
+        super.reset();
+        setContext(null);
+        allArguments = null;
+        interceptorTimeCost = 0L;
+        intercepted = false;
+        sampled = false;
+        interceptorAllocatedBytes = 0L;
+    }
+
+    private static class Frames {
+        private final AdviceInvocationContext[] contexts = new AdviceInvocationContext[MAX_POOLED_DEPTH];
+        private int depth;
+    }
+}
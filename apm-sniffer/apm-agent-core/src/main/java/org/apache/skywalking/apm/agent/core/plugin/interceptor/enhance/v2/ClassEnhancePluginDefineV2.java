@@ -35,9 +35,11 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.EnhanceException;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ConstructorInter;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateBinder;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.OverrideCallable;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.AdviceInstanceMethodsInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.ConstructorInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.DeclaredInstanceMethodsInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
@@ -46,6 +48,8 @@ import org.apache.skywalking.apm.util.StringUtil;
 
 import static net.bytebuddy.jar.asm.Opcodes.ACC_PRIVATE;
 import static net.bytebuddy.jar.asm.Opcodes.ACC_VOLATILE;
+import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
+import static net.bytebuddy.matcher.ElementMatchers.isNative;
 import static net.bytebuddy.matcher.ElementMatchers.isStatic;
 import static net.bytebuddy.matcher.ElementMatchers.not;
 
@@ -67,6 +71,7 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
             return newClassBuilder;
         }
         DelegateNamingResolver delegateNamingResolver = new DelegateNamingResolver(typeDescription.getTypeName(), this);
+        DelegateBinder delegateBinder = new DelegateBinder(typeDescription, getPluginName());
 
         for (StaticMethodsInterceptV2Point staticMethodsInterceptV2Point : staticMethodsInterceptV2Points) {
             String interceptor = staticMethodsInterceptV2Point.getMethodsInterceptorV2();
@@ -85,9 +90,10 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                 } else {
                     newClassBuilder = newClassBuilder.method(
                         isStatic().and(staticMethodsInterceptV2Point.getMethodsMatcher()))
-                                                     .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                .withBinders(Morph.Binder.install(OverrideCallable.class))
-                                                                                .to(new StaticMethodsInterV2WithOverrideArgs(getPluginName(), interceptor), delegateNamingResolver.resolve(staticMethodsInterceptV2Point)));
+                                                     .intercept(delegateBinder.bind(
+                                                         MethodDelegation.withDefaultConfiguration().withBinders(Morph.Binder.install(OverrideCallable.class)),
+                                                         new StaticMethodsInterV2WithOverrideArgs(getPluginName(), interceptor, enhanceOriginClassName),
+                                                         interceptor, delegateNamingResolver.resolve(staticMethodsInterceptV2Point)));
                 }
             } else {
                 if (isBootstrapInstrumentation()) {
@@ -98,14 +104,16 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                 } else {
                     newClassBuilder = newClassBuilder.method(
                         isStatic().and(staticMethodsInterceptV2Point.getMethodsMatcher()))
-                                                     .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                .to(new StaticMethodsInterV2(getPluginName(), interceptor), delegateNamingResolver.resolve(staticMethodsInterceptV2Point)));
+                                                     .intercept(delegateBinder.bind(
+                                                         MethodDelegation.withDefaultConfiguration(),
+                                                         new StaticMethodsInterV2(getPluginName(), interceptor, enhanceOriginClassName),
+                                                         interceptor, delegateNamingResolver.resolve(staticMethodsInterceptV2Point)));
                 }
             }
 
         }
 
-        return newClassBuilder;
+        return delegateBinder.install(newClassBuilder);
     }
 
     @Override
@@ -116,6 +124,7 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
         InstanceMethodsInterceptV2Point[] instanceMethodsInterceptV2Points = getInstanceMethodsInterceptV2Points();
         String enhanceOriginClassName = typeDescription.getTypeName();
         DelegateNamingResolver fieldNamingResolver = new DelegateNamingResolver(typeDescription.getTypeName(), this);
+        DelegateBinder delegateBinder = new DelegateBinder(typeDescription, getPluginName());
 
         boolean existedConstructorInterceptPoint = false;
         if (constructorInterceptPoints != null && constructorInterceptPoints.length > 0) {
@@ -150,9 +159,10 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                                                                                                                                                        .getConstructorInterceptor()))));
                 } else {
                     newClassBuilder = newClassBuilder.constructor(constructorInterceptPoint.getConstructorMatcher())
-                                                     .intercept(SuperMethodCall.INSTANCE.andThen(MethodDelegation.withDefaultConfiguration()
-                                                                                                                 .to(new ConstructorInter(getPluginName(), constructorInterceptPoint
-                                                                                                                                              .getConstructorInterceptor(), classLoader), fieldNamingResolver.resolve(constructorInterceptPoint))));
+                                                     .intercept(SuperMethodCall.INSTANCE.andThen(delegateBinder.bind(
+                                                         MethodDelegation.withDefaultConfiguration(),
+                                                         new ConstructorInter(getPluginName(), constructorInterceptPoint.getConstructorInterceptor(), enhanceOriginClassName, classLoader, isLazyInterceptorLoading()),
+                                                         constructorInterceptPoint.getConstructorInterceptor(), fieldNamingResolver.resolve(constructorInterceptPoint))));
                 }
             }
         }
@@ -169,6 +179,16 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                 if (instanceMethodsInterceptV2Point instanceof DeclaredInstanceMethodsInterceptV2Point) {
                     junction = junction.and(ElementMatchers.<MethodDescription>isDeclaredBy(typeDescription));
                 }
+                if (instanceMethodsInterceptV2Point instanceof AdviceInstanceMethodsInterceptV2Point
+                    && !isBootstrapInstrumentation() && !typeDescription.isInterface()) {
+                    newClassBuilder = InstMethodsAdviceInstaller.install(
+                        newClassBuilder, typeDescription,
+                        typeDescription.getDeclaredMethods().filter(junction.and(not(isAbstract())).and(not(isNative()))),
+                        getPluginName(), interceptor, fieldNamingResolver.resolve(instanceMethodsInterceptV2Point),
+                        instanceMethodsInterceptV2Point.isOverrideArgs(), isLazyInterceptorLoading()
+                    );
+                    continue;
+                }
                 if (instanceMethodsInterceptV2Point.isOverrideArgs()) {
                     if (isBootstrapInstrumentation()) {
                         newClassBuilder = newClassBuilder.method(junction)
@@ -177,9 +197,10 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                     } else {
                         newClassBuilder = newClassBuilder.method(junction)
-                                                         .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                    .withBinders(Morph.Binder.install(OverrideCallable.class))
-                                                                                    .to(new InstMethodsInterV2WithOverrideArgs(getPluginName(), interceptor, classLoader), fieldNamingResolver.resolve(instanceMethodsInterceptV2Point)));
+                                                         .intercept(delegateBinder.bind(
+                                                             MethodDelegation.withDefaultConfiguration().withBinders(Morph.Binder.install(OverrideCallable.class)),
+                                                             new InstMethodsInterV2WithOverrideArgs(getPluginName(), interceptor, enhanceOriginClassName, classLoader, isLazyInterceptorLoading()),
+                                                             interceptor, fieldNamingResolver.resolve(instanceMethodsInterceptV2Point)));
                     }
                 } else {
                     if (isBootstrapInstrumentation()) {
@@ -188,14 +209,16 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                     } else {
                         newClassBuilder = newClassBuilder.method(junction)
-                                                         .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                    .to(new InstMethodsInterV2(getPluginName(), interceptor, classLoader), fieldNamingResolver.resolve(instanceMethodsInterceptV2Point)));
+                                                         .intercept(delegateBinder.bind(
+                                                             MethodDelegation.withDefaultConfiguration(),
+                                                             new InstMethodsInterV2(getPluginName(), interceptor, enhanceOriginClassName, classLoader, isLazyInterceptorLoading()),
+                                                             interceptor, fieldNamingResolver.resolve(instanceMethodsInterceptV2Point)));
                     }
                 }
             }
         }
 
-        return newClassBuilder;
+        return delegateBinder.install(newClassBuilder);
     }
 
     @Override
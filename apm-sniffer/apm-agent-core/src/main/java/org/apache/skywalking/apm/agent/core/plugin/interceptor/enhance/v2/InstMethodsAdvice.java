@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.AdviceInstanceMethodsInterceptV2Point;
+
+/**
+ * The advice inlined into the methods of {@link AdviceInstanceMethodsInterceptV2Point}, which calls the {@link
+ * InstMethodsAdviceDispatcher} of the method directly, without the callable, the method instance and the result of the
+ * method delegation.
+ */
+public class InstMethodsAdvice {
+
+    @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class, suppress = Throwable.class)
+    public static boolean enter(@Advice.This Object obj,
+                                @Advice.AllArguments Object[] allArguments,
+                                @Dispatcher InstMethodsAdviceDispatcher dispatcher,
+                                @Advice.Local("swContext") AdviceInvocationContext context) {
+        context = dispatcher.beforeMethod(obj, allArguments);
+        return !context.isContinue();
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    public static void exit(@Advice.This Object obj,
+                            @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object ret,
+                            @Advice.Thrown Throwable throwable,
+                            @Dispatcher InstMethodsAdviceDispatcher dispatcher,
+                            @Advice.Local("swContext") AdviceInvocationContext context) {
+        ret = dispatcher.afterMethod(obj, ret, throwable, context);
+    }
+
+    /**
+     * The advice of the intercept points which override the arguments, the arguments changed by the interceptor are
+     * written back before the original method.
+     */
+    public static class WithOverrideArgs {
+
+        @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class, suppress = Throwable.class)
+        public static boolean enter(@Advice.This Object obj,
+                                    @Advice.AllArguments(readOnly = false, typing = Assigner.Typing.DYNAMIC)
+                                        Object[] allArguments,
+                                    @Dispatcher InstMethodsAdviceDispatcher dispatcher,
+                                    @Advice.Local("swContext") AdviceInvocationContext context) {
+            context = dispatcher.beforeMethod(obj, allArguments);
+            allArguments = context.getAllArguments();
+            return !context.isContinue();
+        }
+
+        @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+        public static void exit(@Advice.This Object obj,
+                                @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object ret,
+                                @Advice.Thrown Throwable throwable,
+                                @Dispatcher InstMethodsAdviceDispatcher dispatcher,
+                                @Advice.Local("swContext") AdviceInvocationContext context) {
+            ret = dispatcher.afterMethod(obj, ret, throwable, context);
+        }
+    }
+
+    /**
+     * Bound to the static dispatcher field of the enhanced method.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface Dispatcher {
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2;
+
+import java.lang.reflect.Method;
+import net.bytebuddy.jar.asm.Type;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptorReference;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.AdviceInstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorOverhead;
+
+/**
+ * The bridge between the inlined {@link InstMethodsAdvice} and the interceptor of an {@link
+ * AdviceInstanceMethodsInterceptV2Point}. Every enhanced method holds its own dispatcher in a static field, which is
+ * created in the type initializer, so the intercepted method and its parameter types are resolved only once.
+ */
+public class InstMethodsAdviceDispatcher {
+    private static final ILog LOGGER = LogManager.getLogger(InstMethodsAdviceDispatcher.class);
+
+    private static final String INTERCEPTOR_TYPE = "inst";
+
+    private final String pluginName;
+    /**
+     * The reference of the interceptor, or null if the dispatcher can't be created.
+     */
+    private final InterceptorReference<InstanceMethodsAroundInterceptorV2> interceptor;
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+    /**
+     * The overhead of the interceptor, accounted in the sampled invocations.
+     */
+    private final InterceptorOverhead overhead;
+    /**
+     * The interceptor is skipped while the plugin is deactivated at runtime.
+     */
+    private final PluginSwitch pluginSwitch;
+
+    InstMethodsAdviceDispatcher(String pluginName, InterceptorReference<InstanceMethodsAroundInterceptorV2> interceptor,
+                                Method method, InterceptorOverhead overhead) {
+        this.pluginName = pluginName;
+        this.interceptor = interceptor;
+        this.overhead = overhead;
+        this.pluginSwitch = PluginSwitch.of(pluginName);
+        this.method = method;
+        this.parameterTypes = method == null ? null : method.getParameterTypes();
+    }
+
+    /**
+     * Create the dispatcher of the given method, called by the type initializer of the enhanced class. The failure is
+     * logged rather than thrown, then the method runs without the interceptor.
+     *
+     * @param declaringClass the enhanced class
+     * @param methodName     the name of the enhanced method
+     * @param descriptor     the descriptor of the enhanced method
+     * @param lazy           true to load the interceptor at the first invocation
+     */
+    public static InstMethodsAdviceDispatcher of(String pluginName, String interceptorClassName,
+                                                 Class<?> declaringClass, String methodName, String descriptor,
+                                                 boolean lazy) {
+        InterceptorOverhead overhead = AgentSo11y.overheadOf(pluginName, interceptorClassName, declaringClass.getName());
+        try {
+            Method method = findMethod(declaringClass, methodName, descriptor);
+            InterceptorReference<InstanceMethodsAroundInterceptorV2> interceptor = new InterceptorReference<>(
+                pluginName, interceptorClassName, declaringClass.getClassLoader(), INTERCEPTOR_TYPE);
+            if (!lazy) {
+                interceptor.load();
+            }
+            return new InstMethodsAdviceDispatcher(pluginName, interceptor, method, overhead);
+        } catch (Throwable t) {
+            LOGGER.error(
+                t, "Can't create InstanceMethodsAroundInterceptorV2 {} for class[{}] method[{}].",
+                interceptorClassName, declaringClass, methodName
+            );
+            AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+            return new InstMethodsAdviceDispatcher(pluginName, null, null, overhead);
+        }
+    }
+
+    private static Method findMethod(Class<?> declaringClass, String methodName,
+                                     String descriptor) throws NoSuchMethodException {
+        for (Method method : declaringClass.getDeclaredMethods()) {
+            if (method.getName().equals(methodName) && Type.getMethodDescriptor(method).equals(descriptor)) {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(declaringClass.getName() + "." + methodName + descriptor);
+    }
+
+    /**
+     * Called before the original method.
+     *
+     * @return the context of this invocation, the original method is skipped if it is not {@link
+     * MethodInvocationContext#isContinue()}.
+     */
+    public AdviceInvocationContext beforeMethod(Object obj, Object[] allArguments) {
+        AdviceInvocationContext context = AdviceInvocationContext.acquire();
+        context.setAllArguments(allArguments);
+        if (!pluginSwitch.isActive()) {
+            return context;
+        }
+        InstanceMethodsAroundInterceptorV2 interceptor = getInterceptor();
+        if (interceptor == null) {
+            return context;
+        }
+        context.setIntercepted(true);
+        boolean sampled = overhead.sample();
+        context.setSampled(sampled);
+        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startAllocatedBytesOfMethodBeforeInter = overhead.allocatedBytes(sampled);
+        try {
+            interceptor.beforeMethod((EnhancedInstance) obj, method, allArguments, parameterTypes, context);
+        } catch (Throwable t) {
+            LOGGER.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), method.getName());
+            AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+        }
+        context.addInterceptorTimeCost(System.nanoTime() - startTimeOfMethodBeforeInter);
+        context.addInterceptorAllocatedBytes(
+            overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodBeforeInter);
+        return context;
+    }
+
+    /**
+     * Called after the original method returns, throws, or is skipped, and releases the context.
+     *
+     * @param ret       the return value of the original method
+     * @param throwable the exception thrown by the original method, or null
+     * @param context   the context returned by {@link #beforeMethod(Object, Object[])}
+     * @return the new return value, which is ignored if the original method throws.
+     */
+    public Object afterMethod(Object obj, Object ret, Throwable throwable, AdviceInvocationContext context) {
+        if (context == null) {
+            // The type initializer has not set the dispatcher yet.
+            return ret;
+        }
+        try {
+            if (!context.isIntercepted()) {
+                // Skipped by the before method, as the plugin is deactivated or the interceptor is not available.
+                return ret;
+            }
+            InstanceMethodsAroundInterceptorV2 interceptor = getInterceptor();
+            EnhancedInstance targetObject = (EnhancedInstance) obj;
+            Object[] allArguments = context.getAllArguments();
+            if (!context.isContinue()) {
+                ret = context._ret();
+            }
+            boolean sampled = context.isSampled();
+            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startAllocatedBytesOfMethodAfterInter = overhead.allocatedBytes(sampled);
+            if (throwable != null) {
+                ret = null;
+                try {
+                    interceptor.handleMethodException(
+                        targetObject, method, allArguments, parameterTypes, throwable, context);
+                } catch (Throwable t) {
+                    LOGGER.error(t, "class[{}] handle method[{}] exception failure", obj.getClass(), method.getName());
+                    AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+                }
+            }
+            try {
+                ret = interceptor.afterMethod(targetObject, method, allArguments, parameterTypes, ret, context);
+            } catch (Throwable t) {
+                LOGGER.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), method.getName());
+                AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+            }
+            context.addInterceptorTimeCost(System.nanoTime() - startTimeOfMethodAfterInter);
+            context.addInterceptorAllocatedBytes(
+                overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodAfterInter);
+            AgentSo11y.durationOfInterceptor(context.getInterceptorTimeCost());
+            if (sampled) {
+                overhead.record(context.getInterceptorTimeCost(), context.getInterceptorAllocatedBytes());
+            }
+            return ret;
+        } finally {
+            AdviceInvocationContext.release(context);
+        }
+    }
+
+    private InstanceMethodsAroundInterceptorV2 getInterceptor() {
+        return interceptor == null ? null : interceptor.get();
+    }
+}
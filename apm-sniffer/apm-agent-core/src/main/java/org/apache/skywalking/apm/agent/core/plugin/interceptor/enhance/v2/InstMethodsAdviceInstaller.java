@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.constant.ClassConstant;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.implementation.bytecode.constant.TextConstant;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import net.bytebuddy.utility.RandomString;
+
+import static net.bytebuddy.jar.asm.Opcodes.ACC_FINAL;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_PRIVATE;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_STATIC;
+import static net.bytebuddy.matcher.ElementMatchers.hasDescriptor;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * Enhance the methods by {@link InstMethodsAdvice}. Every method gets a static {@link InstMethodsAdviceDispatcher}
+ * field, initialized in the type initializer from the constants of the plugin name, interceptor and method signature,
+ * so the enhanced class has no live initializer of the delegate instances.
+ */
+public class InstMethodsAdviceInstaller {
+    private static final int DISPATCHER_MODIFIERS = ACC_PRIVATE | ACC_STATIC | ACC_FINAL;
+
+    private static final TypeDescription DISPATCHER_TYPE = TypeDescription.ForLoadedType.of(
+        InstMethodsAdviceDispatcher.class);
+
+    private static final MethodDescription.InDefinedShape DISPATCHER_FACTORY = DISPATCHER_TYPE.getDeclaredMethods()
+                                                                                              .filter(named("of"))
+                                                                                              .getOnly();
+
+    private static final TypeDescription ADVICE = TypeDescription.ForLoadedType.of(InstMethodsAdvice.class);
+
+    private static final TypeDescription ADVICE_WITH_OVERRIDE_ARGS = TypeDescription.ForLoadedType.of(
+        InstMethodsAdvice.WithOverrideArgs.class);
+
+    /**
+     * The class files of the advices, read only once rather than for every enhanced method.
+     */
+    private static final ClassFileLocator ADVICE_LOCATOR;
+
+    static {
+        Map<String, byte[]> classFiles = new HashMap<>();
+        classFiles.put(ADVICE.getName(), ClassFileLocator.ForClassLoader.read(InstMethodsAdvice.class));
+        classFiles.put(
+            ADVICE_WITH_OVERRIDE_ARGS.getName(),
+            ClassFileLocator.ForClassLoader.read(InstMethodsAdvice.WithOverrideArgs.class)
+        );
+        ADVICE_LOCATOR = ClassFileLocator.Simple.of(classFiles);
+    }
+
+    /**
+     * @param instrumentedType the type to enhance
+     * @param methods          the methods declared by the instrumented type to enhance
+     * @param fieldNamePrefix  the prefix of the dispatcher field names
+     * @param overrideArgs     true if the interceptor overrides the arguments
+     * @param lazy             true to load the interceptor at the first invocation
+     */
+    public static DynamicType.Builder<?> install(DynamicType.Builder<?> builder,
+                                                 TypeDescription instrumentedType,
+                                                 Iterable<? extends MethodDescription> methods,
+                                                 String pluginName,
+                                                 String interceptor,
+                                                 String fieldNamePrefix,
+                                                 boolean overrideArgs,
+                                                 boolean lazy) {
+        TypeDescription advice = overrideArgs ? ADVICE_WITH_OVERRIDE_ARGS : ADVICE;
+        for (MethodDescription method : methods) {
+            String methodName = method.getInternalName();
+            String descriptor = method.getDescriptor();
+            String fieldName = fieldNamePrefix + "$" + RandomString.hashOf((methodName + descriptor).hashCode());
+            FieldDescription field = new FieldDescription.Latent(
+                instrumentedType, fieldName, DISPATCHER_MODIFIERS, DISPATCHER_TYPE.asGenericType(),
+                Collections.emptyList()
+            );
+            builder = builder.defineField(fieldName, DISPATCHER_TYPE, DISPATCHER_MODIFIERS)
+                             .initializer(new ByteCodeAppender.Simple(
+                                 new TextConstant(pluginName),
+                                 new TextConstant(interceptor),
+                                 ClassConstant.of(instrumentedType),
+                                 new TextConstant(methodName),
+                                 new TextConstant(descriptor),
+                                 IntegerConstant.forValue(lazy),
+                                 MethodInvocation.invoke(DISPATCHER_FACTORY),
+                                 FieldAccess.forField(field).write()
+                             ))
+                             .visit(Advice.withCustomMapping()
+                                          .bind(InstMethodsAdvice.Dispatcher.class, field)
+                                          .to(advice, ADVICE_LOCATOR)
+                                          .on(named(methodName).and(hasDescriptor(descriptor))));
+        }
+        return builder;
+    }
+}
@@ -27,9 +27,11 @@ import net.bytebuddy.implementation.bind.annotation.This;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
-import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptorReference;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorOverhead;
 
 /**
  * The actual byte-buddy's interceptor to intercept class instance methods. In this class, it provides a bridge between
@@ -41,12 +43,36 @@ public class InstMethodsInterV2 {
     private static final String INTERCEPTOR_TYPE = "inst";
 
     private String pluginName;
-    private InstanceMethodsAroundInterceptorV2 interceptor;
+    /**
+     * The overhead of the interceptor, accounted in the sampled invocations.
+     */
+    private InterceptorOverhead overhead;
+    /**
+     * The interceptor is skipped while the plugin is deactivated at runtime.
+     */
+    private PluginSwitch pluginSwitch;
+    private InterceptorReference<InstanceMethodsAroundInterceptorV2> interceptor;
 
     public InstMethodsInterV2(String pluginName, String instanceMethodsAroundInterceptorClassName, ClassLoader classLoader) {
+        this(pluginName, instanceMethodsAroundInterceptorClassName, "", classLoader, false);
+    }
+
+    /**
+     * @param instanceMethodsAroundInterceptorClassName class full name.
+     * @param interceptPoint                             the name of the enhanced class, which the overhead is accounted for.
+     * @param lazy                                       true to load the interceptor at the first invocation.
+     */
+    public InstMethodsInterV2(String pluginName, String instanceMethodsAroundInterceptorClassName, String interceptPoint,
+        ClassLoader classLoader, boolean lazy) {
         this.pluginName = pluginName;
+        this.pluginSwitch = PluginSwitch.of(pluginName);
+        this.overhead = AgentSo11y.overheadOf(pluginName, instanceMethodsAroundInterceptorClassName, interceptPoint);
+        this.interceptor = new InterceptorReference<>(pluginName, instanceMethodsAroundInterceptorClassName, classLoader, INTERCEPTOR_TYPE);
+        if (lazy) {
+            return;
+        }
         try {
-            interceptor = InterceptorInstanceLoader.load(instanceMethodsAroundInterceptorClassName, classLoader);
+            interceptor.load();
         } catch (Throwable t) {
             throw new PluginException("Can't create InstanceMethodsAroundInterceptor.", t);
         }
@@ -55,10 +81,20 @@ public class InstMethodsInterV2 {
     @RuntimeType
     public Object intercept(@This Object obj, @AllArguments Object[] allArguments, @SuperCall Callable<?> zuper,
                             @Origin Method method) throws Throwable {
+        if (!pluginSwitch.isActive()) {
+            return zuper.call();
+        }
+        InstanceMethodsAroundInterceptorV2 interceptor = this.interceptor.get();
+        if (interceptor == null) {
+            return zuper.call();
+        }
         EnhancedInstance targetObject = (EnhancedInstance) obj;
 
+        boolean sampled = overhead.sample();
         long interceptorTimeCost = 0L;
+        long interceptorAllocatedBytes = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startAllocatedBytesOfMethodBeforeInter = overhead.allocatedBytes(sampled);
         MethodInvocationContext context = new MethodInvocationContext();
         try {
             interceptor.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), context);
@@ -67,6 +103,7 @@ public class InstMethodsInterV2 {
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
         }
         interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -77,6 +114,7 @@ public class InstMethodsInterV2 {
             }
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startAllocatedBytesOfMethodHandleExceptionInter = overhead.allocatedBytes(sampled);
             try {
                 interceptor.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t, context);
             } catch (Throwable t2) {
@@ -84,9 +122,11 @@ public class InstMethodsInterV2 {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodHandleExceptionInter;
             throw t;
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
+            long startAllocatedBytesOfMethodAfterInter = overhead.allocatedBytes(sampled);
             try {
                 ret = interceptor.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret, context);
             } catch (Throwable t) {
@@ -94,8 +134,12 @@ public class InstMethodsInterV2 {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodAfterInter;
         }
         AgentSo11y.durationOfInterceptor(interceptorTimeCost);
+        if (sampled) {
+            overhead.record(interceptorTimeCost, interceptorAllocatedBytes);
+        }
 
         return ret;
     }
@@ -25,9 +25,12 @@ import net.bytebuddy.implementation.bind.annotation.Origin;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.OverrideCallable;
+import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorOverhead;
 
 /**
  * The actual byte-buddy's interceptor to intercept class instance methods. In this class, it provides a bridge between
@@ -39,12 +42,28 @@ public class StaticMethodsInterV2WithOverrideArgs {
     private static final String INTERCEPTOR_TYPE = "static";
 
     private String pluginName;
+    /**
+     * The overhead of the interceptor, accounted in the sampled invocations.
+     */
+    private InterceptorOverhead overhead;
+    /**
+     * The interceptor is skipped while the plugin is deactivated at runtime.
+     */
+    private PluginSwitch pluginSwitch;
     /**
      * A class full name, and instanceof {@link StaticMethodsAroundInterceptorV2} This name should only stay in {@link
      * String}, the real {@link Class} type will trigger classloader failure. If you want to know more, please check on
      * books about Classloader or Classloader appointment mechanism.
      */
     private String staticMethodsAroundInterceptorClassName;
+    /**
+     * The interceptor loaded at the first invocation, held to keep it alive along with the enhanced class.
+     */
+    private volatile StaticMethodsAroundInterceptorV2 interceptor;
+    /**
+     * The class loader of the interceptor, held to keep it alive along with the enhanced class.
+     */
+    private volatile AgentClassLoader pluginLoader;
 
     /**
      * Set the name of {@link StaticMethodsInterV2WithOverrideArgs#staticMethodsAroundInterceptorClassName}
@@ -52,7 +71,19 @@ public class StaticMethodsInterV2WithOverrideArgs {
      * @param staticMethodsAroundInterceptorClassName class full name.
      */
     public StaticMethodsInterV2WithOverrideArgs(String pluginName, String staticMethodsAroundInterceptorClassName) {
+        this(pluginName, staticMethodsAroundInterceptorClassName, "");
+    }
+
+    /**
+     * Set the name of {@link StaticMethodsInterV2WithOverrideArgs#staticMethodsAroundInterceptorClassName}
+     *
+     * @param staticMethodsAroundInterceptorClassName class full name.
+     * @param interceptPoint                          the name of the enhanced class, which the overhead is accounted for.
+     */
+    public StaticMethodsInterV2WithOverrideArgs(String pluginName, String staticMethodsAroundInterceptorClassName, String interceptPoint) {
         this.pluginName = pluginName;
+        this.pluginSwitch = PluginSwitch.of(pluginName);
+        this.overhead = AgentSo11y.overheadOf(pluginName, staticMethodsAroundInterceptorClassName, interceptPoint);
         this.staticMethodsAroundInterceptorClassName = staticMethodsAroundInterceptorClassName;
     }
 
@@ -70,11 +101,16 @@ public class StaticMethodsInterV2WithOverrideArgs {
     @RuntimeType
     public Object intercept(@Origin Class<?> clazz, @AllArguments Object[] allArguments, @Origin Method method,
         @Morph OverrideCallable zuper) throws Throwable {
-        StaticMethodsAroundInterceptorV2 interceptor = InterceptorInstanceLoader.load(staticMethodsAroundInterceptorClassName,
-                                                                                      clazz.getClassLoader());
+        if (!pluginSwitch.isActive()) {
+            return zuper.call(allArguments);
+        }
+        StaticMethodsAroundInterceptorV2 interceptor = getInterceptor(clazz);
 
+        boolean sampled = overhead.sample();
         long interceptorTimeCost = 0L;
+        long interceptorAllocatedBytes = 0L;
         long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startAllocatedBytesOfMethodBeforeInter = overhead.allocatedBytes(sampled);
         MethodInvocationContext context = new MethodInvocationContext();
         try {
             interceptor.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), context);
@@ -83,6 +119,7 @@ public class StaticMethodsInterV2WithOverrideArgs {
             AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
         }
         interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -93,6 +130,7 @@ public class StaticMethodsInterV2WithOverrideArgs {
             }
         } catch (Throwable t) {
             long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startAllocatedBytesOfMethodHandleExceptionInter = overhead.allocatedBytes(sampled);
             try {
                 interceptor.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t, context);
             } catch (Throwable t2) {
@@ -100,9 +138,11 @@ public class StaticMethodsInterV2WithOverrideArgs {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodHandleExceptionInter;
             throw t;
         } finally {
             long startTimeOfMethodAfterInter = System.nanoTime();
+            long startAllocatedBytesOfMethodAfterInter = overhead.allocatedBytes(sampled);
             try {
                 ret = interceptor.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret, context);
             } catch (Throwable t) {
@@ -110,9 +150,27 @@ public class StaticMethodsInterV2WithOverrideArgs {
                 AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
             }
             interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorAllocatedBytes += overhead.allocatedBytes(sampled) - startAllocatedBytesOfMethodAfterInter;
         }
         AgentSo11y.durationOfInterceptor(interceptorTimeCost);
+        if (sampled) {
+            overhead.record(interceptorTimeCost, interceptorAllocatedBytes);
+        }
 
         return ret;
     }
+
+    private StaticMethodsAroundInterceptorV2 getInterceptor(Class<?> clazz) throws Exception {
+        StaticMethodsAroundInterceptorV2 interceptor = this.interceptor;
+        if (interceptor == null) {
+            AgentClassLoader pluginLoader = this.pluginLoader;
+            if (pluginLoader == null) {
+                pluginLoader = InterceptorInstanceLoader.getPluginLoader(clazz.getClassLoader());
+                this.pluginLoader = pluginLoader;
+            }
+            interceptor = InterceptorInstanceLoader.loadFrom(staticMethodsAroundInterceptorClassName, pluginLoader);
+            this.interceptor = interceptor;
+        }
+        return interceptor;
+    }
 }
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.v2;
+
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext;
+
+/**
+ * The intercept point whose declared methods are enhanced by the inlined advice, rather than the method delegation. The
+ * interceptor is called without the callable and the method instance of every invocation, the {@link
+ * java.lang.reflect.Method} and its parameter types are resolved once per method.
+ * <p>
+ * The {@link MethodInvocationContext} is reused by the later invocations in the same thread, so the interceptor should
+ * not hold it after {@link InstanceMethodsAroundInterceptorV2#afterMethod}, only the object set by {@link
+ * MethodInvocationContext#setContext(Object)} could be propagated to others.
+ * <p>
+ * The classes loaded by the bootstrap class loader and the interfaces are still enhanced through the method delegation.
+ */
+public interface AdviceInstanceMethodsInterceptV2Point extends DeclaredInstanceMethodsInterceptV2Point {
+}
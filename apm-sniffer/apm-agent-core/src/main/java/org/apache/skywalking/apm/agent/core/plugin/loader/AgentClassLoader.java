@@ -18,16 +18,22 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.loader;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -59,9 +65,14 @@ public class AgentClassLoader extends ClassLoader {
      */
     private static AgentClassLoader DEFAULT_LOADER;
 
-    private List<File> classpath;
-    private List<Jar> allJars;
+    private final List<File> classpath;
+    private volatile Map<String, List<Jar>> entryIndex;
     private ReentrantLock jarScanLock = new ReentrantLock();
+    /**
+     * The interceptor instances loaded by {@link InterceptorInstanceLoader} from this class loader, keyed by their
+     * class names. They are kept alive along with this class loader by the enhanced classes.
+     */
+    private final ConcurrentHashMap<String, Object> interceptorInstances = new ConcurrentHashMap<>();
 
     public static AgentClassLoader getDefault() {
         return DEFAULT_LOADER;
@@ -83,31 +94,38 @@ public class AgentClassLoader extends ClassLoader {
     }
 
     public AgentClassLoader(ClassLoader parent) throws AgentPackageNotFoundException {
+        this(parent, mountFolders());
+    }
+
+    AgentClassLoader(ClassLoader parent, List<File> classpath) {
         super(parent);
+        this.classpath = classpath;
+    }
+
+    private static List<File> mountFolders() throws AgentPackageNotFoundException {
         File agentDictionary = AgentPackagePath.getPath();
-        classpath = new LinkedList<>();
+        List<File> classpath = new LinkedList<>();
         Config.Plugin.MOUNT.forEach(mountFolder -> classpath.add(new File(agentDictionary, mountFolder)));
+        return classpath;
+    }
+
+    ConcurrentHashMap<String, Object> getInterceptorInstances() {
+        return interceptorInstances;
     }
 
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        List<Jar> allJars = getAllJars();
         String path = name.replace('.', '/').concat(".class");
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(path);
-            if (entry == null) {
-                continue;
-            }
+        for (Jar jar : findJars(path)) {
             try {
-                URL classFileUrl = new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + path);
+                JarFile jarFile = jar.getJarFile();
+                JarEntry entry = jarFile.getJarEntry(path);
+                if (entry == null) {
+                    continue;
+                }
                 byte[] data;
-                try (final BufferedInputStream is = new BufferedInputStream(
-                    classFileUrl.openStream()); final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                    int ch;
-                    while ((ch = is.read()) != -1) {
-                        baos.write(ch);
-                    }
-                    data = baos.toByteArray();
+                try (InputStream is = jarFile.getInputStream(entry)) {
+                    data = readFully(is, entry.getSize());
                 }
                 return processLoadedClass(defineClass(name, data, 0, data.length));
             } catch (IOException e) {
@@ -119,14 +137,10 @@ public class AgentClassLoader extends ClassLoader {
 
     @Override
     protected URL findResource(String name) {
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                try {
-                    return new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name);
-                } catch (MalformedURLException ignored) {
-                }
+        for (Jar jar : findJars(name)) {
+            try {
+                return jar.getEntryURL(name);
+            } catch (MalformedURLException ignored) {
             }
         }
         return null;
@@ -135,12 +149,8 @@ public class AgentClassLoader extends ClassLoader {
     @Override
     protected Enumeration<URL> findResources(String name) throws IOException {
         List<URL> allResources = new LinkedList<>();
-        List<Jar> allJars = getAllJars();
-        for (Jar jar : allJars) {
-            JarEntry entry = jar.jarFile.getJarEntry(name);
-            if (entry != null) {
-                allResources.add(new URL("jar:file:" + jar.sourceFile.getAbsolutePath() + "!/" + name));
-            }
+        for (Jar jar : findJars(name)) {
+            allResources.add(jar.getEntryURL(name));
         }
 
         final Iterator<URL> iterator = allResources.iterator();
@@ -169,31 +179,105 @@ public class AgentClassLoader extends ClassLoader {
         return loadedClass;
     }
 
-    private List<Jar> getAllJars() {
-        if (allJars == null) {
+    /**
+     * @return the jars containing the entry, in the classpath order.
+     */
+    private List<Jar> findJars(String entryName) {
+        Map<String, List<Jar>> index = getEntryIndex();
+        List<Jar> jars = index.get(entryName);
+        if (jars == null) {
+            return Collections.emptyList();
+        }
+        for (Jar jar : jars) {
+            if (jar.precomputed && !jar.hasEntry(entryName)) {
+                LOGGER.warn(
+                    "{} is not found in {}, scan the jars instead of reading {}.", entryName, jar.sourceFile,
+                    JarIndex.INDEX_FILE_NAME
+                );
+                jars = rescanJars(index).get(entryName);
+                return jars == null ? Collections.emptyList() : jars;
+            }
+        }
+        return jars;
+    }
+
+    private Map<String, List<Jar>> getEntryIndex() {
+        if (entryIndex == null) {
             jarScanLock.lock();
             try {
-                if (allJars == null) {
-                    allJars = doGetJars();
+                if (entryIndex == null) {
+                    entryIndex = doIndexJars(true, Collections.emptyMap());
                 }
             } finally {
                 jarScanLock.unlock();
             }
         }
 
-        return allJars;
+        return entryIndex;
+    }
+
+    /**
+     * Replace the index having the precomputed entries by scanning all jars, as an indexed entry is missing in its jar.
+     *
+     * @return the index after scanning.
+     */
+    private Map<String, List<Jar>> rescanJars(Map<String, List<Jar>> staleIndex) {
+        jarScanLock.lock();
+        try {
+            if (entryIndex == staleIndex) {
+                // The opened jars are reused, as their classes may be being read.
+                Map<File, JarFile> openedJarFiles = new HashMap<>();
+                for (List<Jar> jars : staleIndex.values()) {
+                    for (Jar jar : jars) {
+                        if (jar.jarFile != null) {
+                            openedJarFiles.put(jar.sourceFile, jar.jarFile);
+                        }
+                    }
+                }
+                entryIndex = doIndexJars(false, openedJarFiles);
+            }
+            return entryIndex;
+        } finally {
+            jarScanLock.unlock();
+        }
     }
 
-    private LinkedList<Jar> doGetJars() {
-        LinkedList<Jar> jars = new LinkedList<>();
+    /**
+     * Index the entries of the jars in the classpath. The precomputed {@link JarIndex} of the folder is preferred if
+     * allowed, and the jars of it are opened when their entries are read at the first time.
+     *
+     * @param precomputed    true to read the precomputed index of the folders.
+     * @param openedJarFiles the jars opened already, which are scanned instead of opening them again.
+     */
+    private Map<String, List<Jar>> doIndexJars(boolean precomputed, Map<File, JarFile> openedJarFiles) {
+        Map<String, List<Jar>> index = new HashMap<>();
         for (File path : classpath) {
             if (path.exists() && path.isDirectory()) {
-                String[] jarFileNames = path.list((dir, name) -> name.endsWith(".jar"));
+                JarIndex jarIndex = null;
+                if (precomputed) {
+                    try {
+                        jarIndex = JarIndex.read(path);
+                    } catch (IOException e) {
+                        LOGGER.warn(
+                            e, "{} can't be read, scan the jars instead.", new File(path, JarIndex.INDEX_FILE_NAME));
+                    }
+                }
+                if (jarIndex != null) {
+                    for (String fileName : jarIndex.getJarFileNames()) {
+                        File file = new File(path, fileName);
+                        addToIndex(index, new Jar(file, true), jarIndex.getEntryNames(fileName));
+                        LOGGER.info("{} loaded.", file.toString());
+                    }
+                    continue;
+                }
+                String[] jarFileNames = JarIndex.listJarFileNames(path);
                 for (String fileName : jarFileNames) {
                     try {
                         File file = new File(path, fileName);
-                        Jar jar = new Jar(new JarFile(file), file);
-                        jars.add(jar);
+                        Jar jar = new Jar(file, false);
+                        JarFile openedJarFile = openedJarFiles.get(file);
+                        jar.jarFile = openedJarFile == null ? new JarFile(file) : openedJarFile;
+                        addToIndex(index, jar, JarIndex.entryNames(jar.jarFile));
                         LOGGER.info("{} loaded.", file.toString());
                     } catch (IOException e) {
                         LOGGER.error(e, "{} jar file can't be resolved", fileName);
@@ -201,12 +285,67 @@ public class AgentClassLoader extends ClassLoader {
                 }
             }
         }
-        return jars;
+        return index;
+    }
+
+    private static void addToIndex(Map<String, List<Jar>> index, Jar jar, List<String> entryNames) {
+        for (String entryName : entryNames) {
+            index.computeIfAbsent(entryName, name -> new ArrayList<>(1)).add(jar);
+        }
+    }
+
+    private static byte[] readFully(InputStream is, long size) throws IOException {
+        if (size >= 0) {
+            byte[] data = new byte[(int) size];
+            int offset = 0;
+            while (offset < data.length) {
+                int len = is.read(data, offset, data.length - offset);
+                if (len < 0) {
+                    throw new EOFException("Unexpected end of the entry, " + offset + " of " + size + " bytes read.");
+                }
+                offset += len;
+            }
+            return data;
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int len;
+        while ((len = is.read(buffer)) != -1) {
+            baos.write(buffer, 0, len);
+        }
+        return baos.toByteArray();
     }
 
     @RequiredArgsConstructor
     private static class Jar {
-        private final JarFile jarFile;
         private final File sourceFile;
+        /**
+         * True if the entries are read from the precomputed {@link JarIndex}, which are checked when they are found.
+         */
+        private final boolean precomputed;
+        private volatile JarFile jarFile;
+
+        private JarFile getJarFile() throws IOException {
+            if (jarFile == null) {
+                synchronized (this) {
+                    if (jarFile == null) {
+                        jarFile = new JarFile(sourceFile);
+                    }
+                }
+            }
+            return jarFile;
+        }
+
+        private boolean hasEntry(String name) {
+            try {
+                return getJarFile().getEntry(name) != null;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private URL getEntryURL(String name) throws MalformedURLException {
+            return new URL("jar:file:" + sourceFile.getAbsolutePath() + "!/" + name);
+        }
     }
-}
\ No newline at end of file
+}
@@ -18,12 +18,11 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.loader;
 
-import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
-
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
 
 /**
  * The <code>InterceptorInstanceLoader</code> is a classes finder and container.
@@ -31,12 +30,16 @@ import java.util.concurrent.locks.ReentrantLock;
  * This is a very important class in sky-walking's auto-instrumentation mechanism. If you want to fully understand why
  * need this, and how it works, you need have knowledge about Classloader appointment mechanism.
  * <p>
+ * The {@link AgentClassLoader}s are weakly referenced by their target class loaders, and the interceptor instances are
+ * held by the {@link AgentClassLoader}s, so nothing here keeps a target class loader alive after its application is
+ * undeployed. The target side holds the {@link AgentClassLoader} strongly instead, the delegates in the static fields
+ * of the enhanced classes keep the {@link AgentClassLoader} they load the interceptors from, so it lives as long as the
+ * target class loader, even if the interceptors are loaded by its parents or fail to load.
  */
 public class InterceptorInstanceLoader {
 
-    private static ConcurrentHashMap<String, Object> INSTANCE_CACHE = new ConcurrentHashMap<String, Object>();
-    private static ReentrantLock INSTANCE_LOAD_LOCK = new ReentrantLock();
-    private static Map<ClassLoader, ClassLoader> EXTEND_PLUGIN_CLASSLOADERS = new HashMap<ClassLoader, ClassLoader>();
+    private static final ConcurrentHashMap<Object, WeakReference<AgentClassLoader>> EXTEND_PLUGIN_CLASSLOADERS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ClassLoader> COLLECTED_CLASSLOADERS = new ReferenceQueue<>();
 
     /**
      * Load an instance of interceptor, and keep it singleton. Create {@link AgentClassLoader} for each
@@ -49,31 +52,135 @@ public class InterceptorInstanceLoader {
      */
     public static <T> T load(String className,
         ClassLoader targetClassLoader) throws IllegalAccessException, InstantiationException, ClassNotFoundException, AgentPackageNotFoundException {
+        return loadFrom(className, getPluginLoader(targetClassLoader));
+    }
+
+    /**
+     * Load an instance of interceptor from the {@link AgentClassLoader} of a target class loader, and keep it singleton.
+     *
+     * @param className    the interceptor class, which is expected to be found
+     * @param pluginLoader the {@link AgentClassLoader} got by {@link #getPluginLoader(ClassLoader)}
+     * @param <T>          expected type
+     * @return the type reference.
+     */
+    public static <T> T loadFrom(String className,
+        AgentClassLoader pluginLoader) throws IllegalAccessException, InstantiationException, ClassNotFoundException {
+        ConcurrentHashMap<String, Object> instances = pluginLoader.getInterceptorInstances();
+        Object inst = instances.get(className);
+        if (inst == null) {
+            inst = Class.forName(className, true, pluginLoader).newInstance();
+            Object existing = instances.putIfAbsent(className, inst);
+            if (existing != null) {
+                inst = existing;
+            }
+        }
+
+        return (T) inst;
+    }
+
+    /**
+     * Get the {@link AgentClassLoader} of the target class loader, created at the first time. The caller should hold it
+     * strongly as long as the target class loader, as it is only weakly referenced here.
+     *
+     * @param targetClassLoader the class loader for current application context, null for the agent class loader
+     * @return the {@link AgentClassLoader} whose parent is the target class loader
+     */
+    public static AgentClassLoader getPluginLoader(ClassLoader targetClassLoader) throws AgentPackageNotFoundException {
         if (targetClassLoader == null) {
             targetClassLoader = InterceptorInstanceLoader.class.getClassLoader();
         }
-        String instanceKey = className + "_OF_" + targetClassLoader.getClass()
-                                                                   .getName() + "@" + Integer.toHexString(targetClassLoader
-            .hashCode());
-        Object inst = INSTANCE_CACHE.get(instanceKey);
-        if (inst == null) {
-            INSTANCE_LOAD_LOCK.lock();
-            ClassLoader pluginLoader;
-            try {
-                pluginLoader = EXTEND_PLUGIN_CLASSLOADERS.get(targetClassLoader);
-                if (pluginLoader == null) {
-                    pluginLoader = new AgentClassLoader(targetClassLoader);
-                    EXTEND_PLUGIN_CLASSLOADERS.put(targetClassLoader, pluginLoader);
-                }
-            } finally {
-                INSTANCE_LOAD_LOCK.unlock();
+        WeakReference<AgentClassLoader> reference = EXTEND_PLUGIN_CLASSLOADERS.get(new LookupKey(targetClassLoader));
+        AgentClassLoader pluginLoader = reference == null ? null : reference.get();
+        if (pluginLoader != null) {
+            return pluginLoader;
+        }
+        expungeCollectedClassLoaders();
+        AgentClassLoader newPluginLoader = new AgentClassLoader(targetClassLoader);
+        WeakReference<AgentClassLoader> newReference = new WeakReference<>(newPluginLoader);
+        WeakKey key = new WeakKey(targetClassLoader, COLLECTED_CLASSLOADERS);
+        while (true) {
+            reference = EXTEND_PLUGIN_CLASSLOADERS.putIfAbsent(key, newReference);
+            if (reference == null) {
+                return newPluginLoader;
             }
-            inst = Class.forName(className, true, pluginLoader).newInstance();
-            if (inst != null) {
-                INSTANCE_CACHE.put(instanceKey, inst);
+            pluginLoader = reference.get();
+            if (pluginLoader != null) {
+                return pluginLoader;
+            }
+            // The existing one has been collected, as no delegate holds it.
+            if (EXTEND_PLUGIN_CLASSLOADERS.replace(key, reference, newReference)) {
+                return newPluginLoader;
             }
         }
+    }
 
-        return (T) inst;
+    private static void expungeCollectedClassLoaders() {
+        Reference<? extends ClassLoader> key;
+        while ((key = COLLECTED_CLASSLOADERS.poll()) != null) {
+            EXTEND_PLUGIN_CLASSLOADERS.remove(key);
+        }
+    }
+
+    /**
+     * @return the number of the target class loaders, including the collected ones not expunged yet.
+     */
+    static int size() {
+        return EXTEND_PLUGIN_CLASSLOADERS.size();
+    }
+
+    /**
+     * The key of a target class loader in the map, compared by identity.
+     */
+    private static class WeakKey extends WeakReference<ClassLoader> {
+        private final int hashCode;
+
+        private WeakKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hashCode = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof LookupKey) {
+                return ((LookupKey) obj).classLoader == get();
+            }
+            if (obj instanceof WeakKey) {
+                ClassLoader classLoader = get();
+                return classLoader != null && classLoader == ((WeakKey) obj).get();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The short-lived key to look up the map, without creating a weak reference.
+     */
+    private static class LookupKey {
+        private final ClassLoader classLoader;
+
+        private LookupKey(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof WeakKey) {
+                return ((WeakKey) obj).get() == classLoader;
+            }
+            return obj instanceof LookupKey && ((LookupKey) obj).classLoader == classLoader;
+        }
     }
 }
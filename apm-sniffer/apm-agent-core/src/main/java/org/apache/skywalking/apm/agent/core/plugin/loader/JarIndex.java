@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * The precomputed entry names of the jars in a plugin folder, saved as {@link #INDEX_FILE_NAME} in the folder. The
+ * {@link AgentClassLoader} reads it instead of opening and scanning every jar at startup.
+ * <p>
+ * The index is generated by {@link #main(String[])} when packaging the agent, and ignored once the jars in the folder
+ * are changed, e.g. an optional plugin is copied into the folder. A jar is taken as changed if its length or last
+ * modified time differs from the indexed one, rather than by a checksum, which reads the whole jar.
+ */
+public class JarIndex {
+    public static final String INDEX_FILE_NAME = "jar-index.idx";
+
+    private static final String HEADER = "skywalking-jar-index 2";
+    private static final String JAR_PREFIX = "J\t";
+    private static final String ENTRY_PREFIX = "E\t";
+
+    /**
+     * The entry names of the jar files, in the order of the jars.
+     */
+    private final Map<String, List<String>> jarEntries;
+
+    private JarIndex(Map<String, List<String>> jarEntries) {
+        this.jarEntries = jarEntries;
+    }
+
+    /**
+     * @return the jar file names in the folder, in the indexed order.
+     */
+    public List<String> getJarFileNames() {
+        return new ArrayList<>(jarEntries.keySet());
+    }
+
+    /**
+     * @return the entry names of the given jar file.
+     */
+    public List<String> getEntryNames(String jarFileName) {
+        return jarEntries.get(jarFileName);
+    }
+
+    /**
+     * Read the index file of the folder.
+     *
+     * @return the index, or null if the index file doesn't exist or doesn't match the jars in the folder.
+     * @throws IOException if the index file can't be read.
+     */
+    public static JarIndex read(File folder) throws IOException {
+        File indexFile = new File(folder, INDEX_FILE_NAME);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        Map<String, long[]> jarAttributes = new HashMap<>();
+        Map<String, List<String>> jarEntries = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+            if (!HEADER.equals(reader.readLine())) {
+                return null;
+            }
+            List<String> entries = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(ENTRY_PREFIX) && entries != null) {
+                    entries.add(line.substring(ENTRY_PREFIX.length()));
+                } else if (line.startsWith(JAR_PREFIX)) {
+                    String[] jar = line.substring(JAR_PREFIX.length()).split("\t", 3);
+                    if (jar.length != 3) {
+                        return null;
+                    }
+                    entries = new ArrayList<>();
+                    jarAttributes.put(jar[2], new long[] {
+                        Long.parseLong(jar[0]),
+                        Long.parseLong(jar[1])
+                    });
+                    jarEntries.put(jar[2], entries);
+                } else {
+                    return null;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        String[] jarFileNames = listJarFileNames(folder);
+        if (jarFileNames.length != jarAttributes.size()) {
+            return null;
+        }
+        for (String jarFileName : jarFileNames) {
+            long[] attributes = jarAttributes.get(jarFileName);
+            File file = new File(folder, jarFileName);
+            if (attributes == null || attributes[0] != file.length() || attributes[1] != file.lastModified()) {
+                return null;
+            }
+        }
+        return new JarIndex(jarEntries);
+    }
+
+    /**
+     * Scan the jars in the folder, and write the index file.
+     */
+    public static void write(File folder) throws IOException {
+        File indexFile = new File(folder, INDEX_FILE_NAME);
+        try (Writer writer = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(indexFile), StandardCharsets.UTF_8))) {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (String jarFileName : listJarFileNames(folder)) {
+                File file = new File(folder, jarFileName);
+                writer.write(JAR_PREFIX + file.length() + "\t" + file.lastModified() + "\t" + jarFileName + "\n");
+                try (JarFile jarFile = new JarFile(file)) {
+                    for (String entryName : entryNames(jarFile)) {
+                        writer.write(ENTRY_PREFIX + entryName + "\n");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the names of all entries in the jar.
+     */
+    static List<String> entryNames(JarFile jarFile) {
+        List<String> names = new ArrayList<>(jarFile.size());
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            names.add(entries.nextElement().getName());
+        }
+        return names;
+    }
+
+    static String[] listJarFileNames(File folder) {
+        String[] jarFileNames = folder.list((dir, name) -> name.endsWith(".jar"));
+        if (jarFileNames == null) {
+            return new String[0];
+        }
+        Arrays.sort(jarFileNames);
+        return jarFileNames;
+    }
+
+    /**
+     * Write the index files of the given plugin folders, e.g. `skywalking-agent/plugins`.
+     */
+    public static void main(String[] args) throws IOException {
+        for (String folder : args) {
+            File path = new File(folder);
+            if (path.isDirectory()) {
+                write(path);
+            }
+        }
+    }
+}
@@ -68,6 +68,10 @@ public class ClassAnnotationMatch implements IndirectMatch {
         return annotationList.isEmpty();
     }
 
+    public String[] getAnnotations() {
+        return annotations;
+    }
+
     private ElementMatcher.Junction buildEachAnnotation(String annotationName) {
         return isAnnotatedWith(named(annotationName));
     }
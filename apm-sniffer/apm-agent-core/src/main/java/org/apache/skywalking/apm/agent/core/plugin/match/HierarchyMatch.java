@@ -18,9 +18,9 @@
 
 package org.apache.skywalking.apm.agent.core.plugin.match;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.description.type.TypeList;
@@ -64,7 +64,7 @@ public class HierarchyMatch implements IndirectMatch {
 
     @Override
     public boolean isMatch(TypeDescription typeDescription) {
-        List<String> parentTypes = new ArrayList<String>(Arrays.asList(this.parentTypes));
+        Set<String> parentTypes = new HashSet<String>(Arrays.asList(this.parentTypes));
 
         TypeList.Generic implInterfaces = typeDescription.getInterfaces();
         for (TypeDescription.Generic implInterface : implInterfaces) {
@@ -79,7 +79,7 @@ public class HierarchyMatch implements IndirectMatch {
 
     }
 
-    private void matchHierarchyClass(TypeDescription.Generic clazz, List<String> parentTypes) {
+    private void matchHierarchyClass(TypeDescription.Generic clazz, Set<String> parentTypes) {
         parentTypes.remove(clazz.asRawType().getTypeName());
         if (parentTypes.size() == 0) {
             return;
@@ -96,6 +96,10 @@ public class HierarchyMatch implements IndirectMatch {
 
     }
 
+    public String[] getParentTypes() {
+        return parentTypes;
+    }
+
     public static IndirectMatch byHierarchyMatch(String... parentTypes) {
         return new HierarchyMatch(parentTypes);
     }
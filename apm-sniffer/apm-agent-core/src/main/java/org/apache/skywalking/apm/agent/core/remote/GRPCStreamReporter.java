@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+
+/**
+ * GRPCStreamReporter keeps one long-lived client stream to the collector, instead of a new stream per batch waiting
+ * for {@link GRPCStreamServiceStatus#wait4Finish()}.
+ * <p>
+ * The messages are sent as long as the stream {@link ClientCallStreamObserver#isReady() is ready}, or the bytes sent
+ * since the last on-ready callback are less than {@link Config.Collector#GRPC_STREAM_MAX_IN_FLIGHT_BYTES}, otherwise
+ * the sender waits for the on-ready callback at most {@link Config.Collector#GRPC_UPSTREAM_TIMEOUT} seconds. The stream
+ * is completed asynchronously and replaced by a new one every {@link Config.Collector#GRPC_STREAM_ROTATE_PERIOD}
+ * seconds, on {@link #complete()}, or after it fails.
+ * <p>
+ * The sending methods are supposed to be called by one consumer thread, {@link #complete()} could be called by any
+ * thread.
+ *
+ * @param <T> the message type of the stream.
+ */
+public class GRPCStreamReporter<T> {
+    private static final ILog LOGGER = LogManager.getLogger(GRPCStreamReporter.class);
+
+    private final String name;
+    private final StreamOpener<T> opener;
+    private final Consumer<Commands> commandsConsumer;
+    private ReportStream current;
+
+    /**
+     * @param name             the name of the reported data, for logging.
+     * @param opener           opens a new client stream.
+     * @param commandsConsumer consumes the commands responded by the collector, nullable.
+     */
+    public GRPCStreamReporter(String name, StreamOpener<T> opener, Consumer<Commands> commandsConsumer) {
+        this.name = name;
+        this.opener = opener;
+        this.commandsConsumer = commandsConsumer;
+    }
+
+    /**
+     * Open a new stream if there is no available one.
+     *
+     * @return true if the next sent message is the first one of the stream.
+     */
+    public synchronized boolean openIfNeeded() {
+        ReportStream stream = current;
+        if (stream != null && !stream.broken
+            && System.currentTimeMillis() - stream.openTime < TimeUnit.SECONDS.toMillis(
+            Config.Collector.GRPC_STREAM_ROTATE_PERIOD)) {
+            return stream.sentCount == 0;
+        }
+        if (stream != null) {
+            stream.complete();
+        }
+        current = new ReportStream();
+        try {
+            current.requestStream = opener.open(
+                Config.Collector.GRPC_STREAM_ROTATE_PERIOD + Config.Collector.GRPC_UPSTREAM_TIMEOUT, current);
+        } catch (Throwable t) {
+            current = null;
+            throw t;
+        }
+        return true;
+    }
+
+    /**
+     * Send the message, wait if there are too many bytes in flight.
+     *
+     * @param size the serialized size of the message.
+     * @return false if the message is abandoned, as the stream fails or is not ready in time.
+     */
+    public synchronized boolean send(T message, int size) {
+        openIfNeeded();
+        final ReportStream stream = current;
+        if (!stream.awaitReady(size)) {
+            if (stream == current) {
+                LOGGER.warn(
+                    "The {} stream is not ready in {} seconds, abandon it.", name, Config.Collector.GRPC_UPSTREAM_TIMEOUT);
+                stream.cancel();
+                current = null;
+            }
+            return false;
+        }
+        try {
+            stream.requestStream.onNext(message);
+        } catch (Throwable t) {
+            LOGGER.error(t, "Send {} to collector fail.", name);
+            stream.broken = true;
+            return false;
+        }
+        stream.inFlightBytes += size;
+        stream.sentCount++;
+        return true;
+    }
+
+    /**
+     * Complete the current stream without waiting for the response, the next message opens a new stream.
+     */
+    public synchronized void complete() {
+        if (current != null) {
+            current.complete();
+            current = null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface StreamOpener<T> {
+        /**
+         * @param deadline         the deadline of the stream in seconds.
+         * @param responseObserver the observer of the stream, which should be passed to the gRPC stub.
+         * @return the request stream.
+         */
+        StreamObserver<T> open(long deadline, ClientResponseObserver<T, Commands> responseObserver);
+    }
+
+    private class ReportStream implements ClientResponseObserver<T, Commands> {
+        private final long openTime = System.currentTimeMillis();
+        private StreamObserver<T> requestStream;
+        private volatile ClientCallStreamObserver<T> callStream;
+        private volatile boolean broken;
+        /**
+         * The bytes sent since the last on-ready callback, guarded by the reporter.
+         */
+        private long inFlightBytes;
+        private long sentCount;
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<T> requestStream) {
+            this.callStream = requestStream;
+            requestStream.setOnReadyHandler(() -> {
+                synchronized (GRPCStreamReporter.this) {
+                    inFlightBytes = 0;
+                    GRPCStreamReporter.this.notifyAll();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(Commands commands) {
+            if (commandsConsumer != null) {
+                commandsConsumer.accept(commands);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            wakeup();
+            if (Status.fromThrowable(throwable).getCode() == Status.Code.DEADLINE_EXCEEDED
+                && System.currentTimeMillis() - openTime >= TimeUnit.SECONDS.toMillis(
+                Config.Collector.GRPC_STREAM_ROTATE_PERIOD)) {
+                // The idle stream is not rotated before its deadline.
+                return;
+            }
+            if (LOGGER.isErrorEnable()) {
+                LOGGER.error(throwable, "Send {} to collector fail with a grpc internal exception.", name);
+            }
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            wakeup();
+        }
+
+        private void wakeup() {
+            synchronized (GRPCStreamReporter.this) {
+                broken = true;
+                GRPCStreamReporter.this.notifyAll();
+            }
+        }
+
+        /**
+         * Wait until the message could be sent, called with the reporter monitor held.
+         */
+        private boolean awaitReady(int size) {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Config.Collector.GRPC_UPSTREAM_TIMEOUT);
+            while (!broken && this == current && !isReady()
+                && inFlightBytes + size > Config.Collector.GRPC_STREAM_MAX_IN_FLIGHT_BYTES) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(GRPCStreamReporter.this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return !broken && this == current;
+        }
+
+        private boolean isReady() {
+            final ClientCallStreamObserver<T> stream = callStream;
+            return stream == null || stream.isReady();
+        }
+
+        private void complete() {
+            if (broken) {
+                return;
+            }
+            broken = true;
+            try {
+                requestStream.onCompleted();
+            } catch (Throwable t) {
+                LOGGER.error(t, "Complete the {} stream fail.", name);
+            }
+        }
+
+        private void cancel() {
+            broken = true;
+            final ClientCallStreamObserver<T> stream = callStream;
+            if (stream != null) {
+                stream.cancel("Not ready in time", null);
+            }
+        }
+    }
+}
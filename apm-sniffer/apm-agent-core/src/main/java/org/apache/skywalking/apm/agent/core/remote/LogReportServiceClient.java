@@ -35,6 +35,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.util.CollectionUtil;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
@@ -49,6 +50,13 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
 
     private volatile LogReportServiceGrpc.LogReportServiceStub logReportServiceStub;
 
+    private final GRPCStreamReporter<LogData> logReporter = new GRPCStreamReporter<>(
+        "log data",
+        (deadline, responseObserver) -> logReportServiceStub.withDeadlineAfter(deadline, TimeUnit.SECONDS)
+                                                            .collect(responseObserver),
+        null
+    );
+
     @Override
     public void prepare() throws Throwable {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
@@ -59,9 +67,11 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
         carrier = new DataCarrier<>("gRPC-log", "gRPC-log",
                                     Config.Buffer.CHANNEL_SIZE,
                                     Config.Buffer.BUFFER_SIZE,
-                                    BufferStrategy.IF_POSSIBLE
+                                    BufferStrategy.IF_POSSIBLE,
+                                    Config.Buffer.TYPE
         );
-        carrier.consume(this, 1);
+        carrier.consume(this, 1, 20, Config.Buffer.SIGNAL_CONSUME ?
+            new ConsumeSignal(Config.Buffer.HIGH_WATER_MARK, Config.Buffer.MAX_LATENCY) : null);
     }
 
     @Override
@@ -88,7 +98,9 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
             return;
         }
 
-        if (GRPCChannelStatus.CONNECTED.equals(status)) {
+        if (GRPCChannelStatus.CONNECTED.equals(status) && Collector.GRPC_STREAM_MODE) {
+            streamLogs(dataList);
+        } else if (GRPCChannelStatus.CONNECTED.equals(status)) {
             GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
 
             StreamObserver<LogData> logDataStreamObserver = logReportServiceStub
@@ -133,6 +145,31 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
         }
     }
 
+    /**
+     * Send the logs through the long-lived stream, without waiting for the response.
+     */
+    private void streamLogs(final List<LogData.Builder> dataList) {
+        int abandoned = 0;
+        for (final LogData.Builder logData : dataList) {
+            try {
+                if (logReporter.openIfNeeded()) {
+                    // The service name is required in the first element of every stream.
+                    logData.setService(Config.Agent.SERVICE_NAME);
+                }
+                final LogData data = logData.build();
+                if (!logReporter.send(data, data.getSerializedSize())) {
+                    abandoned++;
+                }
+            } catch (Throwable t) {
+                LOGGER.error(t, "Send log data to collector fail.");
+                abandoned++;
+            }
+        }
+        if (abandoned > 0 && LOGGER.isDebugEnable()) {
+            LOGGER.debug("{} log data have been abandoned, cause by the unavailable stream.", abandoned);
+        }
+    }
+
     @Override
     public void onError(final List<LogData.Builder> data, final Throwable t) {
         LOGGER.error(t, "Try to consume {} log data to sender, with unexpected exception.", data.size());
@@ -151,10 +188,13 @@ public class LogReportServiceClient implements BootService, GRPCChannelListener,
                                                        .withMaxOutboundMessageSize(Log.MAX_MESSAGE_SIZE);
         }
         this.status = status;
+        // The stream of the previous channel is replaced by a new one at the next sending.
+        logReporter.complete();
     }
 
     @Override
     public void shutdown() {
         carrier.shutdownConsumers();
+        logReporter.complete();
     }
 }
@@ -19,7 +19,13 @@
 package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.stub.ClientCalls;
 import io.grpc.stub.StreamObserver;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
@@ -28,13 +34,15 @@ import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.RecyclingAwareListener;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
-import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TracingObjectRecycler;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
@@ -45,15 +53,40 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SI
 import static org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus.CONNECTED;
 
 @DefaultImplementor
-public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, GRPCChannelListener {
+public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, RecyclingAwareListener, GRPCChannelListener {
     private static final ILog LOGGER = LogManager.getLogger(TraceSegmentServiceClient.class);
 
+    /**
+     * The same method as {@link TraceSegmentReportServiceGrpc#getCollectMethod()}, but sends the segments encoded by
+     * {@link TraceSegment#encode()} directly.
+     */
+    private static final MethodDescriptor<byte[], Commands> COLLECT_ENCODED_METHOD =
+        TraceSegmentReportServiceGrpc.getCollectMethod()
+                                     .toBuilder(
+                                         new ByteArrayMarshaller(),
+                                         TraceSegmentReportServiceGrpc.getCollectMethod().getResponseMarshaller()
+                                     )
+                                     .build();
+
     private long lastLogTime;
     private long segmentUplinkedCounter;
     private long segmentAbandonedCounter;
     private volatile DataCarrier<TraceSegment> carrier;
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    private final GRPCStreamReporter<byte[]> encodedSegmentReporter = new GRPCStreamReporter<>(
+        "encoded segments", (deadline, responseObserver) -> {
+            final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub.withDeadlineAfter(
+                deadline, TimeUnit.SECONDS);
+            return ClientCalls.asyncClientStreamingCall(
+                stub.getChannel().newCall(COLLECT_ENCODED_METHOD, stub.getCallOptions()), responseObserver);
+        }, this::receiveCommands);
+    private final GRPCStreamReporter<SegmentObject> segmentReporter = new GRPCStreamReporter<>(
+        "segments",
+        (deadline, responseObserver) -> serviceStub.withDeadlineAfter(deadline, TimeUnit.SECONDS)
+                                                   .collect(responseObserver),
+        this::receiveCommands
+    );
 
     @Override
     public void prepare() {
@@ -65,8 +98,9 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         lastLogTime = System.currentTimeMillis();
         segmentUplinkedCounter = 0;
         segmentAbandonedCounter = 0;
-        carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
-        carrier.consume(this, 1);
+        carrier = new DataCarrier<>("DEFAULT", "DEFAULT", CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE, Config.Buffer.TYPE);
+        carrier.consume(this, 1, 20, Config.Buffer.SIGNAL_CONSUME ?
+            new ConsumeSignal(Config.Buffer.HIGH_WATER_MARK, Config.Buffer.MAX_LATENCY) : null);
     }
 
     @Override
@@ -78,6 +112,7 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     public void shutdown() {
         TracingContext.ListenerManager.remove(this);
         carrier.shutdownConsumers();
+        completeStreams();
     }
 
     @Override
@@ -87,15 +122,17 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void consume(List<TraceSegment> data) {
-        if (CONNECTED.equals(status)) {
+        if (CONNECTED.equals(status) && Config.Collector.GRPC_STREAM_MODE) {
+            streamSegments(data);
+        } else if (CONNECTED.equals(status)) {
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = serviceStub.withDeadlineAfter(
+            final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub.withDeadlineAfter(
                 Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new StreamObserver<Commands>() {
+            );
+            final StreamObserver<Commands> commandsObserver = new StreamObserver<Commands>() {
                 @Override
                 public void onNext(Commands commands) {
-                    ServiceManager.INSTANCE.findService(CommandService.class)
-                                           .receiveCommand(commands);
+                    receiveCommands(commands);
                 }
 
                 @Override
@@ -117,28 +154,80 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
                 public void onCompleted() {
                     status.finished();
                 }
-            });
+            };
 
-            try {
-                for (TraceSegment segment : data) {
-                    SegmentObject upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
+            if (Config.Agent.PRE_ENCODE_SEGMENT) {
+                StreamObserver<byte[]> upstreamSegmentStreamObserver = ClientCalls.asyncClientStreamingCall(
+                    stub.getChannel().newCall(COLLECT_ENCODED_METHOD, stub.getCallOptions()), commandsObserver);
+                try {
+                    for (TraceSegment segment : data) {
+                        upstreamSegmentStreamObserver.onNext(segment.encode());
+                    }
+                } catch (Throwable t) {
+                    LOGGER.error(t, "Encode and send UpstreamSegment to collector fail.");
                 }
-            } catch (Throwable t) {
-                LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
-            }
 
-            upstreamSegmentStreamObserver.onCompleted();
+                upstreamSegmentStreamObserver.onCompleted();
+            } else {
+                StreamObserver<SegmentObject> upstreamSegmentStreamObserver = stub.collect(commandsObserver);
+                try {
+                    for (TraceSegment segment : data) {
+                        SegmentObject upstreamSegment = segment.transform();
+                        upstreamSegmentStreamObserver.onNext(upstreamSegment);
+                    }
+                } catch (Throwable t) {
+                    LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+                }
+
+                upstreamSegmentStreamObserver.onCompleted();
+            }
 
             status.wait4Finish();
             segmentUplinkedCounter += data.size();
         } else {
             segmentAbandonedCounter += data.size();
         }
+        for (TraceSegment segment : data) {
+            TracingObjectRecycler.recycle(segment);
+        }
 
         printUplinkStatus();
     }
 
+    /**
+     * Send the segments through the long-lived streams, without waiting for the response.
+     */
+    private void streamSegments(List<TraceSegment> data) {
+        for (TraceSegment segment : data) {
+            boolean sent = false;
+            try {
+                if (Config.Agent.PRE_ENCODE_SEGMENT) {
+                    final byte[] encodedSegment = segment.encode();
+                    sent = encodedSegmentReporter.send(encodedSegment, encodedSegment.length);
+                } else {
+                    final SegmentObject upstreamSegment = segment.transform();
+                    sent = segmentReporter.send(upstreamSegment, upstreamSegment.getSerializedSize());
+                }
+            } catch (Throwable t) {
+                LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+            }
+            if (sent) {
+                segmentUplinkedCounter++;
+            } else {
+                segmentAbandonedCounter++;
+            }
+        }
+    }
+
+    private void receiveCommands(Commands commands) {
+        ServiceManager.INSTANCE.findService(CommandService.class).receiveCommand(commands);
+    }
+
+    private void completeStreams() {
+        encodedSegmentReporter.complete();
+        segmentReporter.complete();
+    }
+
     private void printUplinkStatus() {
         long currentTimeMillis = System.currentTimeMillis();
         if (currentTimeMillis - lastLogTime > 30 * 1000) {
@@ -170,7 +259,9 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         if (traceSegment.isIgnore()) {
             return;
         }
+        TracingObjectRecycler.retain(traceSegment);
         if (!carrier.produce(traceSegment)) {
+            TracingObjectRecycler.recycle(traceSegment);
             if (LOGGER.isDebugEnable()) {
                 LOGGER.debug("One trace segment has been abandoned, cause by buffer is full.");
             }
@@ -184,5 +275,32 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
             serviceStub = TraceSegmentReportServiceGrpc.newStub(channel);
         }
         this.status = status;
+        // The streams of the previous channel are replaced by new ones at the next sending.
+        completeStreams();
+    }
+
+    /**
+     * Pass the pre-encoded bytes through, without building the protobuf object.
+     */
+    private static class ByteArrayMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+        @Override
+        public InputStream stream(byte[] value) {
+            return new ByteArrayInputStream(value);
+        }
+
+        @Override
+        public byte[] parse(InputStream stream) {
+            try {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int length;
+                while ((length = stream.read(buffer)) != -1) {
+                    output.write(buffer, 0, length);
+                }
+                return output.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException("Read bytes from the gRPC stream fail.", e);
+            }
+        }
     }
 }
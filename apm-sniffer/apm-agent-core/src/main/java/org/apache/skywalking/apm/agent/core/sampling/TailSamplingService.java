@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TracingObjectRecycler;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+
+/**
+ * The <code>TailSamplingService</code> holds the finished {@link TraceSegment}s in the agent, and decides whether to
+ * report them after their trace finishes, rather than at the first span like {@link SamplingService}.
+ * <p>
+ * A trace is sampled as soon as any of its segments is slow, has an error span, has an http status code not less than
+ * {@link Config.TailSampling#MIN_HTTP_STATUS_CODE}, or is force sampled, see {@link TraceSegment#isForceSampled()}. The
+ * force sampled flag propagates to the downstream segments, in the other threads and processes. Then the held
+ * segments of the trace and the ones finishing later in the decision window are reported immediately. The other traces
+ * are held for {@link Config.TailSampling#DECISION_WINDOW}, then sampled by {@link SamplingService#trySampling(String)}.
+ * <p>
+ * The held segments never exceed {@link Config.TailSampling#HEAP_BUDGET}, the bytes are reserved before a segment is
+ * held. The oldest unsampled traces are decided and evicted first to make room, then the oldest sampled ones.
+ */
+@DefaultImplementor
+public class TailSamplingService implements BootService, TracingContextListener {
+    private static final ILog LOGGER = LogManager.getLogger(TailSamplingService.class);
+
+    /**
+     * The estimated heap size of a held trace itself, without its segments.
+     */
+    private static final int TRACE_BASE_SIZE = 128;
+
+    private final ConcurrentHashMap<String, HeldTrace> traces = new ConcurrentHashMap<>();
+    /**
+     * The held traces, in the order of their first finished segments. Guarded by itself, along with
+     * {@link #unsampledTraces}, so the oldest trace is polled, and the trace becoming sampled is removed, in O(1).
+     */
+    private final LinkedHashSet<HeldTrace> heldTraces = new LinkedHashSet<>();
+    /**
+     * The held traces not sampled yet, in the same order, they are evicted before the sampled ones.
+     */
+    private final LinkedHashSet<HeldTrace> unsampledTraces = new LinkedHashSet<>();
+    private final AtomicLong heldBytes = new AtomicLong(0);
+
+    private SamplingService samplingService;
+    private volatile ScheduledFuture<?> scheduledFuture;
+    private ScheduledExecutorService service;
+
+    @Override
+    public void prepare() {
+    }
+
+    @Override
+    public void boot() {
+        if (!Config.TailSampling.ENABLE) {
+            return;
+        }
+        samplingService = ServiceManager.INSTANCE.findService(SamplingService.class);
+        service = Executors.newSingleThreadScheduledExecutor(new DefaultNamedThreadFactory("TailSamplingService"));
+        long period = Math.max(100, Config.TailSampling.DECISION_WINDOW / 4);
+        scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(
+            () -> decideExpiredTraces(System.currentTimeMillis()),
+            t -> LOGGER.error("Tail sampling decision failure.", t)
+        ), period, period, TimeUnit.MILLISECONDS);
+        TracingContext.ListenerManager.setSegmentHolder(this);
+    }
+
+    @Override
+    public void onComplete() {
+
+    }
+
+    @Override
+    public void shutdown() {
+        if (!Config.TailSampling.ENABLE) {
+            return;
+        }
+        TracingContext.ListenerManager.setSegmentHolder(null);
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(true);
+        }
+        if (service != null) {
+            service.shutdown();
+        }
+        decideExpiredTraces(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void afterFinished(TraceSegment segment) {
+        if (segment.isIgnore()) {
+            TracingContext.ListenerManager.notifyListeners(segment);
+            return;
+        }
+        final boolean sampled = isSampled(segment);
+        // the sampled segment is reported at once, it takes no budget
+        final int size = sampled ? 0 : segment.estimatedSize();
+        final String traceId = segment.getRelatedGlobalTrace().getId();
+        if (size + TRACE_BASE_SIZE > Config.TailSampling.HEAP_BUDGET || !reserve(size)) {
+            // Too large to hold, decide it now.
+            decide(traceId, Collections.singletonList(segment), sampled);
+            return;
+        }
+
+        List<TraceSegment> segmentsToReport = null;
+        boolean held = false;
+        while (!held) {
+            HeldTrace trace = traces.get(traceId);
+            if (trace == null) {
+                if (!reserve(TRACE_BASE_SIZE)) {
+                    heldBytes.addAndGet(-size);
+                    decide(traceId, Collections.singletonList(segment), sampled);
+                    return;
+                }
+                trace = new HeldTrace(traceId, System.currentTimeMillis());
+                HeldTrace existing = traces.putIfAbsent(traceId, trace);
+                if (existing != null) {
+                    heldBytes.addAndGet(-TRACE_BASE_SIZE);
+                    trace = existing;
+                } else {
+                    enqueue(trace);
+                }
+            }
+            synchronized (trace) {
+                if (trace.released) {
+                    // The trace has been decided and evicted, hold the segment in a new one.
+                    continue;
+                }
+                if (trace.sampled || sampled) {
+                    if (!trace.sampled) {
+                        trace.sampled = true;
+                        synchronized (heldTraces) {
+                            unsampledTraces.remove(trace);
+                        }
+                    }
+                    segmentsToReport = trace.takeSegments();
+                    heldBytes.addAndGet(-trace.bytes - size);
+                    trace.bytes = 0;
+                } else {
+                    // the reserved bytes are taken by the trace
+                    trace.segments.add(segment);
+                    trace.bytes += size;
+                }
+                held = true;
+            }
+        }
+
+        if (segmentsToReport != null) {
+            for (TraceSegment heldSegment : segmentsToReport) {
+                TracingContext.ListenerManager.notifyListeners(heldSegment);
+            }
+            TracingContext.ListenerManager.notifyListeners(segment);
+        }
+    }
+
+    /**
+     * Decide the traces held longer than the decision window, the sampled traces are reported, the others are
+     * dropped.
+     *
+     * @param now the current time in milliseconds.
+     */
+    void decideExpiredTraces(long now) {
+        final long deadline = now - Config.TailSampling.DECISION_WINDOW;
+        HeldTrace trace;
+        while ((trace = pollOldest(deadline)) != null) {
+            release(trace);
+        }
+    }
+
+    /**
+     * @return the estimated heap size of the held segments in bytes.
+     */
+    long getHeldBytes() {
+        return heldBytes.get();
+    }
+
+    /**
+     * Reserve the given size in the heap budget, evict the oldest traces to make room if necessary. The reservation and
+     * the check are one CAS, so the concurrent reservations never exceed the budget.
+     *
+     * @return false if the size could not be reserved, even though all traces have been evicted.
+     */
+    private boolean reserve(long size) {
+        while (true) {
+            final long held = heldBytes.get();
+            if (held + size <= Config.TailSampling.HEAP_BUDGET) {
+                if (heldBytes.compareAndSet(held, held + size)) {
+                    return true;
+                }
+            } else if (!evictOldestTrace()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Evict the oldest unsampled trace, or the oldest sampled one if all held traces have been sampled.
+     *
+     * @return false if there is no trace to evict.
+     */
+    private boolean evictOldestTrace() {
+        final HeldTrace trace;
+        synchronized (heldTraces) {
+            trace = pollFirst(unsampledTraces.isEmpty() ? heldTraces : unsampledTraces);
+        }
+        if (trace == null) {
+            return false;
+        }
+        release(trace);
+        return true;
+    }
+
+    private void enqueue(HeldTrace trace) {
+        synchronized (heldTraces) {
+            heldTraces.add(trace);
+            // The trace may have been sampled by the others, which removed it before it is added.
+            if (!trace.sampled) {
+                unsampledTraces.add(trace);
+            }
+        }
+    }
+
+    /**
+     * @return the oldest held trace created not after the given time, or null if there is no such trace.
+     */
+    private HeldTrace pollOldest(long createdBefore) {
+        synchronized (heldTraces) {
+            final Iterator<HeldTrace> iterator = heldTraces.iterator();
+            if (!iterator.hasNext() || iterator.next().createTime > createdBefore) {
+                return null;
+            }
+            return pollFirst(heldTraces);
+        }
+    }
+
+    /**
+     * Remove the first trace of the given set from both sets, must be called with the lock of {@link #heldTraces}.
+     */
+    private HeldTrace pollFirst(LinkedHashSet<HeldTrace> traceSet) {
+        final Iterator<HeldTrace> iterator = traceSet.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        final HeldTrace trace = iterator.next();
+        heldTraces.remove(trace);
+        unsampledTraces.remove(trace);
+        return trace;
+    }
+
+    private void release(HeldTrace trace) {
+        traces.remove(trace.traceId, trace);
+        final List<TraceSegment> segments;
+        final boolean sampled;
+        synchronized (trace) {
+            if (trace.released) {
+                return;
+            }
+            trace.released = true;
+            segments = trace.takeSegments();
+            sampled = trace.sampled;
+            heldBytes.addAndGet(-trace.bytes - TRACE_BASE_SIZE);
+            trace.bytes = 0;
+        }
+        decide(trace.traceId, segments, sampled);
+    }
+
+    /**
+     * Report the segments if the trace has been sampled or is sampled by {@link SamplingService}, otherwise drop them.
+     */
+    private void decide(String traceId, List<TraceSegment> segments, boolean sampled) {
+        if (segments.isEmpty()) {
+            return;
+        }
+        if (sampled || samplingService == null || samplingService.trySampling(rootOperationName(segments.get(0)))) {
+            for (TraceSegment segment : segments) {
+                TracingContext.ListenerManager.notifyListeners(segment);
+            }
+        } else {
+            if (LOGGER.isDebugEnable()) {
+                LOGGER.debug("{} segments of trace {} are dropped by tail sampling.", segments.size(), traceId);
+            }
+            // The dropped segments have never been notified to the listeners, this service is their only holder.
+            for (TraceSegment segment : segments) {
+                TracingObjectRecycler.recycle(segment);
+            }
+        }
+    }
+
+    private static boolean isSampled(TraceSegment segment) {
+        if (segment.isForceSampled()) {
+            return true;
+        }
+        for (AbstractTracingSpan span : segment.getSpans()) {
+            if (span.isErrorOccurred()) {
+                return true;
+            }
+            if (span.getEndTime() - span.getStartTime() >= Config.TailSampling.SLOW_THRESHOLD) {
+                return true;
+            }
+            if (Config.TailSampling.MIN_HTTP_STATUS_CODE > 0) {
+                String statusCode = span.getTagValue(Tags.HTTP_RESPONSE_STATUS_CODE.key());
+                if (statusCode != null && parseStatusCode(statusCode) >= Config.TailSampling.MIN_HTTP_STATUS_CODE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int parseStatusCode(String statusCode) {
+        try {
+            return Integer.parseInt(statusCode);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String rootOperationName(TraceSegment segment) {
+        for (AbstractTracingSpan span : segment.getSpans()) {
+            if (span.getSpanId() == 0) {
+                return span.getOperationName();
+            }
+        }
+        return null;
+    }
+
+    private static class HeldTrace {
+        private final String traceId;
+        private final long createTime;
+        private List<TraceSegment> segments = new ArrayList<>(4);
+        private long bytes;
+        // read without the lock when evicting
+        private volatile boolean sampled;
+        private boolean released;
+
+        private HeldTrace(String traceId, long createTime) {
+            this.traceId = traceId;
+            this.createTime = createTime;
+        }
+
+        private List<TraceSegment> takeSegments() {
+            List<TraceSegment> taken = segments;
+            segments = new ArrayList<>(0);
+            return taken;
+        }
+    }
+}
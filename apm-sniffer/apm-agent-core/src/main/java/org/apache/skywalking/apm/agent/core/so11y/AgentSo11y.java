@@ -18,22 +18,43 @@
 
 package org.apache.skywalking.apm.agent.core.so11y;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.meter.Counter;
+import org.apache.skywalking.apm.agent.core.meter.Gauge;
 import org.apache.skywalking.apm.agent.core.meter.Histogram;
 import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
+import org.apache.skywalking.apm.agent.core.plugin.TypeDescriptionCache;
 
 /**
  * Agent self-observability meters collect through skywalking native protocols
  */
 public class AgentSo11y {
+    private static final ILog LOGGER = LogManager.getLogger(AgentSo11y.class);
 
     // A map to cache meter obj(s) for plugins. The key is the plugin name.
     private static final Map<String, Counter> ERROR_COUNTER_CACHE = new ConcurrentHashMap<>();
 
+    // A map to cache the overhead of the interceptors. The keys are the plugin name, and the interceptor class name with
+    // the intercept point.
+    private static final Map<String, Map<String, InterceptorOverhead>> INTERCEPTOR_OVERHEAD_CACHE = new ConcurrentHashMap<>();
+
+    // The overhead meters are registered once the MeterService boots, as the classes are enhanced before that.
+    private static volatile boolean OVERHEAD_METERS_REGISTRABLE = false;
+
+    // The number of the intercept points having their own overhead meters, guarded by the class.
+    private static int INTERCEPT_POINTS_WITH_METERS = 0;
+
     // Steps of interceptor time cost histogram
     private static final List<Double> TIME_COST_HISTOGRAM_STEPS = Arrays.asList(
         1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
@@ -136,6 +157,7 @@ public class AgentSo11y {
             INTERCEPTOR_TIME_COST = MeterFactory
                 .histogram("tracing_context_performance")
                 .steps(TIME_COST_HISTOGRAM_STEPS)
+                .striped()
                 .build();
         }
         INTERCEPTOR_TIME_COST.addValue(timeCostInNanos);
@@ -150,4 +172,162 @@ public class AgentSo11y {
         );
         counter.increment(1);
     }
+
+    /**
+     * Get the overhead of the interceptor at an intercept point, which should be held by the interceptor delegate. The
+     * meters of the intercept point, and of its interceptor and plugin, are registered at the first call for every
+     * intercept point, or by {@link #measureInterceptorOverhead()} if the call is before the MeterService boots.
+     *
+     * @param pluginName      the name of the plugin defining the interceptor.
+     * @param interceptorName the class name of the interceptor.
+     * @param interceptPoint  the name of the enhanced class, whose methods or constructors the interceptor intercepts,
+     *                        or empty if unknown.
+     * @return the overhead never sampled if {@link Config.Meter#INTERCEPTOR_OVERHEAD_ACTIVE} is false.
+     */
+    public static InterceptorOverhead overheadOf(String pluginName, String interceptorName, String interceptPoint) {
+        if (!Config.Meter.INTERCEPTOR_OVERHEAD_ACTIVE) {
+            return InterceptorOverhead.INACTIVE;
+        }
+        final Map<String, InterceptorOverhead> overheads = INTERCEPTOR_OVERHEAD_CACHE.computeIfAbsent(
+            pluginName, name -> new ConcurrentHashMap<>());
+        final String key = interceptorName + '@' + interceptPoint;
+        InterceptorOverhead overhead = overheads.get(key);
+        if (overhead == null) {
+            final InterceptorOverhead newOverhead = new InterceptorOverhead(
+                pluginName, interceptorName, interceptPoint, true, Config.Meter.INTERCEPTOR_OVERHEAD_SAMPLE_INTERVAL,
+                Config.Meter.INTERCEPTOR_OVERHEAD_ALLOCATION
+            );
+            overhead = overheads.putIfAbsent(key, newOverhead);
+            if (overhead == null) {
+                overhead = newOverhead;
+                // Otherwise, registered by measureInterceptorOverhead, which reads the cache after the flag is set.
+                if (OVERHEAD_METERS_REGISTRABLE) {
+                    registerOverheadMeters(overheads, newOverhead);
+                }
+            }
+        }
+        return overhead;
+    }
+
+    /**
+     * Register the overhead meters of the intercept points accounted so far, called when the MeterService boots. The
+     * intercept points accounted later register their meters by themselves.
+     */
+    public static void measureInterceptorOverhead() {
+        OVERHEAD_METERS_REGISTRABLE = true;
+        for (Map<String, InterceptorOverhead> overheads : INTERCEPTOR_OVERHEAD_CACHE.values()) {
+            for (InterceptorOverhead overhead : overheads.values()) {
+                registerOverheadMeters(overheads, overhead);
+            }
+        }
+    }
+
+    /**
+     * Register the hits, misses and size of the {@link TypeDescriptionCache}.
+     */
+    public static void measureTypeDescriptionCache() {
+        final TypeDescriptionCache cache = TypeDescriptionCache.INSTANCE;
+        MeterFactory.gauge("type_description_cache_hits", () -> (double) cache.getHits()).build();
+        MeterFactory.gauge("type_description_cache_misses", () -> (double) cache.getMisses()).build();
+        MeterFactory.gauge("type_description_cache_size", () -> (double) cache.size()).build();
+    }
+
+    /**
+     * Write the overhead of all accounted interceptors into the agent log, sorted by the time cost.
+     */
+    public static void dumpInterceptorOverhead() {
+        List<InterceptorOverhead> overheads = new ArrayList<>();
+        for (Map<String, InterceptorOverhead> pluginOverheads : INTERCEPTOR_OVERHEAD_CACHE.values()) {
+            overheads.addAll(pluginOverheads.values());
+        }
+        overheads.sort(Comparator.comparingLong(InterceptorOverhead::getTimeCost).reversed());
+
+        StringBuilder dump = new StringBuilder("Interceptor overhead, sampled 1 of every ")
+            .append(Math.max(1, Config.Meter.INTERCEPTOR_OVERHEAD_SAMPLE_INTERVAL))
+            .append(" invocations. plugin, interceptor, intercept point, calls, time cost(ns), avg time cost(ns),")
+            .append(" allocated bytes");
+        for (InterceptorOverhead overhead : overheads) {
+            long calls = overhead.getCalls();
+            dump.append(System.lineSeparator())
+                .append(overhead.getPluginName()).append(", ")
+                .append(overhead.getInterceptorName()).append(", ")
+                .append(overhead.getInterceptPoint()).append(", ")
+                .append(calls).append(", ")
+                .append(overhead.getTimeCost()).append(", ")
+                .append(calls == 0 ? 0 : overhead.getTimeCost() / calls).append(", ")
+                .append(overhead.getAllocatedBytes());
+        }
+        LOGGER.info(dump.toString());
+    }
+
+    /**
+     * Register the meters of the intercept point, and the meters summing up the overheads of its interceptor and its
+     * plugin. The meters registered again by the other intercept points are the same, as they sum up the same
+     * overheads. Only the first {@link Config.Meter#INTERCEPTOR_OVERHEAD_MAX_INTERCEPT_POINTS} intercept points have
+     * their own meters, which are named apart from the others, so they are also bounded by {@link
+     * Config.Meter#MAX_METER_SIZE_PER_NAME} without crowding out the meters of the plugins.
+     */
+    private static synchronized void registerOverheadMeters(Map<String, InterceptorOverhead> overheads,
+                                                            InterceptorOverhead overhead) {
+        if (overhead.metersRegistered) {
+            return;
+        }
+        overhead.metersRegistered = true;
+        final String pluginName = overhead.getPluginName();
+        final String interceptorName = overhead.getInterceptorName();
+        registerOverheadMeters("", overheads, all -> true, "plugin_name", pluginName);
+        registerOverheadMeters(
+            "_of_interceptor", overheads, other -> interceptorName.equals(other.getInterceptorName()),
+            "plugin_name", pluginName, "interceptor", interceptorName
+        );
+        if (!overhead.getInterceptPoint().isEmpty()
+            && INTERCEPT_POINTS_WITH_METERS < Config.Meter.INTERCEPTOR_OVERHEAD_MAX_INTERCEPT_POINTS) {
+            INTERCEPT_POINTS_WITH_METERS++;
+            registerOverheadMeters(
+                "_of_intercept_point", overheads, other -> other == overhead,
+                "plugin_name", pluginName, "interceptor", interceptorName, "intercept_point", overhead.getInterceptPoint()
+            );
+        }
+    }
+
+    /**
+     * @param tags the keys and values of the tags.
+     */
+    private static void registerOverheadMeters(String nameSuffix, Map<String, InterceptorOverhead> overheads,
+                                               Predicate<InterceptorOverhead> filter, String... tags) {
+        registerOverheadMeter(
+            "interceptor_overhead_calls" + nameSuffix,
+            () -> sumOfOverhead(overheads, filter, InterceptorOverhead::getCalls), tags
+        );
+        registerOverheadMeter(
+            "interceptor_overhead_time_cost" + nameSuffix,
+            () -> sumOfOverhead(overheads, filter, InterceptorOverhead::getTimeCost), tags
+        );
+        if (Config.Meter.INTERCEPTOR_OVERHEAD_ALLOCATION) {
+            registerOverheadMeter(
+                "interceptor_overhead_allocated_bytes" + nameSuffix,
+                () -> sumOfOverhead(overheads, filter, InterceptorOverhead::getAllocatedBytes), tags
+            );
+        }
+    }
+
+    private static void registerOverheadMeter(String name, Supplier<Double> supplier, String... tags) {
+        final Gauge.Builder builder = MeterFactory.gauge(name, supplier);
+        for (int i = 0; i + 1 < tags.length; i += 2) {
+            builder.tag(tags[i], tags[i + 1]);
+        }
+        builder.build();
+    }
+
+    private static double sumOfOverhead(Map<String, InterceptorOverhead> overheads,
+                                        Predicate<InterceptorOverhead> filter,
+                                        ToLongFunction<InterceptorOverhead> value) {
+        long sum = 0;
+        for (InterceptorOverhead overhead : overheads.values()) {
+            if (filter.test(overhead)) {
+                sum += value.applyAsLong(overhead);
+            }
+        }
+        return sum;
+    }
 }
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * The overhead of one interceptor of a plugin at an intercept point, accounted by the interceptor delegates, such as
+ * {@code InstMethodsInter}, in 1 of every {@link Config.Meter#INTERCEPTOR_OVERHEAD_SAMPLE_INTERVAL} invocations. The
+ * counters are striped {@link LongAdder}s, so the concurrent invocations don't contend on them.
+ * <p>
+ * The delegates get the overhead once through {@link AgentSo11y#overheadOf(String, String, String)}, and account an
+ * invocation like this
+ * <pre>
+ * boolean sampled = overhead.sample();
+ * long start = overhead.allocatedBytes(sampled);
+ * // call the interceptor
+ * long allocatedBytes = overhead.allocatedBytes(sampled) - start;
+ * if (sampled) {
+ *     overhead.record(timeCost, allocatedBytes);
+ * }
+ * </pre>
+ */
+public class InterceptorOverhead {
+    /**
+     * The overhead never sampled, used when the accounting is inactive.
+     */
+    static final InterceptorOverhead INACTIVE = new InterceptorOverhead("", "", "", false, 1, false);
+
+    private final String pluginName;
+    private final String interceptorName;
+    private final String interceptPoint;
+    private final boolean active;
+    private final int sampleInterval;
+    private final boolean allocationAccounting;
+
+    /**
+     * True if the meters of the overhead have been registered, guarded by {@link AgentSo11y}.
+     */
+    boolean metersRegistered;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder timeCost = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    InterceptorOverhead(String pluginName, String interceptorName, String interceptPoint, boolean active,
+                        int sampleInterval, boolean allocationAccounting) {
+        this.pluginName = pluginName;
+        this.interceptorName = interceptorName;
+        this.interceptPoint = interceptPoint;
+        this.active = active;
+        this.sampleInterval = Math.max(1, sampleInterval);
+        this.allocationAccounting = allocationAccounting && ThreadAllocation.isSupported();
+    }
+
+    /**
+     * @return true if the current invocation should be accounted.
+     */
+    public boolean sample() {
+        if (!active) {
+            return false;
+        }
+        return sampleInterval == 1 || ThreadLocalRandom.current().nextInt(sampleInterval) == 0;
+    }
+
+    /**
+     * @param sampled the result of {@link #sample()} of the current invocation.
+     * @return the bytes allocated by the current thread so far, or 0 if the invocation is not sampled or the allocation
+     * is not accounted.
+     */
+    public long allocatedBytes(boolean sampled) {
+        if (!sampled || !allocationAccounting) {
+            return 0L;
+        }
+        return ThreadAllocation.currentThreadAllocatedBytes();
+    }
+
+    /**
+     * Account a sampled invocation.
+     *
+     * @param timeCostInNanos the time cost of the interceptor.
+     * @param allocatedBytes  the bytes allocated by the interceptor.
+     */
+    public void record(long timeCostInNanos, long allocatedBytes) {
+        calls.increment();
+        timeCost.add(timeCostInNanos);
+        if (allocatedBytes > 0) {
+            this.allocatedBytes.add(allocatedBytes);
+        }
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    public String getInterceptorName() {
+        return interceptorName;
+    }
+
+    /**
+     * @return the name of the enhanced class, whose methods or constructors the interceptor intercepts.
+     */
+    public String getInterceptPoint() {
+        return interceptPoint;
+    }
+
+    /**
+     * @return the estimated number of the invocations, scaled by the sample interval.
+     */
+    public long getCalls() {
+        return calls.sum() * sampleInterval;
+    }
+
+    /**
+     * @return the estimated time cost in nanoseconds of all invocations, scaled by the sample interval.
+     */
+    public long getTimeCost() {
+        return timeCost.sum() * sampleInterval;
+    }
+
+    /**
+     * @return the estimated bytes allocated by all invocations, scaled by the sample interval.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum() * sampleInterval;
+    }
+}
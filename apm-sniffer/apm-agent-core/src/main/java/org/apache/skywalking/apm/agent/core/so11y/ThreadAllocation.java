@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * Measure the bytes allocated by the current thread through {@code com.sun.management.ThreadMXBean}, which is not
+ * available on every JVM. The MXBean is only resolved at the first use, as the management factory shouldn't be
+ * initialized in the premain when the allocation is not accounted.
+ */
+final class ThreadAllocation {
+    private static final ILog LOGGER = LogManager.getLogger(ThreadAllocation.class);
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = resolve();
+
+    private ThreadAllocation() {
+    }
+
+    static boolean isSupported() {
+        return THREAD_MX_BEAN != null;
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or 0 if not supported.
+     */
+    static long currentThreadAllocatedBytes() {
+        if (THREAD_MX_BEAN == null) {
+            return 0L;
+        }
+        return Math.max(0L, THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()));
+    }
+
+    private static com.sun.management.ThreadMXBean resolve() {
+        try {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+                LOGGER.warn("The allocated bytes of the interceptors can't be accounted, as it is not supported by the JVM.");
+                return null;
+            }
+            com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (!sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+                LOGGER.warn("The allocated bytes of the interceptors can't be accounted, as it is not supported by the JVM.");
+                return null;
+            }
+            if (!sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return sunThreadMXBean;
+        } catch (Throwable t) {
+            LOGGER.warn(t, "The allocated bytes of the interceptors can't be accounted.");
+            return null;
+        }
+    }
+}
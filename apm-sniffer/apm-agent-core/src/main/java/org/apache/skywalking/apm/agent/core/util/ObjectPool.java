@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free object pool. The objects are kept in several striped multiple producers / multiple consumers
+ * rings, the threads acquire from the stripe picked by their thread id first, then steal from the others. The objects
+ * are released in turns to the stripes, as they are usually released by a few reporting threads.
+ * <p>
+ * When the pool is empty, {@link #acquire()} returns null, and when the pool is full, the released object is dropped
+ * and left to GC.
+ */
+public class ObjectPool<T> {
+    private static final int MAX_STRIPES = 8;
+
+    private final Stripe<T>[] stripes;
+    private final int stripeMask;
+    private int releaseCursor;
+
+    @SuppressWarnings("unchecked")
+    public ObjectPool(int size) {
+        int stripeNum = Math.min(roundToPowerOf2(Runtime.getRuntime().availableProcessors()), MAX_STRIPES);
+        stripeNum = Math.min(stripeNum, roundToPowerOf2(Math.max(size, 1)));
+        this.stripes = new Stripe[stripeNum];
+        int stripeSize = roundToPowerOf2((Math.max(size, 1) + stripeNum - 1) / stripeNum);
+        for (int i = 0; i < stripeNum; i++) {
+            stripes[i] = new Stripe<>(stripeSize);
+        }
+        this.stripeMask = stripeNum - 1;
+    }
+
+    /**
+     * @return a released object, or null if the pool is empty.
+     */
+    public T acquire() {
+        int start = (int) Thread.currentThread().getId();
+        for (int i = 0; i <= stripeMask; i++) {
+            T object = stripes[(start + i) & stripeMask].poll();
+            if (object != null) {
+                return object;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return false if the pool is full, the object is dropped.
+     */
+    public boolean release(T object) {
+        // The racy cursor only spreads the objects, the lost updates don't matter.
+        int start = releaseCursor++;
+        for (int i = 0; i <= stripeMask; i++) {
+            if (stripes[(start + i) & stripeMask].offer(object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int roundToPowerOf2(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        if (value > 1 << 30) {
+            return 1 << 30;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Bounded multiple producers / multiple consumers ring, every slot carries a sequence number to claim and publish
+     * it.
+     */
+    private static class Stripe<T> {
+        private static final int TAIL_OFFSET = 15;
+        private static final int HEAD_OFFSET = 31;
+
+        private final AtomicReferenceArray<T> elements;
+        private final AtomicLongArray sequences;
+        private final AtomicLongArray indexes;
+        private final int mask;
+
+        private Stripe(int capacity) {
+            this.elements = new AtomicReferenceArray<>(capacity);
+            this.sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+            this.indexes = new AtomicLongArray(HEAD_OFFSET + 16);
+            this.mask = capacity - 1;
+        }
+
+        private boolean offer(T object) {
+            long tail = indexes.get(TAIL_OFFSET);
+            while (true) {
+                int slot = (int) tail & mask;
+                long sequence = sequences.get(slot);
+                if (sequence == tail) {
+                    if (indexes.compareAndSet(TAIL_OFFSET, tail, tail + 1)) {
+                        elements.lazySet(slot, object);
+                        sequences.set(slot, tail + 1);
+                        return true;
+                    }
+                } else if (sequence < tail) {
+                    return false;
+                }
+                tail = indexes.get(TAIL_OFFSET);
+            }
+        }
+
+        private T poll() {
+            long head = indexes.get(HEAD_OFFSET);
+            while (true) {
+                int slot = (int) head & mask;
+                long sequence = sequences.get(slot);
+                if (sequence == head + 1) {
+                    if (indexes.compareAndSet(HEAD_OFFSET, head, head + 1)) {
+                        T object = elements.getAndSet(slot, null);
+                        sequences.set(slot, head + mask + 1);
+                        return object;
+                    }
+                } else if (sequence < head + 1) {
+                    return null;
+                }
+                head = indexes.get(HEAD_OFFSET);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.asyncprofiler;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerData;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MappedJFRFileStreamTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSendWithFlowControl() throws IOException {
+        byte[] content = new byte[10 * 1024 + 17];
+        new Random(7).nextBytes(content);
+        File file = temporaryFolder.newFile("dump.jfr");
+        Files.write(file.toPath(), content);
+
+        RequestStream requestStream = new RequestStream();
+        try (MappedJFRFileStream fileStream = new MappedJFRFileStream(file, 1024)) {
+            assertThat(fileStream.getFileSize(), is((long) content.length));
+            fileStream.bind(requestStream);
+
+            // Nothing is sent before started.
+            requestStream.ready(3);
+            assertThat(requestStream.chunks.size(), is(0));
+
+            fileStream.start();
+            assertThat(requestStream.chunks.size(), is(3));
+            Assert.assertFalse(requestStream.completed);
+
+            // Resume from the paused position.
+            requestStream.ready(100);
+            assertThat(requestStream.chunks.size(), is(11));
+            Assert.assertTrue(requestStream.completed);
+        }
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        for (AsyncProfilerData chunk : requestStream.chunks) {
+            chunk.getContent().writeTo(received);
+        }
+        Assert.assertArrayEquals(content, received.toByteArray());
+    }
+
+    private static class RequestStream extends ClientCallStreamObserver<AsyncProfilerData> {
+        private final List<AsyncProfilerData> chunks = new ArrayList<>();
+        private Runnable onReadyHandler;
+        private int permits;
+        private boolean completed;
+
+        private void ready(int permits) {
+            this.permits = permits;
+            onReadyHandler.run();
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+        }
+
+        @Override
+        public boolean isReady() {
+            return permits > 0;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+
+        @Override
+        public void onNext(AsyncProfilerData value) {
+            permits--;
+            chunks.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            throw new IllegalStateException(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.conf.watcher;
+
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.AgentConfigChangeWatcher;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.DeactivatedPluginsWatcher;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitch;
+import org.apache.skywalking.apm.agent.core.plugin.PluginSwitchService;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class DeactivatedPluginsWatcherTest {
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private PluginSwitchService pluginSwitchService;
+
+    @Before
+    public void setUp() {
+        pluginSwitchService = ServiceManager.INSTANCE.findService(PluginSwitchService.class);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Test
+    public void testConfigModifyEvent() throws IllegalAccessException, NoSuchFieldException {
+        DeactivatedPluginsWatcher deactivatedPluginsWatcher =
+            FieldGetter.getValue(pluginSwitchService, "deactivatedPluginsWatcher");
+        PluginSwitch jdbcSwitch = PluginSwitch.of("mysql-8.x");
+        PluginSwitch httpSwitch = PluginSwitch.of("tomcat-7.x/8.x");
+        Assert.assertTrue(jdbcSwitch.isActive());
+
+        deactivatedPluginsWatcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(
+            "MySQL-8.x, redisson-3.x",
+            AgentConfigChangeWatcher.EventType.MODIFY
+        ));
+        Assert.assertEquals("MySQL-8.x, redisson-3.x", deactivatedPluginsWatcher.getDeactivatedPlugins());
+        Assert.assertEquals("plugin.deactivated_plugins", deactivatedPluginsWatcher.getPropertyKey());
+        Assert.assertFalse(jdbcSwitch.isActive());
+        Assert.assertTrue(httpSwitch.isActive());
+        // The switches created later respect the deactivated plugins too.
+        Assert.assertFalse(PluginSwitch.of("redisson-3.x").isActive());
+
+        deactivatedPluginsWatcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(
+            null,
+            AgentConfigChangeWatcher.EventType.DELETE
+        ));
+        Assert.assertTrue(jdbcSwitch.isActive());
+        Assert.assertTrue(PluginSwitch.of("redisson-3.x").isActive());
+    }
+}
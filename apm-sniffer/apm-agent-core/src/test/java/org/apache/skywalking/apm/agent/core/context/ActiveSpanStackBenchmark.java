@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.LocalSpan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the linked list and the array list as the active span stack and the archived span list of {@link
+ * TracingContext}, in a deep call chain of local spans. The spans are created ahead, only the operations of the stack
+ * and the list are measured, check the gc.alloc.rate.norm of the {@link GCProfiler} result for the allocation.
+ */
+@State(Scope.Thread)
+public class ActiveSpanStackBenchmark {
+    @Param({
+        "50",
+        "200"
+    })
+    public int depth;
+
+    private AbstractTracingSpan[] spans;
+
+    @Setup
+    public void setup() {
+        spans = new AbstractTracingSpan[depth];
+        for (int i = 0; i < depth; i++) {
+            spans[i] = new LocalSpan(i, i - 1, "/local", null);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public void linkedList(Blackhole bh) {
+        LinkedList<AbstractSpan> activeSpanStack = new LinkedList<>();
+        List<AbstractTracingSpan> archived = new LinkedList<>();
+        for (AbstractTracingSpan span : spans) {
+            bh.consume(activeSpanStack.isEmpty() ? null : activeSpanStack.getLast());
+            activeSpanStack.addLast(span);
+        }
+        while (!activeSpanStack.isEmpty()) {
+            archived.add((AbstractTracingSpan) activeSpanStack.removeLast());
+        }
+        bh.consume(archived);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public void arrayList(Blackhole bh) {
+        ArrayList<AbstractSpan> activeSpanStack = new ArrayList<>(16);
+        List<AbstractTracingSpan> archived = new ArrayList<>(16);
+        for (AbstractTracingSpan span : spans) {
+            bh.consume(activeSpanStack.isEmpty() ? null : activeSpanStack.get(activeSpanStack.size() - 1));
+            activeSpanStack.add(span);
+        }
+        while (!activeSpanStack.isEmpty()) {
+            archived.add((AbstractTracingSpan) activeSpanStack.remove(activeSpanStack.size() - 1));
+        }
+        bh.consume(archived);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(ActiveSpanStackBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
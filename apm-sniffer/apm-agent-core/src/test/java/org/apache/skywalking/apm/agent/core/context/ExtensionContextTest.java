@@ -64,6 +64,22 @@ public class ExtensionContextTest {
         Assert.assertEquals(context.serialize(), "0-1602743904804");
     }
 
+    @Test
+    public void testForceSampled() {
+        final ExtensionContext context = new ExtensionContext();
+        context.forceSampled();
+        Assert.assertEquals(context.serialize(), "0- -1");
+
+        final ExtensionContext downstream = new ExtensionContext();
+        downstream.deserialize("0-1602743904804-1");
+        Assert.assertTrue(downstream.isForceSampled());
+        Assert.assertEquals(downstream.serialize(), "0-1602743904804-1");
+        Assert.assertEquals(context.clone(), context);
+
+        downstream.deserialize("0- ");
+        Assert.assertFalse(downstream.isForceSampled());
+    }
+
     @Test
     public void testClone() {
         final ExtensionContext context = new ExtensionContext();
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GlobalIdGeneratorTest {
+    @After
+    public void tearDown() {
+        Config.Agent.BINARY_ID = false;
+    }
+
+    @Test
+    public void testBinaryIdToString() {
+        Assert.assertEquals(
+            "0000000000000001ffffffffffffffff", GlobalIdGenerator.toString(1L, -1L));
+        Assert.assertEquals(
+            "0123456789abcdeffedcba9876543210", GlobalIdGenerator.toString(0x0123456789abcdefL, 0xfedcba9876543210L));
+    }
+
+    @Test
+    public void testUniqueBinaryIdAcrossThreads() throws InterruptedException {
+        final int threadNum = 8;
+        final int idNumPerThread = 10000;
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+        final CountDownLatch latch = new CountDownLatch(threadNum);
+        for (int i = 0; i < threadNum; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < idNumPerThread; j++) {
+                    ids.add(GlobalIdGenerator.generateBinaryIdLow());
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        Assert.assertEquals(threadNum * idNumPerThread, ids.size());
+    }
+
+    @Test
+    public void testBinaryDistributedTraceId() {
+        Config.Agent.BINARY_ID = true;
+        NewDistributedTraceId traceId = new NewDistributedTraceId();
+        String id = traceId.getId();
+        Assert.assertEquals(32, id.length());
+        Assert.assertSame(id, traceId.getId());
+        Assert.assertEquals(Base64.encode(id), traceId.getEncodedId());
+        Assert.assertEquals(new PropagatedTraceId(id), traceId);
+        Assert.assertNotEquals(new NewDistributedTraceId(), traceId);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.RecyclingAwareListener;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the allocation of the segment lifecycle, an entry span with 5 local spans and an exit span, between the
+ * objects created by their constructors as the tracing context did before the recycling, and the recycler with the
+ * pools off(poolSize=0) and on. The recycled segment is notified to a listener retaining it like the reporters, so the
+ * cost of the reference counting is included. Check the gc.alloc.rate.norm of the {@link GCProfiler} result.
+ */
+@State(Scope.Benchmark)
+public class TracingObjectRecyclerBenchmark {
+    @Param({
+        "0",
+        "1024"
+    })
+    public int poolSize;
+
+    private final RecyclingAwareListener reporter = segment -> {
+        TracingObjectRecycler.retain(segment);
+        TracingObjectRecycler.recycle(segment);
+    };
+
+    @Setup
+    public void setup() {
+        Config.Agent.TRACING_OBJECT_POOL_SIZE = poolSize;
+        TracingContext.ListenerManager.add(reporter);
+    }
+
+    @TearDown
+    public void tearDown() {
+        TracingContext.ListenerManager.remove(reporter);
+        Config.Agent.TRACING_OBJECT_POOL_SIZE = 0;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public TraceSegment constructedSegmentLifecycle() {
+        TraceSegment segment = new TraceSegment(8);
+        int spanId = 0;
+        EntrySpan entrySpan = new EntrySpan(spanId++, -1, "/entry", null);
+        entrySpan.start();
+        entrySpan.tag(Tags.URL, "http://127.0.0.1:8080/entry");
+        for (int i = 0; i < 5; i++) {
+            LocalSpan localSpan = new LocalSpan(spanId++, 0, "/local", null);
+            localSpan.start();
+            localSpan.finish(segment);
+        }
+        ExitSpan exitSpan = new ExitSpan(spanId, 0, "/exit", "127.0.0.1:3306", null);
+        exitSpan.start();
+        exitSpan.tag(Tags.DB_STATEMENT, "select 1");
+        exitSpan.finish(segment);
+        entrySpan.finish(segment);
+        segment.finish(false);
+        return segment;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @BenchmarkMode(Mode.SampleTime)
+    public TraceSegment recycledSegmentLifecycle() {
+        TraceSegment segment = TracingObjectRecycler.newSegment(8);
+        int spanId = 0;
+        EntrySpan entrySpan = TracingObjectRecycler.newEntrySpan(spanId++, -1, "/entry", null);
+        entrySpan.start();
+        entrySpan.tag(Tags.URL, "http://127.0.0.1:8080/entry");
+        for (int i = 0; i < 5; i++) {
+            LocalSpan localSpan = TracingObjectRecycler.newLocalSpan(spanId++, 0, "/local", null);
+            localSpan.start();
+            localSpan.finish(segment);
+        }
+        ExitSpan exitSpan = TracingObjectRecycler.newExitSpan(spanId, 0, "/exit", "127.0.0.1:3306", null);
+        exitSpan.start();
+        exitSpan.tag(Tags.DB_STATEMENT, "select 1");
+        exitSpan.finish(segment);
+        entrySpan.finish(segment);
+        segment.finish(false);
+        TracingContext.ListenerManager.notifyListeners(segment);
+        return segment;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(TracingObjectRecyclerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.RecyclingAwareListener;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TracingObjectRecyclerTest {
+    @Before
+    public void setUp() {
+        Config.Agent.TRACING_OBJECT_POOL_SIZE = 16;
+    }
+
+    @After
+    public void tearDown() {
+        Config.Agent.TRACING_OBJECT_POOL_SIZE = 0;
+    }
+
+    @Test
+    public void testReuseRecycledSegmentAndSpans() {
+        TraceSegment segment = TracingObjectRecycler.newSegment(8);
+        EntrySpan entrySpan = TracingObjectRecycler.newEntrySpan(0, -1, "/entry", null);
+        entrySpan.start();
+        ExitSpan exitSpan = TracingObjectRecycler.newExitSpan(1, 0, "/exit", "127.0.0.1:8080", null);
+        exitSpan.start();
+        exitSpan.tag(Tags.URL, "http://127.0.0.1:8080/exit");
+        exitSpan.finish(segment);
+        entrySpan.finish(segment);
+        String segmentId = segment.getTraceSegmentId();
+
+        TracingObjectRecycler.recycle(segment);
+
+        TraceSegment reusedSegment = TracingObjectRecycler.newSegment(8);
+        assertThat(reusedSegment, sameInstance(segment));
+        assertThat(reusedSegment.getTraceSegmentId(), not(segmentId));
+        assertThat(reusedSegment.getSpans().isEmpty(), is(true));
+
+        ExitSpan reusedExitSpan = TracingObjectRecycler.newExitSpan(0, -1, "/exit2", "127.0.0.1:9090", null);
+        assertThat(reusedExitSpan, sameInstance(exitSpan));
+        assertThat(reusedExitSpan.getPeer(), is("127.0.0.1:9090"));
+        assertThat(reusedExitSpan.getOperationName(), is("/exit2"));
+        assertThat(reusedExitSpan.transform().getTagsCount(), is(0));
+        assertThat(TracingObjectRecycler.newEntrySpan(0, -1, "/entry2", null), sameInstance(entrySpan));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTransformRecycledSegment() {
+        TraceSegment segment = TracingObjectRecycler.newSegment(8);
+        LocalSpan span = TracingObjectRecycler.newLocalSpan(0, -1, "/local", null);
+        span.start();
+        span.finish(segment);
+
+        TracingObjectRecycler.recycle(segment);
+        // Recycle repeatedly is ignored.
+        TracingObjectRecycler.recycle(segment);
+
+        span.tag(Tags.URL, "http://127.0.0.1:8080/local");
+        assertThat(span.tags, nullValue());
+        segment.transform();
+    }
+
+    @Test
+    public void testNotRecycleSegmentWithAsyncSpan() {
+        TraceSegment segment = TracingObjectRecycler.newSegment(8);
+        LocalSpan span = TracingObjectRecycler.newLocalSpan(0, -1, "/local", null);
+        span.start();
+        span.isInAsyncMode = true;
+        span.finish(segment);
+
+        TracingObjectRecycler.recycle(segment);
+
+        assertThat(segment.isRecycled(), is(false));
+        assertThat(segment.transform().getSpansCount(), is(1));
+        assertThat(TracingObjectRecycler.newSegment(8), not(sameInstance(segment)));
+    }
+
+    @Test
+    public void testRecycleAfterAllListenersReleased() {
+        TraceSegment segment = finishedSegment();
+        RetainingListener first = new RetainingListener();
+        RetainingListener second = new RetainingListener();
+        TracingContext.ListenerManager.add(first);
+        TracingContext.ListenerManager.add(second);
+        try {
+            TracingContext.ListenerManager.notifyListeners(segment);
+        } finally {
+            TracingContext.ListenerManager.remove(first);
+            TracingContext.ListenerManager.remove(second);
+        }
+        assertThat(first.segments.get(0), sameInstance(segment));
+        assertThat(second.segments.get(0), sameInstance(segment));
+
+        TracingObjectRecycler.recycle(first.segments.get(0));
+        // The second listener still holds the segment.
+        assertThat(segment.isRecycled(), is(false));
+        assertThat(segment.transform().getSpansCount(), is(1));
+
+        TracingObjectRecycler.recycle(second.segments.get(0));
+        assertThat(segment.isRecycled(), is(true));
+    }
+
+    @Test
+    public void testNotRecycleSegmentKeptByUnawareListener() {
+        TraceSegment segment = finishedSegment();
+        RetainingListener retainingListener = new RetainingListener();
+        List<TraceSegment> keptSegments = new ArrayList<>();
+        TracingContextListener unawareListener = keptSegments::add;
+        TracingContext.ListenerManager.add(retainingListener);
+        TracingContext.ListenerManager.add(unawareListener);
+        try {
+            TracingContext.ListenerManager.notifyListeners(segment);
+        } finally {
+            TracingContext.ListenerManager.remove(retainingListener);
+            TracingContext.ListenerManager.remove(unawareListener);
+        }
+
+        TracingObjectRecycler.recycle(retainingListener.segments.get(0));
+
+        assertThat(segment.isRecycled(), is(false));
+        assertThat(keptSegments.get(0).transform().getSpansCount(), is(1));
+    }
+
+    private static TraceSegment finishedSegment() {
+        TraceSegment segment = TracingObjectRecycler.newSegment(8);
+        LocalSpan span = TracingObjectRecycler.newLocalSpan(0, -1, "/local", null);
+        span.start();
+        span.finish(segment);
+        return segment;
+    }
+
+    /**
+     * Keep the notified segments like a reporter queueing them.
+     */
+    private static class RetainingListener implements RecyclingAwareListener {
+        private final List<TraceSegment> segments = new ArrayList<>();
+
+        @Override
+        public void afterFinished(TraceSegment traceSegment) {
+            TracingObjectRecycler.retain(traceSegment);
+            segments.add(traceSegment);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.logging.core;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncFileWriterTest {
+
+    @Before
+    public void beforeTestFile() throws IOException {
+        File directory = new File(System.getProperty("java.io.tmpdir", "/tmp"));
+        String dirName4Unique = UUID.randomUUID().toString();
+        Config.Logging.DIR = directory.getCanonicalPath() + Constants.PATH_SEPARATOR + "log-test_" + dirName4Unique;
+    }
+
+    @Test
+    public void testEncodeUtf8() {
+        String[] messages = {"abcd", "héllo wörld", "中文日志", "emoji 😀", "malformed \uD800 \uDC00", "end \uD83D"};
+        for (String message : messages) {
+            byte[] buffer = new byte[message.length() * 3];
+            int length = AsyncFileWriter.encodeUtf8(message, buffer);
+            assertArrayEquals(message.getBytes(StandardCharsets.UTF_8), Arrays.copyOf(buffer, length));
+        }
+    }
+
+    @Test
+    public void testWriteAndDrop() throws IOException {
+        final int lineLength = 9 + Constants.LINE_SEPARATOR.length();
+        AsyncFileWriter writer = new AsyncFileWriter(1024, 1024, 60000);
+        for (int i = 0; i < 200; i++) {
+            writer.write("abcdefghi");
+        }
+        final int bufferedLines = 1024 / lineLength;
+        assertEquals(200 - bufferedLines, writer.getDroppedLines());
+
+        writer.flush();
+        // The buffer wraps around
+        for (int i = 0; i < 150; i++) {
+            writer.write("line" + i);
+            if (i % 50 == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+
+        List<String> lines = Files.readAllLines(new File(Config.Logging.DIR, Config.Logging.FILE_NAME).toPath());
+        assertEquals(1 + bufferedLines + 150, lines.size());
+        assertEquals((200 - bufferedLines) + " log lines have been dropped, because the log buffer is full.", lines.get(0));
+        for (int i = 0; i < 150; i++) {
+            assertEquals("line" + i, lines.get(1 + bufferedLines + i));
+        }
+    }
+
+    @Test
+    public void testFlushWhenFlushSizeReached() throws Exception {
+        // Never flushed by the interval in the test.
+        AsyncFileWriter writer = new AsyncFileWriter(1024, 64, 60000);
+        writer.start();
+        final int lineLength = 9 + Constants.LINE_SEPARATOR.length();
+        final int lineCount = 64 / lineLength + 1;
+        for (int i = 0; i < lineCount; i++) {
+            writer.write("abcdefghi");
+        }
+
+        List<String> lines = awaitLogFile(lineCount * lineLength);
+        assertEquals(lineCount, lines.size());
+        assertEquals("abcdefghi", lines.get(0));
+    }
+
+    @Test
+    public void testFlushWhenIntervalElapsed() throws Exception {
+        // Never flushed by the size in the test.
+        AsyncFileWriter writer = new AsyncFileWriter(4096, 4096, 50);
+        writer.start();
+        writer.write("abcdefghi");
+
+        List<String> lines = awaitLogFile(9 + Constants.LINE_SEPARATOR.length());
+        assertEquals(Arrays.asList("abcdefghi"), lines);
+    }
+
+    @Test
+    public void testKeepFlushingAfterFailure() throws Exception {
+        final AtomicInteger flushes = new AtomicInteger();
+        AsyncFileWriter writer = new AsyncFileWriter(4096, 4096, 50) {
+            @Override
+            synchronized void flush() {
+                if (flushes.getAndIncrement() == 0) {
+                    throw new IllegalStateException("Fail to flush at the first time.");
+                }
+                super.flush();
+            }
+        };
+        writer.start();
+        writer.write("abcdefghi");
+
+        List<String> lines = awaitLogFile(9 + Constants.LINE_SEPARATOR.length());
+        assertEquals(Arrays.asList("abcdefghi"), lines);
+        assertTrue(flushes.get() > 1);
+    }
+
+    @Test
+    public void testDeleteWhenRollover() throws IOException {
+        Config.Logging.MAX_FILE_SIZE = 10;
+        Config.Logging.MAX_HISTORY_FILES = 3;
+        // The history files rolled over before, older than the one rolled over by the test.
+        File dir = new File(Config.Logging.DIR);
+        assertTrue(dir.mkdirs());
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(new File(dir, Config.Logging.FILE_NAME + ".2020_01_01_00_00_0" + i).createNewFile());
+        }
+        AsyncFileWriter writer = new AsyncFileWriter(1024, 1024, 60000);
+        writer.write("abcdefghij");
+        writer.flush();
+
+        final Pattern filenamePattern = Pattern.compile(Config.Logging.FILE_NAME + "\\.\\d{4}_\\d{2}_\\d{2}_\\d{2}_\\d{2}_\\d{2}");
+        List<String> historyFiles = Arrays.asList(dir.list((d, name) -> filenamePattern.matcher(name).matches()));
+
+        assertEquals(3, historyFiles.size());
+        assertFalse(historyFiles.contains(Config.Logging.FILE_NAME + ".2020_01_01_00_00_01"));
+        assertTrue(historyFiles.contains(Config.Logging.FILE_NAME + ".2020_01_01_00_00_02"));
+        assertTrue(historyFiles.contains(Config.Logging.FILE_NAME + ".2020_01_01_00_00_03"));
+        assertFalse(new File(dir, Config.Logging.FILE_NAME).exists());
+    }
+
+    /**
+     * Wait until the log file is written by the flusher thread.
+     *
+     * @return the lines of the log file.
+     */
+    private static List<String> awaitLogFile(long length) throws Exception {
+        File file = new File(Config.Logging.DIR, Config.Logging.FILE_NAME);
+        for (int i = 0; i < 1000; i++) {
+            if (file.length() >= length) {
+                return Files.readAllLines(file.toPath());
+            }
+            Thread.sleep(10);
+        }
+        fail("The logs are not flushed in 10 seconds.");
+        return null;
+    }
+
+    @After
+    public void clear() {
+        Config.Logging.MAX_FILE_SIZE = 300 * 1024 * 1024;
+        Config.Logging.MAX_HISTORY_FILES = -1;
+        deleteDir(new File(Config.Logging.DIR));
+        Config.Logging.DIR = "";
+    }
+
+    private static void deleteDir(File dir) {
+        if (dir.isDirectory()) {
+            String[] children = dir.list();
+            for (int i = 0; i < children.length; i++) {
+                deleteDir(new File(dir, children[i]));
+            }
+        }
+        dir.delete();
+    }
+}
@@ -18,12 +18,16 @@
 
 package org.apache.skywalking.apm.agent.core.logging.core;
 
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
 import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
 import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.MockedStatic;
@@ -39,11 +43,19 @@ public class WriterFactoryTest {
     private MockedStatic<AgentPackagePath> mockedAgentPackagePath =
         Mockito.mockStatic(AgentPackagePath.class);
 
+    @Before
+    public void setUp() throws Exception {
+        resetWriter();
+    }
+
     @After
-    public void tearDown() {
+    public void tearDown() throws Exception {
         mockedSnifferConfigInitializer.close();
         mockedPluginFinder.close();
         mockedAgentPackagePath.close();
+        resetWriter();
+        Config.Logging.OUTPUT = LogOutput.FILE;
+        Config.Logging.DIR = "";
     }
 
     @Test
@@ -76,4 +88,25 @@ public class WriterFactoryTest {
         IWriter logWriter = WriterFactory.getLogWriter();
         assertTrue(logWriter instanceof FileWriter);
     }
+
+    @Test
+    public void returnAsyncFileWriterWithAsyncFileOutput() {
+        Config.Logging.OUTPUT = LogOutput.ASYNC_FILE;
+        mockedSnifferConfigInitializer.when(SnifferConfigInitializer::isInitCompleted).thenReturn(true);
+        mockedPluginFinder.when(PluginFinder::isPluginInitCompleted).thenReturn(true);
+        mockedAgentPackagePath.when(AgentPackagePath::isPathFound).thenReturn(true);
+
+        IWriter logWriter = WriterFactory.getLogWriter();
+        assertTrue(logWriter instanceof AsyncFileWriter);
+        assertSame(logWriter, WriterFactory.getLogWriter());
+    }
+
+    /**
+     * The writer is created only once, reset it for every test.
+     */
+    private static void resetWriter() throws Exception {
+        Field writer = WriterFactory.class.getDeclaredField("WRITER");
+        writer.setAccessible(true);
+        writer.set(null, null);
+    }
 }
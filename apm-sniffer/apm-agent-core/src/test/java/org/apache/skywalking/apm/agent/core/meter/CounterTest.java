@@ -85,6 +85,20 @@ public class CounterTest {
         validateMeterData("test", Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build()), -1d, counter.transform());
     }
 
+    @Test
+    public void testTransformIfChanged() {
+        final Counter counter = MeterFactory.counter("test").tag("k1", "v1").mode(CounterMode.RATE).build();
+        final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+
+        counter.increment(1d);
+        validateMeterData("test", labels, 1d, counter.transformIfChanged(false));
+        Assert.assertNull(counter.transformIfChanged(false));
+        validateMeterData("test", labels, 0d, counter.transformIfChanged(true));
+
+        counter.increment(2d);
+        validateMeterData("test", labels, 2d, counter.transformIfChanged(false));
+    }
+
     /**
      * Check the single value message
      */
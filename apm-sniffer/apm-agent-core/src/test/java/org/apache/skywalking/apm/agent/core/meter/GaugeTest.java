@@ -65,6 +65,20 @@ public class GaugeTest {
         validateMeterData("test3", labels, 0d, gauge3.transform());
     }
 
+    @Test
+    public void testTransformIfChanged() {
+        final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+        final double[] value = new double[] {2d};
+
+        final Gauge gauge = MeterFactory.gauge("test", () -> value[0]).tag("k1", "v1").build();
+        validateMeterData("test", labels, 2d, gauge.transformIfChanged(false));
+        Assert.assertNull(gauge.transformIfChanged(false));
+        validateMeterData("test", labels, 2d, gauge.transformIfChanged(true));
+
+        value[0] = 3d;
+        validateMeterData("test", labels, 3d, gauge.transformIfChanged(false));
+    }
+
     /**
      * Check the single value message
      */
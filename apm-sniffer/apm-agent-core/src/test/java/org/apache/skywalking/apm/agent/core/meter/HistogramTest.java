@@ -80,6 +80,71 @@ public class HistogramTest {
         verifyHistogram("test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(1L, 2L, 2L), histogram.transform());
     }
 
+    @Test
+    public void testStripedTransform() {
+        final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+
+        final Histogram histogram = MeterFactory.histogram("test")
+                                                .steps(Arrays.asList(2d, 5d))
+                                                .minValue(1d)
+                                                .striped()
+                                                .tag("k1", "v1")
+                                                .build();
+        histogram.addValue(0);
+        histogram.addValue(1);
+        histogram.addValue(3);
+        histogram.addValue(3);
+        histogram.addValue(7);
+        verifyHistogram("test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(1L, 2L, 1L), histogram.transform());
+    }
+
+    @Test
+    public void testLogLinearTransform() {
+        final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+
+        // 4 linear buckets of every power of 2 range, from 1 until the first one not less than 5.
+        final Histogram histogram = MeterFactory.histogram("test")
+                                                .minValue(1d)
+                                                .logLinear(5d, 3)
+                                                .tag("k1", "v1")
+                                                .build();
+        histogram.addValue(0.5);
+        histogram.addValue(1);
+        histogram.addValue(1.3);
+        histogram.addValue(2.4);
+        histogram.addValue(3.5);
+        histogram.addValue(4.9);
+        histogram.addValue(5);
+        histogram.addValue(100);
+        verifyHistogram(
+            "test", labels,
+            Arrays.asList(1d, 1.25d, 1.5d, 1.75d, 2d, 2.5d, 3d, 3.5d, 4d, 5d),
+            Arrays.asList(1L, 1L, 0L, 0L, 1L, 0L, 0L, 1L, 1L, 2L),
+            histogram.transform()
+        );
+    }
+
+    @Test
+    public void testTransformIfChanged() {
+        final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+
+        final Histogram histogram = MeterFactory.histogram("test")
+                                                .steps(Arrays.asList(2d, 5d))
+                                                .minValue(1d)
+                                                .tag("k1", "v1")
+                                                .build();
+        verifyHistogram(
+            "test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(0L, 0L, 0L), histogram.transformIfChanged(false));
+        Assert.assertNull(histogram.transformIfChanged(false));
+
+        histogram.addValue(3);
+        verifyHistogram(
+            "test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(0L, 1L, 0L), histogram.transformIfChanged(false));
+        Assert.assertNull(histogram.transformIfChanged(false));
+        verifyHistogram(
+            "test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(0L, 1L, 0L), histogram.transformIfChanged(true));
+    }
+
     /**
      * Check histogram message
      */
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The time of recording a value into the histograms and the counter, from 1 to 64 threads concurrently, see {@link
+ * #main(String[])}. The histograms have the same steps as the interceptor time cost histogram of the agent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MeterRecordingBenchmark {
+    private static final int[] THREADS = new int[] {1, 4, 16, 64};
+
+    private static final List<Double> STEPS = Arrays.asList(
+        0d, 1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
+        1000000d, 5000000d, 10000000d, 20000000d, 50000000d, 100000000d
+    );
+
+    @State(Scope.Benchmark)
+    public static class MeterState {
+        private final Histogram atomicHistogram = new Histogram(newMeterId(), STEPS);
+        private final Histogram stripedHistogram = new Histogram(newMeterId(), STEPS, true);
+        private final Histogram logLinearHistogram = new LogLinearHistogram(newMeterId(), 0, 100000000d, 8, true);
+        private final Counter counter = new Counter(newMeterId(), CounterMode.RATE);
+
+        private static MeterId newMeterId() {
+            return new MeterId("benchmark", MeterType.HISTOGRAM, Collections.emptyList());
+        }
+    }
+
+    @Benchmark
+    public void atomicHistogram(MeterState state) {
+        state.atomicHistogram.addValue(nextValue());
+    }
+
+    @Benchmark
+    public void stripedHistogram(MeterState state) {
+        state.stripedHistogram.addValue(nextValue());
+    }
+
+    @Benchmark
+    public void logLinearHistogram(MeterState state) {
+        state.logLinearHistogram.addValue(nextValue());
+    }
+
+    @Benchmark
+    public void counter(MeterState state) {
+        state.counter.increment(1);
+    }
+
+    @Benchmark
+    public void transformStripedHistogram(MeterState state, Blackhole bh) {
+        bh.consume(state.stripedHistogram.transform());
+    }
+
+    /**
+     * Most values are in the first few buckets, as the time costs of the interceptors.
+     */
+    private static double nextValue() {
+        return ThreadLocalRandom.current().nextInt(200000);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder().include(MeterRecordingBenchmark.class.getSimpleName())
+                                                  .threads(threads)
+                                                  .build();
+            new Runner(options).run();
+        }
+    }
+}
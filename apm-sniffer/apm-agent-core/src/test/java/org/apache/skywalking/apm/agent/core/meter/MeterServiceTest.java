@@ -24,9 +24,11 @@ import static org.mockito.Mockito.spy;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -160,6 +162,37 @@ public class MeterServiceTest {
         }
     }
 
+    @Test
+    public void testReportChangedOnly() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Meter.REPORT_CHANGED_ONLY = true;
+        try {
+            final MeterId counterId = new MeterId("test1", MeterType.COUNTER, Arrays.asList(new MeterTag("k1", "v1")));
+            final Counter counter = new Counter(counterId, CounterMode.INCREMENT);
+            final MeterId gaugeId = new MeterId("test2", MeterType.GAUGE, Arrays.asList(new MeterTag("k1", "v1")));
+            registryService.register(counter);
+            registryService.register(new Gauge(gaugeId, () -> 1d));
+
+            // The first report is a full report.
+            counter.increment(2);
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(2));
+
+            // Nothing changed.
+            upstreamMeters.clear();
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(0));
+
+            upstreamMeters.clear();
+            counter.increment(1);
+            registryService.run();
+            assertThat(upstreamMeters.size(), is(1));
+            isSameWithCounter(upstreamMeters.get(0), true, counterId, 3);
+        } finally {
+            Config.Meter.REPORT_CHANGED_ONLY = false;
+        }
+    }
+
     @Test
     public void testMeterSizeAndShutdown() throws Throwable {
         final Map<MeterId, BaseMeter> map = FieldGetter.getValue(registryService, "meterMap");
@@ -178,6 +211,94 @@ public class MeterServiceTest {
         assertThat(map.size(), is(0));
     }
 
+    @Test
+    public void testEvictIdleMeter() throws Throwable {
+        final int maxMeterSizePerName = Config.Meter.MAX_METER_SIZE_PER_NAME;
+        Config.Meter.MAX_METER_SIZE_PER_NAME = 2;
+        try {
+            final long idleTime = TimeUnit.SECONDS.toMillis(Config.Meter.IDLE_METER_TIMEOUT) + 1;
+            final Counter counter1 = registryService.register(newCounter("test", "v1"));
+            final Counter counter2 = registryService.register(newCounter("test", "v2"));
+            registryService.register(newCounter("other", "v1"));
+
+            // No idle meter to evict
+            final Counter counter3 = newCounter("test", "v3");
+            registryService.register(counter3);
+            assertThat(registeredMeters().contains(counter3), is(false));
+
+            // Evict the idle one of the same name
+            counter1.lastActiveTime -= idleTime;
+            assertThat(registryService.register(counter3), is(counter3));
+            assertThat(registeredMeters().contains(counter1), is(false));
+            assertThat(registeredMeters().size(), is(3));
+
+            // Register the evicted meter again when it records
+            counter3.lastActiveTime -= idleTime;
+            counter1.increment(1);
+            assertThat(registeredMeters().contains(counter1), is(true));
+            assertThat(registeredMeters().contains(counter2), is(true));
+            assertThat(registeredMeters().contains(counter3), is(false));
+        } finally {
+            Config.Meter.MAX_METER_SIZE_PER_NAME = maxMeterSizePerName;
+        }
+    }
+
+    @Test
+    public void testReviveRejectedMeter() throws Throwable {
+        final int maxMeterSizePerName = Config.Meter.MAX_METER_SIZE_PER_NAME;
+        Config.Meter.MAX_METER_SIZE_PER_NAME = 2;
+        try {
+            final long idleTime = TimeUnit.SECONDS.toMillis(Config.Meter.IDLE_METER_TIMEOUT) + 1;
+            final Counter counter1 = registryService.register(newCounter("test", "v1"));
+            final Counter counter2 = registryService.register(newCounter("test", "v2"));
+            counter1.lastActiveTime -= idleTime;
+            final Counter counter3 = registryService.register(newCounter("test", "v3"));
+            assertThat(registeredMeters().contains(counter1), is(false));
+
+            // No idle meter to evict, the evicted meter is rejected but stays evicted
+            counter1.increment(1);
+            assertThat(registeredMeters().contains(counter1), is(false));
+            assertThat(registeredMeters().size(), is(2));
+
+            // Register the evicted meter again once there is an idle one to evict
+            counter2.lastActiveTime -= idleTime;
+            counter1.increment(1);
+            assertThat(registeredMeters().contains(counter1), is(true));
+            assertThat(registeredMeters().contains(counter2), is(false));
+            assertThat(registeredMeters().contains(counter3), is(true));
+            assertThat(counter1.get(), is(2d));
+
+            // Not to replace the meter of the same id registered after the eviction
+            counter3.lastActiveTime -= idleTime;
+            final Counter newCounter2 = registryService.register(newCounter("test", "v2"));
+            counter2.increment(1);
+            assertThat(registeredMeters().contains(counter2), is(false));
+            assertThat(registeredMeters().contains(newCounter2), is(true));
+            assertThat(registryService.register(newCounter("test", "v2")), is(newCounter2));
+        } finally {
+            Config.Meter.MAX_METER_SIZE_PER_NAME = maxMeterSizePerName;
+        }
+    }
+
+    @Test
+    public void testInternTags() {
+        final Counter counter = registryService.register(newCounter("test1", "v1"));
+        final Counter other = registryService.register(newCounter("test2", "v1"));
+        assertThat(counter.getId().getTags() == other.getId().getTags(), is(true));
+        assertThat(counter.transformTags() == other.transformTags(), is(true));
+        assertThat(registryService.register(newCounter("test1", "v1")), is(counter));
+    }
+
+    private Counter newCounter(String name, String tagValue) {
+        return new Counter(
+            new MeterId(name, MeterType.COUNTER, Arrays.asList(new MeterTag("k1", tagValue))), CounterMode.INCREMENT);
+    }
+
+    private Collection<BaseMeter> registeredMeters() throws Throwable {
+        final Map<MeterId, BaseMeter> map = FieldGetter.getValue(registryService, "meterMap");
+        return map.values();
+    }
+
     /**
      * Check counter message
      */
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import net.bytebuddy.pool.TypePool;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BoundedCacheProviderTest {
+    @Test
+    public void testBoundedSize() {
+        BoundedCacheProvider provider = new BoundedCacheProvider(2);
+        TypePool.Resolution first = new TypePool.Resolution.Illegal("a");
+        assertThat(provider.register("a", first), sameInstance(first));
+        assertThat(provider.register("a", new TypePool.Resolution.Illegal("a")), sameInstance(first));
+        provider.register("b", new TypePool.Resolution.Illegal("b"));
+        TypePool.Resolution third = new TypePool.Resolution.Illegal("c");
+
+        assertThat(provider.register("c", third), sameInstance(third));
+        assertThat(provider.find("c"), nullValue());
+        assertThat(provider.size(), is(2));
+
+        provider.clear();
+        assertThat(provider.find("a"), nullValue());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+
+/**
+ * The time per class of matching the plugins at startup, through {@link PluginFinder}, against checking every {@link
+ * IndirectMatch} one by one as before. There are {@link #PLUGIN_COUNT} plugins of every kind of the prefix, hierarchy
+ * and class annotation matches, and the classes are {@link #CLASSES}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PluginFinderBenchmark {
+    private static final int PLUGIN_COUNT = 100;
+
+    private static final Class<?>[] CLASSES = new Class<?>[] {
+        String.class, Integer.class, Thread.class, java.util.ArrayList.class, java.util.HashMap.class,
+        java.util.LinkedList.class, java.util.TreeMap.class, java.util.concurrent.ConcurrentHashMap.class,
+        java.util.concurrent.ThreadPoolExecutor.class, java.util.concurrent.atomic.AtomicLong.class,
+        java.io.FileInputStream.class, java.io.BufferedReader.class, java.net.URL.class,
+        java.lang.reflect.Method.class, java.text.SimpleDateFormat.class, java.lang.StringBuilder.class
+    };
+
+    @State(Scope.Benchmark)
+    public static class MatchState {
+        private final List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<>();
+        private final TypeDescription[] types = new TypeDescription[CLASSES.length];
+        private final PluginFinder pluginFinder;
+        private final AgentBuilder.RawMatcher indexedMatcher;
+        private final ElementMatcher.Junction junctionMatcher;
+
+        public MatchState() {
+            for (int i = 0; i < PLUGIN_COUNT; i++) {
+                plugins.add(new PluginFinderTest.TestPluginDefine(nameStartsWith("com.example.prefix" + i + ".")));
+                plugins.add(new PluginFinderTest.TestPluginDefine(byHierarchyMatch("com.example.Base" + i)));
+                plugins.add(new PluginFinderTest.TestPluginDefine(byClassAnnotationMatch("com.example.Anno" + i)));
+            }
+            plugins.add(new PluginFinderTest.TestPluginDefine(byHierarchyMatch("java.util.AbstractMap")));
+            plugins.add(new PluginFinderTest.TestPluginDefine(nameStartsWith("java.util.concurrent.")));
+            for (int i = 0; i < CLASSES.length; i++) {
+                types[i] = TypeDescription.ForLoadedType.of(CLASSES[i]);
+            }
+            pluginFinder = new PluginFinder(plugins);
+            indexedMatcher = pluginFinder.buildMatch();
+
+            // The matcher built by the previous PluginFinder#buildMatch.
+            ElementMatcher.Junction junction = null;
+            for (AbstractClassEnhancePluginDefine plugin : plugins) {
+                ElementMatcher.Junction pluginJunction = ((IndirectMatch) plugin.enhanceClass()).buildJunction();
+                junction = junction == null ? pluginJunction : junction.or(pluginJunction);
+            }
+            junctionMatcher = not(isInterface()).and(junction);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void indexedFind(MatchState state, Blackhole bh) {
+        for (TypeDescription type : state.types) {
+            bh.consume(state.pluginFinder.find(type, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void linearFind(MatchState state, Blackhole bh) {
+        for (TypeDescription type : state.types) {
+            List<AbstractClassEnhancePluginDefine> matched = new ArrayList<>();
+            for (AbstractClassEnhancePluginDefine plugin : state.plugins) {
+                ClassMatch match = plugin.enhanceClass();
+                if (((IndirectMatch) match).isMatch(type)) {
+                    matched.add(plugin);
+                }
+            }
+            bh.consume(matched);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void indexedBuildMatch(MatchState state, Blackhole bh) {
+        for (TypeDescription type : state.types) {
+            bh.consume(state.indexedMatcher.matches(type, null, null, null, null));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(16)
+    public void junctionBuildMatch(MatchState state, Blackhole bh) {
+        for (TypeDescription type : state.types) {
+            bh.consume(state.junctionMatcher.matches(type));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder().include(PluginFinderBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
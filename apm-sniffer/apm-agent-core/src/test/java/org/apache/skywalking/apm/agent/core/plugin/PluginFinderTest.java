@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MatchTest;
+import org.apache.skywalking.apm.agent.core.plugin.match.MatchTestAnnotation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.NameMatch.byName;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+
+public class PluginFinderTest {
+    private final TestPluginDefine prefixPlugin = new TestPluginDefine(
+        nameStartsWith("java.util.concurrent.", "java.util.concurrent.atomic."));
+    private final TestPluginDefine hierarchyPlugin = new TestPluginDefine(
+        byHierarchyMatch(AbstractList.class.getName(), RandomAccess.class.getName()));
+    private final TestPluginDefine annotationPlugin = new TestPluginDefine(
+        byClassAnnotationMatch(MatchTestAnnotation.class.getName()));
+    private final TestPluginDefine regexPlugin = new TestPluginDefine(byRegexMatch(".*Repository.*"));
+    private final TestPluginDefine multiNamePlugin = new TestPluginDefine(
+        byMultiClassMatch(ArrayList.class.getName(), LinkedList.class.getName()));
+    private final TestPluginDefine namePlugin = new TestPluginDefine(byName(ArrayList.class.getName()));
+
+    private final List<AbstractClassEnhancePluginDefine> plugins = Arrays.asList(
+        prefixPlugin, hierarchyPlugin, annotationPlugin, regexPlugin, multiNamePlugin, namePlugin);
+    private final PluginFinder pluginFinder = new PluginFinder(plugins);
+
+    @Test
+    public void testFind() {
+        Assert.assertEquals(Arrays.asList(prefixPlugin), find(AtomicLong.class));
+        Assert.assertEquals(Arrays.asList(prefixPlugin), find(ConcurrentHashMap.class));
+        Assert.assertEquals(Arrays.asList(namePlugin, hierarchyPlugin, multiNamePlugin), find(ArrayList.class));
+        Assert.assertEquals(Arrays.asList(multiNamePlugin), find(LinkedList.class));
+        Assert.assertEquals(Arrays.asList(annotationPlugin), find(MatchTest.TestDao.class));
+        Assert.assertEquals(Arrays.asList(annotationPlugin, regexPlugin), find(MatchTest.TestRepository.class));
+        Assert.assertTrue(find(String.class).isEmpty());
+    }
+
+    @Test
+    public void testFindConsistentWithMatches() {
+        Class<?>[] classes = new Class<?>[] {
+            AtomicLong.class, ConcurrentHashMap.class, ArrayList.class, LinkedList.class, String.class,
+            MatchTest.TestService.class, MatchTest.TestDao.class, MatchTest.TestRepository.class
+        };
+        for (Class<?> clazz : classes) {
+            TypeDescription typeDescription = TypeDescription.ForLoadedType.of(clazz);
+            List<AbstractClassEnhancePluginDefine> expected = new ArrayList<>();
+            for (AbstractClassEnhancePluginDefine plugin : plugins) {
+                ClassMatch match = plugin.enhanceClass();
+                if (match instanceof IndirectMatch && ((IndirectMatch) match).isMatch(typeDescription)) {
+                    expected.add(plugin);
+                }
+            }
+            List<AbstractClassEnhancePluginDefine> found = pluginFinder.find(typeDescription, clazz.getClassLoader());
+            found.remove(namePlugin);
+            Assert.assertEquals(clazz.getName(), expected, found);
+        }
+    }
+
+    @Test
+    public void testBuildMatch() {
+        AgentBuilder.RawMatcher matcher = pluginFinder.buildMatch();
+        Assert.assertTrue(matches(matcher, ArrayList.class));
+        Assert.assertTrue(matches(matcher, MatchTest.TestDao.class));
+        Assert.assertFalse(matches(matcher, String.class));
+        Assert.assertFalse(matches(matcher, List.class));
+    }
+
+    @Test
+    public void testFindSuperTypesOfClassLoaders() {
+        TypeDescription hierarchyBase = new ByteBuddy().subclass(AbstractList.class)
+                                                       .implement(RandomAccess.class)
+                                                       .name("com.example.Base")
+                                                       .make()
+                                                       .getTypeDescription();
+        TypeDescription base = new ByteBuddy().subclass(Object.class)
+                                              .name("com.example.Base")
+                                              .make()
+                                              .getTypeDescription();
+        TypeDescription hierarchySub = new ByteBuddy().subclass(hierarchyBase)
+                                                      .name("com.example.Sub")
+                                                      .make()
+                                                      .getTypeDescription();
+        TypeDescription sub = new ByteBuddy().subclass(base).name("com.example.Sub").make().getTypeDescription();
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        ClassLoader otherClassLoader = new URLClassLoader(new URL[0]);
+
+        Assert.assertEquals(Arrays.asList(hierarchyPlugin), pluginFinder.find(hierarchySub, classLoader));
+        // The super types memoized for the other class loader are not used.
+        Assert.assertTrue(pluginFinder.find(sub, otherClassLoader).isEmpty());
+        Assert.assertTrue(pluginFinder.find(sub, null).isEmpty());
+        Assert.assertEquals(Arrays.asList(hierarchyPlugin), pluginFinder.find(hierarchySub, classLoader));
+    }
+
+    private List<AbstractClassEnhancePluginDefine> find(Class<?> clazz) {
+        return pluginFinder.find(TypeDescription.ForLoadedType.of(clazz), clazz.getClassLoader());
+    }
+
+    private static boolean matches(AgentBuilder.RawMatcher matcher, Class<?> clazz) {
+        return matcher.matches(TypeDescription.ForLoadedType.of(clazz), clazz.getClassLoader(), null, clazz, null);
+    }
+
+    static class TestPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        TestPluginDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return null;
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.ContextSnapshot;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstMethodsInter;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PluginSwitchTest {
+    private static final String PLUGIN_NAME = "switch-test";
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private final ClassLoader classLoader = PluginSwitchTest.class.getClassLoader();
+    private final Target target = new Target();
+    private Method method;
+
+    @Before
+    public void setUp() throws NoSuchMethodException {
+        method = Target.class.getMethod("getSkyWalkingDynamicField");
+    }
+
+    @After
+    public void tearDown() {
+        PluginSwitch.deactivate(Collections.emptySet());
+    }
+
+    @Test
+    public void testRunAfterMethodWhenDeactivatedInFlight() throws Throwable {
+        InstMethodsInter inter = new InstMethodsInter(PLUGIN_NAME, SpanInterceptor.class.getName(), classLoader);
+
+        Object ret = inter.intercept(target, new Object[0], () -> {
+            assertThat(ContextManager.isActive(), is(true));
+            PluginSwitch.deactivate(Collections.singleton(PLUGIN_NAME));
+            return "called";
+        }, method);
+
+        assertThat(ret, is("called"));
+        // The span opened by the before method is closed by the after method.
+        assertThat(ContextManager.isActive(), is(false));
+
+        inter.intercept(target, new Object[0], () -> {
+            assertThat(ContextManager.isActive(), is(false));
+            return null;
+        }, method);
+    }
+
+    @Test
+    public void testKeepInterceptingTraceStartedBeforeDeactivation() throws Throwable {
+        InstMethodsInter open = new InstMethodsInter(PLUGIN_NAME, OpenSpanInterceptor.class.getName(), classLoader);
+        InstMethodsInter close = new InstMethodsInter(PLUGIN_NAME, CloseSpanInterceptor.class.getName(), classLoader);
+        open.intercept(target, new Object[0], () -> null, method);
+        assertThat(ContextManager.isActive(), is(true));
+
+        PluginSwitch.deactivate(Collections.singleton(PLUGIN_NAME));
+        assertThat(PluginSwitch.of(PLUGIN_NAME).isActive(), is(true));
+
+        // The context continued in another thread keeps the interceptors running too.
+        ContextSnapshot snapshot = ContextManager.capture();
+        AtomicBoolean activeInContinuedContext = new AtomicBoolean();
+        Thread thread = new Thread(() -> {
+            ContextManager.createLocalSpan("/continued");
+            ContextManager.continued(snapshot);
+            activeInContinuedContext.set(PluginSwitch.of(PLUGIN_NAME).isActive());
+            ContextManager.stopSpan();
+        });
+        thread.start();
+        thread.join();
+        assertThat(activeInContinuedContext.get(), is(true));
+
+        // The span opened before the deactivation is closed by another interceptor.
+        close.intercept(target, new Object[0], () -> null, method);
+        assertThat(ContextManager.isActive(), is(false));
+
+        // The new traces skip the interceptors of the deactivated plugin.
+        assertThat(PluginSwitch.of(PLUGIN_NAME).isActive(), is(false));
+        open.intercept(target, new Object[0], () -> null, method);
+        assertThat(ContextManager.isActive(), is(false));
+
+        PluginSwitch.deactivate(Collections.emptySet());
+        assertThat(PluginSwitch.of(PLUGIN_NAME).isActive(), is(true));
+    }
+
+    public static class Target implements EnhancedInstance {
+        private Object dynamicField;
+
+        @Override
+        public Object getSkyWalkingDynamicField() {
+            return dynamicField;
+        }
+
+        @Override
+        public void setSkyWalkingDynamicField(Object value) {
+            this.dynamicField = value;
+        }
+    }
+
+    public static class SpanInterceptor implements InstanceMethodsAroundInterceptor {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInterceptResult result) {
+            ContextManager.createLocalSpan("/span");
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret) {
+            ContextManager.stopSpan();
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t) {
+        }
+    }
+
+    public static class OpenSpanInterceptor implements InstanceMethodsAroundInterceptor {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInterceptResult result) {
+            ContextManager.createLocalSpan("/open");
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret) {
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t) {
+        }
+    }
+
+    public static class CloseSpanInterceptor implements InstanceMethodsAroundInterceptor {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInterceptResult result) {
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret) {
+            ContextManager.stopSpan();
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t) {
+        }
+    }
+}
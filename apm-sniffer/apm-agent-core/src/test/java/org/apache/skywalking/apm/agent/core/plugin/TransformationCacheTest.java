@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.List;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassInjector;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceConstructorInterceptor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.StaticMethodsAroundInterceptor;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static net.bytebuddy.matcher.ElementMatchers.any;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TransformationCacheTest {
+    private static final String CLASS_NAME = "org.apache.skywalking.apm.test.CachedClass";
+    private static final String INTERNAL_NAME = CLASS_NAME.replace('.', '/');
+    private static final String TEMPLATE =
+        "org.apache.skywalking.apm.agent.core.plugin.bootstrap.template.InstanceMethodInterTemplate";
+    private static final String INTERCEPTOR = "org.apache.skywalking.apm.test.Interceptor";
+    private static final String DELEGATOR = INTERCEPTOR + "_internal";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private final ClassLoader classLoader = TransformationCacheTest.class.getClassLoader();
+    private final WitnessPluginDefine define = new WitnessPluginDefine();
+    private List<AbstractClassEnhancePluginDefine> defines;
+
+    @Before
+    public void setUp() throws Exception {
+        Config.Agent.TRANSFORM_CACHE_DIR = folder.getRoot().getAbsolutePath();
+        define.witnessClass = "java.lang.String";
+        defines = Collections.singletonList(define);
+        TransformationCache.INSTANCE.initialize(defines);
+    }
+
+    @After
+    public void tearDown() {
+        TransformationCache.INSTANCE.close();
+        Config.Agent.TRANSFORM_CACHE_DIR = "";
+    }
+
+    @Test
+    public void testServeEnhancedClassAfterRestart() throws Exception {
+        byte[] original = originalClassFile();
+        DynamicType enhanced = enhance();
+        transformAndSave(original, enhanced);
+
+        restart();
+        byte[] served = TransformationCache.INSTANCE.lookupTransformer()
+                                                    .transform(classLoader, INTERNAL_NAME, null, null, original);
+        assertThat(served, is(enhanced.getBytes()));
+        assertThat(TransformationCache.INSTANCE.isServed(CLASS_NAME), is(true));
+        TransformationCache.INSTANCE.storeTransformer().transform(classLoader, INTERNAL_NAME, null, null, served);
+        assertThat(TransformationCache.INSTANCE.isServed(CLASS_NAME), is(false));
+    }
+
+    @Test
+    public void testIgnoreChangedClassFile() throws Exception {
+        transformAndSave(originalClassFile(), enhance());
+
+        restart();
+        byte[] changed = new ByteBuddy().subclass(Object.class).name(CLASS_NAME).defineField("changed", int.class)
+                                        .make().getBytes();
+        ClassFileTransformer lookup = TransformationCache.INSTANCE.lookupTransformer();
+        assertThat(lookup.transform(classLoader, INTERNAL_NAME, null, null, changed), nullValue());
+    }
+
+    @Test
+    public void testIgnoreStaleWitness() throws Exception {
+        byte[] original = originalClassFile();
+        transformAndSave(original, enhance());
+
+        define.witnessClass = "org.apache.skywalking.apm.test.NotExistedWitness";
+        restart();
+        ClassFileTransformer lookup = TransformationCache.INSTANCE.lookupTransformer();
+        assertThat(lookup.transform(classLoader, INTERNAL_NAME, null, null, original), nullValue());
+
+        define.witnessClass = "java.lang.String";
+        assertThat(lookup.transform(classLoader, INTERNAL_NAME, null, null, original), nullValue());
+    }
+
+    @Test
+    public void testIgnoreEntriesOfChangedSettings() throws Exception {
+        initializeSettings("plugin.springannotation.classname_match_regex=.*Controller");
+        restart();
+        byte[] original = originalClassFile();
+        DynamicType enhanced = enhance();
+        transformAndSave(original, enhanced);
+
+        restart();
+        byte[] served = TransformationCache.INSTANCE.lookupTransformer()
+                                                    .transform(classLoader, INTERNAL_NAME, null, null, original);
+        assertThat(served, is(enhanced.getBytes()));
+        TransformationCache.INSTANCE.storeTransformer().transform(classLoader, INTERNAL_NAME, null, null, served);
+
+        initializeSettings("plugin.springannotation.classname_match_regex=.*Service");
+        restart();
+        ClassFileTransformer lookup = TransformationCache.INSTANCE.lookupTransformer();
+        assertThat(lookup.transform(classLoader, INTERNAL_NAME, null, null, original), nullValue());
+    }
+
+    @Test
+    public void testCacheDelegator() throws Exception {
+        TransformationCache cache = TransformationCache.INSTANCE;
+        assertThat(cache.findDelegator(DELEGATOR, TEMPLATE, "test", INTERCEPTOR), nullValue());
+
+        byte[] classFile = new byte[] {1, 2, 3};
+        cache.saveDelegator(DELEGATOR, TEMPLATE, "test", INTERCEPTOR, classFile);
+        cache.awaitSaved();
+        restart();
+        assertThat(cache.findDelegator(DELEGATOR, TEMPLATE, "test", INTERCEPTOR), is(classFile));
+        assertThat(cache.findDelegator(DELEGATOR, TEMPLATE, "other", INTERCEPTOR), nullValue());
+    }
+
+    @Test
+    public void testServePluginEnhancedClassAfterRestart() throws Exception {
+        GreeterPluginDefine greeterDefine = new GreeterPluginDefine();
+        greeterDefine.setPluginName("greeter");
+        defines = Collections.singletonList(greeterDefine);
+        restart();
+        ClassLoader targetClassLoader = new URLClassLoader(new URL[0], classLoader);
+        String className = Greeter.class.getName();
+        byte[] original = ClassFileLocator.ForClassLoader.read(Greeter.class);
+
+        DynamicType enhanced = greeterDefine.define(
+            TypeDescription.ForLoadedType.of(Greeter.class), new ByteBuddy().rebase(Greeter.class), targetClassLoader,
+            new EnhanceContext()
+        ).make();
+        // The delegates are created by the type initializer, rather than set at runtime.
+        assertThat(enhanced.hasAliveLoadedTypeInitializers(), is(false));
+        transformAndSave(className, targetClassLoader, original, enhanced);
+
+        restart();
+        byte[] served = TransformationCache.INSTANCE.lookupTransformer().transform(
+            targetClassLoader, className.replace('.', '/'), null, null, original);
+        assertThat(served, is(enhanced.getBytes()));
+
+        // The restored class runs the interceptors.
+        Class<?> restored = ClassInjector.UsingReflection.of(targetClassLoader)
+                                                         .injectRaw(Collections.singletonMap(className, served))
+                                                         .get(className);
+        Object greeter = restored.getConstructor().newInstance();
+        assertThat(((EnhancedInstance) greeter).getSkyWalkingDynamicField(), is("constructed"));
+        assertThat(restored.getMethod("greet", String.class).invoke(greeter, "cache"), is("Hello cache!"));
+        assertThat(restored.getMethod("greet").invoke(null), is("Hello!"));
+    }
+
+    private void transformAndSave(byte[] original, DynamicType enhanced) throws Exception {
+        transformAndSave(CLASS_NAME, classLoader, original, enhanced);
+    }
+
+    private void transformAndSave(String className, ClassLoader loader, byte[] original,
+                                  DynamicType enhanced) throws Exception {
+        TransformationCache cache = TransformationCache.INSTANCE;
+        String internalName = className.replace('.', '/');
+        assertThat(cache.lookupTransformer().transform(loader, internalName, null, null, original), nullValue());
+        cache.recordDefines(className, loader, defines);
+        cache.recordDynamicType(enhanced);
+        cache.storeTransformer().transform(loader, internalName, null, null, enhanced.getBytes());
+        cache.awaitSaved();
+    }
+
+    private void initializeSettings(String pluginSettings) {
+        SnifferConfigInitializer.initializeCoreConfig(
+            "agent.service_name=test,collector.backend_service=127.0.0.1:11800," + pluginSettings);
+        Config.Agent.TRANSFORM_CACHE_DIR = folder.getRoot().getAbsolutePath();
+    }
+
+    private void restart() {
+        TransformationCache.INSTANCE.close();
+        TransformationCache.INSTANCE.initialize(defines);
+    }
+
+    private static byte[] originalClassFile() {
+        return new ByteBuddy().subclass(Object.class).name(CLASS_NAME).make().getBytes();
+    }
+
+    private static DynamicType enhance() {
+        return new ByteBuddy().subclass(Object.class).name(CLASS_NAME).defineField("enhanced", int.class).make();
+    }
+
+    static class WitnessPluginDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private String witnessClass;
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return NameMatch.byName(CLASS_NAME);
+        }
+
+        @Override
+        protected String[] witnessClasses() {
+            return new String[] {witnessClass};
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return null;
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return null;
+        }
+    }
+
+    public static class Greeter {
+        public String greet(String name) {
+            return "Hello " + name;
+        }
+
+        public static String greet() {
+            return "Hello";
+        }
+    }
+
+    static class GreeterPluginDefine extends ClassEnhancePluginDefine {
+        @Override
+        protected ClassMatch enhanceClass() {
+            return NameMatch.byName(Greeter.class.getName());
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[] {
+                new ConstructorInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getConstructorMatcher() {
+                        return any();
+                    }
+
+                    @Override
+                    public String getConstructorInterceptor() {
+                        return GreeterConstructorInterceptor.class.getName();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[] {
+                new InstanceMethodsInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return named("greet");
+                    }
+
+                    @Override
+                    public String getMethodsInterceptor() {
+                        return GreeterInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return false;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public StaticMethodsInterceptPoint[] getStaticMethodsInterceptPoints() {
+            return new StaticMethodsInterceptPoint[] {
+                new StaticMethodsInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return named("greet");
+                    }
+
+                    @Override
+                    public String getMethodsInterceptor() {
+                        return GreeterInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return false;
+                    }
+                }
+            };
+        }
+    }
+
+    public static class GreeterConstructorInterceptor implements InstanceConstructorInterceptor {
+        @Override
+        public void onConstruct(EnhancedInstance objInst, Object[] allArguments) {
+            objInst.setSkyWalkingDynamicField("constructed");
+        }
+    }
+
+    public static class GreeterInterceptor implements InstanceMethodsAroundInterceptor, StaticMethodsAroundInterceptor {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInterceptResult result) {
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret) {
+            return ret + "!";
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t) {
+        }
+
+        @Override
+        public void beforeMethod(Class clazz, Method method, Object[] allArguments, Class<?>[] parameterTypes,
+                                 MethodInterceptResult result) {
+        }
+
+        @Override
+        public Object afterMethod(Class clazz, Method method, Object[] allArguments, Class<?>[] parameterTypes,
+                                  Object ret) {
+            return ret + "!";
+        }
+
+        @Override
+        public void handleMethodException(Class clazz, Method method, Object[] allArguments,
+                                          Class<?>[] parameterTypes, Throwable t) {
+        }
+    }
+}
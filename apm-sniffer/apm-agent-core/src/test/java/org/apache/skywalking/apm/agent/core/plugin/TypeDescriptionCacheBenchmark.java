@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.pool.TypePool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The time per class of describing the hierarchy of the classes at startup, as the hierarchy based plugins do, through
+ * the {@link TypeDescriptionCache} against the type pool per transformation of ByteBuddy by default.
+ * <p>
+ * The synthetic class path has {@link #CLASS_COUNT} application classes, which extend {@link #BASE_DEPTH} levels of the
+ * framework base classes and implement the framework interfaces, like the controllers and filters of a web app. Every
+ * iteration starts with a new class loader, so the cache is cold as at startup.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class TypeDescriptionCacheBenchmark {
+    private static final int CLASS_COUNT = 10000;
+    private static final int BASE_DEPTH = 8;
+    private static final int INTERFACE_COUNT = 4;
+
+    @State(Scope.Benchmark)
+    public static class ClassPathState {
+        private final String[] classNames = new String[CLASS_COUNT];
+        private final ClassFileLocator classFileLocator;
+        private final AgentBuilder.PoolStrategy cachedStrategy = TypeDescriptionCache.INSTANCE.poolStrategy();
+        private ClassLoader classLoader;
+
+        public ClassPathState() {
+            Map<String, byte[]> classFiles = new HashMap<>();
+            String[] interfaces = new String[INTERFACE_COUNT];
+            for (int i = 0; i < INTERFACE_COUNT; i++) {
+                interfaces[i] = "com/example/framework/Interface" + i;
+                classFiles.put(interfaces[i], classFile(
+                    interfaces[i], "java/lang/Object", Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT));
+            }
+            String superName = "java/lang/Object";
+            for (int i = 0; i < BASE_DEPTH; i++) {
+                String name = "com/example/framework/Base" + i;
+                classFiles.put(name, classFile(name, superName, Opcodes.ACC_ABSTRACT, interfaces[i % INTERFACE_COUNT]));
+                superName = name;
+            }
+            for (int i = 0; i < CLASS_COUNT; i++) {
+                String name = "com/example/app/Controller" + i;
+                classFiles.put(name, classFile(name, superName, 0, interfaces[i % INTERFACE_COUNT]));
+                classNames[i] = name.replace('/', '.');
+            }
+
+            Map<String, byte[]> binaryNamedClassFiles = new HashMap<>();
+            for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+                binaryNamedClassFiles.put(entry.getKey().replace('/', '.'), entry.getValue());
+            }
+            classFileLocator = new ClassFileLocator.Compound(
+                new ClassFileLocator.Simple(binaryNamedClassFiles), ClassFileLocator.ForClassLoader.ofSystemLoader());
+        }
+
+        @Setup(Level.Iteration)
+        public void newClassLoader() {
+            classLoader = new ClassLoader(null) {
+            };
+            TypeDescriptionCache.INSTANCE.expungeCollectedClassLoaders();
+        }
+
+        private static byte[] classFile(String name, String superName, int modifiers, String... interfaces) {
+            ClassWriter classWriter = new ClassWriter(0);
+            classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | modifiers, name, null, superName, interfaces);
+            classWriter.visitEnd();
+            return classWriter.toByteArray();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_COUNT)
+    public void typePoolPerTransformation(ClassPathState state, Blackhole bh) {
+        describeHierarchies(state, AgentBuilder.PoolStrategy.Default.FAST, bh);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLASS_COUNT)
+    public void typeDescriptionCache(ClassPathState state, Blackhole bh) {
+        describeHierarchies(state, state.cachedStrategy, bh);
+    }
+
+    private static void describeHierarchies(ClassPathState state, AgentBuilder.PoolStrategy poolStrategy,
+                                            Blackhole bh) {
+        for (String className : state.classNames) {
+            TypePool typePool = poolStrategy.typePool(state.classFileLocator, state.classLoader, className);
+            TypeDescription type = typePool.describe(className).resolve();
+            for (TypeDefinition current = type; current != null; current = current.getSuperClass()) {
+                bh.consume(current.getModifiers());
+                for (TypeDescription.Generic interfaceType : current.getInterfaces()) {
+                    bh.consume(interfaceType.asErasure().getModifiers());
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder().include(TypeDescriptionCacheBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.pool.TypePool;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypeDescriptionCacheTest {
+    private static final int REDEPLOY_TIMES = 100;
+
+    @Test
+    public void testSharedBudget() {
+        TypeDescriptionCache.Budget budget = new TypeDescriptionCache.Budget(2);
+        BoundedCacheProvider webapp = new BoundedCacheProvider(budget);
+        BoundedCacheProvider anotherWebapp = new BoundedCacheProvider(budget);
+
+        webapp.register("a", new TypePool.Resolution.Illegal("a"));
+        anotherWebapp.register("a", new TypePool.Resolution.Illegal("a"));
+        anotherWebapp.register("b", new TypePool.Resolution.Illegal("b"));
+        assertThat(anotherWebapp.find("b"), nullValue());
+        assertThat(anotherWebapp.size(), is(1));
+
+        // The budget returned by the cleared cache could be used by the others.
+        webapp.clear();
+        anotherWebapp.register("b", new TypePool.Resolution.Illegal("b"));
+        assertThat(anotherWebapp.size(), is(2));
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        TypeDescriptionCache.Budget budget = new TypeDescriptionCache.Budget(10);
+        BoundedCacheProvider provider = new BoundedCacheProvider(budget);
+
+        assertThat(provider.find("a"), nullValue());
+        provider.register("a", new TypePool.Resolution.Illegal("a"));
+        provider.find("a");
+        provider.find("a");
+
+        assertThat(budget.hits.sum(), is(2L));
+        assertThat(budget.misses.sum(), is(1L));
+    }
+
+    @Test
+    public void testCacheProviderWithoutSharedBudget() {
+        TypeDescriptionCache.Budget disabled = new TypeDescriptionCache.Budget(0);
+        BoundedCacheProvider webapp = TypeDescriptionCache.newCacheProvider(disabled);
+        BoundedCacheProvider anotherWebapp = TypeDescriptionCache.newCacheProvider(disabled);
+
+        for (int i = 0; i <= TypeDescriptionCache.MAX_RESOLUTIONS_PER_CLASS_LOADER; i++) {
+            webapp.register("a" + i, new TypePool.Resolution.Illegal("a" + i));
+        }
+        anotherWebapp.register("a", new TypePool.Resolution.Illegal("a"));
+
+        // Every class loader has a budget of its own.
+        assertThat(webapp.size(), is(TypeDescriptionCache.MAX_RESOLUTIONS_PER_CLASS_LOADER));
+        assertThat(webapp.find("a0"), not(nullValue()));
+        assertThat(anotherWebapp.find("a"), not(nullValue()));
+
+        // Otherwise, the budget is shared.
+        TypeDescriptionCache.Budget shared = new TypeDescriptionCache.Budget(1);
+        TypeDescriptionCache.newCacheProvider(shared).register("a", new TypePool.Resolution.Illegal("a"));
+        BoundedCacheProvider sharing = TypeDescriptionCache.newCacheProvider(shared);
+        sharing.register("b", new TypePool.Resolution.Illegal("b"));
+        assertThat(sharing.size(), is(0));
+    }
+
+    @Test
+    public void testCacheProviderPerClassLoader() {
+        ClassLoader webapp = newWebappClassLoader();
+        TypePool.CacheProvider provider = TypeDescriptionCache.INSTANCE.getCacheProvider(webapp);
+
+        assertThat(TypeDescriptionCache.INSTANCE.getCacheProvider(webapp), sameInstance(provider));
+        assertThat(TypeDescriptionCache.INSTANCE.getCacheProvider(newWebappClassLoader()), not(sameInstance(provider)));
+        assertThat(
+            TypeDescriptionCache.INSTANCE.getCacheProvider(null),
+            sameInstance(TypeDescriptionCache.INSTANCE.getCacheProvider(null))
+        );
+    }
+
+    @Test
+    public void testRedeployedClassLoadersAreCollected() throws Exception {
+        List<WeakReference<ClassLoader>> undeployed = new ArrayList<>();
+        for (int i = 0; i < REDEPLOY_TIMES; i++) {
+            ClassLoader webapp = newWebappClassLoader();
+            TypePool typePool = new TypePool.Default(
+                TypeDescriptionCache.INSTANCE.getCacheProvider(webapp),
+                ClassFileLocator.ForClassLoader.WeaklyReferenced.of(webapp),
+                TypePool.Default.ReaderMode.FAST
+            );
+            assertThat(typePool.describe(TypeDescriptionCacheTest.class.getName()).isResolved(), is(true));
+            undeployed.add(new WeakReference<>(webapp));
+        }
+
+        for (int i = 0; i < 100 && countAlive(undeployed) > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(countAlive(undeployed), is(0));
+
+        TypeDescriptionCache.INSTANCE.expungeCollectedClassLoaders();
+        assertThat(TypeDescriptionCache.INSTANCE.classLoaderSize() < REDEPLOY_TIMES, is(true));
+    }
+
+    private static ClassLoader newWebappClassLoader() {
+        return new URLClassLoader(new URL[0], TypeDescriptionCacheTest.class.getClassLoader());
+    }
+
+    private static int countAlive(List<WeakReference<ClassLoader>> references) {
+        int alive = 0;
+        for (WeakReference<ClassLoader> reference : references) {
+            if (reference.get() != null) {
+                alive++;
+            }
+        }
+        return alive;
+    }
+}
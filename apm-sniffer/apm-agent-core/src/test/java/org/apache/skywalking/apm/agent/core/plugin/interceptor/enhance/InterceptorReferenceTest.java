@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InterceptorReferenceTest {
+    private static final String NOT_EXISTED_INTERCEPTOR =
+        "org.apache.skywalking.apm.agent.core.plugin.NotExistedInterceptor";
+
+    @Rule
+    public AgentServiceRule serviceRule = new AgentServiceRule();
+
+    @Test
+    public void testLoadAtFirstInvocation() {
+        ClassLoader classLoader = InterceptorReferenceTest.class.getClassLoader();
+        InterceptorReference<Object> reference = new InterceptorReference<>(
+            "test-plugin", CountingInterceptor.class.getName(), classLoader, "inst");
+        assertThat(CountingInterceptor.CREATED.get(), is(0));
+
+        Object interceptor = reference.get();
+
+        assertThat(interceptor, instanceOf(CountingInterceptor.class));
+        assertThat(reference.get(), sameInstance(interceptor));
+        assertThat(CountingInterceptor.CREATED.get(), is(1));
+    }
+
+    @Test
+    public void testFailedOnlyOnce() {
+        CountingClassLoader classLoader = new CountingClassLoader(InterceptorReferenceTest.class.getClassLoader());
+        InterceptorReference<Object> reference = new InterceptorReference<>(
+            "test-plugin", NOT_EXISTED_INTERCEPTOR, classLoader, "inst");
+
+        assertThat(reference.get(), nullValue());
+        assertThat(reference.get(), nullValue());
+        assertThat(reference.get(), nullValue());
+
+        // The interceptor class is looked up through the target class loader only at the first time.
+        assertThat(classLoader.loads.get(), is(1));
+    }
+
+    /**
+     * Count the loads of the not existed interceptor, delegated by the agent class loader to the target one.
+     */
+    private static class CountingClassLoader extends ClassLoader {
+        private final AtomicInteger loads = new AtomicInteger();
+
+        private CountingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (NOT_EXISTED_INTERCEPTOR.equals(name)) {
+                loads.incrementAndGet();
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+
+    public static class CountingInterceptor {
+        private static final AtomicInteger CREATED = new AtomicInteger();
+
+        public CountingInterceptor() {
+            CREATED.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.AdviceInstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static net.bytebuddy.matcher.ElementMatchers.isMethod;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class InstMethodsAdviceTest {
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private Calculator calculator;
+    private Calculator overrideArgsCalculator;
+
+    @Before
+    public void setUp() throws Exception {
+        RecordingInterceptor.reset();
+        calculator = enhance(false);
+        overrideArgsCalculator = enhance(true);
+    }
+
+    @Test
+    public void testBeforeAndAfterMethod() {
+        assertThat(calculator.greet("skywalking"), is("Hello skywalking"));
+
+        assertThat(RecordingInterceptor.EVENTS, is(Arrays.asList("before:greet", "after:greet")));
+        assertThat(RecordingInterceptor.RETURNS, is(Arrays.<Object>asList("Hello skywalking")));
+        // The same context, with the object propagated from the before method.
+        assertThat(RecordingInterceptor.AFTER_CONTEXTS.get(0), sameInstance(RecordingInterceptor.BEFORE_CONTEXTS.get(0)));
+        assertThat(RecordingInterceptor.PROPAGATED, is(Arrays.<Object>asList("greet")));
+        assertThat(calculator.calls(), is(1));
+    }
+
+    @Test
+    public void testSkipOriginalMethod() {
+        RecordingInterceptor.skip = true;
+        RecordingInterceptor.skipWith = "skipped";
+        assertThat(calculator.greet("skywalking"), is("skipped"));
+        RecordingInterceptor.skipWith = 42;
+        assertThat(calculator.sum(1, 2), is(42));
+        RecordingInterceptor.skipWith = null;
+        calculator.run();
+
+        assertThat(calculator.calls(), is(0));
+        assertThat(RecordingInterceptor.EVENTS, is(Arrays.asList(
+            "before:greet", "after:greet", "before:sum", "after:sum", "before:run", "after:run")));
+        assertThat(RecordingInterceptor.RETURNS, is(Arrays.<Object>asList("skipped", 42, null)));
+    }
+
+    @Test
+    public void testOverrideArguments() {
+        RecordingInterceptor.overrideWith = "overridden";
+
+        assertThat(overrideArgsCalculator.greet("skywalking"), is("Hello overridden"));
+        // Not written back without overriding the arguments.
+        assertThat(calculator.greet("skywalking"), is("Hello skywalking"));
+    }
+
+    @Test
+    public void testHandleMethodException() {
+        try {
+            calculator.fail("boom");
+            fail("The exception should be rethrown.");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("boom"));
+            assertThat(RecordingInterceptor.EXCEPTIONS, is(Arrays.<Throwable>asList(e)));
+        }
+        assertThat(RecordingInterceptor.EVENTS, is(Arrays.asList("before:fail", "exception:fail", "after:fail")));
+        assertThat(calculator.calls(), is(1));
+    }
+
+    @Test
+    public void testPrimitiveAndVoidReturns() {
+        assertThat(calculator.sum(1, 2), is(3));
+        calculator.run();
+
+        assertThat(RecordingInterceptor.RETURNS, is(Arrays.<Object>asList(3, null)));
+        assertThat(calculator.calls(), is(2));
+    }
+
+    @Test
+    public void testReusePooledContexts() {
+        calculator.greet("first");
+        calculator.greet("second");
+        final MethodInvocationContext topContext = RecordingInterceptor.BEFORE_CONTEXTS.get(0);
+        assertThat(RecordingInterceptor.BEFORE_CONTEXTS.get(1), sameInstance(topContext));
+
+        // Released on the exceptional exit.
+        try {
+            calculator.fail("boom");
+            fail("The exception should be rethrown.");
+        } catch (IllegalStateException ignored) {
+        }
+        assertThat(RecordingInterceptor.BEFORE_CONTEXTS.get(2), sameInstance(topContext));
+
+        // Every depth of the recursion takes its own context.
+        RecordingInterceptor.reset();
+        assertThat(calculator.recurse(2), is(2));
+        final List<MethodInvocationContext> recursion = new ArrayList<>(RecordingInterceptor.BEFORE_CONTEXTS);
+        assertThat(recursion.size(), is(3));
+        assertThat(recursion.get(0), sameInstance(topContext));
+        assertThat(recursion.get(1), not(sameInstance(recursion.get(0))));
+        assertThat(recursion.get(2), not(sameInstance(recursion.get(1))));
+        assertThat(recursion.get(2), not(sameInstance(recursion.get(0))));
+        // Released in the reverse order.
+        assertThat(RecordingInterceptor.AFTER_CONTEXTS.get(0), sameInstance(recursion.get(2)));
+        assertThat(RecordingInterceptor.AFTER_CONTEXTS.get(2), sameInstance(recursion.get(0)));
+        assertThat(RecordingInterceptor.RETURNS, is(Arrays.<Object>asList(0, 1, 2)));
+
+        // Released by all depths on the exceptional exit of the recursion.
+        RecordingInterceptor.reset();
+        try {
+            calculator.recurseAndFail(2);
+            fail("The exception should be rethrown.");
+        } catch (IllegalStateException ignored) {
+        }
+        assertThat(RecordingInterceptor.BEFORE_CONTEXTS, is(recursion));
+        assertThat(RecordingInterceptor.EXCEPTIONS.size(), is(3));
+
+        RecordingInterceptor.reset();
+        calculator.recurse(1);
+        assertThat(RecordingInterceptor.BEFORE_CONTEXTS, is(recursion.subList(0, 2)));
+        // The released contexts have been reset.
+        assertThat(RecordingInterceptor.LEAKED.isEmpty(), is(true));
+        assertThat(topContext.getContext(), nullValue());
+        assertThat(topContext.isContinue(), is(true));
+
+        // The invocations deeper than the pool take their own contexts, and release the pooled ones.
+        RecordingInterceptor.reset();
+        assertThat(calculator.recurse(20), is(20));
+        assertThat(RecordingInterceptor.LEAKED.isEmpty(), is(true));
+        RecordingInterceptor.reset();
+        calculator.greet("last");
+        assertThat(RecordingInterceptor.BEFORE_CONTEXTS.get(0), sameInstance(topContext));
+    }
+
+    private static Calculator enhance(boolean overrideArgs) throws Exception {
+        final ClassLoader classLoader = InstMethodsAdviceTest.class.getClassLoader();
+        return (Calculator) new CalculatorPluginDefine(overrideArgs)
+            .define(TypeDescription.ForLoadedType.of(Target.class), new ByteBuddy().rebase(Target.class), classLoader,
+                    new EnhanceContext()
+            )
+            .make()
+            .load(classLoader, ClassLoadingStrategy.Default.CHILD_FIRST)
+            .getLoaded()
+            .getDeclaredConstructor()
+            .newInstance();
+    }
+
+    public interface Calculator {
+        String greet(String name);
+
+        int sum(int a, int b);
+
+        void run();
+
+        String fail(String message);
+
+        int recurse(int depth);
+
+        int recurseAndFail(int depth);
+
+        int calls();
+    }
+
+    public static class Target implements Calculator {
+        private int calls;
+
+        @Override
+        public String greet(String name) {
+            calls++;
+            return "Hello " + name;
+        }
+
+        @Override
+        public int sum(int a, int b) {
+            calls++;
+            return a + b;
+        }
+
+        @Override
+        public void run() {
+            calls++;
+        }
+
+        @Override
+        public String fail(String message) {
+            calls++;
+            throw new IllegalStateException(message);
+        }
+
+        @Override
+        public int recurse(int depth) {
+            calls++;
+            return depth == 0 ? 0 : recurse(depth - 1) + 1;
+        }
+
+        @Override
+        public int recurseAndFail(int depth) {
+            calls++;
+            if (depth == 0) {
+                throw new IllegalStateException("bottom");
+            }
+            return recurseAndFail(depth - 1);
+        }
+
+        @Override
+        public int calls() {
+            return calls;
+        }
+    }
+
+    static class CalculatorPluginDefine extends ClassInstanceMethodsEnhancePluginDefineV2 {
+        private final boolean overrideArgs;
+
+        CalculatorPluginDefine(boolean overrideArgs) {
+            this.overrideArgs = overrideArgs;
+            setPluginName("calculator");
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return NameMatch.byName(Target.class.getName());
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return null;
+        }
+
+        @Override
+        public InstanceMethodsInterceptV2Point[] getInstanceMethodsInterceptV2Points() {
+            return new InstanceMethodsInterceptV2Point[] {
+                new AdviceInstanceMethodsInterceptV2Point() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return isMethod().and(ElementMatchers.not(named("calls")));
+                    }
+
+                    @Override
+                    public String getMethodsInterceptorV2() {
+                        return RecordingInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return overrideArgs;
+                    }
+                }
+            };
+        }
+    }
+
+    public static class RecordingInterceptor implements InstanceMethodsAroundInterceptorV2 {
+        static final List<String> EVENTS = new ArrayList<>();
+        static final List<MethodInvocationContext> BEFORE_CONTEXTS = new ArrayList<>();
+        static final List<MethodInvocationContext> AFTER_CONTEXTS = new ArrayList<>();
+        static final List<Object> RETURNS = new ArrayList<>();
+        static final List<Throwable> EXCEPTIONS = new ArrayList<>();
+        /**
+         * The objects propagated from the before methods.
+         */
+        static final List<Object> PROPAGATED = new ArrayList<>();
+        /**
+         * The objects left by the former invocations in the acquired contexts.
+         */
+        static final List<Object> LEAKED = new ArrayList<>();
+        static boolean skip;
+        static Object skipWith;
+        static String overrideWith;
+
+        static void reset() {
+            EVENTS.clear();
+            BEFORE_CONTEXTS.clear();
+            AFTER_CONTEXTS.clear();
+            RETURNS.clear();
+            EXCEPTIONS.clear();
+            PROPAGATED.clear();
+            LEAKED.clear();
+            skip = false;
+            skipWith = null;
+            overrideWith = null;
+        }
+
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInvocationContext context) {
+            EVENTS.add("before:" + method.getName());
+            BEFORE_CONTEXTS.add(context);
+            if (context.getContext() != null || !context.isContinue()) {
+                LEAKED.add(context.getContext());
+            }
+            context.setContext(method.getName());
+            if (overrideWith != null && allArguments.length > 0 && allArguments[0] instanceof String) {
+                allArguments[0] = overrideWith;
+            }
+            if (skip) {
+                context.defineReturnValue(skipWith);
+            }
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret, MethodInvocationContext context) {
+            EVENTS.add("after:" + method.getName());
+            AFTER_CONTEXTS.add(context);
+            RETURNS.add(ret);
+            PROPAGATED.add(context.getContext());
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t, MethodInvocationContext context) {
+            EVENTS.add("exception:" + method.getName());
+            EXCEPTIONS.add(t);
+        }
+    }
+}
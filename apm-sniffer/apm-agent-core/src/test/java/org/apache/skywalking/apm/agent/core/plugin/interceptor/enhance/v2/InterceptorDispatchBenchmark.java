@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.SuperMethodCall;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstMethodsInter;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+
+/**
+ * The overhead per intercepted call of the method delegation by {@link InstMethodsInter} and {@link
+ * InstMethodsInterV2}, against the inlined advice by {@link InstMethodsAdviceInstaller}. The interceptors do nothing,
+ * the GC profiler shows the allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InterceptorDispatchBenchmark {
+    private static final String PLUGIN_NAME = "benchmark";
+
+    private Greeter origin;
+    private Greeter instMethodsInter;
+    private Greeter instMethodsInterV2;
+    private Greeter advice;
+    private String name = "skywalking";
+
+    @Setup
+    public void setup() throws Exception {
+        ServiceManager.INSTANCE.boot();
+        ClassLoader classLoader = InterceptorDispatchBenchmark.class.getClassLoader();
+        origin = new Target();
+        instMethodsInter = newInstance(new ByteBuddy().subclass(Target.class)
+                                                      .method(named("greet"))
+                                                      .intercept(MethodDelegation.to(new InstMethodsInter(
+                                                          PLUGIN_NAME, NoopInterceptor.class.getName(), classLoader))));
+        instMethodsInterV2 = newInstance(new ByteBuddy().subclass(Target.class)
+                                                        .method(named("greet"))
+                                                        .intercept(MethodDelegation.to(new InstMethodsInterV2(
+                                                            PLUGIN_NAME, NoopInterceptorV2.class.getName(), classLoader))));
+        DynamicType.Builder<?> builder = new ByteBuddy().subclass(Target.class)
+                                                        .method(named("greet"))
+                                                        .intercept(SuperMethodCall.INSTANCE);
+        advice = newInstance(InstMethodsAdviceInstaller.install(
+            builder, builder.toTypeDescription(),
+            TypeDescription.ForLoadedType.of(Target.class).getDeclaredMethods().filter(named("greet")),
+            PLUGIN_NAME, NoopInterceptorV2.class.getName(), "sw$benchmark", false, false
+        ));
+    }
+
+    @TearDown
+    public void tearDown() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    private static Greeter newInstance(DynamicType.Builder<?> builder) throws Exception {
+        return (Greeter) builder.make()
+                                .load(InterceptorDispatchBenchmark.class.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                                .getLoaded()
+                                .getDeclaredConstructor()
+                                .newInstance();
+    }
+
+    @Benchmark
+    public String origin() {
+        return origin.greet(name, 1);
+    }
+
+    @Benchmark
+    public String instMethodsInter() {
+        return instMethodsInter.greet(name, 1);
+    }
+
+    @Benchmark
+    public String instMethodsInterV2() {
+        return instMethodsInterV2.greet(name, 1);
+    }
+
+    @Benchmark
+    public String advice() {
+        return advice.greet(name, 1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(InterceptorDispatchBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    public interface Greeter {
+        String greet(String name, int times);
+    }
+
+    public static class Target implements Greeter, EnhancedInstance {
+        private Object dynamicField;
+
+        @Override
+        public String greet(String name, int times) {
+            return name;
+        }
+
+        @Override
+        public Object getSkyWalkingDynamicField() {
+            return dynamicField;
+        }
+
+        @Override
+        public void setSkyWalkingDynamicField(Object value) {
+            this.dynamicField = value;
+        }
+    }
+
+    public static class NoopInterceptor implements InstanceMethodsAroundInterceptor {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments, Class<?>[] argumentsTypes,
+                                 MethodInterceptResult result) {
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments, Class<?>[] argumentsTypes,
+                                  Object ret) {
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t) {
+        }
+    }
+
+    public static class NoopInterceptorV2 implements InstanceMethodsAroundInterceptorV2 {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments, Class<?>[] argumentsTypes,
+                                 MethodInvocationContext context) {
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments, Class<?>[] argumentsTypes,
+                                  Object ret, MethodInvocationContext context) {
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t, MethodInvocationContext context) {
+        }
+    }
+}
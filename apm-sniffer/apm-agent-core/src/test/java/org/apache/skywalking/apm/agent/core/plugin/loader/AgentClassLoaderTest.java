@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AgentClassLoaderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private AgentClassLoader classLoader;
+
+    @Before
+    public void setUp() {
+        classLoader = new AgentClassLoader(null, Collections.singletonList(folder.getRoot()));
+    }
+
+    @Test
+    public void testFindIndexedResources() throws IOException {
+        createJar("a-plugin.jar", "a.txt", "shared.txt");
+        createJar("b-plugin.jar", "b.txt", "shared.txt");
+        JarIndex.write(folder.getRoot());
+
+        assertThat(classLoader.findResource("a.txt").toString(), endsWith("a-plugin.jar!/a.txt"));
+        assertThat(classLoader.findResource("b.txt").toString(), endsWith("b-plugin.jar!/b.txt"));
+        assertThat(Collections.list(classLoader.findResources("shared.txt")).size(), is(2));
+        assertThat(classLoader.findResource("c.txt"), nullValue());
+    }
+
+    @Test
+    public void testScanJarsOnceIndexedEntryMissing() throws IOException {
+        createJar("a-plugin.jar", "present.txt");
+        JarIndex.write(folder.getRoot());
+        // The length and last modified time of the jar match the index, while the entries don't.
+        Path indexFile = new File(folder.getRoot(), JarIndex.INDEX_FILE_NAME).toPath();
+        String index = new String(Files.readAllBytes(indexFile), StandardCharsets.UTF_8);
+        Files.write(indexFile, index.replace("present.txt", "missing.txt").getBytes(StandardCharsets.UTF_8));
+
+        assertThat(classLoader.findResource("missing.txt"), nullValue());
+        assertThat(classLoader.findResource("present.txt").toString(), endsWith("a-plugin.jar!/present.txt"));
+        assertThat(Collections.list(classLoader.findResources("missing.txt")).isEmpty(), is(true));
+    }
+
+    private void createJar(String name, String... entries) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (String entry : entries) {
+                out.putNextEntry(new JarEntry(entry));
+                out.write(entry.getBytes());
+                out.closeEntry();
+            }
+        }
+    }
+}
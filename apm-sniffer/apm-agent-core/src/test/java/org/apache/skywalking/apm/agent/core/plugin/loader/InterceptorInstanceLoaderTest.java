@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptorReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class InterceptorInstanceLoaderTest {
+    private static final int REDEPLOY_TIMES = 100;
+    private static final long GC_TIMEOUT_MILLIS = 10_000;
+    private static final String PLUGIN_INTERCEPTOR = PluginInterceptor.class.getName();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<String> mount;
+
+    /**
+     * Mount a plugin jar of {@link PluginInterceptor}, which is only visible to the {@link AgentClassLoader}s, as the
+     * web app class loaders don't delegate to the class loader of the test.
+     */
+    @Before
+    public void setUp() throws Exception {
+        String entryName = PLUGIN_INTERCEPTOR.replace('.', '/').concat(".class");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(folder.newFile("test-plugin.jar")));
+             InputStream in = InterceptorInstanceLoaderTest.class.getClassLoader().getResourceAsStream(entryName)) {
+            out.putNextEntry(new JarEntry(entryName));
+            byte[] buffer = new byte[4096];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+            out.closeEntry();
+        }
+        mount = Config.Plugin.MOUNT;
+        Config.Plugin.MOUNT = Collections.singletonList(
+            AgentPackagePath.getPath().toPath().relativize(folder.getRoot().toPath()).toString());
+    }
+
+    @After
+    public void tearDown() {
+        Config.Plugin.MOUNT = mount;
+    }
+
+    @Test
+    public void testSingletonPerClassLoader() throws Exception {
+        WebappClassLoader webapp = new WebappClassLoader();
+        WebappClassLoader anotherWebapp = new WebappClassLoader();
+
+        Object interceptor = webapp.enhance(PLUGIN_INTERCEPTOR);
+
+        assertThat(interceptor.getClass().getClassLoader(), sameInstance(
+            (ClassLoader) InterceptorInstanceLoader.getPluginLoader(webapp)));
+        assertThat(webapp.enhance(PLUGIN_INTERCEPTOR), sameInstance(interceptor));
+        assertThat(InterceptorInstanceLoader.load(PLUGIN_INTERCEPTOR, webapp), sameInstance(interceptor));
+        assertThat(anotherWebapp.enhance(PLUGIN_INTERCEPTOR), not(sameInstance(interceptor)));
+    }
+
+    @Test
+    public void testKeepPluginLoaderAlongWithWebapp() throws Exception {
+        WebappClassLoader webapp = new WebappClassLoader();
+        try {
+            webapp.enhance(PLUGIN_INTERCEPTOR + "$Missing");
+            fail("The missing interceptor is loaded.");
+        } catch (ClassNotFoundException ignored) {
+        }
+        ReferenceQueue<AgentClassLoader> collected = new ReferenceQueue<>();
+        WeakReference<AgentClassLoader> pluginLoader = new WeakReference<>(
+            InterceptorInstanceLoader.getPluginLoader(webapp), collected);
+
+        // No interceptor is loaded by the plugin loader, while the enhanced class still holds it.
+        System.gc();
+        assertThat(collected.remove(500), nullValue());
+        assertThat(InterceptorInstanceLoader.getPluginLoader(webapp), sameInstance(pluginLoader.get()));
+    }
+
+    @Test
+    public void testRedeployedClassLoadersAreCollected() throws Exception {
+        ReferenceQueue<ClassLoader> undeployed = new ReferenceQueue<>();
+        List<WeakReference<ClassLoader>> webapps = new ArrayList<>();
+        for (int i = 0; i < REDEPLOY_TIMES; i++) {
+            webapps.add(deploy(undeployed));
+        }
+
+        System.gc();
+        for (int i = 0; i < REDEPLOY_TIMES; i++) {
+            assertThat(undeployed.remove(GC_TIMEOUT_MILLIS), notNullValue());
+        }
+        assertThat(webapps.get(0).get(), nullValue());
+
+        // The collected ones are expunged when the next web app is deployed.
+        new WebappClassLoader().enhance(PLUGIN_INTERCEPTOR);
+        assertThat(InterceptorInstanceLoader.size() < REDEPLOY_TIMES, is(true));
+    }
+
+    /**
+     * Deploy a web app, whose enhanced class holds the interceptor loaded by a child {@link AgentClassLoader}.
+     */
+    private static WeakReference<ClassLoader> deploy(ReferenceQueue<ClassLoader> undeployed) throws Exception {
+        WebappClassLoader webapp = new WebappClassLoader();
+        Object interceptor = webapp.enhance(PLUGIN_INTERCEPTOR);
+        assertThat(interceptor.getClass().getClassLoader().getParent(), sameInstance((ClassLoader) webapp));
+        return new WeakReference<>(webapp, undeployed);
+    }
+
+    /**
+     * The class loader of a web app, holding the delegates as the static fields of its enhanced classes do.
+     */
+    private static class WebappClassLoader extends URLClassLoader {
+        private final List<InterceptorReference<Object>> delegates = new ArrayList<>();
+
+        private WebappClassLoader() {
+            super(new URL[0], null);
+        }
+
+        private Object enhance(String interceptorClassName) throws Exception {
+            InterceptorReference<Object> delegate = new InterceptorReference<>(
+                "test-plugin", interceptorClassName, this, "inst");
+            delegates.add(delegate);
+            delegate.load();
+            return delegate.get();
+        }
+    }
+
+    public static class PluginInterceptor {
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class JarIndexTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        createJar("b-plugin.jar", "org/apache/skywalking/b/B.class", "skywalking-plugin.def");
+        createJar("a-plugin.jar", "org/apache/skywalking/a/A.class", "skywalking-plugin.def");
+
+        JarIndex.write(folder.getRoot());
+        JarIndex index = JarIndex.read(folder.getRoot());
+
+        assertThat(index.getJarFileNames(), is(Arrays.asList("a-plugin.jar", "b-plugin.jar")));
+        assertThat(
+            index.getEntryNames("a-plugin.jar"),
+            is(Arrays.asList("org/apache/skywalking/a/A.class", "skywalking-plugin.def"))
+        );
+    }
+
+    @Test
+    public void testIgnoreChangedJars() throws IOException {
+        createJar("a-plugin.jar", "org/apache/skywalking/a/A.class");
+        JarIndex.write(folder.getRoot());
+
+        createJar("b-plugin.jar", "org/apache/skywalking/b/B.class");
+        assertThat(JarIndex.read(folder.getRoot()), nullValue());
+
+        JarIndex.write(folder.getRoot());
+        createJar("b-plugin.jar", "org/apache/skywalking/b/B.class", "org/apache/skywalking/b/C.class");
+        assertThat(JarIndex.read(folder.getRoot()), nullValue());
+    }
+
+    @Test
+    public void testIgnoreModifiedJars() throws IOException {
+        createJar("a-plugin.jar", "org/apache/skywalking/a/A.class");
+        JarIndex.write(folder.getRoot());
+
+        // As if the jar is rebuilt with the same length.
+        File file = new File(folder.getRoot(), "a-plugin.jar");
+        assertThat(file.setLastModified(file.lastModified() - 60000), is(true));
+        assertThat(JarIndex.read(folder.getRoot()), nullValue());
+    }
+
+    @Test
+    public void testAbsentIndex() throws IOException {
+        createJar("a-plugin.jar", "org/apache/skywalking/a/A.class");
+        assertThat(JarIndex.read(folder.getRoot()), nullValue());
+    }
+
+    private void createJar(String name, String... entries) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (String entry : entries) {
+                out.putNextEntry(new JarEntry(entry));
+                out.write(entry.getBytes());
+                out.closeEntry();
+            }
+        }
+    }
+}
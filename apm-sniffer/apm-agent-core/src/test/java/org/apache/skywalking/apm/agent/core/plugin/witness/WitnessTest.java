@@ -27,8 +27,12 @@ import org.apache.skywalking.apm.agent.core.plugin.WitnessMethod;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * unit test for WitnessFinder
@@ -44,6 +48,23 @@ public class WitnessTest {
         Assert.assertTrue(finder.exist(className, this.getClass().getClassLoader()));
     }
 
+    @Test
+    public void testConcurrentWitnessClass() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                final String witnessClass = i % 2 == 0 ? className : className + "$NotExisted" + i;
+                results.add(executor.submit(() -> finder.exist(witnessClass, this.getClass().getClassLoader())));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Assert.assertEquals(i % 2 == 0, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testWitnessMethod() {
         ElementMatcher.Junction<MethodDescription> junction = ElementMatchers.named("foo")
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcServerRule;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class GRPCStreamReporterTest {
+
+    @Rule
+    public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
+
+    private final AtomicInteger openedStreams = new AtomicInteger();
+    private final List<SegmentObject> receivedSegments = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch completedStreams;
+
+    private GRPCStreamReporter<SegmentObject> reporter;
+
+    @Before
+    public void setUp() {
+        grpcServerRule.getServiceRegistry().addService(
+            new TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase() {
+                @Override
+                public StreamObserver<SegmentObject> collect(final StreamObserver<Commands> responseObserver) {
+                    openedStreams.incrementAndGet();
+                    return new StreamObserver<SegmentObject>() {
+                        @Override
+                        public void onNext(SegmentObject value) {
+                            receivedSegments.add(value);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            responseObserver.onNext(Commands.getDefaultInstance());
+                            responseObserver.onCompleted();
+                            completedStreams.countDown();
+                        }
+                    };
+                }
+            });
+        TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = TraceSegmentReportServiceGrpc.newStub(
+            grpcServerRule.getChannel());
+        reporter = new GRPCStreamReporter<>(
+            "segments",
+            (deadline, responseObserver) -> stub.withDeadlineAfter(deadline, TimeUnit.SECONDS)
+                                                .collect(responseObserver),
+            null
+        );
+    }
+
+    @After
+    public void tearDown() {
+        Config.Collector.GRPC_STREAM_ROTATE_PERIOD = 60;
+    }
+
+    @Test
+    public void testSendThroughOneStream() throws InterruptedException {
+        completedStreams = new CountDownLatch(1);
+        Assert.assertTrue(reporter.openIfNeeded());
+        for (int i = 0; i < 3; i++) {
+            SegmentObject segment = SegmentObject.newBuilder().setTraceSegmentId("segment-" + i).build();
+            Assert.assertTrue(reporter.send(segment, segment.getSerializedSize()));
+        }
+        Assert.assertFalse(reporter.openIfNeeded());
+        reporter.complete();
+
+        Assert.assertTrue(completedStreams.await(5, TimeUnit.SECONDS));
+        assertThat(openedStreams.get(), is(1));
+        assertThat(receivedSegments.size(), is(3));
+        assertThat(receivedSegments.get(2).getTraceSegmentId(), is("segment-2"));
+        Assert.assertTrue(reporter.openIfNeeded());
+    }
+
+    @Test
+    public void testRotateStream() throws InterruptedException {
+        Config.Collector.GRPC_STREAM_ROTATE_PERIOD = 0;
+        completedStreams = new CountDownLatch(2);
+        SegmentObject segment = SegmentObject.getDefaultInstance();
+        Assert.assertTrue(reporter.send(segment, segment.getSerializedSize()));
+        Assert.assertTrue(reporter.send(segment, segment.getSerializedSize()));
+        reporter.complete();
+
+        Assert.assertTrue(completedStreams.await(5, TimeUnit.SECONDS));
+        assertThat(openedStreams.get(), is(2));
+        assertThat(receivedSegments.size(), is(2));
+    }
+}
@@ -23,6 +23,7 @@ import io.grpc.stub.StreamObserver;
 import io.grpc.testing.GrpcServerRule;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -141,6 +142,45 @@ public class TraceSegmentServiceClientTest {
         assertThat(spanObject.getParentSpanId(), is(-1));
     }
 
+    @Test
+    public void testSendPreEncodedTraceSegment() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+
+        Config.Agent.PRE_ENCODE_SEGMENT = true;
+        try {
+            AbstractSpan firstEntrySpan = ContextManager.createEntrySpan("/testFirstEntry", null);
+            firstEntrySpan.setComponent(ComponentsDefine.TOMCAT);
+            Tags.HTTP.METHOD.set(firstEntrySpan, "GET");
+            Tags.URL.set(firstEntrySpan, "127.0.0.1:8080");
+            SpanLayer.asHttp(firstEntrySpan);
+            AbstractSpan asyncSpan = ContextManager.createLocalSpan("/testAsync").prepareForAsync();
+            ContextManager.stopSpan();
+            ContextManager.createExitSpan("/testExit", "127.0.0.1:3306").errorOccurred();
+            ContextManager.stopSpan();
+            ContextManager.stopSpan();
+            asyncSpan.tag("async", "true").asyncFinish();
+        } finally {
+            Config.Agent.PRE_ENCODE_SEGMENT = false;
+        }
+
+        Config.Agent.PRE_ENCODE_SEGMENT = true;
+        try {
+            serviceClient.consume(storage.getTraceSegments());
+        } finally {
+            Config.Agent.PRE_ENCODE_SEGMENT = false;
+        }
+
+        assertThat(upstreamSegments.size(), is(1));
+        SegmentObject traceSegmentObject = upstreamSegments.get(0);
+        assertThat(traceSegmentObject.getSpansCount(), is(3));
+        SegmentObject expectedSegmentObject = storage.getTraceSegments().get(0).transform();
+        assertThat(traceSegmentObject.getTraceId(), is(expectedSegmentObject.getTraceId()));
+        assertThat(traceSegmentObject.getTraceSegmentId(), is(expectedSegmentObject.getTraceSegmentId()));
+        // The async span is encoded when the segment finishes, so only the order of spans could be different.
+        assertThat(
+            new HashSet<>(traceSegmentObject.getSpansList()), is(new HashSet<>(expectedSegmentObject.getSpansList())));
+    }
+
     @Test
     public void testSendTraceSegmentWithException() throws InvalidProtocolBufferException, IllegalAccessException, NoSuchFieldException {
         grpcServerRule.getServiceRegistry().addService(serviceImplBase);
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.ContextSnapshot;
+import org.apache.skywalking.apm.agent.core.context.SW8CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.SW8ExtensionCarrierItem;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TailSamplingServiceTest {
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private TailSamplingService service;
+    /**
+     * The trace ids of the reported segments.
+     */
+    private final List<String> reportedTraces = new CopyOnWriteArrayList<>();
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config.TailSampling.ENABLE = true;
+        // the test decides the expired traces by itself
+        Config.TailSampling.DECISION_WINDOW = 60 * 1000;
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        Config.TailSampling.ENABLE = false;
+        Config.TailSampling.DECISION_WINDOW = 5000;
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        service = ServiceManager.INSTANCE.findService(TailSamplingService.class);
+        TracingContext.ListenerManager.add(segment -> reportedTraces.add(segment.getRelatedGlobalTrace().getId()));
+    }
+
+    @After
+    public void tearDown() {
+        service.shutdown();
+        Config.TailSampling.HEAP_BUDGET = 16 * 1024 * 1024;
+    }
+
+    @Test
+    public void testDecideWhenWindowExpires() {
+        final String traceId = finishTrace(span -> {
+        });
+        assertFalse(reportedTraces.contains(traceId));
+        assertTrue(service.getHeldBytes() > 0);
+
+        service.decideExpiredTraces(System.currentTimeMillis());
+        assertFalse(reportedTraces.contains(traceId));
+
+        service.decideExpiredTraces(System.currentTimeMillis() + Config.TailSampling.DECISION_WINDOW);
+        assertTrue(reportedTraces.contains(traceId));
+        assertEquals(0, service.getHeldBytes());
+    }
+
+    @Test
+    public void testReportSampledSegmentsImmediately() {
+        final String errorTrace = finishTrace(AbstractSpan::errorOccurred);
+        final String slowTrace = finishTrace(
+            span -> span.start(System.currentTimeMillis() - Config.TailSampling.SLOW_THRESHOLD - 1));
+        final String statusCodeTrace = finishTrace(span -> Tags.HTTP_RESPONSE_STATUS_CODE.set(span, 503));
+        final String okTrace = finishTrace(span -> Tags.HTTP_RESPONSE_STATUS_CODE.set(span, 200));
+
+        assertTrue(reportedTraces.contains(errorTrace));
+        assertTrue(reportedTraces.contains(slowTrace));
+        assertTrue(reportedTraces.contains(statusCodeTrace));
+        assertFalse(reportedTraces.contains(okTrace));
+    }
+
+    @Test
+    public void testReportHeldSegmentsOfSampledTrace() throws InterruptedException {
+        ContextManager.createEntrySpan("/parent", null);
+        final String traceId = ContextManager.getGlobalTraceId();
+        finishChildSegment(ContextManager.capture());
+        // the child segment is held
+        assertEquals(0, countReported(traceId));
+
+        ContextManager.activeSpan().errorOccurred();
+        ContextManager.stopSpan();
+        assertEquals(2, countReported(traceId));
+    }
+
+    @Test
+    public void testForceSampled() throws InterruptedException {
+        final String forcedTrace = finishTrace(span -> ContextManager.forceSampled());
+        assertTrue(reportedTraces.contains(forcedTrace));
+
+        // The upstream force sampled the trace
+        ContextManager.createEntrySpan("/downstream", carrier("1.1.1", "0- -1"));
+        ContextManager.stopSpan();
+        assertEquals(1, countReported("1.1.1"));
+
+        // A cross process reference doesn't mean the upstream has sampled the trace
+        ContextManager.createEntrySpan("/downstream", carrier("2.2.2", "0- "));
+        ContextManager.stopSpan();
+        assertEquals(0, countReported("2.2.2"));
+
+        // The force sampled flag propagates to the downstream segments in the other threads
+        ContextManager.createEntrySpan("/parent", null);
+        final String traceId = ContextManager.getGlobalTraceId();
+        ContextManager.forceSampled();
+        finishChildSegment(ContextManager.capture());
+        assertEquals(1, countReported(traceId));
+        ContextManager.stopSpan();
+        assertEquals(2, countReported(traceId));
+    }
+
+    @Test
+    public void testInjectForceSampled() {
+        ContextManager.createEntrySpan("/upstream", null);
+        ContextManager.forceSampled();
+        final ContextCarrier carrier = new ContextCarrier();
+        ContextManager.createExitSpan("/downstream", carrier, "127.0.0.1:8080");
+        CarrierItem next = carrier.items();
+        String extension = null;
+        while (next.hasNext()) {
+            next = next.next();
+            if (next.getHeadKey().equals(SW8ExtensionCarrierItem.HEADER_NAME)) {
+                extension = next.getHeadValue();
+            }
+        }
+        ContextManager.stopSpan();
+        ContextManager.stopSpan();
+        assertEquals("0- -1", extension);
+    }
+
+    @Test
+    public void testDecideOversizedSegmentImmediately() {
+        Config.TailSampling.HEAP_BUDGET = 1;
+        final String traceId = finishTrace(span -> {
+        });
+        assertTrue(reportedTraces.contains(traceId));
+        assertEquals(0, service.getHeldBytes());
+    }
+
+    @Test
+    public void testEvictUnsampledTracesFirst() throws Exception {
+        final String sampledTrace = finishTrace(AbstractSpan::errorOccurred);
+        final long sampledTraceSize = service.getHeldBytes();
+        final String oldestTrace = finishTrace(span -> {
+        });
+        final long traceSize = service.getHeldBytes() - sampledTraceSize;
+        final String olderTrace = finishTrace(span -> {
+        });
+        Config.TailSampling.HEAP_BUDGET = service.getHeldBytes() + traceSize / 2;
+
+        final String newTrace = finishTrace(span -> {
+        });
+        // Only the oldest unsampled trace is evicted, though the sampled one is older
+        assertTrue(reportedTraces.contains(oldestTrace));
+        assertFalse(reportedTraces.contains(olderTrace));
+        assertFalse(reportedTraces.contains(newTrace));
+        final Map<String, ?> traces = FieldGetter.getValue(service, "traces");
+        assertTrue(traces.containsKey(sampledTrace));
+        assertFalse(traces.containsKey(oldestTrace));
+        assertTrue(service.getHeldBytes() <= Config.TailSampling.HEAP_BUDGET);
+
+        // Evict the sampled trace, when there is no unsampled one
+        Config.TailSampling.HEAP_BUDGET = traceSize + sampledTraceSize / 2;
+        finishTrace(span -> {
+        });
+        assertTrue(reportedTraces.contains(olderTrace));
+        assertTrue(reportedTraces.contains(newTrace));
+        assertFalse(traces.containsKey(sampledTrace));
+    }
+
+    @Test
+    public void testNeverExceedHeapBudget() throws InterruptedException {
+        finishTrace(span -> {
+        });
+        final long traceSize = service.getHeldBytes();
+        service.decideExpiredTraces(Long.MAX_VALUE);
+        Config.TailSampling.HEAP_BUDGET = traceSize * 8;
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong maxHeldBytes = new AtomicLong();
+        final Thread monitor = new Thread(() -> {
+            while (running.get()) {
+                maxHeldBytes.accumulateAndGet(service.getHeldBytes(), Math::max);
+            }
+        });
+        monitor.start();
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    finishTrace(span -> {
+                    });
+                    maxHeldBytes.accumulateAndGet(service.getHeldBytes(), Math::max);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        running.set(false);
+        monitor.join();
+
+        assertTrue(maxHeldBytes.get() <= Config.TailSampling.HEAP_BUDGET);
+        service.decideExpiredTraces(Long.MAX_VALUE);
+        assertEquals(0, service.getHeldBytes());
+        assertEquals(801, new HashSet<>(reportedTraces).size());
+    }
+
+    @Test
+    public void testShutdownFlushes() {
+        final String traceId = finishTrace(span -> {
+        });
+        assertFalse(reportedTraces.contains(traceId));
+
+        service.shutdown();
+        assertTrue(reportedTraces.contains(traceId));
+        assertEquals(0, service.getHeldBytes());
+    }
+
+    private static String finishTrace(Consumer<AbstractSpan> decorator) {
+        final AbstractSpan span = ContextManager.createEntrySpan("/test", null);
+        decorator.accept(span);
+        final String traceId = ContextManager.getGlobalTraceId();
+        ContextManager.stopSpan();
+        return traceId;
+    }
+
+    private static void finishChildSegment(ContextSnapshot snapshot) throws InterruptedException {
+        final Thread child = new Thread(() -> {
+            ContextManager.createLocalSpan("/child");
+            ContextManager.continued(snapshot);
+            ContextManager.stopSpan();
+        });
+        child.start();
+        child.join();
+    }
+
+    private static ContextCarrier carrier(String traceId, String extension) {
+        final ContextCarrier carrier = new ContextCarrier();
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            if (next.getHeadKey().equals(SW8CarrierItem.HEADER_NAME)) {
+                next.setHeadValue("1-" + encode(traceId) + "-" + encode("1.2.3") + "-4-" + encode("service") + "-"
+                                      + encode("instance") + "-" + encode("/app") + "-" + encode("127.0.0.1:8080"));
+            } else if (next.getHeadKey().equals(SW8ExtensionCarrierItem.HEADER_NAME)) {
+                next.setHeadValue(extension);
+            }
+        }
+        return carrier;
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int countReported(String traceId) {
+        int count = 0;
+        for (String reported : reportedTraces) {
+            if (reported.equals(traceId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.apache.skywalking.apm.agent.core.meter.BaseMeter;
+import org.apache.skywalking.apm.agent.core.meter.Gauge;
+import org.apache.skywalking.apm.agent.core.meter.MeterId;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.apache.skywalking.apm.agent.core.meter.MeterTag;
+import org.apache.skywalking.apm.agent.core.meter.MeterType;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AgentSo11yTest {
+    @Rule
+    public AgentServiceRule serviceRule = new AgentServiceRule();
+
+    private static InterceptorOverhead EARLY_OVERHEAD;
+
+    @BeforeClass
+    public static void enhanceBeforeMeterServiceBoots() {
+        Config.Meter.INTERCEPTOR_OVERHEAD_ACTIVE = true;
+        Config.Meter.INTERCEPTOR_OVERHEAD_SAMPLE_INTERVAL = 1;
+        // The classes are enhanced before the MeterService boots, so the meters could not be registered yet.
+        EARLY_OVERHEAD = AgentSo11y.overheadOf("early-plugin", "TestInterceptor", "test.Target");
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        Config.Meter.INTERCEPTOR_OVERHEAD_ACTIVE = false;
+        Config.Meter.INTERCEPTOR_OVERHEAD_SAMPLE_INTERVAL = 16;
+        Config.Meter.INTERCEPTOR_OVERHEAD_MAX_INTERCEPT_POINTS = 20;
+    }
+
+    @Test
+    public void testRegisterOverheadMetersOnceMeterServiceBooted() throws Exception {
+        assertThat(EARLY_OVERHEAD, not(sameInstance(InterceptorOverhead.INACTIVE)));
+        assertThat(AgentSo11y.overheadOf("early-plugin", "TestInterceptor", "test.Target"), sameInstance(EARLY_OVERHEAD));
+        assertThat(isOverheadMeterRegistered("early-plugin"), is(true));
+
+        AgentSo11y.overheadOf("late-plugin", "TestInterceptor", "test.Target");
+        assertThat(isOverheadMeterRegistered("late-plugin"), is(true));
+    }
+
+    @Test
+    public void testRegisterOverheadMetersPerInterceptorAndInterceptPoint() throws Exception {
+        AgentSo11y.overheadOf("sum-plugin", "AInterceptor", "test.A").record(100, 0);
+        AgentSo11y.overheadOf("sum-plugin", "AInterceptor", "test.B").record(200, 0);
+        AgentSo11y.overheadOf("sum-plugin", "BInterceptor", "test.A").record(400, 0);
+
+        assertThat(overheadMeterValue("", "sum-plugin"), is(700d));
+        assertThat(overheadMeterValue("_of_interceptor", "sum-plugin", "AInterceptor"), is(300d));
+        assertThat(overheadMeterValue("_of_interceptor", "sum-plugin", "BInterceptor"), is(400d));
+        assertThat(overheadMeterValue("_of_intercept_point", "sum-plugin", "AInterceptor", "test.B"), is(200d));
+
+        // The intercept points over the limit are only accounted in the meters of their interceptors and plugins
+        Config.Meter.INTERCEPTOR_OVERHEAD_MAX_INTERCEPT_POINTS = 0;
+        AgentSo11y.overheadOf("sum-plugin", "AInterceptor", "test.C").record(800, 0);
+        assertThat(overheadMeterValue("_of_interceptor", "sum-plugin", "AInterceptor"), is(1100d));
+        assertThat(overheadMeterValue("_of_intercept_point", "sum-plugin", "AInterceptor", "test.C"), nullValue());
+    }
+
+    /**
+     * @return the value of the time cost meter, or null if not registered.
+     */
+    private static Double overheadMeterValue(String nameSuffix, String pluginName, String... names) throws Exception {
+        final List<MeterTag> tags = new ArrayList<>();
+        tags.add(new MeterTag("plugin_name", pluginName));
+        if (names.length > 0) {
+            tags.add(new MeterTag("interceptor", names[0]));
+        }
+        if (names.length > 1) {
+            tags.add(new MeterTag("intercept_point", names[1]));
+        }
+        final MeterService meterService = ServiceManager.INSTANCE.findService(MeterService.class);
+        final Map<MeterId, BaseMeter> meterMap = FieldGetter.getValue(meterService, "meterMap");
+        final Gauge gauge = (Gauge) meterMap.get(
+            new MeterId("interceptor_overhead_time_cost" + nameSuffix, MeterType.GAUGE, tags));
+        return gauge == null ? null : gauge.get();
+    }
+
+    private static boolean isOverheadMeterRegistered(String pluginName) throws Exception {
+        final MeterService meterService = ServiceManager.INSTANCE.findService(MeterService.class);
+        final Map<MeterId, BaseMeter> meterMap = FieldGetter.getValue(meterService, "meterMap");
+        for (MeterId meterId : meterMap.keySet()) {
+            if (!"interceptor_overhead_calls".equals(meterId.getName())) {
+                continue;
+            }
+            for (MeterTag tag : meterId.getTags()) {
+                if ("plugin_name".equals(tag.getKey()) && pluginName.equals(tag.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InterceptorOverheadTest {
+    @Rule
+    public AgentServiceRule serviceRule = new AgentServiceRule();
+
+    @After
+    public void tearDown() {
+        Config.Meter.INTERCEPTOR_OVERHEAD_ACTIVE = false;
+    }
+
+    @Test
+    public void testAccountAllInvocations() {
+        InterceptorOverhead overhead = new InterceptorOverhead("test-plugin", "TestInterceptor", "test.Target", true, 1, false);
+        for (int i = 0; i < 10; i++) {
+            boolean sampled = overhead.sample();
+            assertThat(sampled, is(true));
+            assertThat(overhead.allocatedBytes(sampled), is(0L));
+            overhead.record(100, 0);
+        }
+
+        assertThat(overhead.getCalls(), is(10L));
+        assertThat(overhead.getTimeCost(), is(1000L));
+        assertThat(overhead.getAllocatedBytes(), is(0L));
+    }
+
+    @Test
+    public void testScaleSampledInvocations() {
+        InterceptorOverhead overhead = new InterceptorOverhead("test-plugin", "TestInterceptor", "test.Target", true, 8, false);
+        int sampledCount = 0;
+        for (int i = 0; i < 80000; i++) {
+            if (overhead.sample()) {
+                sampledCount++;
+                overhead.record(100, 16);
+            }
+        }
+
+        assertThat(sampledCount > 5000 && sampledCount < 15000, is(true));
+        assertThat(overhead.getCalls(), is(sampledCount * 8L));
+        assertThat(overhead.getTimeCost(), is(sampledCount * 800L));
+        assertThat(overhead.getAllocatedBytes(), is(sampledCount * 128L));
+    }
+
+    @Test
+    public void testInactive() {
+        assertThat(AgentSo11y.overheadOf("test-plugin", "TestInterceptor", "test.Target"), sameInstance(InterceptorOverhead.INACTIVE));
+        for (int i = 0; i < 100; i++) {
+            assertThat(InterceptorOverhead.INACTIVE.sample(), is(false));
+        }
+    }
+
+    @Test
+    public void testOverheadPerInterceptPoint() {
+        Config.Meter.INTERCEPTOR_OVERHEAD_ACTIVE = true;
+
+        InterceptorOverhead overhead = AgentSo11y.overheadOf("test-plugin", "TestInterceptor", "test.Target");
+
+        assertThat(overhead, not(sameInstance(InterceptorOverhead.INACTIVE)));
+        assertThat(AgentSo11y.overheadOf("test-plugin", "TestInterceptor", "test.Target"), sameInstance(overhead));
+        assertThat(AgentSo11y.overheadOf("test-plugin", "AnotherInterceptor", "test.Target"), not(sameInstance(overhead)));
+        assertThat(AgentSo11y.overheadOf("test-plugin", "TestInterceptor", "test.Another"), not(sameInstance(overhead)));
+        AgentSo11y.dumpInterceptorOverhead();
+    }
+}
@@ -57,6 +57,10 @@ public class AgentServiceRule extends ExternalResource {
             listeners.set(TracingContext.ListenerManager.class,
                 new LinkedList<TracingContextListener>());
 
+            Field segmentHolder = TracingContext.ListenerManager.class.getDeclaredField("SEGMENT_HOLDER");
+            segmentHolder.setAccessible(true);
+            segmentHolder.set(TracingContext.ListenerManager.class, null);
+
             listeners = IgnoredTracerContext.ListenerManager.class.getDeclaredField("LISTENERS");
             listeners.setAccessible(true);
             listeners.set(IgnoredTracerContext.ListenerManager.class,
@@ -23,6 +23,7 @@ import java.security.ProtectionDomain;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.agent.builder.AgentBuilder;
@@ -54,6 +55,8 @@ import org.apache.skywalking.apm.agent.core.plugin.InstrumentDebuggingClass;
 import org.apache.skywalking.apm.agent.core.plugin.PluginBootstrap;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
+import org.apache.skywalking.apm.agent.core.plugin.TransformationCache;
+import org.apache.skywalking.apm.agent.core.plugin.TypeDescriptionCache;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
 import org.apache.skywalking.apm.agent.core.plugin.jdk9module.JDK9ModuleExporter;
@@ -74,6 +77,7 @@ public class SkyWalkingAgent {
      */
     public static void premain(String agentArgs, Instrumentation instrumentation) throws PluginException {
         final PluginFinder pluginFinder;
+        final long startTime = System.nanoTime();
         try {
             SnifferConfigInitializer.initializeCoreConfig(agentArgs);
         } catch (Exception e) {
@@ -91,8 +95,11 @@ public class SkyWalkingAgent {
             return;
         }
 
+        final long configuredTime = System.nanoTime();
         try {
-            pluginFinder = new PluginFinder(new PluginBootstrap().loadPlugins());
+            List<AbstractClassEnhancePluginDefine> pluginDefines = new PluginBootstrap().loadPlugins();
+            TransformationCache.INSTANCE.initialize(pluginDefines);
+            pluginFinder = new PluginFinder(pluginDefines);
         } catch (AgentPackageNotFoundException ape) {
             LOGGER.error(ape, "Locate agent.jar failure. Shutting down.");
             return;
@@ -101,17 +108,26 @@ public class SkyWalkingAgent {
             return;
         }
 
+        final long pluginLoadedTime = System.nanoTime();
         try {
             installClassTransformer(instrumentation, pluginFinder);
         } catch (Exception e) {
             LOGGER.error(e, "Skywalking agent installed class transformer failure.");
         }
 
+        final long transformerInstalledTime = System.nanoTime();
         try {
             ServiceManager.INSTANCE.boot();
         } catch (Exception e) {
             LOGGER.error(e, "Skywalking agent boot failure.");
         }
+        final long bootedTime = System.nanoTime();
+        LOGGER.info(
+            "SkyWalking agent started in {}ms, initialize config: {}ms, load plugins: {}ms, "
+                + "install transformer: {}ms, boot services: {}ms.",
+            millis(startTime, bootedTime), millis(startTime, configuredTime), millis(configuredTime, pluginLoadedTime),
+            millis(pluginLoadedTime, transformerInstalledTime), millis(transformerInstalledTime, bootedTime)
+        );
 
         Runtime.getRuntime()
                .addShutdownHook(new Thread(ServiceManager.INSTANCE::shutdown, "skywalking service shutdown thread"));
@@ -129,7 +145,8 @@ public class SkyWalkingAgent {
                 .or(nameContains(".reflectasm."))
                 .or(nameStartsWith("sun.reflect"))
                 .or(allSkyWalkingAgentExcludeToolkit())
-                .or(ElementMatchers.isSynthetic()));
+                .or(ElementMatchers.isSynthetic()))
+            .or(new ServedByTransformationCache());
 
         JDK9ModuleExporter.EdgeClasses edgeClasses = new JDK9ModuleExporter.EdgeClasses();
         try {
@@ -144,6 +161,10 @@ public class SkyWalkingAgent {
             throw new Exception("SkyWalking agent open read edge in JDK 9+ failure. Shutting down.", e);
         }
 
+        if (TransformationCache.INSTANCE.isEnabled()) {
+            instrumentation.addTransformer(TransformationCache.INSTANCE.lookupTransformer(), true);
+        }
+
         agentBuilder.type(pluginFinder.buildMatch())
                     .transform(new Transformer(pluginFinder))
                     .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
@@ -151,11 +172,19 @@ public class SkyWalkingAgent {
                     .with(new Listener())
                     .installOn(instrumentation);
 
+        if (TransformationCache.INSTANCE.isEnabled()) {
+            instrumentation.addTransformer(TransformationCache.INSTANCE.storeTransformer(), true);
+        }
+
         PluginFinder.pluginInitCompleted();
 
         LOGGER.info("Skywalking agent transformer has installed.");
     }
 
+    private static long millis(long startNanos, long endNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+    }
+
     /**
      * Create a new agent builder through customized {@link ByteBuddy} powered by
      * {@link SWAuxiliaryTypeNamingStrategy} {@link DelegateNamingResolver} {@link SWMethodNameTransformer} and {@link SWImplementationContextFactory}
@@ -167,8 +196,14 @@ public class SkyWalkingAgent {
                 .with(new SWImplementationContextFactory(NAME_TRAIT))
                 .with(new SWMethodGraphCompilerDelegate(MethodGraph.Compiler.DEFAULT));
 
-        return new SWAgentBuilderDefault(byteBuddy, new SWNativeMethodStrategy(NAME_TRAIT))
+        AgentBuilder agentBuilder = new SWAgentBuilderDefault(byteBuddy, new SWNativeMethodStrategy(NAME_TRAIT))
                 .with(new SWDescriptionStrategy(NAME_TRAIT));
+        if (Config.Plugin.TYPE_DESCRIPTION_CACHE_SIZE > 0) {
+            // The cached descriptions reference the class file locators, which must not hold the class loaders.
+            agentBuilder = agentBuilder.with(TypeDescriptionCache.INSTANCE.poolStrategy())
+                                       .with(AgentBuilder.LocationStrategy.ForClassLoader.WEAK);
+        }
+        return agentBuilder;
     }
 
     private static class Transformer implements AgentBuilder.Transformer {
@@ -185,8 +220,9 @@ public class SkyWalkingAgent {
                                                 final JavaModule javaModule,
                                                 final ProtectionDomain protectionDomain) {
             LoadedLibraryCollector.registerURLClassLoader(classLoader);
-            List<AbstractClassEnhancePluginDefine> pluginDefines = pluginFinder.find(typeDescription);
+            List<AbstractClassEnhancePluginDefine> pluginDefines = pluginFinder.find(typeDescription, classLoader);
             if (pluginDefines.size() > 0) {
+                TransformationCache.INSTANCE.recordDefines(typeDescription.getName(), classLoader, pluginDefines);
                 DynamicType.Builder<?> newBuilder = builder;
                 EnhanceContext context = new EnhanceContext();
                 for (AbstractClassEnhancePluginDefine define : pluginDefines) {
@@ -212,6 +248,21 @@ public class SkyWalkingAgent {
         return nameStartsWith("org.apache.skywalking.").and(not(nameStartsWith("org.apache.skywalking.apm.toolkit.")));
     }
 
+    /**
+     * Ignore the classes whose enhanced class files have been served by the {@link TransformationCache}.
+     */
+    private static class ServedByTransformationCache extends ElementMatcher.Junction.AbstractBase<TypeDescription> {
+        @Override
+        public boolean matches(TypeDescription target) {
+            return TransformationCache.INSTANCE.isServed(target.getName());
+        }
+
+        @Override
+        public String toString() {
+            return "servedByTransformationCache()";
+        }
+    }
+
     private static class Listener implements AgentBuilder.Listener {
         @Override
         public void onDiscovery(String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
@@ -229,6 +280,7 @@ public class SkyWalkingAgent {
             }
 
             InstrumentDebuggingClass.INSTANCE.log(dynamicType);
+            TransformationCache.INSTANCE.recordDynamicType(dynamicType);
         }
 
         @Override
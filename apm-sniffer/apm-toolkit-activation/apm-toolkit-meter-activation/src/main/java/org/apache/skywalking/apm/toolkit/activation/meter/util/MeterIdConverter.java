@@ -22,9 +22,9 @@ import org.apache.skywalking.apm.agent.core.meter.MeterId;
 import org.apache.skywalking.apm.agent.core.meter.MeterTag;
 import org.apache.skywalking.apm.agent.core.meter.MeterType;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class MeterIdConverter {
 
@@ -36,7 +36,10 @@ public class MeterIdConverter {
         MeterType type = convertType(id);
         List<MeterTag> tags = Collections.emptyList();
         if (id.getTags() != null) {
-            tags = id.getTags().stream().map(t -> new MeterTag(t.getName(), t.getValue())).collect(Collectors.toList());
+            tags = new ArrayList<>(id.getTags().size());
+            for (org.apache.skywalking.apm.toolkit.meter.MeterId.Tag tag : id.getTags()) {
+                tags.add(new MeterTag(tag.getName(), tag.getValue()));
+            }
         }
 
         return new MeterId(meterName, type, tags);
@@ -27,5 +27,10 @@ public class IgnoreConfig {
          * support multilevel directories
          */
         public static String IGNORE_PATH = "";
+
+        /**
+         * The max number of the cached matching results of the recent operation names, 0 means no cache.
+         */
+        public static int IGNORE_PATH_CACHE_SIZE = 1024;
     }
 }
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * All the ignore patterns compiled into one matcher, so the cost of matching an operation name doesn't grow with the
+ * number of the patterns.
+ * <p>
+ * The patterns without any wildcard are matched by a hash lookup. The others are indexed by a char trie of their
+ * literal prefixes, the chars before the first wildcard. Walking the trie along the path only finds the patterns whose
+ * literal prefixes are the prefixes of the path, and only the rest of them are matched by {@link FastPathMatcher}, so
+ * the matching result is the same as matching all the patterns one by one.
+ * <p>
+ * The recent verdicts of the operation names are cached in a bounded LRU cache. The matcher is immutable except for the
+ * cache, so a new matcher should be compiled when the patterns change, and the cached verdicts are dropped with the old
+ * one.
+ */
+public class CompiledPathMatcher {
+    private static final int CACHE_STRIPES = 16;
+
+    private final FastPathMatcher pathMatcher = new FastPathMatcher();
+    private final Set<String> literals = new HashSet<>();
+    private final Node root;
+    private final int size;
+    private final VerdictCache[] verdictCaches;
+
+    /**
+     * @param patterns  the ant style path patterns, see {@link FastPathMatcher}.
+     * @param cacheSize the max number of the cached verdicts, 0 means no cache.
+     */
+    public CompiledPathMatcher(String[] patterns, int cacheSize) {
+        NodeBuilder rootBuilder = new NodeBuilder();
+        for (String pattern : patterns) {
+            int wildcard = firstWildcard(pattern);
+            if (wildcard < 0) {
+                literals.add(pattern);
+                continue;
+            }
+            NodeBuilder builder = rootBuilder;
+            for (int i = 0; i < wildcard; i++) {
+                builder = builder.children.computeIfAbsent(pattern.charAt(i), c -> new NodeBuilder());
+            }
+            builder.patterns.add(pattern);
+        }
+        this.root = rootBuilder.build();
+        this.size = patterns.length;
+
+        if (cacheSize > 0) {
+            int stripes = Math.min(CACHE_STRIPES, cacheSize);
+            this.verdictCaches = new VerdictCache[stripes];
+            for (int i = 0; i < stripes; i++) {
+                verdictCaches[i] = new VerdictCache(Math.max(1, cacheSize / stripes));
+            }
+        } else {
+            this.verdictCaches = null;
+        }
+    }
+
+    /**
+     * @return true if the path matches any of the patterns.
+     */
+    public boolean match(String path) {
+        if (size == 0 || path == null) {
+            return false;
+        }
+        if (verdictCaches == null) {
+            return doMatch(path);
+        }
+        VerdictCache verdictCache = verdictCaches[(spread(path.hashCode()) & Integer.MAX_VALUE) % verdictCaches.length];
+        Boolean verdict = verdictCache.findVerdict(path);
+        if (verdict == null) {
+            verdict = doMatch(path);
+            verdictCache.cacheVerdict(path, verdict);
+        }
+        return verdict;
+    }
+
+    /**
+     * @return the number of the compiled patterns.
+     */
+    public int size() {
+        return size;
+    }
+
+    private boolean doMatch(String path) {
+        if (literals.contains(path)) {
+            return true;
+        }
+        Node node = root;
+        int depth = 0;
+        while (node != null) {
+            for (String pattern : node.patterns) {
+                if (pathMatcher.match(pattern, depth, path, depth)) {
+                    return true;
+                }
+            }
+            if (depth >= path.length()) {
+                return false;
+            }
+            node = node.child(path.charAt(depth));
+            depth++;
+        }
+        return false;
+    }
+
+    private static int firstWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int spread(int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /**
+     * The trie node of the literal prefixes, the children are sorted by their chars.
+     */
+    private static class Node {
+        private static final String[] NO_PATTERNS = new String[0];
+
+        private final char[] chars;
+        private final Node[] children;
+        /**
+         * The patterns whose literal prefixes end at this node.
+         */
+        private final String[] patterns;
+
+        private Node(char[] chars, Node[] children, String[] patterns) {
+            this.chars = chars;
+            this.children = children;
+            this.patterns = patterns;
+        }
+
+        private Node child(char c) {
+            int low = 0;
+            int high = chars.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (chars[middle] < c) {
+                    low = middle + 1;
+                } else if (chars[middle] > c) {
+                    high = middle - 1;
+                } else {
+                    return children[middle];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class NodeBuilder {
+        private final TreeMap<Character, NodeBuilder> children = new TreeMap<>();
+        private final List<String> patterns = new ArrayList<>(0);
+
+        private Node build() {
+            char[] chars = new char[children.size()];
+            Node[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> child : children.entrySet()) {
+                chars[i] = child.getKey();
+                nodes[i] = child.getValue().build();
+                i++;
+            }
+            return new Node(
+                chars, nodes, patterns.isEmpty() ? Node.NO_PATTERNS : patterns.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * A stripe of the LRU cache of the verdicts.
+     */
+    private static class VerdictCache extends LinkedHashMap<String, Boolean> {
+        private final int maxSize;
+
+        private VerdictCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        private synchronized Boolean findVerdict(String path) {
+            return get(path);
+        }
+
+        private synchronized void cacheVerdict(String path, Boolean verdict) {
+            put(path, verdict);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
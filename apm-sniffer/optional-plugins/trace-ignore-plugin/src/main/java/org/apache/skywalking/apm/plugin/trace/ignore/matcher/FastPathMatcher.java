@@ -24,6 +24,16 @@ public class FastPathMatcher implements TracePathMatcher {
         return normalMatch(pattern, 0, path, 0);
     }
 
+    /**
+     * Match the rest of the pattern and the path, the chars before the offsets have been matched.
+     *
+     * @param patternOffset the index of the pattern to start matching from.
+     * @param pathOffset    the index of the path to start matching from.
+     */
+    public boolean match(String pattern, int patternOffset, String path, int pathOffset) {
+        return normalMatch(pattern, patternOffset, path, pathOffset);
+    }
+
     private boolean normalMatch(String pat, int p, String str, int s) {
         while (p < pat.length()) {
             char pc = pat.charAt(p);
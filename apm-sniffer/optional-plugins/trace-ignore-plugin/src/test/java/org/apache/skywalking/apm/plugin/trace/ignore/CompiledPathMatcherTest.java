@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledPathMatcherTest {
+    private static final String[] PATTERNS = new String[] {
+        "/eureka/*", "/eureka/**", "/eureka/*/", "eureka/apps/?", "eureka/**/lists", "eureka/**/test/**",
+        "/eureka/**/b/**/*.txt", "abc/*", "/health", "/actuator/**", "**/*.css", "?ping", ""
+    };
+
+    private static final String[] PATHS = new String[] {
+        "/eureka/apps", "/eureka/", "/eureka/apps/", "/eureka/apps/list", "/eureka/test", "/eureka/apps/test/",
+        "eureka/apps/list", "eureka/apps/", "eureka/apps/a", "eureka/apps/lists", "eureka/apps/test/lists",
+        "eureka/apps/test", "eureka/apps/foo/test/list/bar/", "eureka/test/list",
+        "/eureka/a/aa/aaa/b/bb/bbb/xxxxxx.txt", "/eureka/a/aa/aaa/b/bb/bbb/xxxxxx", "abc/foo/bar", "abc/foo",
+        "/health", "/health/", "/healthz", "/actuator", "/actuator/", "/actuator/prometheus", "/static/app.css",
+        "app.css", "/ping", "ping", "", "/consul/apps", "GET:/users/{id}"
+    };
+
+    @Test
+    public void testSameAsMatchingOneByOne() {
+        FastPathMatcher fastPathMatcher = new FastPathMatcher();
+        for (int i = 0; i < PATTERNS.length; i++) {
+            String[] patterns = new String[] {PATTERNS[i]};
+            CompiledPathMatcher compiledPathMatcher = new CompiledPathMatcher(patterns, 0);
+            for (String path : PATHS) {
+                Assert.assertEquals(
+                    PATTERNS[i] + " " + path, fastPathMatcher.match(PATTERNS[i], path), compiledPathMatcher.match(path));
+            }
+        }
+
+        CompiledPathMatcher compiledPathMatcher = new CompiledPathMatcher(PATTERNS, 0);
+        for (String path : PATHS) {
+            boolean expected = false;
+            for (String pattern : PATTERNS) {
+                expected |= fastPathMatcher.match(pattern, path);
+            }
+            Assert.assertEquals(path, expected, compiledPathMatcher.match(path));
+        }
+    }
+
+    @Test
+    public void testCachedVerdicts() {
+        CompiledPathMatcher compiledPathMatcher = new CompiledPathMatcher(new String[] {"/eureka/**"}, 2);
+        for (int i = 0; i < 3; i++) {
+            for (String path : PATHS) {
+                Assert.assertEquals(path, path.startsWith("/eureka/"), compiledPathMatcher.match(path));
+            }
+        }
+        Assert.assertFalse(compiledPathMatcher.match(null));
+    }
+
+    @Test
+    public void testNoPatterns() {
+        CompiledPathMatcher compiledPathMatcher = new CompiledPathMatcher(new String[] {}, 16);
+        Assert.assertEquals(0, compiledPathMatcher.size());
+        Assert.assertFalse(compiledPathMatcher.match("/eureka/apps"));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The time per operation name of matching about 120 ignore patterns of the health checks, static assets and actuator
+ * endpoints, through the {@link CompiledPathMatcher} against matching the patterns one by one as before.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TraceIgnoreBenchmark {
+    private static final String[] OPERATION_NAMES = new String[] {
+        "GET:/api/v1/orders/{id}", "POST:/api/v1/orders", "/health", "/actuator/prometheus", "/static/js/app.js",
+        "GET:/api/v1/users/{id}/profile", "/eureka/apps/delta", "Mysql/JDBC/PreparedStatement/execute",
+        "/favicon.ico", "HikariCP/Connection/getConnection", "GET:/api/v2/inventory/items", "/readyz"
+    };
+
+    @State(Scope.Benchmark)
+    public static class PatternState {
+        private final String[] patterns;
+        private final TracePathMatcher fastPathMatcher = new FastPathMatcher();
+        private final CompiledPathMatcher compiledPathMatcher;
+        private final CompiledPathMatcher cachedPathMatcher;
+
+        public PatternState() {
+            List<String> patternList = new ArrayList<>();
+            for (String endpoint : new String[] {
+                "health", "info", "metrics", "prometheus", "env", "beans", "loggers", "threaddump", "heapdump",
+                "mappings", "configprops", "scheduledtasks", "httptrace", "caches", "conditions", "shutdown"
+            }) {
+                patternList.add("/actuator/" + endpoint);
+                patternList.add("/actuator/" + endpoint + "/**");
+                patternList.add("/manage/" + endpoint);
+            }
+            for (String probe : new String[] {
+                "/health", "/healthz", "/livez", "/readyz", "/ping", "/status", "/alive", "/ready", "/heartbeat",
+                "/version", "/monitor", "/check", "/lb-check", "/k8s/probe/**", "/nacos/**", "/consul/**",
+                "/eureka/**", "/swagger-ui/**", "/v2/api-docs", "/v3/api-docs/**", "/webjars/**", "/druid/**"
+            }) {
+                patternList.add(probe);
+            }
+            for (String asset : new String[] {
+                "css", "js", "png", "jpg", "jpeg", "gif", "svg", "ico", "woff", "woff2", "ttf", "map", "html", "txt"
+            }) {
+                patternList.add("/static/**/*." + asset);
+                patternList.add("/assets/**/*." + asset);
+                patternList.add("/public/**/*." + asset);
+                patternList.add("/*." + asset);
+            }
+            patternList.add("GET:/internal/**");
+            patternList.add("GET:/api/v?/ping");
+            patterns = patternList.toArray(new String[0]);
+            compiledPathMatcher = new CompiledPathMatcher(patterns, 0);
+            cachedPathMatcher = new CompiledPathMatcher(patterns, 1024);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(12)
+    public void linearScan(PatternState state, Blackhole bh) {
+        for (String operationName : OPERATION_NAMES) {
+            boolean matched = false;
+            for (String pattern : state.patterns) {
+                if (state.fastPathMatcher.match(pattern, operationName)) {
+                    matched = true;
+                    break;
+                }
+            }
+            bh.consume(matched);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(12)
+    public void compiled(PatternState state, Blackhole bh) {
+        for (String operationName : OPERATION_NAMES) {
+            bh.consume(state.compiledPathMatcher.match(operationName));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(12)
+    public void compiledWithCache(PatternState state, Blackhole bh) {
+        for (String operationName : OPERATION_NAMES) {
+            bh.consume(state.cachedPathMatcher.match(operationName));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder().include(TraceIgnoreBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathMatcher;
 import org.apache.skywalking.apm.util.ConfigInitializer;
 import org.apache.skywalking.apm.util.PropertyPlaceholderHelper;
 import org.junit.Assert;
@@ -51,11 +52,11 @@ public class TraceIgnoreTest {
     @Test
     public void testTraceIgnore() throws Exception {
         SamplingService service = ServiceManager.INSTANCE.findService(SamplingService.class);
-        Field patterns = TraceIgnoreExtendService.class.getDeclaredField("patterns");
-        patterns.setAccessible(true);
-        patterns.set(
+        Field ignorePathMatcher = TraceIgnoreExtendService.class.getDeclaredField("ignorePathMatcher");
+        ignorePathMatcher.setAccessible(true);
+        ignorePathMatcher.set(
             service,
-            new String[] {"/eureka/**"}
+            new CompiledPathMatcher(new String[] {"/eureka/**"}, 16)
         );
 
         Assert.assertFalse(service.trySampling("/eureka/apps"));
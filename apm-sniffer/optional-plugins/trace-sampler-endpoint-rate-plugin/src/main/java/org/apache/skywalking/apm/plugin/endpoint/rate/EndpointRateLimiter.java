@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.endpoint.rate;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per endpoint token buckets, refilled by {@link #reset()} at the beginning of every sampling window.
+ * <p>
+ * Every endpoint owns {@code minRate} tokens per window, so the rare endpoints are always sampled, however hot the
+ * others are. The rest of the {@code targetRate} is a shared pool, which is drawn by any endpoint after its own tokens
+ * run out. At every window, the shared pool is re-sized by the target rate minus the own tokens consumed in the last
+ * window, then the total sampled traces follow the target rate, unless the minimum rates of all endpoints exceed it.
+ * <p>
+ * The buckets are held in a {@link ConcurrentHashMap} and taken by CAS, no lock in the sampling path. At most
+ * {@code maxEndpoints} endpoints own their buckets, the others share one overflow bucket, and the buckets idle for
+ * {@link #MAX_IDLE_WINDOWS} windows are evicted.
+ */
+public class EndpointRateLimiter {
+    static final int MAX_IDLE_WINDOWS = 20;
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket overflowBucket;
+    private final AtomicInteger sharedTokens;
+    private final int maxEndpoints;
+    private volatile int targetRate;
+    private volatile int minRate;
+
+    public EndpointRateLimiter(int targetRate, int minRate, int maxEndpoints) {
+        this.targetRate = targetRate;
+        this.minRate = Math.max(0, minRate);
+        this.maxEndpoints = Math.max(0, maxEndpoints);
+        this.overflowBucket = new Bucket(this.minRate);
+        this.sharedTokens = new AtomicInteger(Math.max(0, targetRate));
+    }
+
+    /**
+     * @return true if a token of the endpoint or the shared pool is taken.
+     */
+    public boolean tryAcquire(String endpoint) {
+        Bucket bucket = findBucket(endpoint);
+        bucket.requests.increment();
+        return bucket.tryAcquire() || acquire(sharedTokens);
+    }
+
+    /**
+     * Take a shared token if there is one, for the trace sampled by force, to keep the total close to the target rate.
+     */
+    public void forceAcquire() {
+        acquire(sharedTokens);
+    }
+
+    public void updateRate(int targetRate, int minRate) {
+        this.targetRate = targetRate;
+        this.minRate = Math.max(0, minRate);
+    }
+
+    /**
+     * Start a new sampling window, refill the buckets and re-size the shared pool.
+     */
+    public void reset() {
+        final int min = minRate;
+        long consumedOwnTokens = 0;
+        final Iterator<Map.Entry<String, Bucket>> iterator = buckets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Bucket bucket = iterator.next().getValue();
+            final long requests = bucket.requests.sumThenReset();
+            if (requests == 0 && ++bucket.idleWindows > MAX_IDLE_WINDOWS) {
+                iterator.remove();
+                continue;
+            }
+            if (requests > 0) {
+                bucket.idleWindows = 0;
+            }
+            consumedOwnTokens += Math.min(min, requests);
+            bucket.tokens.set(min);
+        }
+        consumedOwnTokens += Math.min(min, overflowBucket.requests.sumThenReset());
+        overflowBucket.tokens.set(min);
+
+        sharedTokens.set((int) Math.max(0, targetRate - consumedOwnTokens));
+    }
+
+    int getEndpointCount() {
+        return buckets.size();
+    }
+
+    private Bucket findBucket(String endpoint) {
+        if (endpoint == null) {
+            return overflowBucket;
+        }
+        Bucket bucket = buckets.get(endpoint);
+        if (bucket == null) {
+            if (buckets.size() >= maxEndpoints) {
+                return overflowBucket;
+            }
+            bucket = buckets.computeIfAbsent(endpoint, key -> new Bucket(minRate));
+        }
+        return bucket;
+    }
+
+    private static boolean acquire(AtomicInteger tokens) {
+        int current;
+        while ((current = tokens.get()) > 0) {
+            if (tokens.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Bucket {
+        private final AtomicInteger tokens;
+        private final LongAdder requests = new LongAdder();
+        /**
+         * Only accessed by the thread resetting the window.
+         */
+        private int idleWindows;
+
+        private Bucket(int tokens) {
+            this.tokens = new AtomicInteger(tokens);
+        }
+
+        private boolean tryAcquire() {
+            return acquire(tokens);
+        }
+    }
+}
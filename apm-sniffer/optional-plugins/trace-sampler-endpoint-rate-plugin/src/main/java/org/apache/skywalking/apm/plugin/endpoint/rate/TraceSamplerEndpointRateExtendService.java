@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.endpoint.rate;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
+import org.apache.skywalking.apm.plugin.endpoint.rate.conf.TraceSamplerEndpointRatePluginConfig;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+
+/**
+ * Sample the traces by the token buckets of their first operation names, see {@link EndpointRateLimiter}, rather than
+ * one global counter, which could be exhausted by a few hot endpoints. Falls back to the {@link SamplingService} when
+ * {@link TraceSamplerEndpointRatePluginConfig.Plugin.EndpointRate#TARGET_N_PER_3_SECS} is not positive.
+ */
+@OverrideImplementor(SamplingService.class)
+public class TraceSamplerEndpointRateExtendService extends SamplingService {
+    private static final ILog LOGGER = LogManager.getLogger(TraceSamplerEndpointRateExtendService.class);
+
+    private volatile EndpointRateLimiter rateLimiter;
+    private volatile ScheduledFuture<?> scheduledFuture;
+
+    private EndpointRateWatcher targetRateWatcher;
+    private EndpointRateWatcher minRateWatcher;
+    private ScheduledExecutorService service;
+
+    @Override
+    public void prepare() {
+        super.prepare();
+    }
+
+    @Override
+    public void boot() {
+        super.boot();
+        service = Executors.newSingleThreadScheduledExecutor(
+            new DefaultNamedThreadFactory("EndpointRateSamplingService"));
+        targetRateWatcher = new EndpointRateWatcher(
+            "plugin.endpointrate.target_n_per_3_secs",
+            TraceSamplerEndpointRatePluginConfig.Plugin.EndpointRate.TARGET_N_PER_3_SECS, this
+        );
+        minRateWatcher = new EndpointRateWatcher(
+            "plugin.endpointrate.min_n_per_3_secs",
+            TraceSamplerEndpointRatePluginConfig.Plugin.EndpointRate.MIN_N_PER_3_SECS, this
+        );
+        ConfigurationDiscoveryService configurationDiscoveryService = ServiceManager.INSTANCE.findService(
+            ConfigurationDiscoveryService.class);
+        configurationDiscoveryService.registerAgentConfigChangeWatcher(targetRateWatcher);
+        configurationDiscoveryService.registerAgentConfigChangeWatcher(minRateWatcher);
+
+        handleEndpointRateChanged();
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void shutdown() {
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(true);
+        }
+        if (service != null) {
+            service.shutdown();
+        }
+        super.shutdown();
+    }
+
+    @Override
+    public boolean trySampling(final String operationName) {
+        final EndpointRateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            return limiter.tryAcquire(operationName);
+        }
+        return super.trySampling(operationName);
+    }
+
+    @Override
+    public void forceSampled() {
+        final EndpointRateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            limiter.forceAcquire();
+            return;
+        }
+        super.forceSampled();
+    }
+
+    /**
+     * Handle the target rate or the min rate changed.
+     */
+    synchronized void handleEndpointRateChanged() {
+        if (targetRateWatcher == null || minRateWatcher == null) {
+            // Not all watchers are created during booting.
+            return;
+        }
+        final int targetRate = targetRateWatcher.getRate();
+        final int minRate = minRateWatcher.getRate();
+        if (targetRate > 0) {
+            if (rateLimiter == null) {
+                EndpointRateLimiter limiter = new EndpointRateLimiter(
+                    targetRate, minRate, TraceSamplerEndpointRatePluginConfig.Plugin.EndpointRate.MAX_ENDPOINTS);
+                scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(
+                    limiter::reset, t -> LOGGER.error("unexpected exception.", t)), 3, 3, TimeUnit.SECONDS);
+                rateLimiter = limiter;
+                LOGGER.debug(
+                    "Endpoint rate sampling started. Sample {} traces in 3 seconds, at least {} per endpoint.",
+                    targetRate, minRate
+                );
+            } else {
+                rateLimiter.updateRate(targetRate, minRate);
+            }
+        } else if (rateLimiter != null) {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(true);
+            }
+            rateLimiter = null;
+        }
+    }
+}
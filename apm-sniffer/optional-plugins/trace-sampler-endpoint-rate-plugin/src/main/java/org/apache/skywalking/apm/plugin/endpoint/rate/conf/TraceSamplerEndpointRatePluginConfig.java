@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.endpoint.rate.conf;
+
+import org.apache.skywalking.apm.agent.core.boot.PluginConfig;
+
+public class TraceSamplerEndpointRatePluginConfig {
+    public static class Plugin {
+        @PluginConfig(root = TraceSamplerEndpointRatePluginConfig.class)
+        public static class EndpointRate {
+            /**
+             * The target number of sampled traces of all endpoints per 3 seconds. Negative or zero means the per
+             * endpoint sampler is off, and `agent.sample_n_per_3_secs` works as usual.
+             */
+            public static int TARGET_N_PER_3_SECS = -1;
+            /**
+             * The guaranteed number of sampled traces of every endpoint per 3 seconds.
+             */
+            public static int MIN_N_PER_3_SECS = 1;
+            /**
+             * The max number of endpoints holding their own token buckets, the others share one bucket.
+             */
+            public static int MAX_ENDPOINTS = 1000;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.endpoint.rate;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EndpointRateLimiterTest {
+
+    @Test
+    public void testRareEndpointNotStarved() {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(10, 1, 100);
+        int hotSampled = sample(limiter, "/hot", 1000);
+        Assert.assertTrue(limiter.tryAcquire("/rare"));
+        // The own token of the hot endpoint and the whole shared pool.
+        assertThat(hotSampled, is(11));
+        Assert.assertFalse(limiter.tryAcquire("/rare"));
+    }
+
+    @Test
+    public void testSharedPoolAdaptsToTarget() {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(10, 2, 100);
+        sample(limiter, "/a", 100);
+        sample(limiter, "/b", 100);
+        limiter.reset();
+
+        // Both endpoints consumed their 2 own tokens, the shared pool is 10 - 4.
+        int sampled = sample(limiter, "/a", 100) + sample(limiter, "/b", 100);
+        assertThat(sampled, is(10));
+    }
+
+    @Test
+    public void testMaxEndpoints() {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(0, 1, 2);
+        Assert.assertTrue(limiter.tryAcquire("/a"));
+        Assert.assertTrue(limiter.tryAcquire("/b"));
+        Assert.assertTrue(limiter.tryAcquire("/c"));
+        // The overflow bucket is shared by the endpoints out of the limit.
+        Assert.assertFalse(limiter.tryAcquire("/d"));
+        assertThat(limiter.getEndpointCount(), is(2));
+    }
+
+    @Test
+    public void testIdleEndpointEvicted() {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(10, 1, 100);
+        limiter.tryAcquire("/a");
+        limiter.reset();
+        for (int i = 0; i < EndpointRateLimiter.MAX_IDLE_WINDOWS; i++) {
+            limiter.reset();
+            assertThat(limiter.getEndpointCount(), is(1));
+        }
+        limiter.reset();
+        assertThat(limiter.getEndpointCount(), is(0));
+    }
+
+    @Test
+    public void testUpdateRate() {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(10, 1, 100);
+        limiter.updateRate(3, 0);
+        limiter.reset();
+        assertThat(sample(limiter, "/a", 100), is(3));
+    }
+
+    private static int sample(EndpointRateLimiter limiter, String endpoint, int times) {
+        int sampled = 0;
+        for (int i = 0; i < times; i++) {
+            if (limiter.tryAcquire(endpoint)) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+}
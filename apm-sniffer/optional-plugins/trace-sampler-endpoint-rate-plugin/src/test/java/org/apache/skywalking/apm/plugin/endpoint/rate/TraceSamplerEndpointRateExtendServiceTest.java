@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.endpoint.rate;
+
+import java.lang.reflect.Field;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.AgentConfigChangeWatcher;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
+import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class TraceSamplerEndpointRateExtendServiceTest {
+
+    @Rule
+    public AgentServiceRule serviceRule = new AgentServiceRule();
+
+    @Test
+    public void testServiceOverrideFromPlugin() {
+        SamplingService service = ServiceManager.INSTANCE.findService(SamplingService.class);
+        Assert.assertEquals(TraceSamplerEndpointRateExtendService.class, service.getClass());
+    }
+
+    @Test
+    public void testSamplingByEndpoint() throws Exception {
+        TraceSamplerEndpointRateExtendService service = (TraceSamplerEndpointRateExtendService) ServiceManager.INSTANCE
+            .findService(SamplingService.class);
+        // No sampling limit by default.
+        Assert.assertTrue(service.trySampling("/hot"));
+
+        Field watcherField = TraceSamplerEndpointRateExtendService.class.getDeclaredField("targetRateWatcher");
+        watcherField.setAccessible(true);
+        EndpointRateWatcher watcher = (EndpointRateWatcher) watcherField.get(service);
+        watcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent("1", AgentConfigChangeWatcher.EventType.MODIFY));
+
+        Assert.assertTrue(service.trySampling("/hot"));
+        Assert.assertTrue(service.trySampling("/hot"));
+        Assert.assertFalse(service.trySampling("/hot"));
+        Assert.assertTrue(service.trySampling("/rare"));
+
+        watcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(null, AgentConfigChangeWatcher.EventType.DELETE));
+        Assert.assertTrue(service.trySampling("/hot"));
+    }
+}
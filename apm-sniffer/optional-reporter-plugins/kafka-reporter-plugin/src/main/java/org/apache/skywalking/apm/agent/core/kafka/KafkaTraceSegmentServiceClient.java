@@ -27,16 +27,18 @@ import org.apache.kafka.common.utils.Bytes;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.RecyclingAwareListener;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
-import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.trace.TracingObjectRecycler;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.common.ConsumeSignal;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
@@ -45,7 +47,7 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SI
  * A tracing segment data reporter.
  */
 @OverrideImplementor(TraceSegmentServiceClient.class)
-public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, KafkaConnectionStatusListener {
+public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, RecyclingAwareListener, KafkaConnectionStatusListener {
     private static final ILog LOGGER = LogManager.getLogger(KafkaTraceSegmentServiceClient.class);
 
     private String topic;
@@ -62,8 +64,9 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
 
     @Override
     public void boot() {
-        carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
-        carrier.consume(this, 1);
+        carrier = new DataCarrier<>("DEFAULT", "DEFAULT", CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE, Config.Buffer.TYPE);
+        carrier.consume(this, 1, 20, Config.Buffer.SIGNAL_CONSUME ?
+            new ConsumeSignal(Config.Buffer.HIGH_WATER_MARK, Config.Buffer.MAX_LATENCY) : null);
     }
 
     @Override
@@ -88,17 +91,17 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             return;
         }
         data.forEach(traceSegment -> {
-            SegmentObject upstreamSegment = traceSegment.transform();
             ProducerRecord<String, Bytes> record = new ProducerRecord<>(
                 topic,
-                upstreamSegment.getTraceSegmentId(),
-                Bytes.wrap(upstreamSegment.toByteArray())
+                traceSegment.getTraceSegmentId(),
+                Bytes.wrap(traceSegment.encode())
             );
             producer.send(record, (m, e) -> {
                 if (Objects.nonNull(e)) {
                     LOGGER.error("Failed to report TraceSegment.", e);
                 }
             });
+            TracingObjectRecycler.recycle(traceSegment);
         });
     }
 
@@ -122,7 +125,10 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             LOGGER.debug("Trace[TraceId={}] is ignored.", traceSegment.getTraceSegmentId());
             return;
         }
-        carrier.produce(traceSegment);
+        TracingObjectRecycler.retain(traceSegment);
+        if (!carrier.produce(traceSegment)) {
+            TracingObjectRecycler.recycle(traceSegment);
+        }
     }
 
     @Override